@@ -0,0 +1,97 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bank statement auto-matching against a month of book entries on the bank's GL
+ * account. {@code bookEntries} is the number of entries the matcher scans per
+ * statement item; a miss walks all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankStatementMatchingBenchmark {
+
+    @Param({"100", "1000"})
+    public int bookEntries;
+
+    private List<JournalEntry> entries;
+    private Set<UUID> matched;
+    private BigDecimal hitAmount;
+    private LocalDate hitDate;
+    private String hitDescription;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        entries = new ArrayList<>(bookEntries);
+        matched = new HashSet<>();
+        for (int i = 0; i < bookEntries; i++) {
+            Transaction tx = new Transaction();
+            tx.setId(UUID.randomUUID());
+            tx.setTransactionDate(start.plusDays(random.nextInt(31)));
+            tx.setDescription("Pembayaran invoice INV-" + (10000 + i) + " pelanggan " + random.nextInt(200));
+
+            JournalEntry entry = new JournalEntry();
+            entry.setTransaction(tx);
+            BigDecimal amount = BigDecimal.valueOf(100_000L + random.nextInt(10_000_000));
+            if (random.nextBoolean()) {
+                entry.setDebitAmount(amount);
+            } else {
+                entry.setCreditAmount(amount);
+            }
+            entries.add(entry);
+
+            // A third of the month is already reconciled
+            if (i % 3 == 0) {
+                matched.add(tx.getId());
+            }
+        }
+
+        JournalEntry last = entries.getLast();
+        hitAmount = BankStatementMatcher.netAmount(last);
+        hitDate = last.getJournalDate().plusDays(1);
+        hitDescription = "TRF " + last.getDescription().split(" ")[2];
+    }
+
+    @Benchmark
+    public JournalEntry amountAndDateMiss() {
+        return BankStatementMatcher.findAmountAndDateMatch(entries, matched, BigDecimal.ONE, hitDate, 1);
+    }
+
+    @Benchmark
+    public JournalEntry amountAndDateLastEntry() {
+        return BankStatementMatcher.findAmountAndDateMatch(entries, matched, hitAmount, hitDate, 1);
+    }
+
+    @Benchmark
+    public JournalEntry keywordLastEntry() {
+        return BankStatementMatcher.findKeywordMatch(entries, matched, hitAmount, hitDate, hitDescription);
+    }
+}
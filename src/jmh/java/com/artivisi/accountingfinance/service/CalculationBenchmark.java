@@ -0,0 +1,128 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.PtkpStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure calculation paths used on every transaction, payroll run and receipt:
+ * template formulas, rounding residual absorption, PPh 21 (TER and progressive),
+ * BPJS contributions and receipt OCR parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculationBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12500000");
+    private static final BigDecimal MONTHLY_GROSS = new BigDecimal("15000000");
+    private static final List<String> SALE_FORMULAS = List.of("amount", "amount / 1.11", "amount / 1.11 * 0.11");
+
+    private static final String RECEIPT = """
+            Bank Jago Syariah
+            Transfer Berhasil
+            Penerima: PT Sumber Makmur
+            Tanggal: 12 Mar 2026 14:05
+            Rp 1.500.000
+            """;
+
+    private FormulaEvaluator formulaEvaluator;
+    private Pph21CalculationService pph21CalculationService;
+    private BpjsCalculationService bpjsCalculationService;
+    private ReceiptParserService receiptParserService;
+    private FormulaContext amountOnly;
+    private FormulaContext withVariables;
+
+    @Setup
+    public void setUp() {
+        formulaEvaluator = new FormulaEvaluator();
+        pph21CalculationService = new Pph21CalculationService();
+        bpjsCalculationService = new BpjsCalculationService();
+        receiptParserService = new ReceiptParserService();
+        amountOnly = FormulaContext.of(AMOUNT);
+        withVariables = FormulaContext.of(AMOUNT, Map.of(
+                "grossSalary", MONTHLY_GROSS,
+                "pph21", new BigDecimal("750000")));
+    }
+
+    @Benchmark
+    public BigDecimal formulaPassThrough() {
+        return formulaEvaluator.evaluate("amount", amountOnly);
+    }
+
+    @Benchmark
+    public BigDecimal formulaPpn() {
+        return formulaEvaluator.evaluate("amount * 0.11", amountOnly);
+    }
+
+    @Benchmark
+    public BigDecimal formulaConditionalPph23() {
+        return formulaEvaluator.evaluate("amount > 2000000 ? amount * 0.02 : 0", amountOnly);
+    }
+
+    @Benchmark
+    public BigDecimal formulaVariables() {
+        return formulaEvaluator.evaluate("grossSalary - pph21", withVariables);
+    }
+
+    /**
+     * A sale of 1.000.000 incl. PPN whose DPP and PPN lines round to one rupiah
+     * short of the gross. The lines are rebuilt on every call since absorption
+     * mutates them; the three allocations are part of the measured time.
+     */
+    @Benchmark
+    public List<JournalEntry> absorbRoundingResidual() {
+        List<JournalEntry> lines = List.of(
+                line(new BigDecimal("1000000"), BigDecimal.ZERO),
+                line(BigDecimal.ZERO, new BigDecimal("900901")),
+                line(BigDecimal.ZERO, new BigDecimal("99098")));
+        JournalBalancer.absorbRoundingResidual(lines, SALE_FORMULAS);
+        return lines;
+    }
+
+    @Benchmark
+    public void pph21Ter(Blackhole bh) {
+        bh.consume(pph21CalculationService.calculateTer(MONTHLY_GROSS, PtkpStatus.K_1));
+    }
+
+    @Benchmark
+    public void pph21Progressive(Blackhole bh) {
+        bh.consume(pph21CalculationService.calculate(MONTHLY_GROSS, PtkpStatus.K_1, true));
+    }
+
+    @Benchmark
+    public void bpjs(Blackhole bh) {
+        bh.consume(bpjsCalculationService.calculate(MONTHLY_GROSS, 2));
+    }
+
+    @Benchmark
+    public void parseReceipt(Blackhole bh) {
+        bh.consume(receiptParserService.parse(RECEIPT));
+    }
+
+    private static JournalEntry line(BigDecimal debit, BigDecimal credit) {
+        JournalEntry entry = new JournalEntry();
+        entry.setDebitAmount(debit);
+        entry.setCreditAmount(credit);
+        return entry;
+    }
+}
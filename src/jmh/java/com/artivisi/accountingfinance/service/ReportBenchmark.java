@@ -0,0 +1,101 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.AccountingFinanceApplication;
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.datagen.LedgerDataGenerator;
+import com.artivisi.accountingfinance.datagen.LedgerVolume;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Financial reports and the general ledger against a PostgreSQL container
+ * holding a year of generated ledger at {@code transactionsPerMonth}; 25000 is
+ * 100x the capacity-planning volume.
+ *
+ * Needs Docker, like the integration tests. The context starts once per fork
+ * with the test profile, so the report queries run against the same schema and
+ * test data as {@code ReportServiceTest}, plus the generated volume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"250", "2500", "25000"})
+    public int transactionsPerMonth;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private JournalEntryService journalEntryService;
+    private UUID cashAccountId;
+    private LocalDate today;
+    private LocalDate yearStart;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountingFinanceApplication.class, TestcontainersConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        reportService = context.getBean(ReportService.class);
+        journalEntryService = context.getBean(JournalEntryService.class);
+        today = LocalDate.now();
+        yearStart = today.withDayOfYear(1);
+        LedgerVolume volume = LedgerVolume.small().withMonths(12).withTransactionsPerMonth(transactionsPerMonth);
+        cashAccountId = new LedgerDataGenerator(context.getBean(DataSource.class)).generate(volume).bankAccountId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void trialBalance(Blackhole bh) {
+        bh.consume(reportService.generateTrialBalance(today));
+    }
+
+    @Benchmark
+    public void incomeStatement(Blackhole bh) {
+        bh.consume(reportService.generateIncomeStatement(yearStart, today));
+    }
+
+    @Benchmark
+    public void balanceSheet(Blackhole bh) {
+        bh.consume(reportService.generateBalanceSheet(today));
+    }
+
+    @Benchmark
+    public void cashFlow(Blackhole bh) {
+        bh.consume(reportService.generateCashFlowStatement(today.withDayOfMonth(1), today));
+    }
+
+    @Benchmark
+    public void generalLedgerFirstPage(Blackhole bh) {
+        bh.consume(journalEntryService.getGeneralLedgerPaged(
+                cashAccountId, yearStart, today, null, PageRequest.of(0, 50)));
+    }
+}
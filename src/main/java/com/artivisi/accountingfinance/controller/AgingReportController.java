@@ -1,8 +1,15 @@
 package com.artivisi.accountingfinance.controller;
 
+import com.artivisi.accountingfinance.dto.AgingDetailRow;
 import com.artivisi.accountingfinance.dto.AgingReport;
+import com.artivisi.accountingfinance.enums.AgingPeriod;
 import com.artivisi.accountingfinance.service.AgingReportService;
+import com.artivisi.accountingfinance.service.ClientService;
+import com.artivisi.accountingfinance.service.VendorService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -11,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 import static com.artivisi.accountingfinance.controller.ViewConstants.ATTR_CURRENT_PAGE;
 
@@ -18,7 +26,11 @@ import static com.artivisi.accountingfinance.controller.ViewConstants.ATTR_CURRE
 @RequiredArgsConstructor
 public class AgingReportController {
 
+    private static final String VIEW_AGING_DETAILS = "reports/aging-details";
+
     private final AgingReportService agingReportService;
+    private final ClientService clientService;
+    private final VendorService vendorService;
 
     @GetMapping("/reports/aging/receivables")
     @PreAuthorize("hasAuthority('REPORT_VIEW')")
@@ -51,4 +63,66 @@ public class AgingReportController {
 
         return "reports/aging-payables";
     }
+
+    @GetMapping("/reports/aging/receivables/details")
+    @PreAuthorize("hasAuthority('REPORT_VIEW')")
+    public String receivablesAgingDetails(
+            @RequestParam(required = false) UUID clientId,
+            @RequestParam(required = false) AgingPeriod period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+            @PageableDefault(size = 20) Pageable pageable,
+            Model model) {
+
+        LocalDate effectiveDate = asOfDate != null ? asOfDate : LocalDate.now();
+        Page<AgingDetailRow> details = agingReportService.findReceivablesDetails(
+                clientId, period, effectiveDate, pageable);
+
+        model.addAttribute(ATTR_CURRENT_PAGE, ViewConstants.PAGE_AGING_RECEIVABLES);
+        model.addAttribute("title", "Rincian Umur Piutang");
+        model.addAttribute("summaryTitle", "Umur Piutang");
+        model.addAttribute("tableTitle", "Invoice Belum Lunas");
+        model.addAttribute("summaryUrl", "/reports/aging/receivables");
+        model.addAttribute("detailUrl", "/reports/aging/receivables/details");
+        model.addAttribute("documentUrl", "/invoices/");
+        model.addAttribute("partyParam", "clientId");
+        model.addAttribute("partyId", clientId);
+        model.addAttribute("partyName", clientId != null ? clientService.findById(clientId).getName() : null);
+        model.addAttribute("period", period);
+        model.addAttribute("periods", AgingPeriod.values());
+        model.addAttribute("details", details);
+        model.addAttribute("asOfDate", effectiveDate);
+
+        return VIEW_AGING_DETAILS;
+    }
+
+    @GetMapping("/reports/aging/payables/details")
+    @PreAuthorize("hasAuthority('REPORT_VIEW')")
+    public String payablesAgingDetails(
+            @RequestParam(required = false) UUID vendorId,
+            @RequestParam(required = false) AgingPeriod period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate,
+            @PageableDefault(size = 20) Pageable pageable,
+            Model model) {
+
+        LocalDate effectiveDate = asOfDate != null ? asOfDate : LocalDate.now();
+        Page<AgingDetailRow> details = agingReportService.findPayablesDetails(
+                vendorId, period, effectiveDate, pageable);
+
+        model.addAttribute(ATTR_CURRENT_PAGE, ViewConstants.PAGE_AGING_PAYABLES);
+        model.addAttribute("title", "Rincian Umur Hutang");
+        model.addAttribute("summaryTitle", "Umur Hutang");
+        model.addAttribute("tableTitle", "Tagihan Belum Lunas");
+        model.addAttribute("summaryUrl", "/reports/aging/payables");
+        model.addAttribute("detailUrl", "/reports/aging/payables/details");
+        model.addAttribute("documentUrl", "/bills/");
+        model.addAttribute("partyParam", "vendorId");
+        model.addAttribute("partyId", vendorId);
+        model.addAttribute("partyName", vendorId != null ? vendorService.findById(vendorId).getName() : null);
+        model.addAttribute("period", period);
+        model.addAttribute("periods", AgingPeriod.values());
+        model.addAttribute("details", details);
+        model.addAttribute("asOfDate", effectiveDate);
+
+        return VIEW_AGING_DETAILS;
+    }
 }
@@ -246,7 +246,13 @@ public class AmortizationController {
 
     @PostMapping("/batch/process")
     public String processBatch(RedirectAttributes redirectAttributes) {
-        AmortizationBatchService.BatchResult result = batchService.processAutoPostEntries(LocalDate.now());
+        AmortizationBatchService.BatchResult result;
+        try {
+            result = batchService.processAutoPostEntries(LocalDate.now());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Batch gagal, tidak ada entry yang diposting: " + e.getMessage());
+            return "redirect:/amortization";
+        }
 
         if (result.hasErrors()) {
             redirectAttributes.addFlashAttribute("warningMessage",
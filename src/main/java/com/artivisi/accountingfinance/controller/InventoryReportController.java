@@ -6,6 +6,7 @@ import com.artivisi.accountingfinance.service.ProductCategoryService;
 import com.artivisi.accountingfinance.service.ProductService;
 import com.artivisi.accountingfinance.service.ReportExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +16,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -59,6 +61,7 @@ public class InventoryReportController {
     public String stockBalance(
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) LocalDate asOfDate,
             Model model) {
 
         model.addAttribute(ATTR_CURRENT_PAGE, PAGE_INVENTORY_REPORTS);
@@ -66,8 +69,8 @@ public class InventoryReportController {
         model.addAttribute(ATTR_CATEGORY_ID, categoryId);
         model.addAttribute("search", search);
         model.addAttribute(ATTR_CATEGORIES, categoryService.findAllActive());
-        model.addAttribute(ATTR_REPORT, reportService.generateStockBalanceReport(categoryId, search));
-        model.addAttribute(ATTR_AS_OF_DATE, LocalDate.now());
+        model.addAttribute(ATTR_REPORT, reportService.generateStockBalanceReport(categoryId, search, asOfDate));
+        model.addAttribute(ATTR_AS_OF_DATE, asOfDate != null ? asOfDate : LocalDate.now());
 
         return "inventory/reports/stock-balance";
     }
@@ -76,12 +79,13 @@ public class InventoryReportController {
     public String stockBalancePrint(
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) LocalDate asOfDate,
             Model model) {
 
         model.addAttribute(ATTR_CATEGORY_ID, categoryId);
         model.addAttribute("search", search);
-        model.addAttribute(ATTR_REPORT, reportService.generateStockBalanceReport(categoryId, search));
-        model.addAttribute(ATTR_AS_OF_DATE, LocalDate.now());
+        model.addAttribute(ATTR_REPORT, reportService.generateStockBalanceReport(categoryId, search, asOfDate));
+        model.addAttribute(ATTR_AS_OF_DATE, asOfDate != null ? asOfDate : LocalDate.now());
 
         return "inventory/reports/stock-balance-print";
     }
@@ -92,6 +96,8 @@ public class InventoryReportController {
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) UUID productId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
             Model model) {
 
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
@@ -105,7 +111,8 @@ public class InventoryReportController {
         model.addAttribute(ATTR_PRODUCT_ID, productId);
         model.addAttribute(ATTR_CATEGORIES, categoryService.findAllActive());
         model.addAttribute("products", productService.findAllActive());
-        model.addAttribute(ATTR_REPORT, reportService.generateStockMovementReport(start, end, categoryId, productId));
+        model.addAttribute(ATTR_REPORT, reportService.generateStockMovementPage(
+                start, end, categoryId, productId, PageRequest.of(page, size)));
 
         return "inventory/reports/stock-movement";
     }
@@ -133,14 +140,15 @@ public class InventoryReportController {
     @GetMapping("/valuation")
     public String inventoryValuation(
             @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) LocalDate asOfDate,
             Model model) {
 
         model.addAttribute(ATTR_CURRENT_PAGE, PAGE_INVENTORY_REPORTS);
         model.addAttribute(ATTR_REPORT_TYPE, "valuation");
         model.addAttribute(ATTR_CATEGORY_ID, categoryId);
         model.addAttribute(ATTR_CATEGORIES, categoryService.findAllActive());
-        model.addAttribute(ATTR_REPORT, reportService.generateValuationReport(categoryId));
-        model.addAttribute(ATTR_AS_OF_DATE, LocalDate.now());
+        model.addAttribute(ATTR_REPORT, reportService.generateValuationReport(categoryId, asOfDate));
+        model.addAttribute(ATTR_AS_OF_DATE, asOfDate != null ? asOfDate : LocalDate.now());
 
         return "inventory/reports/valuation";
     }
@@ -148,11 +156,12 @@ public class InventoryReportController {
     @GetMapping("/valuation/print")
     public String inventoryValuationPrint(
             @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) LocalDate asOfDate,
             Model model) {
 
         model.addAttribute(ATTR_CATEGORY_ID, categoryId);
-        model.addAttribute(ATTR_REPORT, reportService.generateValuationReport(categoryId));
-        model.addAttribute(ATTR_AS_OF_DATE, LocalDate.now());
+        model.addAttribute(ATTR_REPORT, reportService.generateValuationReport(categoryId, asOfDate));
+        model.addAttribute(ATTR_AS_OF_DATE, asOfDate != null ? asOfDate : LocalDate.now());
 
         return "inventory/reports/valuation-print";
     }
@@ -205,9 +214,10 @@ public class InventoryReportController {
     @GetMapping("/stock-balance/export/pdf")
     public ResponseEntity<byte[]> exportStockBalanceToPdf(
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) String search) {
-        LocalDate asOfDate = LocalDate.now();
-        InventoryReportService.StockBalanceReport report = reportService.generateStockBalanceReport(categoryId, search);
+            @RequestParam(required = false) String search,
+            @RequestParam(name = "asOfDate", required = false) LocalDate requestedDate) {
+        LocalDate asOfDate = requestedDate != null ? requestedDate : LocalDate.now();
+        InventoryReportService.StockBalanceReport report = reportService.generateStockBalanceReport(categoryId, search, requestedDate);
         byte[] pdfBytes = reportExportService.exportStockBalanceToPdf(report, asOfDate);
 
         String filename = "saldo-stok-" + asOfDate.format(FILE_DATE_FORMAT) + ".pdf";
@@ -220,9 +230,10 @@ public class InventoryReportController {
     @GetMapping("/stock-balance/export/excel")
     public ResponseEntity<byte[]> exportStockBalanceToExcel(
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) String search) {
-        LocalDate asOfDate = LocalDate.now();
-        InventoryReportService.StockBalanceReport report = reportService.generateStockBalanceReport(categoryId, search);
+            @RequestParam(required = false) String search,
+            @RequestParam(name = "asOfDate", required = false) LocalDate requestedDate) {
+        LocalDate asOfDate = requestedDate != null ? requestedDate : LocalDate.now();
+        InventoryReportService.StockBalanceReport report = reportService.generateStockBalanceReport(categoryId, search, requestedDate);
         byte[] excelBytes = reportExportService.exportStockBalanceToExcel(report, asOfDate);
 
         String filename = "saldo-stok-" + asOfDate.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
@@ -234,47 +245,44 @@ public class InventoryReportController {
 
     // Stock Movement Exports
     @GetMapping("/stock-movement/export/pdf")
-    public ResponseEntity<byte[]> exportStockMovementToPdf(
+    public ResponseEntity<StreamingResponseBody> exportStockMovementToPdf(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) UUID productId) {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
-        InventoryReportService.StockMovementReport report = reportService.generateStockMovementReport(start, end, categoryId, productId);
-        byte[] pdfBytes = reportExportService.exportStockMovementToPdf(report);
 
         String filename = "mutasi-stok-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + ".pdf";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(out -> reportExportService.writeStockMovementPdf(start, end, categoryId, productId, out));
     }
 
     @GetMapping("/stock-movement/export/excel")
-    public ResponseEntity<byte[]> exportStockMovementToExcel(
+    public ResponseEntity<StreamingResponseBody> exportStockMovementToExcel(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) UUID categoryId,
             @RequestParam(required = false) UUID productId) {
         LocalDate start = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
-        InventoryReportService.StockMovementReport report = reportService.generateStockMovementReport(start, end, categoryId, productId);
-        byte[] excelBytes = reportExportService.exportStockMovementToExcel(report);
 
         String filename = "mutasi-stok-" + start.format(FILE_DATE_FORMAT) + "-" + end.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME_PREFIX + filename + "\"")
                 .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
-                .body(excelBytes);
+                .body(out -> reportExportService.writeStockMovementExcel(start, end, categoryId, productId, out));
     }
 
     // Valuation Exports
     @GetMapping("/valuation/export/pdf")
     public ResponseEntity<byte[]> exportValuationToPdf(
-            @RequestParam(required = false) UUID categoryId) {
-        LocalDate asOfDate = LocalDate.now();
-        InventoryReportService.ValuationReport report = reportService.generateValuationReport(categoryId);
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(name = "asOfDate", required = false) LocalDate requestedDate) {
+        LocalDate asOfDate = requestedDate != null ? requestedDate : LocalDate.now();
+        InventoryReportService.ValuationReport report = reportService.generateValuationReport(categoryId, requestedDate);
         byte[] pdfBytes = reportExportService.exportValuationToPdf(report, asOfDate);
 
         String filename = "penilaian-persediaan-" + asOfDate.format(FILE_DATE_FORMAT) + ".pdf";
@@ -286,9 +294,10 @@ public class InventoryReportController {
 
     @GetMapping("/valuation/export/excel")
     public ResponseEntity<byte[]> exportValuationToExcel(
-            @RequestParam(required = false) UUID categoryId) {
-        LocalDate asOfDate = LocalDate.now();
-        InventoryReportService.ValuationReport report = reportService.generateValuationReport(categoryId);
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(name = "asOfDate", required = false) LocalDate requestedDate) {
+        LocalDate asOfDate = requestedDate != null ? requestedDate : LocalDate.now();
+        InventoryReportService.ValuationReport report = reportService.generateValuationReport(categoryId, requestedDate);
         byte[] excelBytes = reportExportService.exportValuationToExcel(report, asOfDate);
 
         String filename = "penilaian-persediaan-" + asOfDate.format(FILE_DATE_FORMAT) + XLSX_EXTENSION;
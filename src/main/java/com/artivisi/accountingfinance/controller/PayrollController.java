@@ -21,6 +21,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -345,18 +346,7 @@ public class PayrollController {
             Model model
     ) {
         int selectedYear = year != null ? year : java.time.Year.now().getValue();
-        List<UUID> employeeIds = payrollService.getEmployeesWithPayrollInYear(selectedYear);
-
-        List<PayrollService.YearlyPayrollSummary> summaries = employeeIds.stream()
-            .map(empId -> {
-                try {
-                    return payrollService.getYearlyPayrollSummary(empId, selectedYear);
-                } catch (IllegalArgumentException _) {
-                    return null;
-                }
-            })
-            .filter(s -> s != null)
-            .toList();
+        List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(selectedYear);
 
         // Generate year options (current year and 2 previous years)
         int currentYear = java.time.Year.now().getValue();
@@ -377,7 +367,7 @@ public class PayrollController {
     ) {
         var summary = payrollService.getYearlyPayrollSummary(employeeId, year);
         byte[] pdf = payrollReportService.generateBuktiPotong1721A1(summary);
-        String filename = "1721-A1-" + summary.employee().getEmployeeId() + "-" + year + ".pdf";
+        String filename = payrollReportService.buktiPotong1721A1Filename(summary);
 
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"")
@@ -385,6 +375,17 @@ public class PayrollController {
             .body(pdf);
     }
 
+    @GetMapping("/bukti-potong/{year}/zip")
+    public ResponseEntity<StreamingResponseBody> exportAllBuktiPotongZip(@PathVariable int year) {
+        List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(year);
+        String filename = "1721-A1-" + year + ".zip";
+
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_FILENAME + filename + "\"")
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .body(out -> payrollReportService.writeBuktiPotong1721A1Zip(summaries, out));
+    }
+
     private java.util.List<RiskClassOption> getRiskClasses() {
         return java.util.List.of(
             new RiskClassOption(1, "Kelas 1 - Sangat Rendah (0.24%) - IT, Jasa"),
@@ -1,9 +1,13 @@
 package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.entity.BillOfMaterial;
+import com.artivisi.accountingfinance.entity.Product;
 import com.artivisi.accountingfinance.entity.ProductionOrder;
 import com.artivisi.accountingfinance.entity.ProductionOrderStatus;
 import com.artivisi.accountingfinance.service.BillOfMaterialService;
+import com.artivisi.accountingfinance.service.BomExplosionService;
+import com.artivisi.accountingfinance.service.InventoryService;
+import com.artivisi.accountingfinance.service.ProductService;
 import com.artivisi.accountingfinance.service.ProductionOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +23,14 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/inventory/production")
@@ -37,6 +48,8 @@ public class ProductionOrderController {
 
     private final ProductionOrderService orderService;
     private final BillOfMaterialService bomService;
+    private final ProductService productService;
+    private final InventoryService inventoryService;
 
     @GetMapping
     public String list(@RequestParam(required = false) ProductionOrderStatus status, Model model) {
@@ -50,6 +63,22 @@ public class ProductionOrderController {
         return "inventory/production/list";
     }
 
+    @GetMapping("/requirements")
+    public String requirements(Model model) {
+        BomExplosionService.MaterialRequirements requirements = orderService.planOpenOrders();
+
+        Set<UUID> productIds = new HashSet<>(requirements.materials().keySet());
+        productIds.addAll(requirements.assemblies().keySet());
+        Map<UUID, Product> products = productService.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<UUID, BigDecimal> stocks = inventoryService.getCurrentStocks(productIds);
+
+        model.addAttribute("materials", toRequirementRows(requirements.materials(), products, stocks));
+        model.addAttribute("assemblies", toRequirementRows(requirements.assemblies(), products, stocks));
+        model.addAttribute("materialCost", requirements.materialCost());
+        return "inventory/production/requirements";
+    }
+
     @GetMapping("/create")
     public String createForm(Model model) {
         model.addAttribute(ATTR_ORDER, new ProductionOrder());
@@ -173,4 +202,21 @@ public class ProductionOrderController {
         }
         return REDIRECT_PRODUCTION_LIST;
     }
+
+    private List<RequirementRow> toRequirementRows(Map<UUID, BigDecimal> quantities,
+                                                   Map<UUID, Product> products,
+                                                   Map<UUID, BigDecimal> stocks) {
+        return quantities.entrySet().stream()
+                .filter(e -> products.containsKey(e.getKey()))
+                .map(e -> new RequirementRow(products.get(e.getKey()), e.getValue(),
+                        stocks.getOrDefault(e.getKey(), BigDecimal.ZERO)))
+                .sorted(Comparator.comparing(row -> row.product().getCode()))
+                .toList();
+    }
+
+    public record RequirementRow(Product product, BigDecimal required, BigDecimal stock) {
+        public BigDecimal shortage() {
+            return required.subtract(stock).max(BigDecimal.ZERO);
+        }
+    }
 }
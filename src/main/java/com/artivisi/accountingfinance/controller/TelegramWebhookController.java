@@ -2,7 +2,7 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.config.TelegramConfig;
 import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
-import com.artivisi.accountingfinance.service.TelegramBotService;
+import com.artivisi.accountingfinance.service.TelegramUpdateQueueService;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,11 +21,11 @@ public class TelegramWebhookController {
 
     private static final Logger log = LoggerFactory.getLogger(TelegramWebhookController.class);
 
-    private final TelegramBotService telegramBotService;
+    private final TelegramUpdateQueueService updateQueueService;
     private final TelegramConfig telegramConfig;
 
-    public TelegramWebhookController(TelegramBotService telegramBotService, TelegramConfig telegramConfig) {
-        this.telegramBotService = telegramBotService;
+    public TelegramWebhookController(TelegramUpdateQueueService updateQueueService, TelegramConfig telegramConfig) {
+        this.updateQueueService = updateQueueService;
         this.telegramConfig = telegramConfig;
     }
 
@@ -56,16 +56,20 @@ public class TelegramWebhookController {
 
         log.debug("Received Telegram update: {}", update.getUpdateId());
 
+        if (update.getUpdateId() == null) {
+            return ResponseEntity.ok("Ignored");
+        }
+
+        // Store and acknowledge; the update is processed by TelegramUpdateWorker.
+        // A duplicate (Telegram retrying an update we already have) is acknowledged too.
         try {
-            telegramBotService.handleUpdate(update);
-            return ResponseEntity.ok("OK");
+            boolean queued = updateQueueService.enqueue(update);
+            return ResponseEntity.ok(queued ? "OK" : "Duplicate");
         } catch (Exception e) {
-            // Log at warn without stack trace - webhook errors are expected (network, parsing, etc.)
-            log.warn("Error handling Telegram update {}: {}", update.getUpdateId(), e.getMessage());
-            // Telegram Bot API requires 200 response to acknowledge receipt
-            // Returning non-200 causes Telegram to retry the webhook indefinitely
+            // Not stored: a non-200 response makes Telegram deliver the update again
             // See: https://core.telegram.org/bots/api#setwebhook
-            return ResponseEntity.status(HttpStatus.OK).body("Error handled");
+            log.warn("Could not queue Telegram update {}: {}", update.getUpdateId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Retry later");
         }
     }
 }
@@ -2,6 +2,7 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.dto.JournalEntryRequest;
 import com.artivisi.accountingfinance.dto.TransactionDto;
+import com.artivisi.accountingfinance.dto.TransactionListItem;
 import com.artivisi.accountingfinance.dto.TransactionResponse;
 import com.artivisi.accountingfinance.dto.VoidTransactionDto;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
@@ -12,16 +13,15 @@ import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
 import com.artivisi.accountingfinance.enums.TemplateType;
-import jakarta.persistence.EntityNotFoundException;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.security.Permission;
 import com.artivisi.accountingfinance.service.ChartOfAccountService;
 import com.artivisi.accountingfinance.service.InvoiceService;
 import com.artivisi.accountingfinance.service.JournalTemplateService;
 import com.artivisi.accountingfinance.service.ProjectService;
+import com.artivisi.accountingfinance.service.ReferenceDataService;
 import com.artivisi.accountingfinance.service.TemplateExecutionEngine;
 import com.artivisi.accountingfinance.service.TagService;
-import com.artivisi.accountingfinance.service.TaxTransactionDetailService;
 import com.artivisi.accountingfinance.service.TransactionApiService;
 import com.artivisi.accountingfinance.service.TransactionService;
 import jakarta.validation.Valid;
@@ -51,9 +51,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static com.artivisi.accountingfinance.controller.ViewConstants.*;
 
@@ -75,9 +73,9 @@ public class TransactionController {
     private final JournalTemplateService journalTemplateService;
     private final ChartOfAccountService chartOfAccountService;
     private final ProjectService projectService;
+    private final ReferenceDataService referenceDataService;
     private final InvoiceService invoiceService;
     private final TagService tagService;
-    private final TaxTransactionDetailService taxTransactionDetailService;
     private final TemplateExecutionEngine templateExecutionEngine;
     private final TransactionApiService transactionApiService;
     private final com.artivisi.accountingfinance.service.DashboardService dashboardService;
@@ -91,6 +89,7 @@ public class TransactionController {
             @RequestParam(required = false) String search,
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestHeader(value = "HX-Request", required = false) String hxRequest,
@@ -105,52 +104,42 @@ public class TransactionController {
         model.addAttribute("endDate", endDate);
         model.addAttribute("statuses", TransactionStatus.values());
         model.addAttribute("categories", TemplateCategory.values());
-        model.addAttribute(ATTR_PROJECTS, projectService.findActiveProjects());
-        model.addAttribute(ATTR_TAGS_BY_TYPE, tagService.findAllActiveGroupedByType());
-        List<JournalTemplate> templates = journalTemplateService.findAll();
-        model.addAttribute(ATTR_TEMPLATES, templates);
-        // Group templates by category for dropdown
-        Map<TemplateCategory, List<JournalTemplate>> templatesByCategory = templates.stream()
-                .collect(Collectors.groupingBy(JournalTemplate::getCategory));
-        model.addAttribute("templatesByCategory", templatesByCategory);
+        // Dropdown data is served from memory; the page itself is one row query plus counts
+        model.addAttribute(ATTR_PROJECTS, referenceDataService.activeProjects());
+        model.addAttribute(ATTR_TAGS_BY_TYPE, referenceDataService.activeTagsByType());
         model.addAttribute("voidReasons", com.artivisi.accountingfinance.enums.VoidReason.values());
 
         // Parse status and category if provided
         TransactionStatus statusEnum = status != null && !status.isEmpty() ? TransactionStatus.valueOf(status) : null;
         TemplateCategory categoryEnum = category != null && !category.isEmpty() ? TemplateCategory.valueOf(category) : null;
 
-        // Resolve project code to UUID if provided
+        // Resolve project code to UUID if provided; an unknown code is ignored
         UUID projectId = null;
         if (projectCode != null && !projectCode.isBlank()) {
-            try {
-                Project project = projectService.findByCode(projectCode);
-                projectId = project.getId();
+            projectId = referenceDataService.findProjectIdByCode(projectCode).orElse(null);
+            if (projectId != null) {
                 model.addAttribute("selectedProjectId", projectId);
-            } catch (EntityNotFoundException _) {
-                // Project not found, ignore filter
             }
         }
 
-        // Get transactions
-        Page<Transaction> transactionPage;
-        Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
-
-        if (search != null && !search.isEmpty()) {
-            transactionPage = transactionService.search(search, pageable);
+        // Get transactions; a search is ranked by relevance and paged by cursor
+        List<TransactionListItem> transactions;
+        if (search != null && !search.isBlank()) {
+            TransactionService.ListItemSearchPage searchPage = transactionService.searchRankedListItems(search, cursor, size);
+            transactions = searchPage.items();
+            model.addAttribute("searchPage", searchPage);
+            model.addAttribute("pageSize", size);
         } else {
-            transactionPage = transactionService.findByFilters(statusEnum, categoryEnum, projectId, tagId, startDate, endDate, pageable);
+            Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
+            Page<TransactionListItem> transactionPage = transactionService.findListItems(
+                    statusEnum, categoryEnum, projectId, tagId, startDate, endDate, pageable);
+            transactions = transactionPage.getContent();
+            model.addAttribute("page", transactionPage);
         }
 
-        model.addAttribute("transactions", transactionPage.getContent());
-        model.addAttribute("page", transactionPage);
+        model.addAttribute("transactions", transactions);
         model.addAttribute("draftCount", transactionService.countByStatus(TransactionStatus.DRAFT));
 
-        // Tax detail indicator: which transactions have tax details
-        List<UUID> transactionIds = transactionPage.getContent().stream()
-                .map(Transaction::getId).toList();
-        Set<UUID> taxDetailTransactionIds = taxTransactionDetailService.findTransactionIdsWithDetails(transactionIds);
-        model.addAttribute("taxDetailTransactionIds", taxDetailTransactionIds);
-
         // Return fragment for HTMX requests, full page otherwise
         if ("true".equals(hxRequest)) {
             return "fragments/transaction-table :: table";
@@ -270,7 +259,7 @@ public class TransactionController {
     public String htmxPost(@PathVariable UUID id, Authentication authentication, Model model) {
         String username = authentication != null ? authentication.getName() : USER_SYSTEM;
         Transaction posted = transactionService.post(id, username);
-        model.addAttribute("trx", posted);
+        model.addAttribute("trx", transactionService.findListItem(posted.getId()));
         return "fragments/transaction-table :: row";
     }
 
@@ -5,9 +5,11 @@ import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.AuditEventType;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
+import com.artivisi.accountingfinance.service.ChangeLogService;
 import com.artivisi.accountingfinance.service.SecurityAuditService;
 import com.artivisi.accountingfinance.service.TemplateExecutionEngine;
 import com.artivisi.accountingfinance.service.TransactionApiService;
+import com.artivisi.accountingfinance.service.TransactionService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -50,7 +52,9 @@ public class AnalysisTransactionApiController {
     private final TransactionRepository transactionRepository;
     private final DraftTransactionRepository draftTransactionRepository;
     private final TransactionApiService transactionApiService;
+    private final TransactionService transactionService;
     private final SecurityAuditService securityAuditService;
+    private final ChangeLogService changeLogService;
 
     @GetMapping("/transactions")
     public ResponseEntity<AnalysisResponse<TransactionsDto>> getTransactions(
@@ -80,6 +84,75 @@ public class AnalysisTransactionApiController {
                 Map.of(META_CURRENCY, META_CURRENCY_IDR)));
     }
 
+    /**
+     * Relevance-ranked search. Follow {@code nextCursor} for further pages; it is
+     * null on the last page.
+     */
+    @GetMapping("/transactions/search")
+    public ResponseEntity<AnalysisResponse<TransactionSearchDto>> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        Map<String, String> params = new HashMap<>();
+        params.put("q", q);
+        if (cursor != null) params.put("cursor", cursor);
+        params.put("size", String.valueOf(size));
+
+        TransactionService.SearchPage result = transactionService.searchRanked(q, cursor, Math.clamp(size, 1, 100));
+
+        List<TransactionItemDto> items = result.items().stream()
+                .map(this::toTransactionItemDto)
+                .toList();
+
+        auditAccess("transaction-search", params);
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "transaction-search", LocalDateTime.now(), params,
+                new TransactionSearchDto(items, result.nextCursor()),
+                Map.of(META_CURRENCY, META_CURRENCY_IDR,
+                        META_DESCRIPTION, "Transactions ordered by match quality on number, "
+                                + "description, reference and journal number.")));
+    }
+
+    /**
+     * Changes to transactions, invoices, bills and payments in commit order.
+     * Start without a cursor, then always pass the previous page's
+     * {@code nextCursor}; keep following it while {@code hasMore} is true and
+     * poll with it afterwards.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<AnalysisResponse<ChangeFeedDto>> getChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") int size) {
+
+        Map<String, String> params = new HashMap<>();
+        if (cursor != null) params.put("cursor", cursor);
+        params.put("size", String.valueOf(size));
+
+        ChangeLogService.ChangePage result = changeLogService.readChanges(cursor, Math.clamp(size, 1, 500));
+
+        List<ChangeItemDto> items = result.changes().stream()
+                .map(c -> new ChangeItemDto(
+                        c.sequence(),
+                        c.entityType().name(),
+                        c.entityId(),
+                        c.changeType().name(),
+                        c.reference(),
+                        c.status(),
+                        c.changedAt()))
+                .toList();
+
+        auditAccess("changes", params);
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "changes", LocalDateTime.now(), params,
+                new ChangeFeedDto(items, result.nextCursor(), result.hasMore()),
+                Map.of(META_DESCRIPTION, "Changes to transactions (including their journal entries), "
+                        + "invoices, bills and payments since the cursor. Fetch the entity for its "
+                        + "current state; DELETED entities no longer exist.")));
+    }
+
     @GetMapping("/transactions/{id}")
     public ResponseEntity<AnalysisResponse<TransactionDetailDto>> getTransactionDetail(
             @PathVariable UUID id) {
@@ -234,6 +307,27 @@ public class AnalysisTransactionApiController {
             int pageSize
     ) {}
 
+    public record TransactionSearchDto(
+            List<TransactionItemDto> transactions,
+            String nextCursor
+    ) {}
+
+    public record ChangeFeedDto(
+            List<ChangeItemDto> changes,
+            String nextCursor,
+            boolean hasMore
+    ) {}
+
+    public record ChangeItemDto(
+            long sequence,
+            String entityType,
+            UUID entityId,
+            String changeType,
+            String reference,
+            String status,
+            LocalDateTime changedAt
+    ) {}
+
     public record TransactionItemDto(
             UUID id,
             String transactionNumber,
@@ -12,6 +12,7 @@ import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.enums.AuditEventType;
 import com.artivisi.accountingfinance.security.LogSanitizer;
 import com.artivisi.accountingfinance.service.ChartOfAccountService;
+import com.artivisi.accountingfinance.service.IdempotencyService;
 import com.artivisi.accountingfinance.service.JournalTemplateService;
 import com.artivisi.accountingfinance.service.SecurityAuditService;
 import com.artivisi.accountingfinance.service.TransactionApiService;
@@ -27,6 +28,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -54,26 +56,32 @@ public class DraftTransactionApiController {
     private final JournalTemplateService journalTemplateService;
     private final ChartOfAccountService chartOfAccountService;
     private final SecurityAuditService securityAuditService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a DRAFT transaction directly with template + account overrides.
      * POST /api/drafts
      */
     @PostMapping
-    public ResponseEntity<TransactionResponse> createDraft(@Valid @RequestBody CreateDraftRequest request) {
-        String username = getCurrentUsername();
-        log.info("API: Create draft directly - template={}, amount={}, user={}",
-                request.templateId(), request.amount(), username);
-
-        auditApiCall(Map.of(
-                "action", "create-draft",
-                "templateId", request.templateId().toString(),
-                ATTR_AMOUNT, request.amount().toString(),
-                ATTR_SOURCE, "api"
-        ));
-
-        TransactionResponse response = transactionApiService.createDraft(request, username);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<TransactionResponse> createDraft(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateDraftRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/drafts", request,
+                TransactionResponse.class, () -> {
+            String username = getCurrentUsername();
+            log.info("API: Create draft directly - template={}, amount={}, user={}",
+                    request.templateId(), request.amount(), username);
+
+            auditApiCall(Map.of(
+                    "action", "create-draft",
+                    "templateId", request.templateId().toString(),
+                    ATTR_AMOUNT, request.amount().toString(),
+                    ATTR_SOURCE, "api"
+            ));
+
+            TransactionResponse response = transactionApiService.createDraft(request, username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
@@ -81,19 +89,24 @@ public class DraftTransactionApiController {
      * POST /api/drafts/from-receipt
      */
     @PostMapping("/from-receipt")
-    public ResponseEntity<DraftResponse> createFromReceipt(@Valid @RequestBody CreateFromReceiptRequest request) {
-        log.info("API: Create draft from receipt - merchant={}, source={}",
-                request.merchant(), request.source());
-
-        auditApiCall(Map.of(
-                "merchant", request.merchant(),
-                ATTR_AMOUNT, request.amount().toString(),
-                ATTR_SOURCE, request.source(),
-                "confidence", request.confidence().toString()
-        ));
-
-        DraftResponse response = transactionApiService.createFromReceipt(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<DraftResponse> createFromReceipt(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateFromReceiptRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/drafts/from-receipt", request,
+                DraftResponse.class, () -> {
+            log.info("API: Create draft from receipt - merchant={}, source={}",
+                    request.merchant(), request.source());
+
+            auditApiCall(Map.of(
+                    "merchant", request.merchant(),
+                    ATTR_AMOUNT, request.amount().toString(),
+                    ATTR_SOURCE, request.source(),
+                    "confidence", request.confidence().toString()
+            ));
+
+            DraftResponse response = transactionApiService.createFromReceipt(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
@@ -101,19 +114,24 @@ public class DraftTransactionApiController {
      * POST /api/drafts/from-text
      */
     @PostMapping("/from-text")
-    public ResponseEntity<DraftResponse> createFromText(@Valid @RequestBody CreateFromTextRequest request) {
-        log.info("API: Create draft from text - merchant={}, source={}",
-                request.merchant(), request.source());
-
-        auditApiCall(Map.of(
-                "merchant", request.merchant(),
-                ATTR_AMOUNT, request.amount().toString(),
-                ATTR_SOURCE, request.source(),
-                "confidence", request.confidence().toString()
-        ));
-
-        DraftResponse response = transactionApiService.createFromText(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<DraftResponse> createFromText(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateFromTextRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/drafts/from-text", request,
+                DraftResponse.class, () -> {
+            log.info("API: Create draft from text - merchant={}, source={}",
+                    request.merchant(), request.source());
+
+            auditApiCall(Map.of(
+                    "merchant", request.merchant(),
+                    ATTR_AMOUNT, request.amount().toString(),
+                    ATTR_SOURCE, request.source(),
+                    "confidence", request.confidence().toString()
+            ));
+
+            DraftResponse response = transactionApiService.createFromText(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
@@ -150,19 +168,22 @@ public class DraftTransactionApiController {
     @PostMapping("/{id}/approve")
     public ResponseEntity<DraftResponse> approve(
             @PathVariable UUID id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ApproveDraftRequest request) {
-
-        String username = getCurrentUsername();
-        log.info("API: Approve draft {} by {}", id, username);
-
-        auditApiCall(Map.of(
-                "draftId", id.toString(),
-                "templateId", request.templateId().toString(),
-                "approvedBy", username
-        ));
-
-        DraftResponse response = transactionApiService.approve(id, request, username);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "POST /api/drafts/" + id + "/approve", request,
+                DraftResponse.class, () -> {
+            String username = getCurrentUsername();
+            log.info("API: Approve draft {} by {}", id, username);
+
+            auditApiCall(Map.of(
+                    "draftId", id.toString(),
+                    "templateId", request.templateId().toString(),
+                    "approvedBy", username
+            ));
+
+            DraftResponse response = transactionApiService.approve(id, request, username);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
@@ -172,23 +193,26 @@ public class DraftTransactionApiController {
     @PostMapping("/{id}/reject")
     public ResponseEntity<DraftResponse> reject(
             @PathVariable UUID id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, String> body) {
-
-        String username = getCurrentUsername();
-        String reason = body.getOrDefault("reason", "Rejected via API");
-        log.info("API: Reject draft {} by {}: {}",
-                LogSanitizer.sanitize(id.toString()),
-                LogSanitizer.username(username),
-                LogSanitizer.sanitize(reason));
-
-        auditApiCall(Map.of(
-                "draftId", id.toString(),
-                "rejectedBy", username,
-                "reason", reason
-        ));
-
-        DraftResponse response = transactionApiService.reject(id, reason, username);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "POST /api/drafts/" + id + "/reject", body,
+                DraftResponse.class, () -> {
+            String username = getCurrentUsername();
+            String reason = body.getOrDefault("reason", "Rejected via API");
+            log.info("API: Reject draft {} by {}: {}",
+                    LogSanitizer.sanitize(id.toString()),
+                    LogSanitizer.username(username),
+                    LogSanitizer.sanitize(reason));
+
+            auditApiCall(Map.of(
+                    "draftId", id.toString(),
+                    "rejectedBy", username,
+                    "reason", reason
+            ));
+
+            DraftResponse response = transactionApiService.reject(id, reason, username);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
@@ -1,33 +1,53 @@
 package com.artivisi.accountingfinance.controller.api;
 
+import com.artivisi.accountingfinance.dto.AgingDetailRow;
+import com.artivisi.accountingfinance.dto.AgingReport;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.CompanyConfig;
 import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.enums.AgingPeriod;
 import com.artivisi.accountingfinance.enums.AuditEventType;
 import com.artivisi.accountingfinance.repository.CompanyConfigRepository;
+import com.artivisi.accountingfinance.service.AgingReportService;
 import com.artivisi.accountingfinance.service.DashboardService;
+import com.artivisi.accountingfinance.service.LedgerVersionService;
 import com.artivisi.accountingfinance.service.ReportService;
 import com.artivisi.accountingfinance.service.SecurityAuditService;
 import com.artivisi.accountingfinance.service.TaxReportService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Read-only financial analysis API for external AI tools.
  * Provides company info, snapshots, and financial report data.
+ *
+ * The reports derived only from posted journals (snapshot, trial balance,
+ * income statement, balance sheet, cash flow, tax summary) carry an ETag made
+ * of the ledger version and the report parameters. A poll with a matching
+ * If-None-Match gets 304 Not Modified without reading the journal, and a
+ * changed ETag is answered from the report cache kept for that version.
  */
 @RestController
 @RequestMapping("/api/analysis")
@@ -45,12 +65,17 @@ public class FinancialAnalysisApiController {
     private static final String PARAM_AS_OF_DATE = "asOfDate";
     private static final String PARAM_START_DATE = "startDate";
     private static final String PARAM_END_DATE = "endDate";
+    private static final String PARAM_CLIENT_ID = "clientId";
+    private static final String PARAM_VENDOR_ID = "vendorId";
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final ReportService reportService;
+    private final AgingReportService agingReportService;
     private final DashboardService dashboardService;
     private final TaxReportService taxReportService;
     private final CompanyConfigRepository companyConfigRepository;
     private final SecurityAuditService securityAuditService;
+    private final LedgerVersionService ledgerVersionService;
 
     @GetMapping("/company")
     public ResponseEntity<AnalysisResponse<CompanyDto>> getCompany() {
@@ -78,9 +103,16 @@ public class FinancialAnalysisApiController {
     @GetMapping("/snapshot")
     public ResponseEntity<AnalysisResponse<SnapshotDto>> getSnapshot(
             @RequestParam String month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            WebRequest request) {
 
         YearMonth ym = parseYearMonth(month, year);
+        auditAccess("snapshot", Map.of("month", month));
+
+        return ledgerReport(request, "snapshot?month=" + ym, () -> buildSnapshot(month, ym));
+    }
+
+    private AnalysisResponse<SnapshotDto> buildSnapshot(String month, YearMonth ym) {
         DashboardService.DashboardKPI kpi = dashboardService.calculateKPIs(ym);
 
         List<CashBankItemDto> cashBankItems = kpi.cashBankItems().stream()
@@ -95,23 +127,28 @@ public class FinancialAnalysisApiController {
                 kpi.cashBalance(), kpi.receivablesBalance(), kpi.payablesBalance(),
                 kpi.transactionCount(), cashBankItems);
 
-        auditAccess("snapshot", Map.of("month", month));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "snapshot", LocalDateTime.now(),
                 Map.of("month", month),
                 data,
                 Map.of(META_CURRENCY, META_CURRENCY_IDR,
                         META_ACCOUNTING_BASIS, META_ACCRUAL,
                         META_DESCRIPTION, "Financial KPI snapshot for " + month
-                                + ". Change percentages are vs previous month.")));
+                                + ". Change percentages are vs previous month."));
     }
 
     @GetMapping("/trial-balance")
     public ResponseEntity<AnalysisResponse<TrialBalanceDto>> getTrialBalance(
-            @RequestParam String asOfDate) {
+            @RequestParam String asOfDate,
+            WebRequest request) {
 
         LocalDate date = LocalDate.parse(asOfDate);
+        auditAccess("trial-balance", Map.of(PARAM_AS_OF_DATE, asOfDate));
+
+        return ledgerReport(request, "trial-balance?asOfDate=" + date, () -> buildTrialBalance(asOfDate, date));
+    }
+
+    private AnalysisResponse<TrialBalanceDto> buildTrialBalance(String asOfDate, LocalDate date) {
         ReportService.TrialBalanceReport report = reportService.generateTrialBalance(date);
 
         List<TrialBalanceItemDto> items = report.items().stream()
@@ -120,9 +157,7 @@ public class FinancialAnalysisApiController {
 
         TrialBalanceDto data = new TrialBalanceDto(items, report.totalDebit(), report.totalCredit());
 
-        auditAccess("trial-balance", Map.of(PARAM_AS_OF_DATE, asOfDate));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "trial-balance", LocalDateTime.now(),
                 Map.of(PARAM_AS_OF_DATE, asOfDate),
                 data,
@@ -130,17 +165,27 @@ public class FinancialAnalysisApiController {
                         META_ACCOUNTING_BASIS, META_ACCRUAL,
                         META_DESCRIPTION, "Trial balance as of " + asOfDate
                                 + ". Each account shows debit and credit balances. "
-                                + "Total debits must equal total credits.")));
+                                + "Total debits must equal total credits."));
     }
 
     @GetMapping("/income-statement")
     public ResponseEntity<AnalysisResponse<IncomeStatementDto>> getIncomeStatement(
             @RequestParam String startDate,
             @RequestParam String endDate,
-            @RequestParam(defaultValue = "false") boolean excludeClosing) {
+            @RequestParam(defaultValue = "false") boolean excludeClosing,
+            WebRequest request) {
 
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
+        auditAccess("income-statement", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
+
+        return ledgerReport(request,
+                "income-statement?startDate=" + start + "&endDate=" + end + "&excludeClosing=" + excludeClosing,
+                () -> buildIncomeStatement(startDate, endDate, start, end, excludeClosing));
+    }
+
+    private AnalysisResponse<IncomeStatementDto> buildIncomeStatement(
+            String startDate, String endDate, LocalDate start, LocalDate end, boolean excludeClosing) {
         ReportService.IncomeStatementReport report = excludeClosing
                 ? reportService.generateIncomeStatementExcludingClosing(start, end)
                 : reportService.generateIncomeStatement(start, end);
@@ -156,23 +201,28 @@ public class FinancialAnalysisApiController {
                 revenueItems, expenseItems,
                 report.totalRevenue(), report.totalExpense(), report.netIncome());
 
-        auditAccess("income-statement", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "income-statement", LocalDateTime.now(),
                 Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate),
                 data,
                 Map.of(META_CURRENCY, META_CURRENCY_IDR,
                         META_ACCOUNTING_BASIS, META_ACCRUAL,
                         META_DESCRIPTION, "Income statement for period " + startDate + " to " + endDate
-                                + ". Net income = total revenue - total expense.")));
+                                + ". Net income = total revenue - total expense."));
     }
 
     @GetMapping("/balance-sheet")
     public ResponseEntity<AnalysisResponse<BalanceSheetDto>> getBalanceSheet(
-            @RequestParam String asOfDate) {
+            @RequestParam String asOfDate,
+            WebRequest request) {
 
         LocalDate date = LocalDate.parse(asOfDate);
+        auditAccess("balance-sheet", Map.of(PARAM_AS_OF_DATE, asOfDate));
+
+        return ledgerReport(request, "balance-sheet?asOfDate=" + date, () -> buildBalanceSheet(asOfDate, date));
+    }
+
+    private AnalysisResponse<BalanceSheetDto> buildBalanceSheet(String asOfDate, LocalDate date) {
         ReportService.BalanceSheetReport report = reportService.generateBalanceSheet(date);
 
         List<LineItemDto> assetItems = report.assetItems().stream()
@@ -190,25 +240,32 @@ public class FinancialAnalysisApiController {
                 report.totalAssets(), report.totalLiabilities(), report.totalEquity(),
                 report.currentYearEarnings());
 
-        auditAccess("balance-sheet", Map.of(PARAM_AS_OF_DATE, asOfDate));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "balance-sheet", LocalDateTime.now(),
                 Map.of(PARAM_AS_OF_DATE, asOfDate),
                 data,
                 Map.of(META_CURRENCY, META_CURRENCY_IDR,
                         META_ACCOUNTING_BASIS, META_ACCRUAL,
                         META_DESCRIPTION, "Balance sheet as of " + asOfDate
-                                + ". Assets = Liabilities + Equity + Current Year Earnings.")));
+                                + ". Assets = Liabilities + Equity + Current Year Earnings."));
     }
 
     @GetMapping("/cash-flow")
     public ResponseEntity<AnalysisResponse<CashFlowDto>> getCashFlow(
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            WebRequest request) {
 
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
+        auditAccess("cash-flow", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
+
+        return ledgerReport(request, "cash-flow?startDate=" + start + "&endDate=" + end,
+                () -> buildCashFlow(startDate, endDate, start, end));
+    }
+
+    private AnalysisResponse<CashFlowDto> buildCashFlow(
+            String startDate, String endDate, LocalDate start, LocalDate end) {
         ReportService.CashFlowReport report = reportService.generateCashFlowStatement(start, end);
 
         List<CashFlowItemDto> operatingItems = report.operatingItems().stream()
@@ -230,25 +287,32 @@ public class FinancialAnalysisApiController {
                 report.netCashChange(), report.beginningCashBalance(), report.endingCashBalance(),
                 cashAccountBalances);
 
-        auditAccess("cash-flow", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "cash-flow", LocalDateTime.now(),
                 Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate),
                 data,
                 Map.of(META_CURRENCY, META_CURRENCY_IDR,
                         META_ACCOUNTING_BASIS, META_ACCRUAL,
                         META_DESCRIPTION, "Cash flow statement for period " + startDate + " to " + endDate
-                                + ". Positive amounts = cash inflow, negative = cash outflow.")));
+                                + ". Positive amounts = cash inflow, negative = cash outflow."));
     }
 
     @GetMapping("/tax-summary")
     public ResponseEntity<AnalysisResponse<TaxSummaryDto>> getTaxSummary(
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            WebRequest request) {
 
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
+        auditAccess("tax-summary", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
+
+        return ledgerReport(request, "tax-summary?startDate=" + start + "&endDate=" + end,
+                () -> buildTaxSummary(startDate, endDate, start, end));
+    }
+
+    private AnalysisResponse<TaxSummaryDto> buildTaxSummary(
+            String startDate, String endDate, LocalDate start, LocalDate end) {
         TaxReportService.TaxSummaryReport report = taxReportService.generateTaxSummary(start, end);
 
         List<TaxItemDto> items = report.items().stream()
@@ -259,15 +323,13 @@ public class FinancialAnalysisApiController {
 
         TaxSummaryDto data = new TaxSummaryDto(items, report.totalBalance());
 
-        auditAccess("tax-summary", Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate));
-
-        return ResponseEntity.ok(new AnalysisResponse<>(
+        return new AnalysisResponse<>(
                 "tax-summary", LocalDateTime.now(),
                 Map.of(PARAM_START_DATE, startDate, PARAM_END_DATE, endDate),
                 data,
                 Map.of(META_CURRENCY, META_CURRENCY_IDR,
                         META_DESCRIPTION, "Tax account summary for period " + startDate + " to " + endDate
-                                + ". Includes PPN (VAT), PPh (income tax), and other tax accounts.")));
+                                + ". Includes PPN (VAT), PPh (income tax), and other tax accounts."));
     }
 
     @GetMapping("/receivables")
@@ -334,6 +396,86 @@ public class FinancialAnalysisApiController {
                                 + ". LIABILITY accounts with code prefix 2.1.01.")));
     }
 
+    @GetMapping("/receivables/aging")
+    public ResponseEntity<AnalysisResponse<AgingReport>> getReceivablesAging(
+            @RequestParam String asOfDate) {
+
+        AgingReport data = agingReportService.generateReceivablesAging(LocalDate.parse(asOfDate));
+
+        auditAccess("receivables-aging", Map.of(PARAM_AS_OF_DATE, asOfDate));
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "receivables-aging", LocalDateTime.now(),
+                Map.of(PARAM_AS_OF_DATE, asOfDate),
+                data,
+                Map.of(META_CURRENCY, META_CURRENCY_IDR,
+                        META_DESCRIPTION, "Receivables aging per client as of " + asOfDate
+                                + ". Balances deduct only payments dated on or before asOfDate. "
+                                + "Buckets are days past due date.")));
+    }
+
+    @GetMapping("/receivables/aging/details")
+    public ResponseEntity<AnalysisResponse<AgingDetailsDto>> getReceivablesAgingDetails(
+            @RequestParam String asOfDate,
+            @RequestParam(required = false) UUID clientId,
+            @RequestParam(required = false) AgingPeriod period,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        Page<AgingDetailRow> details = agingReportService.findReceivablesDetails(
+                clientId, period, LocalDate.parse(asOfDate), PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
+        Map<String, String> params = agingDetailParams(asOfDate, PARAM_CLIENT_ID, clientId, period, page, size);
+
+        auditAccess("receivables-aging-details", params);
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "receivables-aging-details", LocalDateTime.now(), params,
+                toAgingDetailsDto(details),
+                Map.of(META_CURRENCY, META_CURRENCY_IDR,
+                        META_DESCRIPTION, "Open invoices behind the receivables aging as of " + asOfDate
+                                + ", ordered by due date.")));
+    }
+
+    @GetMapping("/payables/aging")
+    public ResponseEntity<AnalysisResponse<AgingReport>> getPayablesAging(
+            @RequestParam String asOfDate) {
+
+        AgingReport data = agingReportService.generatePayablesAging(LocalDate.parse(asOfDate));
+
+        auditAccess("payables-aging", Map.of(PARAM_AS_OF_DATE, asOfDate));
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "payables-aging", LocalDateTime.now(),
+                Map.of(PARAM_AS_OF_DATE, asOfDate),
+                data,
+                Map.of(META_CURRENCY, META_CURRENCY_IDR,
+                        META_DESCRIPTION, "Payables aging per vendor as of " + asOfDate
+                                + ". Balances deduct only payments dated on or before asOfDate. "
+                                + "Buckets are days past due date.")));
+    }
+
+    @GetMapping("/payables/aging/details")
+    public ResponseEntity<AnalysisResponse<AgingDetailsDto>> getPayablesAgingDetails(
+            @RequestParam String asOfDate,
+            @RequestParam(required = false) UUID vendorId,
+            @RequestParam(required = false) AgingPeriod period,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        Page<AgingDetailRow> details = agingReportService.findPayablesDetails(
+                vendorId, period, LocalDate.parse(asOfDate), PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE)));
+        Map<String, String> params = agingDetailParams(asOfDate, PARAM_VENDOR_ID, vendorId, period, page, size);
+
+        auditAccess("payables-aging-details", params);
+
+        return ResponseEntity.ok(new AnalysisResponse<>(
+                "payables-aging-details", LocalDateTime.now(), params,
+                toAgingDetailsDto(details),
+                Map.of(META_CURRENCY, META_CURRENCY_IDR,
+                        META_DESCRIPTION, "Open bills behind the payables aging as of " + asOfDate
+                                + ", ordered by due date.")));
+    }
+
     /**
      * Parse month parameter supporting both "YYYY-MM" format and separate month+year params.
      * Examples: month=2025-12 OR month=12&year=2025
@@ -349,11 +491,45 @@ public class FinancialAnalysisApiController {
         }
     }
 
+    /**
+     * Answers a ledger-derived report conditionally. The ETag is the ledger
+     * version plus a digest of the canonical report key, so it changes exactly
+     * when a post, void or closing could have changed the result.
+     */
+    private <T> ResponseEntity<AnalysisResponse<T>> ledgerReport(
+            WebRequest request, String reportKey, Supplier<AnalysisResponse<T>> report) {
+        long version = ledgerVersionService.currentVersion();
+        String etag = "\"" + version + "-"
+                + DigestUtils.md5DigestAsHex(reportKey.getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ledgerVersionService.getOrCompute(version, reportKey, report));
+    }
+
     private void auditAccess(String reportType, Map<String, String> params) {
         securityAuditService.logAsync(AuditEventType.API_CALL,
                 "Analysis API: " + reportType + " " + params);
     }
 
+    private Map<String, String> agingDetailParams(String asOfDate, String partyParam, UUID partyId,
+                                                  AgingPeriod period, int page, int size) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put(PARAM_AS_OF_DATE, asOfDate);
+        if (partyId != null) params.put(partyParam, partyId.toString());
+        if (period != null) params.put("period", period.name());
+        params.put("page", String.valueOf(page));
+        params.put("size", String.valueOf(size));
+        return params;
+    }
+
+    private AgingDetailsDto toAgingDetailsDto(Page<AgingDetailRow> details) {
+        return new AgingDetailsDto(details.getContent(), details.getTotalElements(),
+                details.getTotalPages(), details.getNumber(), details.getSize());
+    }
+
     private TrialBalanceItemDto toTrialBalanceItemDto(ReportService.TrialBalanceItem item) {
         ChartOfAccount a = item.account();
         return new TrialBalanceItemDto(
@@ -467,4 +643,12 @@ public class FinancialAnalysisApiController {
             List<LineItemDto> items,
             BigDecimal totalBalance
     ) {}
+
+    public record AgingDetailsDto(
+            List<AgingDetailRow> items,
+            long totalElements,
+            int totalPages,
+            int currentPage,
+            int pageSize
+    ) {}
 }
@@ -273,14 +273,11 @@ public class PayrollApiController {
                     + "Returns empty employees list if no payroll has been posted for the year.")
     @ApiResponse(responseCode = "200", description = "PPh 21 summary (empty if no POSTED runs)")
     public ResponseEntity<Pph21SummaryResponse> pph21Summary(@RequestParam int year) {
-        List<UUID> employeeIds = payrollService.getEmployeesWithPayrollInYear(year);
-
         List<Pph21EmployeeSummary> employees = new ArrayList<>();
         BigDecimal totalGross = BigDecimal.ZERO;
         BigDecimal totalPph21 = BigDecimal.ZERO;
 
-        for (UUID employeeId : employeeIds) {
-            YearlyPayrollSummary summary = payrollService.getYearlyPayrollSummary(employeeId, year);
+        for (YearlyPayrollSummary summary : payrollService.getYearlyPayrollSummaries(year)) {
             employees.add(new Pph21EmployeeSummary(
                     summary.employee().getId(),
                     summary.employee().getEmployeeId(),
@@ -9,6 +9,7 @@ import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.AuditEventType;
 import com.artivisi.accountingfinance.security.LogSanitizer;
+import com.artivisi.accountingfinance.service.IdempotencyService;
 import com.artivisi.accountingfinance.service.SecurityAuditService;
 import com.artivisi.accountingfinance.service.TemplateExecutionEngine;
 import com.artivisi.accountingfinance.service.TransactionApiService;
@@ -30,6 +31,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -60,6 +62,7 @@ public class TransactionApiController {
     private final TransactionApiService transactionApiService;
     private final TransactionService transactionService;
     private final SecurityAuditService securityAuditService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create and post transaction directly (bypass draft workflow).
@@ -67,22 +70,26 @@ public class TransactionApiController {
      */
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransaction(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CreateTransactionRequest request) {
 
-        String username = getCurrentUsername();
-        log.info("API: Create transaction directly - merchant={}, template={}, source={}, user={}",
-                request.merchant(), request.templateId(), request.source(), username);
-
-        auditApiCall(Map.of(
-                "merchant", request.merchant(),
-                "amount", request.amount().toString(),
-                KEY_SOURCE, request.source(),
-                "templateId", request.templateId().toString(),
-                "userApproved", request.userApproved().toString()
-        ));
-
-        TransactionResponse response = transactionApiService.createTransactionDirect(request, username);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return idempotencyService.execute(idempotencyKey, "POST /api/transactions", request,
+                TransactionResponse.class, () -> {
+            String username = getCurrentUsername();
+            log.info("API: Create transaction directly - merchant={}, template={}, source={}, user={}",
+                    request.merchant(), request.templateId(), request.source(), username);
+
+            auditApiCall(Map.of(
+                    "merchant", request.merchant(),
+                    "amount", request.amount().toString(),
+                    KEY_SOURCE, request.source(),
+                    "templateId", request.templateId().toString(),
+                    "userApproved", request.userApproved().toString()
+            ));
+
+            TransactionResponse response = transactionApiService.createTransactionDirect(request, username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
@@ -98,21 +105,25 @@ public class TransactionApiController {
     @ApiResponse(responseCode = "201", description = "Journal entry draft created")
     @ApiResponse(responseCode = "400", description = "Validation error (unbalanced, invalid lines, header account)")
     public ResponseEntity<TransactionResponse> createJournalEntry(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody JournalEntryRequest request) {
 
-        String username = getCurrentUsername();
-        log.info("API: Create journal entry - description={}, lines={}, user={}",
-                request.description(), request.lines().size(), username);
-
-        auditApiCall(Map.of(
-                KEY_ACTION, "journal-entry",
-                "description", request.description(),
-                "lineCount", String.valueOf(request.lines().size()),
-                KEY_SOURCE, "api"
-        ));
-
-        TransactionResponse response = transactionApiService.createJournalEntry(request, username);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return idempotencyService.execute(idempotencyKey, "POST /api/transactions/journal-entry", request,
+                TransactionResponse.class, () -> {
+            String username = getCurrentUsername();
+            log.info("API: Create journal entry - description={}, lines={}, user={}",
+                    request.description(), request.lines().size(), username);
+
+            auditApiCall(Map.of(
+                    KEY_ACTION, "journal-entry",
+                    "description", request.description(),
+                    "lineCount", String.valueOf(request.lines().size()),
+                    KEY_SOURCE, "api"
+            ));
+
+            TransactionResponse response = transactionApiService.createJournalEntry(request, username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
 
     /**
@@ -0,0 +1,17 @@
+package com.artivisi.accountingfinance.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record AgingDetailRow(
+        UUID documentId,
+        String documentNumber,
+        LocalDate documentDate,
+        LocalDate dueDate,
+        BigDecimal totalAmount,
+        BigDecimal paidAmount,
+        BigDecimal balanceDue,
+        long daysOverdue
+) {
+}
@@ -0,0 +1,29 @@
+package com.artivisi.accountingfinance.dto;
+
+import com.artivisi.accountingfinance.enums.TemplateCategory;
+import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.enums.VoidReason;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One row of the transaction list, read flat from a single query so the page
+ * never touches the template, tag or tax detail associations.
+ */
+public record TransactionListItem(
+        UUID id,
+        String transactionNumber,
+        LocalDate transactionDate,
+        String description,
+        String referenceNumber,
+        String templateName,
+        TemplateCategory category,
+        BigDecimal amount,
+        TransactionStatus status,
+        VoidReason voidReason,
+        boolean tagged,
+        boolean hasTaxDetail
+) {
+}
@@ -0,0 +1,44 @@
+package com.artivisi.accountingfinance.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Quantity and cost of one product as of the end of {@code snapshotDate}.
+ * Written in bulk by {@code InventorySnapshotService} at period close.
+ */
+@Entity
+@Table(name = "inventory_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventorySnapshot extends TimestampedEntity {
+
+    @NotNull
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_product", nullable = false)
+    private Product product;
+
+    @NotNull
+    @Column(name = "quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    @NotNull
+    @Column(name = "total_cost", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalCost = BigDecimal.ZERO;
+}
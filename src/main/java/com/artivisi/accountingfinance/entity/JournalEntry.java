@@ -71,6 +71,11 @@ public class JournalEntry extends BaseEntity {
     @Column(name = "credit_amount", nullable = false, precision = 19, scale = 2)
     private BigDecimal creditAmount = BigDecimal.ZERO;
 
+    /** What this line is for, when a journal has several lines on the same account. */
+    @Size(max = 500, message = "Memo must not exceed 500 characters")
+    @Column(name = "memo", length = 500)
+    private String memo;
+
     @Column(name = "is_reversal", nullable = false)
     private Boolean isReversal = false;
 
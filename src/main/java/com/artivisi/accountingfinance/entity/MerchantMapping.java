@@ -8,9 +8,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -58,6 +60,12 @@ public class MerchantMapping extends TimestampedEntity {
     @Column(name = "created_by", length = 100)
     private String createdBy;
 
+    // Compiled form of a REGEX pattern, recompiled only when the pattern changes
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Pattern compiledPattern;
+
     public boolean matches(String merchantName) {
         if (merchantName == null || merchantPattern == null) {
             return false;
@@ -66,11 +74,24 @@ public class MerchantMapping extends TimestampedEntity {
         return switch (matchType) {
             case EXACT -> merchantName.equalsIgnoreCase(merchantPattern);
             case CONTAINS -> merchantName.toLowerCase().contains(merchantPattern.toLowerCase());
-            case REGEX -> Pattern.compile(merchantPattern, Pattern.CASE_INSENSITIVE)
-                    .matcher(merchantName).find();
+            case REGEX -> compiledPattern().matcher(merchantName).find();
         };
     }
 
+    /**
+     * The REGEX pattern compiled case-insensitively.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern is not a valid regex
+     */
+    public Pattern compiledPattern() {
+        Pattern compiled = compiledPattern;
+        if (compiled == null || !compiled.pattern().equals(merchantPattern)) {
+            compiled = Pattern.compile(merchantPattern, Pattern.CASE_INSENSITIVE);
+            compiledPattern = compiled;
+        }
+        return compiled;
+    }
+
     public void incrementMatchCount() {
         this.matchCount++;
         this.lastUsedAt = LocalDateTime.now();
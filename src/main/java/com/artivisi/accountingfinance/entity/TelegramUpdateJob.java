@@ -0,0 +1,76 @@
+package com.artivisi.accountingfinance.entity;
+
+import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A Telegram webhook update waiting for, or done with, background processing.
+ */
+@Entity
+@Table(name = "telegram_update_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TelegramUpdateJob extends TimestampedEntity {
+
+    public enum Status {
+        PENDING, PROCESSING, DONE, FAILED
+    }
+
+    @NotNull
+    @Column(name = "update_id", nullable = false, unique = true, updatable = false)
+    private Long updateId;
+
+    @NotNull
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "jsonb", nullable = false, updatable = false)
+    private TelegramUpdate payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /** Milliseconds spent in each processing stage of the last attempt. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "stage_timings", columnDefinition = "jsonb")
+    private Map<String, Long> stageTimings;
+
+    /** Whether the "processing" reply was already sent by an earlier attempt. */
+    @Column(name = "notice_sent", nullable = false)
+    private Boolean noticeSent = false;
+
+    /** Document stored from the receipt photo by an earlier attempt. */
+    @Column(name = "id_document")
+    private UUID documentId;
+}
@@ -0,0 +1,34 @@
+package com.artivisi.accountingfinance.enums;
+
+/**
+ * Aging buckets by days past due date. Bounds are inclusive; null means unbounded.
+ */
+public enum AgingPeriod {
+    CURRENT("Belum Jatuh Tempo", null, 0),
+    DAYS_1_TO_30("1-30 Hari", 1, 30),
+    DAYS_31_TO_60("31-60 Hari", 31, 60),
+    DAYS_61_TO_90("61-90 Hari", 61, 90),
+    OVER_90(">90 Hari", 91, null);
+
+    private final String indonesianName;
+    private final Integer minDaysOverdue;
+    private final Integer maxDaysOverdue;
+
+    AgingPeriod(String indonesianName, Integer minDaysOverdue, Integer maxDaysOverdue) {
+        this.indonesianName = indonesianName;
+        this.minDaysOverdue = minDaysOverdue;
+        this.maxDaysOverdue = maxDaysOverdue;
+    }
+
+    public String getIndonesianName() {
+        return indonesianName;
+    }
+
+    public Integer getMinDaysOverdue() {
+        return minDaysOverdue;
+    }
+
+    public Integer getMaxDaysOverdue() {
+        return maxDaysOverdue;
+    }
+}
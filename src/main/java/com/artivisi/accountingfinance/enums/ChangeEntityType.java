@@ -0,0 +1,25 @@
+package com.artivisi.accountingfinance.enums;
+
+public enum ChangeEntityType {
+    TRANSACTION("Transaction", "Transaksi"),
+    INVOICE("Invoice", "Invoice"),
+    INVOICE_PAYMENT("Invoice Payment", "Pembayaran Invoice"),
+    BILL("Bill", "Tagihan"),
+    BILL_PAYMENT("Bill Payment", "Pembayaran Tagihan");
+
+    private final String englishName;
+    private final String indonesianName;
+
+    ChangeEntityType(String englishName, String indonesianName) {
+        this.englishName = englishName;
+        this.indonesianName = indonesianName;
+    }
+
+    public String getEnglishName() {
+        return englishName;
+    }
+
+    public String getIndonesianName() {
+        return indonesianName;
+    }
+}
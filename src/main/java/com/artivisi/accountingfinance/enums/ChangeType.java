@@ -0,0 +1,25 @@
+package com.artivisi.accountingfinance.enums;
+
+public enum ChangeType {
+    CREATED("Created", "Dibuat"),
+    UPDATED("Updated", "Diubah"),
+    POSTED("Posted", "Diposting"),
+    VOIDED("Voided", "Dibatalkan"),
+    DELETED("Deleted", "Dihapus");
+
+    private final String englishName;
+    private final String indonesianName;
+
+    ChangeType(String englishName, String indonesianName) {
+        this.englishName = englishName;
+        this.indonesianName = indonesianName;
+    }
+
+    public String getEnglishName() {
+        return englishName;
+    }
+
+    public String getIndonesianName() {
+        return indonesianName;
+    }
+}
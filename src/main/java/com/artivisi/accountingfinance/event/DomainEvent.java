@@ -0,0 +1,9 @@
+package com.artivisi.accountingfinance.event;
+
+/**
+ * An event stored in the outbox with the change that caused it and delivered
+ * to {@link DomainEventListener}s after commit. Events are serialized as JSON
+ * and must stay readable by the next release, as undelivered ones are kept.
+ */
+public sealed interface DomainEvent permits LedgerChangedEvent, InvoicePaidEvent, TransactionPostedEvent {
+}
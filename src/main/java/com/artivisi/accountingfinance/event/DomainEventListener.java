@@ -0,0 +1,12 @@
+package com.artivisi.accountingfinance.event;
+
+/**
+ * Receives domain events from the outbox, on a worker thread after the change
+ * that caused them is committed. Delivery is at least once: an event is
+ * delivered again to every listener when any of them throws, so handling the
+ * same event twice must be harmless.
+ */
+public interface DomainEventListener {
+
+    void onDomainEvent(DomainEvent event);
+}
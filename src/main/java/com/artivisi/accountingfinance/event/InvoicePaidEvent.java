@@ -0,0 +1,16 @@
+package com.artivisi.accountingfinance.event;
+
+import com.artivisi.accountingfinance.entity.Invoice;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when an invoice becomes fully paid.
+ */
+public record InvoicePaidEvent(UUID invoiceId, LocalDateTime sentAt, LocalDateTime paidAt) implements DomainEvent {
+
+    public static InvoicePaidEvent of(Invoice invoice) {
+        return new InvoicePaidEvent(invoice.getId(), invoice.getSentAt(), invoice.getPaidAt());
+    }
+}
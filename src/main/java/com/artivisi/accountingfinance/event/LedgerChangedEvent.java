@@ -0,0 +1,33 @@
+package com.artivisi.accountingfinance.event;
+
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.Transaction;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when posted journal totals change: a transaction is posted or voided,
+ * a fiscal year is closed, or the ledger is replaced by a data import.
+ *
+ * @param transactionDate date the affected journal entries are booked on, or null
+ *                        when any date may have changed
+ * @param projectIds projects referenced by the transaction or any of its entries
+ */
+public record LedgerChangedEvent(LocalDate transactionDate, Set<UUID> projectIds) implements DomainEvent {
+
+    public static LedgerChangedEvent of(Transaction transaction) {
+        Set<UUID> projectIds = new HashSet<>();
+        if (transaction.getProject() != null) {
+            projectIds.add(transaction.getProject().getId());
+        }
+        for (JournalEntry entry : transaction.getJournalEntries()) {
+            if (entry.getProject() != null) {
+                projectIds.add(entry.getProject().getId());
+            }
+        }
+        return new LedgerChangedEvent(transaction.getTransactionDate(), Set.copyOf(projectIds));
+    }
+}
@@ -0,0 +1,9 @@
+package com.artivisi.accountingfinance.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a domain event has been stored in the outbox for delivery.
+ */
+public record OutboxEventQueuedEvent(UUID outboxEventId) {
+}
@@ -0,0 +1,7 @@
+package com.artivisi.accountingfinance.event;
+
+/**
+ * Published when a Telegram update has been stored for background processing.
+ */
+public record TelegramUpdateQueuedEvent(Long updateId) {
+}
@@ -0,0 +1,9 @@
+package com.artivisi.accountingfinance.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a transaction is posted.
+ */
+public record TransactionPostedEvent(UUID transactionId) implements DomainEvent {
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +32,14 @@ public interface AmortizationEntryRepository extends JpaRepository<AmortizationE
            "ORDER BY e.periodEnd ASC, s.code ASC")
     List<AmortizationEntry> findPendingAutoPostEntriesDueByDate(@Param("date") LocalDate date);
 
+    @Query("SELECT e FROM AmortizationEntry e " +
+           "JOIN FETCH e.schedule s " +
+           "JOIN FETCH s.sourceAccount " +
+           "JOIN FETCH s.targetAccount " +
+           "WHERE e.status = 'PENDING' AND e.periodEnd <= :date AND s.status = 'ACTIVE' AND s.autoPost = true " +
+           "ORDER BY e.periodEnd ASC, s.code ASC")
+    List<AmortizationEntry> findPendingAutoPostEntriesDueByDateWithSchedule(@Param("date") LocalDate date);
+
     @Query("SELECT COUNT(e) FROM AmortizationEntry e JOIN e.schedule s WHERE " +
            "e.status = 'PENDING' AND s.status = 'ACTIVE'")
     long countPendingEntries();
@@ -44,5 +53,13 @@ public interface AmortizationEntryRepository extends JpaRepository<AmortizationE
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM AmortizationEntry e WHERE e.schedule.id = :scheduleId AND e.status = 'POSTED'")
     java.math.BigDecimal sumPostedAmountByScheduleId(@Param("scheduleId") UUID scheduleId);
 
+    /**
+     * Posted entry count and amount per schedule, as [scheduleId, count, sum].
+     */
+    @Query("SELECT e.schedule.id, COUNT(e), COALESCE(SUM(e.amount), 0) FROM AmortizationEntry e " +
+           "WHERE e.schedule.id IN :scheduleIds AND e.status = 'POSTED' " +
+           "GROUP BY e.schedule.id")
+    List<Object[]> sumPostedByScheduleIds(@Param("scheduleIds") Collection<UUID> scheduleIds);
+
     void deleteByScheduleId(UUID scheduleId);
 }
@@ -34,6 +34,16 @@ public interface BillOfMaterialRepository extends JpaRepository<BillOfMaterial,
     @Query("SELECT b FROM BillOfMaterial b WHERE b.product.id = :productId")
     List<BillOfMaterial> findByProductId(@Param("productId") UUID productId);
 
+    /**
+     * Lines of all active BOMs as [bomId, productId, outputQuantity, componentId, quantity],
+     * ordered by BOM code so the first BOM of a product is stable.
+     */
+    @Query("SELECT b.id, b.product.id, b.outputQuantity, l.component.id, l.quantity " +
+           "FROM BillOfMaterial b JOIN b.lines l " +
+           "WHERE b.active = true " +
+           "ORDER BY b.code, l.lineOrder")
+    List<Object[]> findActiveBomLines();
+
     @Query("SELECT b FROM BillOfMaterial b WHERE b.active = true AND " +
            "(LOWER(b.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(b.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -64,14 +64,73 @@ public interface BillRepository extends JpaRepository<Bill, UUID> {
             "FROM Bill b WHERE b.billNumber LIKE :prefix")
     Integer findMaxSequenceByPrefix(@Param("prefix") String prefix);
 
-    @Query("SELECT b FROM Bill b JOIN FETCH b.vendor WHERE " +
-            "b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE')")
-    List<Bill> findOutstandingBills();
+    // Aging snapshot: open bills as of a date. Balance is total minus payments dated on or before
+    // that date, so bills paid later still count as open. A bill marked paid without payment
+    // rows counts as settled in full from its paid date. Days overdue is computed in SQL.
+    String OPEN_BILLS_AS_OF =
+            "SELECT s.id, s.party_id, s.document_number, s.document_date, s.due_date, " +
+            "s.total_amount, s.paid_amount, s.total_amount - s.paid_amount AS balance, " +
+            "CAST(:asOfDate AS date) - s.due_date AS days_overdue " +
+            "FROM (SELECT b.id, b.id_vendor AS party_id, b.bill_number AS document_number, " +
+            "      b.bill_date AS document_date, b.due_date, " +
+            "      b.amount + b.tax_amount AS total_amount, " +
+            "      CASE WHEN b.status = 'PAID' AND CAST(b.paid_at AS date) <= CAST(:asOfDate AS date) " +
+            "                AND NOT EXISTS (SELECT 1 FROM bill_payments x WHERE x.id_bill = b.id) " +
+            "           THEN b.amount + b.tax_amount ELSE COALESCE(p.paid, 0) END AS paid_amount " +
+            "      FROM bills b " +
+            "      LEFT JOIN (SELECT bp.id_bill, SUM(bp.amount) AS paid FROM bill_payments bp " +
+            "                 WHERE bp.payment_date <= CAST(:asOfDate AS date) GROUP BY bp.id_bill) p " +
+            "             ON p.id_bill = b.id " +
+            "      WHERE b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE', 'PAID') " +
+            "      AND b.bill_date <= CAST(:asOfDate AS date)) s " +
+            "WHERE s.total_amount - s.paid_amount > 0";
+
+    /**
+     * Aging bucket totals per vendor in one aggregate query.
+     * Columns: id, code, name, current, 1-30, 31-60, 61-90, over 90, total.
+     */
+    @Query(value = "SELECT v.id, v.code, v.name, " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue <= 0 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 1 AND 30 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 31 AND 60 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 61 AND 90 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue > 90 THEN o.balance END), 0), " +
+            "SUM(o.balance) " +
+            "FROM (" + OPEN_BILLS_AS_OF + ") o " +
+            "JOIN vendors v ON v.id = o.party_id " +
+            "GROUP BY v.id, v.code, v.name " +
+            "ORDER BY v.name, v.code",
+            nativeQuery = true)
+    List<Object[]> sumAgingBucketsByVendor(@Param("asOfDate") LocalDate asOfDate);
+
+    /**
+     * Open bills behind an aging row, optionally limited to one vendor and a days-overdue range.
+     * Columns: id, number, date, due date, total, paid, balance, days overdue.
+     */
+    @Query(value = "SELECT o.id, o.document_number, o.document_date, o.due_date, " +
+            "o.total_amount, o.paid_amount, o.balance, o.days_overdue " +
+            "FROM (" + OPEN_BILLS_AS_OF + ") o " +
+            "WHERE (CAST(:vendorId AS uuid) IS NULL OR o.party_id = CAST(:vendorId AS uuid)) " +
+            "AND (CAST(:minDays AS integer) IS NULL OR o.days_overdue >= CAST(:minDays AS integer)) " +
+            "AND (CAST(:maxDays AS integer) IS NULL OR o.days_overdue <= CAST(:maxDays AS integer)) " +
+            "ORDER BY o.due_date, o.document_number",
+            countQuery = "SELECT COUNT(*) FROM (" + OPEN_BILLS_AS_OF + ") o " +
+            "WHERE (CAST(:vendorId AS uuid) IS NULL OR o.party_id = CAST(:vendorId AS uuid)) " +
+            "AND (CAST(:minDays AS integer) IS NULL OR o.days_overdue >= CAST(:minDays AS integer)) " +
+            "AND (CAST(:maxDays AS integer) IS NULL OR o.days_overdue <= CAST(:maxDays AS integer))",
+            nativeQuery = true)
+    Page<Object[]> findAgingDetails(
+            @Param("vendorId") UUID vendorId,
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("minDays") Integer minDays,
+            @Param("maxDays") Integer maxDays,
+            Pageable pageable);
 
     @Query("SELECT b FROM Bill b JOIN FETCH b.vendor WHERE " +
             "b.vendor.id = :vendorId AND " +
             "b.billDate >= :dateFrom AND b.billDate <= :dateTo AND " +
-            "b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE', 'PAID') " +
+            "b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE', 'PAID') AND " +
+            "NOT (b.status = 'PAID' AND NOT EXISTS (SELECT 1 FROM BillPayment p WHERE p.bill = b)) " +
             "ORDER BY b.billDate ASC, b.billNumber ASC")
     List<Bill> findByVendorIdAndDateRange(
             @Param("vendorId") UUID vendorId,
@@ -81,7 +140,8 @@ public interface BillRepository extends JpaRepository<Bill, UUID> {
     @Query("SELECT COALESCE(SUM(b.amount + b.taxAmount), 0) FROM Bill b WHERE " +
             "b.vendor.id = :vendorId AND " +
             "b.billDate < :date AND " +
-            "b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE', 'PAID')")
+            "b.status IN ('APPROVED', 'PARTIAL', 'OVERDUE', 'PAID') AND " +
+            "NOT (b.status = 'PAID' AND NOT EXISTS (SELECT 1 FROM BillPayment p WHERE p.bill = b))")
     BigDecimal sumBillsBeforeDate(
             @Param("vendorId") UUID vendorId,
             @Param("date") LocalDate date);
@@ -48,6 +48,13 @@ public interface DepreciationEntryRepository extends JpaRepository<DepreciationE
            "ORDER BY e.periodEnd ASC, a.assetCode ASC")
     List<DepreciationEntry> findAllPendingWithDetails();
 
+    @Query("SELECT e FROM DepreciationEntry e " +
+           "JOIN FETCH e.fixedAsset a " +
+           "JOIN FETCH a.category " +
+           "WHERE e.status = 'PENDING' AND e.periodEnd <= :periodEnd " +
+           "ORDER BY e.periodEnd ASC, a.assetCode ASC")
+    List<DepreciationEntry> findPendingUpToPeriodEndWithDetails(@Param("periodEnd") LocalDate periodEnd);
+
     @Query("SELECT e FROM DepreciationEntry e WHERE " +
            "e.fixedAsset.id = :assetId AND " +
            "e.periodEnd = :periodEnd")
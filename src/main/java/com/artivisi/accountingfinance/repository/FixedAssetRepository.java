@@ -29,10 +29,16 @@ public interface FixedAssetRepository extends JpaRepository<FixedAsset, UUID> {
     @Query("SELECT a FROM FixedAsset a WHERE a.status = 'ACTIVE' ORDER BY a.assetCode")
     List<FixedAsset> findAllActive();
 
-    @Query("SELECT a FROM FixedAsset a WHERE " +
-           "a.status = 'ACTIVE' AND " +
+    /**
+     * Active assets due for depreciation in the period that have no entry for it yet.
+     */
+    @Query("SELECT a FROM FixedAsset a " +
+           "LEFT JOIN FETCH a.category " +
+           "WHERE a.status = 'ACTIVE' AND " +
            "(a.lastDepreciationDate IS NULL OR a.lastDepreciationDate < :periodEnd) AND " +
-           "a.depreciationStartDate <= :periodEnd " +
+           "a.depreciationStartDate <= :periodEnd AND " +
+           "NOT EXISTS (SELECT 1 FROM DepreciationEntry e " +
+           "WHERE e.fixedAsset = a AND e.periodEnd = :periodEnd) " +
            "ORDER BY a.assetCode")
     List<FixedAsset> findAssetsNeedingDepreciation(@Param("periodEnd") LocalDate periodEnd);
 
@@ -2,13 +2,16 @@ package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.InventoryBalance;
 import com.artivisi.accountingfinance.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,6 +28,22 @@ public interface InventoryBalanceRepository extends JpaRepository<InventoryBalan
            "WHERE p = :product")
     Optional<InventoryBalance> findByProduct(@Param("product") Product product);
 
+    /**
+     * Lock the balances of several products, always in product id order so
+     * concurrent callers acquire the locks in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM InventoryBalance b " +
+           "JOIN FETCH b.product p " +
+           "WHERE p.id IN :productIds " +
+           "ORDER BY p.id")
+    List<InventoryBalance> findByProductIdsForUpdate(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("SELECT b FROM InventoryBalance b " +
+           "JOIN FETCH b.product p " +
+           "WHERE p.id IN :productIds")
+    List<InventoryBalance> findByProductIds(@Param("productIds") Collection<UUID> productIds);
+
     @Query(value = "SELECT ib.* FROM inventory_balances ib " +
            "LEFT JOIN products p ON ib.id_product = p.id " +
            "LEFT JOIN product_categories pc ON p.id_category = pc.id " +
@@ -61,6 +80,12 @@ public interface InventoryBalanceRepository extends JpaRepository<InventoryBalan
            "ORDER BY p.code")
     List<InventoryBalance> findAllWithStock();
 
+    /**
+     * Product id and average cost of every balance, without loading entities.
+     */
+    @Query("SELECT b.product.id, b.averageCost FROM InventoryBalance b")
+    List<Object[]> findAllAverageCosts();
+
     @Query("SELECT COALESCE(SUM(b.totalCost), 0) FROM InventoryBalance b " +
            "WHERE b.product.active = true")
     BigDecimal getTotalInventoryValue();
@@ -3,24 +3,42 @@ package com.artivisi.accountingfinance.repository;
 import com.artivisi.accountingfinance.entity.InventoryFifoLayer;
 import com.artivisi.accountingfinance.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface InventoryFifoLayerRepository extends JpaRepository<InventoryFifoLayer, UUID> {
 
     /**
-     * Find layers with remaining quantity, ordered by date (oldest first) for FIFO.
+     * Available layers of :productId in FIFO order with the quantity held by the
+     * layers before each one, cut off once :quantity is covered. Reads the
+     * idx_fifo_layers_available partial index.
+     */
+    String LAYERS_TO_CONSUME =
+            "SELECT c.id, c.remaining_quantity, c.unit_cost, c.quantity_before FROM (" +
+            "SELECT l.id, l.remaining_quantity, l.unit_cost, l.layer_date, l.created_at, " +
+            "SUM(l.remaining_quantity) OVER (ORDER BY l.layer_date, l.created_at, l.id) " +
+            "- l.remaining_quantity AS quantity_before " +
+            "FROM inventory_fifo_layers l " +
+            "WHERE l.id_product = :productId " +
+            "AND l.fully_consumed = false " +
+            "AND l.remaining_quantity > 0) c " +
+            "WHERE c.quantity_before < :quantity";
+
+    /**
+     * Available layers of several products at once, oldest first within each product.
      */
     @Query("SELECT l FROM InventoryFifoLayer l " +
-           "WHERE l.product.id = :productId " +
+           "WHERE l.product.id IN :productIds " +
            "AND l.fullyConsumed = false " +
            "AND l.remainingQuantity > 0 " +
-           "ORDER BY l.layerDate ASC, l.createdAt ASC")
-    List<InventoryFifoLayer> findAvailableLayers(@Param("productId") UUID productId);
+           "ORDER BY l.product.id, l.layerDate ASC, l.createdAt ASC")
+    List<InventoryFifoLayer> findAvailableLayersForProducts(@Param("productIds") Collection<UUID> productIds);
 
     /**
      * Find all layers for a product (for valuation report).
@@ -53,4 +71,45 @@ public interface InventoryFifoLayerRepository extends JpaRepository<InventoryFif
            "AND l.fullyConsumed = false " +
            "ORDER BY l.layerDate ASC")
     List<InventoryFifoLayer> findActiveLayersByProduct(@Param("product") Product product);
+
+    /**
+     * Layers a sale of :quantity draws from, oldest first, as
+     * [id, remainingQuantity, unitCost, quantityBefore].
+     */
+    @Query(value = LAYERS_TO_CONSUME + " ORDER BY c.layer_date, c.created_at, c.id", nativeQuery = true)
+    List<Object[]> findLayersToConsume(@Param("productId") UUID productId,
+                                       @Param("quantity") BigDecimal quantity);
+
+    /**
+     * FIFO cost of :quantity from the available layers, without loading them.
+     * When the layers hold less than :quantity, this is the cost of what they hold.
+     */
+    @Query(value = "SELECT COALESCE(SUM(LEAST(c.remaining_quantity, :quantity - c.quantity_before) * c.unit_cost), 0) " +
+           "FROM (" + LAYERS_TO_CONSUME + ") c",
+           nativeQuery = true)
+    BigDecimal calculateFifoCost(@Param("productId") UUID productId,
+                                 @Param("quantity") BigDecimal quantity);
+
+    /**
+     * Consumes :layerIds in one statement: every layer is emptied except
+     * :partialLayerId (null when none, with :partialQuantity zero), which
+     * gives up :partialQuantity.
+     * Layers already emptied by someone else are skipped, so a result lower
+     * than the number of ids means the layers changed since they were read.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE inventory_fifo_layers SET " +
+           "remaining_quantity = CASE WHEN id = CAST(:partialLayerId AS uuid) " +
+           "THEN remaining_quantity - :partialQuantity ELSE 0 END, " +
+           "fully_consumed = CASE WHEN id = CAST(:partialLayerId AS uuid) " +
+           "THEN remaining_quantity = :partialQuantity ELSE true END, " +
+           "updated_at = NOW() " +
+           "WHERE id IN (:layerIds) " +
+           "AND fully_consumed = false " +
+           "AND remaining_quantity > 0 " +
+           "AND (id <> CAST(:partialLayerId AS uuid) OR remaining_quantity > :partialQuantity)",
+           nativeQuery = true)
+    int consumeLayers(@Param("layerIds") Collection<UUID> layerIds,
+                      @Param("partialLayerId") UUID partialLayerId,
+                      @Param("partialQuantity") BigDecimal partialQuantity);
 }
@@ -0,0 +1,103 @@
+package com.artivisi.accountingfinance.repository;
+
+import com.artivisi.accountingfinance.entity.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, UUID> {
+
+    /**
+     * Quantity and cost per product as of the end of :asOfDate: the snapshot
+     * taken on :baseDate (none when null) plus the signed movements after it.
+     * Inbound types add to quantity and cost, all others subtract.
+     */
+    String POSITIONS_AS_OF =
+            "SELECT p.id AS id_product, " +
+            "COALESCE(s.quantity, 0) + COALESCE(m.quantity, 0) AS quantity, " +
+            "COALESCE(s.total_cost, 0) + COALESCE(m.total_cost, 0) AS total_cost " +
+            "FROM products p " +
+            "LEFT JOIN inventory_snapshots s ON s.id_product = p.id " +
+            "AND s.snapshot_date = CAST(:baseDate AS date) " +
+            "LEFT JOIN (SELECT it.id_product, " +
+            "SUM(CASE WHEN it.transaction_type IN (:inboundTypes) THEN it.quantity ELSE -it.quantity END) AS quantity, " +
+            "SUM(CASE WHEN it.transaction_type IN (:inboundTypes) THEN it.total_cost ELSE -it.total_cost END) AS total_cost " +
+            "FROM inventory_transactions it " +
+            "WHERE (CAST(:baseDate AS date) IS NULL OR it.transaction_date > CAST(:baseDate AS date)) " +
+            "AND it.transaction_date <= CAST(:asOfDate AS date) " +
+            "GROUP BY it.id_product) m ON m.id_product = p.id " +
+            "WHERE s.id IS NOT NULL OR m.id_product IS NOT NULL";
+
+    @Query("SELECT MAX(s.snapshotDate) FROM InventorySnapshot s WHERE s.snapshotDate <= :date")
+    LocalDate findLatestSnapshotDateOnOrBefore(@Param("date") LocalDate date);
+
+    @Query("SELECT MAX(s.snapshotDate) FROM InventorySnapshot s WHERE s.snapshotDate < :date")
+    LocalDate findLatestSnapshotDateBefore(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = "INSERT INTO inventory_snapshots (snapshot_date, id_product, quantity, total_cost) " +
+           "SELECT CAST(:asOfDate AS date), pos.id_product, pos.quantity, pos.total_cost " +
+           "FROM (" + POSITIONS_AS_OF + ") pos",
+           nativeQuery = true)
+    int insertSnapshot(
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("baseDate") LocalDate baseDate,
+            @Param("inboundTypes") List<String> inboundTypes);
+
+    /**
+     * Positions of active products with stock on hand as of :asOfDate, as
+     * [code, name, categoryName, unit, costingMethod, quantity, totalCost].
+     */
+    @Query(value = "SELECT p.code, p.name, c.name AS category_name, p.unit, p.costing_method, " +
+           "pos.quantity, pos.total_cost " +
+           "FROM (" + POSITIONS_AS_OF + ") pos " +
+           "JOIN products p ON p.id = pos.id_product " +
+           "LEFT JOIN product_categories c ON c.id = p.id_category " +
+           "WHERE p.active = true AND pos.quantity > 0 " +
+           "AND (CAST(:categoryId AS uuid) IS NULL OR p.id_category = CAST(:categoryId AS uuid)) " +
+           "ORDER BY p.code",
+           nativeQuery = true)
+    List<Object[]> findPositionsAsOf(
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("baseDate") LocalDate baseDate,
+            @Param("inboundTypes") List<String> inboundTypes,
+            @Param("categoryId") UUID categoryId);
+
+    /**
+     * Positions of active products with any stock history as of :asOfDate, as
+     * [code, name, categoryName, unit, minimumStock, quantity, totalCost].
+     * A blank :search matches every product.
+     */
+    @Query(value = "SELECT p.code, p.name, c.name AS category_name, p.unit, p.minimum_stock, " +
+           "pos.quantity, pos.total_cost " +
+           "FROM (" + POSITIONS_AS_OF + ") pos " +
+           "JOIN products p ON p.id = pos.id_product " +
+           "LEFT JOIN product_categories c ON c.id = p.id_category " +
+           "WHERE p.active = true " +
+           "AND (CAST(:categoryId AS uuid) IS NULL OR p.id_category = CAST(:categoryId AS uuid)) " +
+           "AND (LOWER(p.code) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY p.code",
+           nativeQuery = true)
+    List<Object[]> findStockBalancesAsOf(
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("baseDate") LocalDate baseDate,
+            @Param("inboundTypes") List<String> inboundTypes,
+            @Param("categoryId") UUID categoryId,
+            @Param("search") String search);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.snapshotDate = :date")
+    int deleteBySnapshotDate(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM InventorySnapshot s WHERE s.snapshotDate >= :date")
+    int deleteFromDate(@Param("date") LocalDate date);
+
+    long countBySnapshotDate(LocalDate snapshotDate);
+}
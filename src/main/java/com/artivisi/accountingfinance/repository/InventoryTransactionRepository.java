@@ -2,18 +2,34 @@ package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.InventoryTransaction;
 import com.artivisi.accountingfinance.entity.InventoryTransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, UUID> {
 
+    String STOCK_MOVEMENT_FILTER =
+            "FROM InventoryTransaction t JOIN t.product p LEFT JOIN p.category c " +
+            "WHERE t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (:productId IS NULL OR p.id = :productId) " +
+            "AND (:categoryId IS NULL OR c.id = :categoryId) ";
+
+    String STOCK_MOVEMENT_ROWS =
+            "SELECT t.transactionDate, p.code, p.name, c.name, t.transactionType, t.quantity, " +
+            "t.unitCost, t.totalCost, t.referenceNumber, t.balanceAfter " +
+            STOCK_MOVEMENT_FILTER +
+            "ORDER BY t.transactionDate, t.createdAt, t.id";
+
     @Query(value = "SELECT it.* FROM inventory_transactions it " +
            "LEFT JOIN products p ON it.id_product = p.id " +
            "WHERE (CAST(:productId AS uuid) IS NULL OR it.id_product = CAST(:productId AS uuid)) " +
@@ -125,4 +141,50 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
             @Param("transactionType") InventoryTransactionType transactionType,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Stock movement rows as [transactionDate, productCode, productName, categoryName,
+     * transactionType, quantity, unitCost, totalCost, referenceNumber, balanceAfter].
+     * Null filters are ignored.
+     */
+    @Query(STOCK_MOVEMENT_ROWS)
+    List<Object[]> findStockMovementRows(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("productId") UUID productId,
+            @Param("categoryId") UUID categoryId,
+            Pageable pageable);
+
+    /**
+     * Same rows as {@link #findStockMovementRows}, read through a database cursor.
+     * Must be consumed and closed inside a transaction.
+     */
+    @Query(STOCK_MOVEMENT_ROWS)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamStockMovementRows(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("productId") UUID productId,
+            @Param("categoryId") UUID categoryId);
+
+    /**
+     * Single row of [count, inboundQty, outboundQty, inboundValue, outboundValue]
+     * over the same filter as {@link #findStockMovementRows}.
+     */
+    @Query("SELECT COUNT(t), " +
+           "COALESCE(SUM(CASE WHEN t.transactionType IN :inboundTypes THEN t.quantity END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.transactionType IN :outboundTypes THEN t.quantity END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.transactionType IN :inboundTypes THEN t.totalCost END), 0), " +
+           "COALESCE(SUM(CASE WHEN t.transactionType IN :outboundTypes THEN t.totalCost END), 0) " +
+           STOCK_MOVEMENT_FILTER)
+    List<Object[]> sumStockMovements(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("productId") UUID productId,
+            @Param("categoryId") UUID categoryId,
+            @Param("inboundTypes") List<InventoryTransactionType> inboundTypes,
+            @Param("outboundTypes") List<InventoryTransactionType> outboundTypes);
 }
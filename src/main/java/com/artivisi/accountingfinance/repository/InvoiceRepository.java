@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,6 +46,18 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
             "i.status = 'SENT' AND i.dueDate < :today")
     List<Invoice> findOverdueInvoices(@Param("today") LocalDate today);
 
+    @Query("SELECT COUNT(i) FROM Invoice i WHERE " +
+            "i.status = 'SENT' AND i.dueDate < :today")
+    long countOverdueInvoices(@Param("today") LocalDate today);
+
+    @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Invoice i WHERE " +
+            "i.status = 'SENT' AND i.dueDate < :today")
+    BigDecimal sumOverdueAmount(@Param("today") LocalDate today);
+
+    @Query("SELECT i.id, i.sentAt, i.paidAt FROM Invoice i WHERE " +
+            "i.status = 'PAID' AND i.sentAt IS NOT NULL AND i.paidAt > :since")
+    List<Object[]> findPaymentTimingPaidAfter(@Param("since") LocalDateTime since);
+
     @Query("SELECT COALESCE(SUM(i.amount), 0) FROM Invoice i WHERE " +
             "i.client.id = :clientId AND i.status = 'PAID'")
     BigDecimal sumPaidAmountByClientId(@Param("clientId") UUID clientId);
@@ -63,14 +76,73 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
             "FROM Invoice i WHERE i.invoiceNumber LIKE :prefix")
     Integer findMaxSequenceByPrefix(@Param("prefix") String prefix);
 
-    @Query("SELECT i FROM Invoice i JOIN FETCH i.client WHERE " +
-            "i.status IN ('SENT', 'PARTIAL', 'OVERDUE')")
-    List<Invoice> findOutstandingInvoices();
+    // Aging snapshot: open invoices as of a date. Balance is total minus payments dated on or before
+    // that date, so invoices paid later still count as open. An invoice marked paid without payment
+    // rows counts as settled in full from its paid date. Days overdue is computed in SQL.
+    String OPEN_INVOICES_AS_OF =
+            "SELECT s.id, s.party_id, s.document_number, s.document_date, s.due_date, " +
+            "s.total_amount, s.paid_amount, s.total_amount - s.paid_amount AS balance, " +
+            "CAST(:asOfDate AS date) - s.due_date AS days_overdue " +
+            "FROM (SELECT i.id, i.id_client AS party_id, i.invoice_number AS document_number, " +
+            "      i.invoice_date AS document_date, i.due_date, " +
+            "      i.amount + i.tax_amount AS total_amount, " +
+            "      CASE WHEN i.status = 'PAID' AND CAST(i.paid_at AS date) <= CAST(:asOfDate AS date) " +
+            "                AND NOT EXISTS (SELECT 1 FROM invoice_payments x WHERE x.id_invoice = i.id) " +
+            "           THEN i.amount + i.tax_amount ELSE COALESCE(p.paid, 0) END AS paid_amount " +
+            "      FROM invoices i " +
+            "      LEFT JOIN (SELECT ip.id_invoice, SUM(ip.amount) AS paid FROM invoice_payments ip " +
+            "                 WHERE ip.payment_date <= CAST(:asOfDate AS date) GROUP BY ip.id_invoice) p " +
+            "             ON p.id_invoice = i.id " +
+            "      WHERE i.status IN ('SENT', 'PARTIAL', 'OVERDUE', 'PAID') " +
+            "      AND i.invoice_date <= CAST(:asOfDate AS date)) s " +
+            "WHERE s.total_amount - s.paid_amount > 0";
+
+    /**
+     * Aging bucket totals per client in one aggregate query.
+     * Columns: id, code, name, current, 1-30, 31-60, 61-90, over 90, total.
+     */
+    @Query(value = "SELECT c.id, c.code, c.name, " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue <= 0 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 1 AND 30 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 31 AND 60 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue BETWEEN 61 AND 90 THEN o.balance END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.days_overdue > 90 THEN o.balance END), 0), " +
+            "SUM(o.balance) " +
+            "FROM (" + OPEN_INVOICES_AS_OF + ") o " +
+            "JOIN clients c ON c.id = o.party_id " +
+            "GROUP BY c.id, c.code, c.name " +
+            "ORDER BY c.name, c.code",
+            nativeQuery = true)
+    List<Object[]> sumAgingBucketsByClient(@Param("asOfDate") LocalDate asOfDate);
+
+    /**
+     * Open invoices behind an aging row, optionally limited to one client and a days-overdue range.
+     * Columns: id, number, date, due date, total, paid, balance, days overdue.
+     */
+    @Query(value = "SELECT o.id, o.document_number, o.document_date, o.due_date, " +
+            "o.total_amount, o.paid_amount, o.balance, o.days_overdue " +
+            "FROM (" + OPEN_INVOICES_AS_OF + ") o " +
+            "WHERE (CAST(:clientId AS uuid) IS NULL OR o.party_id = CAST(:clientId AS uuid)) " +
+            "AND (CAST(:minDays AS integer) IS NULL OR o.days_overdue >= CAST(:minDays AS integer)) " +
+            "AND (CAST(:maxDays AS integer) IS NULL OR o.days_overdue <= CAST(:maxDays AS integer)) " +
+            "ORDER BY o.due_date, o.document_number",
+            countQuery = "SELECT COUNT(*) FROM (" + OPEN_INVOICES_AS_OF + ") o " +
+            "WHERE (CAST(:clientId AS uuid) IS NULL OR o.party_id = CAST(:clientId AS uuid)) " +
+            "AND (CAST(:minDays AS integer) IS NULL OR o.days_overdue >= CAST(:minDays AS integer)) " +
+            "AND (CAST(:maxDays AS integer) IS NULL OR o.days_overdue <= CAST(:maxDays AS integer))",
+            nativeQuery = true)
+    Page<Object[]> findAgingDetails(
+            @Param("clientId") UUID clientId,
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("minDays") Integer minDays,
+            @Param("maxDays") Integer maxDays,
+            Pageable pageable);
 
     @Query("SELECT i FROM Invoice i JOIN FETCH i.client WHERE " +
             "i.client.id = :clientId AND " +
             "i.invoiceDate >= :dateFrom AND i.invoiceDate <= :dateTo AND " +
-            "i.status IN ('SENT', 'PARTIAL', 'OVERDUE', 'PAID') " +
+            "i.status IN ('SENT', 'PARTIAL', 'OVERDUE', 'PAID') AND " +
+            "NOT (i.status = 'PAID' AND NOT EXISTS (SELECT 1 FROM InvoicePayment p WHERE p.invoice = i)) " +
             "ORDER BY i.invoiceDate ASC, i.invoiceNumber ASC")
     List<Invoice> findByClientIdAndDateRange(
             @Param("clientId") UUID clientId,
@@ -80,7 +152,8 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     @Query("SELECT COALESCE(SUM(i.amount + i.taxAmount), 0) FROM Invoice i WHERE " +
             "i.client.id = :clientId AND " +
             "i.invoiceDate < :date AND " +
-            "i.status IN ('SENT', 'PARTIAL', 'OVERDUE', 'PAID')")
+            "i.status IN ('SENT', 'PARTIAL', 'OVERDUE', 'PAID') AND " +
+            "NOT (i.status = 'PAID' AND NOT EXISTS (SELECT 1 FROM InvoicePayment p WHERE p.invoice = i))")
     BigDecimal sumInvoicesBeforeDate(
             @Param("clientId") UUID clientId,
             @Param("date") LocalDate date);
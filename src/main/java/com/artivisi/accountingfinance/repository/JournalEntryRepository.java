@@ -1,6 +1,7 @@
 package com.artivisi.accountingfinance.repository;
 
 import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.enums.AccountType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -55,9 +57,9 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
     @Query("SELECT j FROM JournalEntry j JOIN j.transaction t WHERE " +
            "j.account.id = :accountId AND t.status = 'POSTED' AND " +
            "t.transactionDate BETWEEN :startDate AND :endDate AND " +
-           "(LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(j.journalNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(t.referenceNumber) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "(t.description ILIKE CONCAT('%', :search, '%') OR " +
+           "j.journalNumber ILIKE CONCAT('%', :search, '%') OR " +
+           "t.referenceNumber ILIKE CONCAT('%', :search, '%')) " +
            "ORDER BY t.transactionDate, t.createdAt, j.journalNumber")
     Page<JournalEntry> findPostedEntriesByAccountAndDateRangeAndSearchPaged(
             @Param("accountId") UUID accountId,
@@ -142,22 +144,56 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
            "WHERE journal_number LIKE :prefix", nativeQuery = true)
     Integer findMaxSequenceByPrefix(@Param("prefix") String prefix);
 
+    @Query("SELECT a.normalBalance, COALESCE(SUM(j.debitAmount), 0), COALESCE(SUM(j.creditAmount), 0) " +
+           "FROM JournalEntry j JOIN j.transaction t JOIN j.account a " +
+           "WHERE a.accountType = :accountType AND a.active = true AND a.isHeader = false AND " +
+           "t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY a.normalBalance")
+    List<Object[]> sumByNormalBalanceForAccountTypeAndDateRange(
+            @Param("accountType") AccountType accountType,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Rows are [year, month, normalBalance, sumDebit, sumCredit] over the cash and bank accounts
+    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), a.normalBalance, " +
+           "COALESCE(SUM(j.debitAmount), 0), COALESCE(SUM(j.creditAmount), 0) " +
+           "FROM JournalEntry j JOIN j.transaction t JOIN j.account a " +
+           "WHERE a.active = true AND a.isHeader = false AND a.accountCode LIKE '1.1.0%' AND " +
+           "t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate), a.normalBalance")
+    List<Object[]> sumMonthlyByNormalBalanceForCashAccounts(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // Rows are [clientId, year, month, normalBalance, sumDebit, sumCredit] over project entries
+    @Query("SELECT c.id, YEAR(t.transactionDate), MONTH(t.transactionDate), a.normalBalance, " +
+           "COALESCE(SUM(j.debitAmount), 0), COALESCE(SUM(j.creditAmount), 0) " +
+           "FROM JournalEntry j JOIN j.transaction t JOIN j.account a JOIN j.project p JOIN p.client c " +
+           "WHERE a.accountType = :accountType AND a.active = true AND a.isHeader = false AND " +
+           "t.status = 'POSTED' AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.id, YEAR(t.transactionDate), MONTH(t.transactionDate), a.normalBalance")
+    List<Object[]> sumMonthlyByClientAndNormalBalanceForAccountType(
+            @Param("accountType") AccountType accountType,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     // Project profitability queries
-    @Query("SELECT COALESCE(SUM(j.debitAmount), 0) FROM JournalEntry j JOIN j.transaction t " +
-           "WHERE j.project.id = :projectId AND j.account.id = :accountId AND t.status = 'POSTED' AND " +
-           "t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumDebitByProjectAndAccountAndDateRange(
-            @Param("projectId") UUID projectId,
-            @Param("accountId") UUID accountId,
+    @Query("SELECT j.project.id, j.account.id, COALESCE(SUM(j.debitAmount), 0), COALESCE(SUM(j.creditAmount), 0) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE j.project IS NOT NULL AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY j.project.id, j.account.id")
+    List<Object[]> sumByProjectAndAccountAndDateRange(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT COALESCE(SUM(j.creditAmount), 0) FROM JournalEntry j JOIN j.transaction t " +
-           "WHERE j.project.id = :projectId AND j.account.id = :accountId AND t.status = 'POSTED' AND " +
-           "t.transactionDate BETWEEN :startDate AND :endDate")
-    BigDecimal sumCreditByProjectAndAccountAndDateRange(
-            @Param("projectId") UUID projectId,
-            @Param("accountId") UUID accountId,
+    @Query("SELECT j.project.id, j.account.id, COALESCE(SUM(j.debitAmount), 0), COALESCE(SUM(j.creditAmount), 0) " +
+           "FROM JournalEntry j JOIN j.transaction t " +
+           "WHERE j.project.id IN :projectIds AND t.status = 'POSTED' AND " +
+           "t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY j.project.id, j.account.id")
+    List<Object[]> sumByProjectAndAccountForProjectsAndDateRange(
+            @Param("projectIds") Collection<UUID> projectIds,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
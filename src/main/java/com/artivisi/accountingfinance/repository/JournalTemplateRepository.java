@@ -5,10 +5,13 @@ import com.artivisi.accountingfinance.enums.TemplateCategory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +23,10 @@ public interface JournalTemplateRepository extends JpaRepository<JournalTemplate
 
     List<JournalTemplate> findByCategoryAndActiveAndIsCurrentVersionTrueOrderByTemplateNameAsc(TemplateCategory category, Boolean active);
 
+    @Query("SELECT t.id, t.templateName FROM JournalTemplate t " +
+           "WHERE t.active = true AND t.isCurrentVersion = true ORDER BY t.templateName")
+    List<Object[]> findActiveTemplateNames();
+
     List<JournalTemplate> findByActiveAndIsCurrentVersionTrueOrderByUsageCountDesc(Boolean active);
 
     List<JournalTemplate> findByActiveAndIsCurrentVersionTrueOrderByLastUsedAtDesc(Boolean active);
@@ -58,4 +65,12 @@ public interface JournalTemplateRepository extends JpaRepository<JournalTemplate
     @Query("SELECT COUNT(t) > 0 FROM Transaction t WHERE t.journalTemplate.id = :templateId")
     boolean isTemplateInUse(@Param("templateId") UUID templateId);
 
+    // Aggregated usage write-back from TemplateUsageTracker; does not bump row_version
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE JournalTemplate t SET t.usageCount = t.usageCount + :delta, " +
+           "t.lastUsedAt = CASE WHEN t.lastUsedAt IS NULL OR t.lastUsedAt < :lastUsedAt THEN :lastUsedAt ELSE t.lastUsedAt END " +
+           "WHERE t.id = :id")
+    int incrementUsage(@Param("id") UUID id, @Param("delta") int delta, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+
 }
@@ -3,7 +3,6 @@ package com.artivisi.accountingfinance.repository;
 import com.artivisi.accountingfinance.entity.MerchantMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,13 +13,6 @@ public interface MerchantMappingRepository extends JpaRepository<MerchantMapping
 
     List<MerchantMapping> findAllByOrderByMatchCountDesc();
 
-    @Query("SELECT m FROM MerchantMapping m WHERE " +
-           "m.matchType = 'EXACT' AND LOWER(m.merchantPattern) = LOWER(:merchantName)")
-    List<MerchantMapping> findExactMatches(@Param("merchantName") String merchantName);
-
-    @Query("SELECT m FROM MerchantMapping m WHERE " +
-           "m.matchType = 'CONTAINS' AND LOWER(:merchantName) LIKE LOWER(CONCAT('%', m.merchantPattern, '%'))")
-    List<MerchantMapping> findContainsMatches(@Param("merchantName") String merchantName);
-
-    List<MerchantMapping> findByMatchType(MerchantMapping.MatchType matchType);
+    @Query("SELECT m FROM MerchantMapping m ORDER BY m.matchCount DESC, m.createdAt")
+    List<MerchantMapping> findAllByPriority();
 }
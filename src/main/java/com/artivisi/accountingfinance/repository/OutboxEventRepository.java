@@ -0,0 +1,53 @@
+package com.artivisi.accountingfinance.repository;
+
+import com.artivisi.accountingfinance.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    long countByStatusIn(Collection<OutboxEvent.Status> statuses);
+
+    /**
+     * Locks up to {@code limit} events that are due, oldest first. Events stuck
+     * in PROCESSING since before {@code staleBefore} (a worker died) are due
+     * again. Rows locked by another worker are skipped rather than waited for.
+     */
+    @Query(value = """
+            SELECT id FROM outbox_events
+            WHERE (status = 'PENDING' AND available_at <= :now)
+               OR (status = 'PROCESSING' AND started_at < :staleBefore)
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now,
+                          @Param("staleBefore") LocalDateTime staleBefore,
+                          @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = com.artivisi.accountingfinance.entity.OutboxEvent.Status.PROCESSING,
+                e.attempts = e.attempts + 1, e.startedAt = :now, e.updatedAt = :now
+            WHERE e.id IN :ids
+            """)
+    int markProcessing(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            DELETE FROM OutboxEvent e
+            WHERE e.status = com.artivisi.accountingfinance.entity.OutboxEvent.Status.DONE
+              AND e.completedAt < :before
+            """)
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+}
@@ -45,6 +45,20 @@ public interface PayrollDetailRepository extends JpaRepository<PayrollDetail, UU
            "AND pr.status = 'POSTED'")
     List<UUID> findEmployeeIdsWithPostedPayrollInYear(@Param("yearPrefix") String yearPrefix);
 
+    /**
+     * Yearly totals of posted payroll per employee, as
+     * [employeeId, months, gross, employee BPJS, PPh 21].
+     */
+    @Query("SELECT pd.employee.id, COUNT(pd), SUM(pd.grossSalary), " +
+           "SUM(COALESCE(pd.bpjsKesEmployee, 0) + COALESCE(pd.bpjsJhtEmployee, 0) + COALESCE(pd.bpjsJpEmployee, 0)), " +
+           "SUM(pd.pph21) " +
+           "FROM PayrollDetail pd " +
+           "JOIN pd.payrollRun pr " +
+           "WHERE pr.payrollPeriod LIKE :yearPrefix% " +
+           "AND pr.status = 'POSTED' " +
+           "GROUP BY pd.employee.id")
+    List<Object[]> sumPostedByEmployeeForYear(@Param("yearPrefix") String yearPrefix);
+
     @Query("SELECT pd FROM PayrollDetail pd " +
            "JOIN FETCH pd.payrollRun pr " +
            "WHERE pd.employee.id = :employeeId " +
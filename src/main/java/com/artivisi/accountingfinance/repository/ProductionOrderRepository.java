@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,6 +43,10 @@ public interface ProductionOrderRepository extends JpaRepository<ProductionOrder
            "ORDER BY po.orderDate DESC")
     List<ProductionOrder> findByStatusWithBom(@Param("status") ProductionOrderStatus status);
 
+    @Query("SELECT DISTINCT po FROM ProductionOrder po LEFT JOIN FETCH po.billOfMaterial b LEFT JOIN FETCH b.lines l " +
+           "WHERE po.status IN :statuses")
+    List<ProductionOrder> findByStatusInWithBomLines(@Param("statuses") Collection<ProductionOrderStatus> statuses);
+
     @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(po.orderNumber, 9, 4) AS integer)), 0) FROM ProductionOrder po " +
            "WHERE po.orderNumber LIKE CONCAT('PO-', :year, '-%')")
     Integer findMaxOrderNumberForYear(@Param("year") String year);
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,10 +21,15 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
     List<Project> findByClientId(UUID clientId);
 
+    List<Project> findByClientIdIn(Collection<UUID> clientIds);
+
     List<Project> findByStatus(ProjectStatus status);
 
     Page<Project> findAllByOrderByCodeAsc(Pageable pageable);
 
+    @Query("SELECT p.id, p.code, p.name, p.status FROM Project p ORDER BY p.code")
+    List<Object[]> findAllCodesAndNames();
+
     @Query("SELECT p FROM Project p WHERE " +
             "(:status IS NULL OR p.status = :status) AND " +
             "(:clientId IS NULL OR p.client.id = :clientId) AND " +
@@ -13,4 +13,6 @@ public interface RecurringTransactionLogRepository extends JpaRepository<Recurri
     List<RecurringTransactionLog> findByRecurringTransactionIdOrderByScheduledDateDesc(UUID recurringTransactionId);
 
     Page<RecurringTransactionLog> findByRecurringTransactionIdOrderByScheduledDateDesc(UUID recurringTransactionId, Pageable pageable);
+
+    boolean existsByIdempotencyKey(String idempotencyKey);
 }
@@ -19,7 +19,9 @@ public interface RecurringTransactionRepository extends JpaRepository<RecurringT
     @Query("SELECT r FROM RecurringTransaction r JOIN FETCH r.journalTemplate")
     Page<RecurringTransaction> findAllWithTemplate(Pageable pageable);
 
-    List<RecurringTransaction> findByStatusAndNextRunDateLessThanEqual(RecurringStatus status, LocalDate date);
+    @Query("SELECT r.id FROM RecurringTransaction r WHERE r.status = :status AND r.nextRunDate <= :date " +
+            "ORDER BY r.nextRunDate, r.id")
+    List<UUID> findDueIds(RecurringStatus status, LocalDate date);
 
     long countByStatus(RecurringStatus status);
 
@@ -19,7 +19,7 @@ public interface TagRepository extends JpaRepository<Tag, UUID> {
            "ORDER BY t.code")
     Page<Tag> findByTagTypeIdAndSearch(@Param("tagTypeId") UUID tagTypeId, @Param("search") String search, Pageable pageable);
 
-    @Query("SELECT t FROM Tag t WHERE t.active = true ORDER BY t.tagType.name, t.name")
+    @Query("SELECT t FROM Tag t JOIN FETCH t.tagType tt WHERE t.active = true ORDER BY tt.name, t.name")
     List<Tag> findAllActiveOrdered();
 
     boolean existsByTagTypeIdAndCode(UUID tagTypeId, String code);
@@ -0,0 +1,58 @@
+package com.artivisi.accountingfinance.repository;
+
+import com.artivisi.accountingfinance.entity.TelegramUpdateJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TelegramUpdateJobRepository extends JpaRepository<TelegramUpdateJob, UUID> {
+
+    boolean existsByUpdateId(Long updateId);
+
+    Optional<TelegramUpdateJob> findByUpdateId(Long updateId);
+
+    long countByStatus(TelegramUpdateJob.Status status);
+
+    /**
+     * Locks up to {@code limit} jobs that are due, oldest first. Jobs stuck in
+     * PROCESSING since before {@code staleBefore} (a worker died) are due again.
+     * Rows locked by another worker are skipped rather than waited for.
+     */
+    @Query(value = """
+            SELECT id FROM telegram_update_jobs
+            WHERE (status = 'PENDING' AND available_at <= :now)
+               OR (status = 'PROCESSING' AND started_at < :staleBefore)
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now,
+                          @Param("staleBefore") LocalDateTime staleBefore,
+                          @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE TelegramUpdateJob j
+            SET j.status = com.artivisi.accountingfinance.entity.TelegramUpdateJob.Status.PROCESSING,
+                j.attempts = j.attempts + 1, j.startedAt = :now, j.updatedAt = :now
+            WHERE j.id IN :ids
+            """)
+    int markProcessing(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            DELETE FROM TelegramUpdateJob j
+            WHERE j.status = com.artivisi.accountingfinance.entity.TelegramUpdateJob.Status.DONE
+              AND j.completedAt < :before
+            """)
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -76,13 +77,106 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
             @Param("endDate") LocalDate endDate,
             Pageable pageable);
 
+    /**
+     * Transaction list rows as [id, transaction_number, transaction_date, description,
+     * reference_number, template_name, category, amount, status, void_reason, tagged,
+     * has_tax_detail]. The tag filter and both flags are EXISTS probes, so a page is
+     * one query plus its count regardless of how many tags a transaction carries.
+     */
+    @Query(value = "SELECT t.id, t.transaction_number, t.transaction_date, t.description, " +
+           "t.reference_number, jt.template_name, jt.category, t.amount, t.status, t.void_reason, " +
+           "EXISTS (SELECT 1 FROM transaction_tags tt WHERE tt.id_transaction = t.id) AS tagged, " +
+           "EXISTS (SELECT 1 FROM tax_transaction_details d WHERE d.id_transaction = t.id) AS has_tax_detail " +
+           "FROM transactions t " +
+           "JOIN journal_templates jt ON jt.id = t.id_journal_template " +
+           "WHERE (CAST(:status AS VARCHAR) IS NULL OR t.status = CAST(:status AS VARCHAR)) " +
+           "AND (CAST(:category AS VARCHAR) IS NULL OR jt.category = CAST(:category AS VARCHAR)) " +
+           "AND (CAST(:projectId AS UUID) IS NULL OR t.id_project = CAST(:projectId AS UUID)) " +
+           "AND (CAST(:tagId AS UUID) IS NULL OR EXISTS (SELECT 1 FROM transaction_tags ft " +
+           "WHERE ft.id_transaction = t.id AND ft.id_tag = CAST(:tagId AS UUID))) " +
+           "AND (CAST(:startDate AS DATE) IS NULL OR t.transaction_date >= CAST(:startDate AS DATE)) " +
+           "AND (CAST(:endDate AS DATE) IS NULL OR t.transaction_date <= CAST(:endDate AS DATE)) " +
+           "ORDER BY t.transaction_date DESC, t.created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM transactions t " +
+           "JOIN journal_templates jt ON jt.id = t.id_journal_template " +
+           "WHERE (CAST(:status AS VARCHAR) IS NULL OR t.status = CAST(:status AS VARCHAR)) " +
+           "AND (CAST(:category AS VARCHAR) IS NULL OR jt.category = CAST(:category AS VARCHAR)) " +
+           "AND (CAST(:projectId AS UUID) IS NULL OR t.id_project = CAST(:projectId AS UUID)) " +
+           "AND (CAST(:tagId AS UUID) IS NULL OR EXISTS (SELECT 1 FROM transaction_tags ft " +
+           "WHERE ft.id_transaction = t.id AND ft.id_tag = CAST(:tagId AS UUID))) " +
+           "AND (CAST(:startDate AS DATE) IS NULL OR t.transaction_date >= CAST(:startDate AS DATE)) " +
+           "AND (CAST(:endDate AS DATE) IS NULL OR t.transaction_date <= CAST(:endDate AS DATE))",
+           nativeQuery = true)
+    Page<Object[]> findListRowsByFilters(
+            @Param("status") String status,
+            @Param("category") String category,
+            @Param("projectId") UUID projectId,
+            @Param("tagId") UUID tagId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+
+    /**
+     * Transaction list rows, in the same column order as {@link #findListRowsByFilters},
+     * for the given ids. Order is not preserved.
+     */
+    @Query(value = "SELECT t.id, t.transaction_number, t.transaction_date, t.description, " +
+           "t.reference_number, jt.template_name, jt.category, t.amount, t.status, t.void_reason, " +
+           "EXISTS (SELECT 1 FROM transaction_tags tt WHERE tt.id_transaction = t.id) AS tagged, " +
+           "EXISTS (SELECT 1 FROM tax_transaction_details d WHERE d.id_transaction = t.id) AS has_tax_detail " +
+           "FROM transactions t " +
+           "JOIN journal_templates jt ON jt.id = t.id_journal_template " +
+           "WHERE t.id IN (:ids)",
+           nativeQuery = true)
+    List<Object[]> findListRowsByIds(@Param("ids") Collection<UUID> ids);
+
+    // ILIKE (not LOWER(..) LIKE) so the trigram indexes from V008 apply
     @Query("SELECT t FROM Transaction t WHERE " +
-           "(LOWER(t.transactionNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(t.referenceNumber) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "(t.transactionNumber ILIKE CONCAT('%', :search, '%') OR " +
+           "t.description ILIKE CONCAT('%', :search, '%') OR " +
+           "t.referenceNumber ILIKE CONCAT('%', :search, '%') OR " +
+           "EXISTS (SELECT 1 FROM JournalEntry j WHERE j.transaction = t " +
+           "AND j.journalNumber ILIKE CONCAT('%', :search, '%'))) " +
            "ORDER BY t.transactionDate DESC, t.createdAt DESC")
     Page<Transaction> searchTransactions(@Param("search") String search, Pageable pageable);
 
+    /**
+     * Ranked search page as [id, rank, transaction_date], best match first.
+     * Rank is the best trigram word similarity of the term against transaction
+     * number, description, reference and journal numbers. Pages are keyed on
+     * (rank, date, id) of the last row seen; pass nulls for the first page.
+     */
+    @Query(value = "SELECT r.id, r.rank, r.transaction_date FROM (" +
+           "SELECT t.id, t.transaction_date, CAST(GREATEST(" +
+           "word_similarity(:search, COALESCE(t.transaction_number, '')), " +
+           "word_similarity(:search, t.description), " +
+           "word_similarity(:search, COALESCE(t.reference_number, '')), " +
+           "COALESCE((SELECT MAX(word_similarity(:search, j.journal_number)) FROM journal_entries j " +
+           "WHERE j.id_transaction = t.id AND j.deleted_at IS NULL), 0)) AS FLOAT8) AS rank " +
+           "FROM transactions t " +
+           "WHERE t.transaction_number ILIKE CONCAT('%', :search, '%') " +
+           "OR t.description ILIKE CONCAT('%', :search, '%') " +
+           "OR t.reference_number ILIKE CONCAT('%', :search, '%') " +
+           "OR :search <% t.description " +
+           "OR EXISTS (SELECT 1 FROM journal_entries j WHERE j.id_transaction = t.id " +
+           "AND j.deleted_at IS NULL AND j.journal_number ILIKE CONCAT('%', :search, '%'))" +
+           ") r " +
+           "WHERE CAST(:afterRank AS FLOAT8) IS NULL " +
+           "OR (r.rank, r.transaction_date, r.id) < " +
+           "(CAST(:afterRank AS FLOAT8), CAST(:afterDate AS DATE), CAST(:afterId AS UUID)) " +
+           "ORDER BY r.rank DESC, r.transaction_date DESC, r.id DESC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> searchRankedAfter(
+            @Param("search") String search,
+            @Param("afterRank") Double afterRank,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.journalTemplate WHERE t.id IN :ids")
+    List<Transaction> findAllByIdWithTemplate(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.journalEntries WHERE t.id = :id")
     Optional<Transaction> findByIdWithJournalEntries(@Param("id") UUID id);
 
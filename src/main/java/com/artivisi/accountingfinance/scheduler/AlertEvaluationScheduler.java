@@ -6,6 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Evaluates alert rules every minute. Rules are only re-evaluated when the
+ * ledger, invoices or rules changed since the previous run, plus once a day.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -13,12 +17,13 @@ public class AlertEvaluationScheduler {
 
     private final AlertService alertService;
 
-    @Scheduled(cron = "${app.alerts.schedule:0 0 8 * * *}")
+    @Scheduled(cron = "${app.alerts.schedule:0 * * * * *}")
     public void evaluateAlerts() {
-        log.info("Starting scheduled alert evaluation");
         try {
-            int triggered = alertService.evaluateAllAlerts();
-            log.info("Scheduled alert evaluation completed: {} alerts triggered", triggered);
+            int triggered = alertService.evaluateChangedAlerts();
+            if (triggered > 0) {
+                log.info("Scheduled alert evaluation completed: {} alerts triggered", triggered);
+            }
         } catch (Exception e) {
             log.error("Scheduled alert evaluation failed", e);
         }
@@ -0,0 +1,30 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired API idempotency keys.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "${app.idempotency.purge-schedule:0 30 3 * * *}")
+    public void purgeExpiredKeys() {
+        try {
+            int purged = idempotencyService.purgeExpired();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("Idempotency key purge failed", e);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.artivisi.accountingfinance.scheduler;
 
-import com.artivisi.accountingfinance.entity.DepreciationEntry;
 import com.artivisi.accountingfinance.service.AmortizationBatchService;
 import com.artivisi.accountingfinance.service.FixedAssetService;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +9,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.List;
 
 /**
  * Scheduler for automated monthly journal entries.
@@ -36,8 +34,8 @@ public class MonthlyJournalScheduler {
         log.info("Starting scheduled amortization batch processing");
         try {
             AmortizationBatchService.BatchResult result = amortizationBatchService.processAutoPostEntries(LocalDate.now());
-            log.info("Scheduled amortization batch completed: {} processed, {} success, {} errors",
-                    result.totalProcessed(), result.successCount(), result.errorCount());
+            log.info("Scheduled amortization batch completed: {} processed, {} success, {} errors, {} journals",
+                    result.totalProcessed(), result.successCount(), result.errorCount(), result.journalCount());
         } catch (Exception e) {
             log.error("Scheduled amortization batch failed", e);
         }
@@ -45,7 +43,8 @@ public class MonthlyJournalScheduler {
 
     /**
      * Run on the 1st day of each month at 7:00 AM to process depreciation entries
-     * for the previous month. Entries are generated and auto-posted.
+     * for the previous month. Entries are generated and posted as consolidated
+     * journals per asset category.
      */
     @Scheduled(cron = "${app.depreciation.schedule:0 0 7 1 * *}")
     public void processDepreciationEntries() {
@@ -53,41 +52,15 @@ public class MonthlyJournalScheduler {
         log.info("Starting scheduled depreciation batch processing for period: {}", previousMonth);
 
         try {
-            // Step 1: Generate depreciation entries
-            List<DepreciationEntry> generatedEntries = fixedAssetService.generateDepreciationEntries(previousMonth);
+            FixedAssetService.DepreciationRunSummary summary =
+                    fixedAssetService.runMonthlyDepreciation(previousMonth, SYSTEM_USER);
 
-            if (generatedEntries.isEmpty()) {
-                log.info("No assets need depreciation for period {}", previousMonth);
-                return;
-            }
-
-            // Step 2: Post all generated entries
-            int postedCount = 0;
-            int errorCount = 0;
-
-            for (DepreciationEntry entry : generatedEntries) {
-                if (tryPostDepreciationEntry(entry)) {
-                    postedCount++;
-                } else {
-                    errorCount++;
-                }
-            }
-
-            log.info("Scheduled depreciation batch completed: {} generated, {} posted, {} errors",
-                    generatedEntries.size(), postedCount, errorCount);
+            log.info("Scheduled depreciation batch completed: {} generated in {} ms ({}/s), "
+                            + "{} posted in {} journals in {} ms ({}/s)",
+                    summary.generated(), summary.generateMillis(), summary.generatedPerSecond(),
+                    summary.posted(), summary.journals(), summary.postMillis(), summary.postedPerSecond());
         } catch (Exception e) {
             log.error("Scheduled depreciation batch failed", e);
         }
     }
-
-    private boolean tryPostDepreciationEntry(DepreciationEntry entry) {
-        try {
-            fixedAssetService.postDepreciationEntry(entry.getId(), SYSTEM_USER);
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to post depreciation entry: asset={}, period={}, error={}",
-                    entry.getFixedAsset().getAssetCode(), entry.getPeriodNumber(), e.getMessage());
-            return false;
-        }
-    }
 }
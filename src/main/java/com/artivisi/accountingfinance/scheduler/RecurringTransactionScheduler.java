@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -17,8 +19,9 @@ public class RecurringTransactionScheduler {
     public void processRecurringTransactions() {
         log.info("Starting scheduled recurring transaction processing");
         try {
-            int processed = recurringTransactionService.processAllDue();
-            log.info("Recurring transaction processing completed: {} transactions processed", processed);
+            RecurringTransactionService.RecurringRunSummary summary =
+                    recurringTransactionService.runAllDue(LocalDate.now());
+            log.info("Recurring transaction processing completed: {} transactions processed", summary.processed());
         } catch (Exception e) {
             log.error("Scheduled recurring transaction processing failed", e);
         }
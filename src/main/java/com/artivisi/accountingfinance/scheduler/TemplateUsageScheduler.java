@@ -0,0 +1,36 @@
+package com.artivisi.accountingfinance.scheduler;
+
+import com.artivisi.accountingfinance.service.TemplateUsageTracker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes coalesced template usage counters to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TemplateUsageScheduler {
+
+    private final TemplateUsageTracker templateUsageTracker;
+
+    @Scheduled(fixedDelayString = "${app.template-usage.flush-interval:60000}")
+    public void flushTemplateUsage() {
+        try {
+            int updated = templateUsageTracker.flush();
+            if (updated > 0) {
+                log.debug("Flushed usage counters for {} templates", updated);
+            }
+        } catch (Exception e) {
+            log.error("Template usage flush failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushTemplateUsage();
+    }
+}
@@ -1,25 +1,33 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.dto.AgingBucket;
+import com.artivisi.accountingfinance.dto.AgingDetailRow;
 import com.artivisi.accountingfinance.dto.AgingReport;
 import com.artivisi.accountingfinance.dto.AgingRow;
-import com.artivisi.accountingfinance.entity.Bill;
-import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.enums.AgingPeriod;
 import com.artivisi.accountingfinance.repository.BillRepository;
 import com.artivisi.accountingfinance.repository.InvoiceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Receivables and payables aging.
+ *
+ * Bucket totals per counterparty are computed by the database in one aggregate
+ * query, so memory depends on the number of clients or vendors, not on the number
+ * of open documents. Balances are a point-in-time snapshot: only payments dated
+ * on or before the as-of date are deducted.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -29,124 +37,96 @@ public class AgingReportService {
     private final BillRepository billRepository;
 
     public AgingReport generateReceivablesAging(LocalDate asOfDate) {
-        List<Invoice> outstanding = invoiceRepository.findOutstandingInvoices();
+        return toReport("RECEIVABLES", asOfDate, invoiceRepository.sumAgingBucketsByClient(asOfDate));
+    }
 
-        // Group by client
-        Map<UUID, List<Invoice>> byClient = new LinkedHashMap<>();
-        for (Invoice inv : outstanding) {
-            byClient.computeIfAbsent(inv.getClient().getId(), k -> new ArrayList<>()).add(inv);
-        }
+    public AgingReport generatePayablesAging(LocalDate asOfDate) {
+        return toReport("PAYABLES", asOfDate, billRepository.sumAgingBucketsByVendor(asOfDate));
+    }
+
+    /**
+     * Open invoices behind a receivables aging row.
+     *
+     * @param clientId client to drill into, or null for all clients
+     * @param period aging bucket to limit to, or null for all buckets
+     */
+    public Page<AgingDetailRow> findReceivablesDetails(UUID clientId, AgingPeriod period,
+                                                       LocalDate asOfDate, Pageable pageable) {
+        return invoiceRepository.findAgingDetails(clientId, asOfDate,
+                        minDays(period), maxDays(period), unsorted(pageable))
+                .map(this::toDetailRow);
+    }
 
-        List<AgingRow> rows = new ArrayList<>();
+    /**
+     * Open bills behind a payables aging row.
+     *
+     * @param vendorId vendor to drill into, or null for all vendors
+     * @param period aging bucket to limit to, or null for all buckets
+     */
+    public Page<AgingDetailRow> findPayablesDetails(UUID vendorId, AgingPeriod period,
+                                                    LocalDate asOfDate, Pageable pageable) {
+        return billRepository.findAgingDetails(vendorId, asOfDate,
+                        minDays(period), maxDays(period), unsorted(pageable))
+                .map(this::toDetailRow);
+    }
+
+    private AgingReport toReport(String reportType, LocalDate asOfDate, List<Object[]> results) {
+        List<AgingRow> rows = new ArrayList<>(results.size());
         AgingBucket totals = AgingBucket.zero();
 
-        for (Map.Entry<UUID, List<Invoice>> entry : byClient.entrySet()) {
-            List<Invoice> invoices = entry.getValue();
-            Invoice first = invoices.getFirst();
-
-            AgingBucket bucket = AgingBucket.zero();
-            for (Invoice inv : invoices) {
-                BigDecimal amount = inv.getBalanceDue();
-                if (amount.compareTo(BigDecimal.ZERO) <= 0) continue;
-                bucket = addToBucket(bucket, inv.getDueDate(), asOfDate, amount);
-            }
-
-            rows.add(new AgingRow(
-                    first.getClient().getId(),
-                    first.getClient().getCode(),
-                    first.getClient().getName(),
-                    bucket
-            ));
+        for (Object[] r : results) {
+            AgingBucket bucket = new AgingBucket(
+                    toBigDecimal(r[3]),
+                    toBigDecimal(r[4]),
+                    toBigDecimal(r[5]),
+                    toBigDecimal(r[6]),
+                    toBigDecimal(r[7]),
+                    toBigDecimal(r[8])
+            );
+            rows.add(new AgingRow((UUID) r[0], (String) r[1], (String) r[2], bucket));
             totals = totals.add(bucket);
         }
 
-        return new AgingReport("RECEIVABLES", asOfDate, rows, totals);
+        return new AgingReport(reportType, asOfDate, rows, totals);
     }
 
-    public AgingReport generatePayablesAging(LocalDate asOfDate) {
-        List<Bill> outstanding = billRepository.findOutstandingBills();
+    private AgingDetailRow toDetailRow(Object[] r) {
+        return new AgingDetailRow(
+                (UUID) r[0],
+                (String) r[1],
+                toLocalDate(r[2]),
+                toLocalDate(r[3]),
+                toBigDecimal(r[4]),
+                toBigDecimal(r[5]),
+                toBigDecimal(r[6]),
+                ((Number) r[7]).longValue()
+        );
+    }
 
-        // Group by vendor
-        Map<UUID, List<Bill>> byVendor = new LinkedHashMap<>();
-        for (Bill bill : outstanding) {
-            byVendor.computeIfAbsent(bill.getVendor().getId(), k -> new ArrayList<>()).add(bill);
-        }
+    // Detail queries have a fixed ORDER BY; a client-supplied sort would reference entity properties
+    private Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
 
-        List<AgingRow> rows = new ArrayList<>();
-        AgingBucket totals = AgingBucket.zero();
+    private Integer minDays(AgingPeriod period) {
+        return period != null ? period.getMinDaysOverdue() : null;
+    }
 
-        for (Map.Entry<UUID, List<Bill>> entry : byVendor.entrySet()) {
-            List<Bill> bills = entry.getValue();
-            Bill first = bills.getFirst();
-
-            AgingBucket bucket = AgingBucket.zero();
-            for (Bill bill : bills) {
-                BigDecimal amount = bill.getBalanceDue();
-                if (amount.compareTo(BigDecimal.ZERO) <= 0) continue;
-                bucket = addToBucket(bucket, bill.getDueDate(), asOfDate, amount);
-            }
-
-            rows.add(new AgingRow(
-                    first.getVendor().getId(),
-                    first.getVendor().getCode(),
-                    first.getVendor().getName(),
-                    bucket
-            ));
-            totals = totals.add(bucket);
-        }
+    private Integer maxDays(AgingPeriod period) {
+        return period != null ? period.getMaxDaysOverdue() : null;
+    }
 
-        return new AgingReport("PAYABLES", asOfDate, rows, totals);
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
     }
 
-    private AgingBucket addToBucket(AgingBucket existing, LocalDate dueDate, LocalDate asOfDate, BigDecimal amount) {
-        long daysOverdue = ChronoUnit.DAYS.between(dueDate, asOfDate);
-
-        if (daysOverdue <= 0) {
-            // Not yet due — current
-            return new AgingBucket(
-                    existing.current().add(amount),
-                    existing.days1to30(),
-                    existing.days31to60(),
-                    existing.days61to90(),
-                    existing.over90(),
-                    existing.total().add(amount)
-            );
-        } else if (daysOverdue <= 30) {
-            return new AgingBucket(
-                    existing.current(),
-                    existing.days1to30().add(amount),
-                    existing.days31to60(),
-                    existing.days61to90(),
-                    existing.over90(),
-                    existing.total().add(amount)
-            );
-        } else if (daysOverdue <= 60) {
-            return new AgingBucket(
-                    existing.current(),
-                    existing.days1to30(),
-                    existing.days31to60().add(amount),
-                    existing.days61to90(),
-                    existing.over90(),
-                    existing.total().add(amount)
-            );
-        } else if (daysOverdue <= 90) {
-            return new AgingBucket(
-                    existing.current(),
-                    existing.days1to30(),
-                    existing.days31to60(),
-                    existing.days61to90().add(amount),
-                    existing.over90(),
-                    existing.total().add(amount)
-            );
-        } else {
-            return new AgingBucket(
-                    existing.current(),
-                    existing.days1to30(),
-                    existing.days31to60(),
-                    existing.days61to90(),
-                    existing.over90().add(amount),
-                    existing.total().add(amount)
-            );
+    private LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
         }
+        return (LocalDate) value;
     }
 }
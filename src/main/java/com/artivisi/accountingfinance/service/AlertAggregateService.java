@@ -0,0 +1,382 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Project;
+import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.enums.NormalBalance;
+import com.artivisi.accountingfinance.event.DomainEvent;
+import com.artivisi.accountingfinance.event.DomainEventListener;
+import com.artivisi.accountingfinance.event.InvoicePaidEvent;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import com.artivisi.accountingfinance.repository.InvoiceRepository;
+import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Running aggregates behind the alert rules, kept current from ledger and invoice
+ * events delivered by the outbox after commit.
+ *
+ * Monthly expense, cash and client revenue totals and per-project
+ * profitability are cached and only recomputed for the months and projects
+ * touched by a posted or voided transaction. Collection days are a sliding window that is extended as
+ * invoices are paid and trimmed as it moves. All caches are dropped once a day
+ * so date-dependent values (e.g. future-dated entries) catch up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AlertAggregateService implements DomainEventListener {
+
+    private static final int COLLECTION_WINDOW_MONTHS = 6;
+    private static final int CLIENT_REVENUE_WINDOW_MONTHS = 12;
+    private static final LocalDate LEDGER_START = LocalDate.of(1900, 1, 1);
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ProjectProfitabilityService projectProfitabilityService;
+
+    private final Map<YearMonth, BigDecimal> monthlyExpense = new ConcurrentHashMap<>();
+    private final Map<UUID, ProjectLedgerTotals> projectTotals = new ConcurrentHashMap<>();
+    private final Map<YearMonth, BigDecimal> monthlyCash = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Map<UUID, BigDecimal>> monthlyClientRevenue = new ConcurrentHashMap<>();
+
+    private final CacheGeneration generation = new CacheGeneration();
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private volatile LocalDate cacheDate;
+    private volatile LocalDate lastChangeCheck;
+    // Earliest month with a cash bucket; null until the buckets are loaded
+    private volatile YearMonth firstCashMonth;
+
+    // Guarded by this
+    private CollectionWindow collectionWindow;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onDomainEvent(DomainEvent event) {
+        switch (event) {
+            case LedgerChangedEvent ledgerChanged -> onLedgerChanged(ledgerChanged);
+            case InvoicePaidEvent invoicePaid -> onInvoicePaid(invoicePaid);
+            default -> {
+                // Not relevant to the alert rules
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        if (event.transactionDate() == null) {
+            generation.invalidateNow(this::clearLedgerAggregates);
+        } else {
+            generation.invalidateNow(() -> dropLedgerAggregates(
+                    YearMonth.from(event.transactionDate()), event.projectIds()));
+        }
+        changed.set(true);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized void onInvoicePaid(InvoicePaidEvent event) {
+        if (collectionWindow != null && event.sentAt() != null && event.paidAt() != null) {
+            collectionWindow.add(event.invoiceId(), event.sentAt(), event.paidAt());
+        }
+        changed.set(true);
+    }
+
+    /**
+     * Marks the aggregates as changed so the next change-driven evaluation runs,
+     * e.g. after an alert rule is edited.
+     */
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    /**
+     * Whether anything relevant to the alert rules changed since the last call.
+     * The first call of a day always reports a change and drops the caches.
+     * A caller whose evaluation then fails must {@link #markChanged()} again.
+     */
+    public boolean consumeChanges(LocalDate today) {
+        boolean anyChange = changed.getAndSet(false);
+        if (!today.equals(lastChangeCheck)) {
+            lastChangeCheck = today;
+            invalidateAll(today);
+            return true;
+        }
+        return anyChange;
+    }
+
+    /**
+     * Total expense (non-header, active expense accounts) posted in the month.
+     */
+    public BigDecimal getMonthlyExpense(YearMonth month) {
+        refreshIfNewDay();
+        BigDecimal cached = monthlyExpense.get(month);
+        if (cached != null) {
+            return cached;
+        }
+
+        long gen = generation.current();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Object[] row : journalEntryRepository.sumByNormalBalanceForAccountTypeAndDateRange(
+                AccountType.EXPENSE, month.atDay(1), month.atEndOfMonth())) {
+            total = total.add(balance(row[0], row[1], row[2]));
+        }
+        if (generation.isCurrent(gen)) {
+            monthlyExpense.put(month, total);
+        }
+        return total;
+    }
+
+    /**
+     * Cash and bank balance as of the end of the current month, summed from
+     * monthly buckets. Only months not yet cached, or touched since, are read
+     * from the ledger, in one grouped query.
+     */
+    public BigDecimal getCashBalance() {
+        refreshIfNewDay();
+        YearMonth current = YearMonth.now();
+
+        long gen = generation.current();
+        YearMonth first = firstCashMonth;
+        Map<YearMonth, BigDecimal> buckets = new HashMap<>();
+        if (first == null) {
+            buckets.putAll(sumMonthlyCash(LEDGER_START, current.atEndOfMonth()));
+            first = buckets.keySet().stream().min(Comparator.naturalOrder()).orElse(current);
+        } else {
+            buckets.putAll(monthlyCash);
+            List<YearMonth> missing = new ArrayList<>();
+            for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+                if (!buckets.containsKey(month)) {
+                    missing.add(month);
+                }
+            }
+            if (!missing.isEmpty()) {
+                Map<YearMonth, BigDecimal> loaded = sumMonthlyCash(
+                        missing.getFirst().atDay(1), missing.getLast().atEndOfMonth());
+                missing.forEach(month -> buckets.put(month, loaded.getOrDefault(month, BigDecimal.ZERO)));
+                log.debug("Recomputed cash for {} months", missing.size());
+            }
+        }
+
+        // Months without entries are kept as zero so they are not read again
+        BigDecimal total = BigDecimal.ZERO;
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            total = total.add(buckets.computeIfAbsent(month, m -> BigDecimal.ZERO));
+        }
+        if (generation.isCurrent(gen)) {
+            monthlyCash.putAll(buckets);
+            firstCashMonth = first;
+        }
+        return total;
+    }
+
+    /**
+     * Revenue (non-header, active revenue accounts) per client, from entries on
+     * the client's projects over the twelve months up to today, summed from
+     * monthly buckets. Only months not yet cached, or touched since, are read
+     * from the ledger, in one grouped query.
+     */
+    public Map<UUID, BigDecimal> getClientRevenue() {
+        refreshIfNewDay();
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusMonths(CLIENT_REVENUE_WINDOW_MONTHS);
+        List<YearMonth> window = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(today)); month = month.plusMonths(1)) {
+            window.add(month);
+        }
+
+        long gen = generation.current();
+        Map<YearMonth, Map<UUID, BigDecimal>> buckets = new HashMap<>(monthlyClientRevenue);
+        List<YearMonth> missing = window.stream().filter(month -> !buckets.containsKey(month)).toList();
+        if (!missing.isEmpty()) {
+            // The first and last buckets only cover the part of their month inside the window
+            LocalDate from = missing.getFirst().atDay(1);
+            LocalDate to = missing.getLast().atEndOfMonth();
+            Map<YearMonth, Map<UUID, BigDecimal>> loaded = new HashMap<>();
+            for (Object[] row : journalEntryRepository.sumMonthlyByClientAndNormalBalanceForAccountType(
+                    AccountType.REVENUE, from.isBefore(start) ? start : from, to.isAfter(today) ? today : to)) {
+                loaded.computeIfAbsent(monthOf(row[1], row[2]), month -> new HashMap<>())
+                        .merge((UUID) row[0], balance(row[3], row[4], row[5]), BigDecimal::add);
+            }
+            Map<YearMonth, Map<UUID, BigDecimal>> computed = new HashMap<>();
+            missing.forEach(month -> computed.put(month, Map.copyOf(loaded.getOrDefault(month, Map.of()))));
+            if (generation.isCurrent(gen)) {
+                monthlyClientRevenue.putAll(computed);
+            }
+            buckets.putAll(computed);
+            log.debug("Recomputed client revenue for {} of {} months", missing.size(), window.size());
+        }
+
+        Map<UUID, BigDecimal> result = new HashMap<>();
+        for (YearMonth month : window) {
+            buckets.get(month).forEach((clientId, revenue) -> result.merge(clientId, revenue, BigDecimal::add));
+        }
+        return result;
+    }
+
+    /**
+     * All-time revenue, expense and cost to date per project. Only projects not
+     * yet cached, or touched since, are read from the ledger, in one grouped query.
+     */
+    public Map<UUID, ProjectLedgerTotals> getProjectTotals(List<Project> projects) {
+        refreshIfNewDay();
+        Map<UUID, ProjectLedgerTotals> result = new LinkedHashMap<>();
+        List<Project> missing = new ArrayList<>();
+        for (Project project : projects) {
+            ProjectLedgerTotals cached = projectTotals.get(project.getId());
+            if (cached != null) {
+                result.put(project.getId(), cached);
+            } else {
+                missing.add(project);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long gen = generation.current();
+        Map<UUID, ProjectLedgerTotals> computed = new LinkedHashMap<>();
+        for (ProjectProfitabilityService.ProjectProfitabilityReport report :
+                projectProfitabilityService.calculateProjectProfitability(missing, LEDGER_START, LocalDate.now())) {
+            computed.put(report.project().getId(), new ProjectLedgerTotals(
+                    report.totalRevenue(), report.totalExpense(), report.profitMargin(), report.costToDate()));
+        }
+        if (generation.isCurrent(gen)) {
+            projectTotals.putAll(computed);
+        }
+        log.debug("Recomputed ledger totals for {} of {} projects", missing.size(), projects.size());
+
+        result.putAll(computed);
+        return result;
+    }
+
+    /**
+     * Average days from sending to payment for invoices paid after {@code now} minus six months.
+     */
+    public synchronized CollectionStats getCollectionStats(LocalDateTime now) {
+        refreshIfNewDay();
+        LocalDateTime cutoff = now.minusMonths(COLLECTION_WINDOW_MONTHS);
+        if (collectionWindow == null) {
+            collectionWindow = new CollectionWindow();
+            for (Object[] row : invoiceRepository.findPaymentTimingPaidAfter(cutoff)) {
+                collectionWindow.add((UUID) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2]);
+            }
+        }
+        collectionWindow.evictPaidOnOrBefore(cutoff);
+        return collectionWindow.stats();
+    }
+
+    private void refreshIfNewDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(cacheDate)) {
+            invalidateAll(today);
+        }
+    }
+
+    private synchronized void invalidateAll(LocalDate today) {
+        generation.invalidateNow(() -> {
+            clearLedgerAggregates();
+            collectionWindow = null;
+        });
+        cacheDate = today;
+    }
+
+    private void clearLedgerAggregates() {
+        monthlyExpense.clear();
+        projectTotals.clear();
+        monthlyCash.clear();
+        monthlyClientRevenue.clear();
+        firstCashMonth = null;
+    }
+
+    private void dropLedgerAggregates(YearMonth month, Set<UUID> projectIds) {
+        monthlyExpense.remove(month);
+        monthlyCash.remove(month);
+        monthlyClientRevenue.remove(month);
+        YearMonth firstCash = firstCashMonth;
+        if (firstCash != null && month.isBefore(firstCash)) {
+            firstCashMonth = month;
+        }
+        projectIds.forEach(projectTotals::remove);
+    }
+
+    private Map<YearMonth, BigDecimal> sumMonthlyCash(LocalDate startDate, LocalDate endDate) {
+        Map<YearMonth, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : journalEntryRepository.sumMonthlyByNormalBalanceForCashAccounts(startDate, endDate)) {
+            totals.merge(monthOf(row[0], row[1]), balance(row[2], row[3], row[4]), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    private static YearMonth monthOf(Object year, Object month) {
+        return YearMonth.of(((Number) year).intValue(), ((Number) month).intValue());
+    }
+
+    private static BigDecimal balance(Object normalBalance, Object debit, Object credit) {
+        BigDecimal debitAmount = (BigDecimal) debit;
+        BigDecimal creditAmount = (BigDecimal) credit;
+        return normalBalance == NormalBalance.DEBIT
+                ? debitAmount.subtract(creditAmount)
+                : creditAmount.subtract(debitAmount);
+    }
+
+    public record ProjectLedgerTotals(
+            BigDecimal totalRevenue,
+            BigDecimal totalExpense,
+            BigDecimal profitMargin,
+            BigDecimal costToDate
+    ) {}
+
+    public record CollectionStats(int invoiceCount, double averageDays) {}
+
+    private static final class CollectionWindow {
+        private final TreeSet<PaidInvoice> byPaidAt = new TreeSet<>(
+                Comparator.comparing(PaidInvoice::paidAt).thenComparing(PaidInvoice::invoiceId));
+        private final Set<UUID> invoiceIds = new HashSet<>();
+        private long totalDays;
+
+        private void add(UUID invoiceId, LocalDateTime sentAt, LocalDateTime paidAt) {
+            if (invoiceIds.add(invoiceId)) {
+                PaidInvoice paid = new PaidInvoice(invoiceId, paidAt, ChronoUnit.DAYS.between(sentAt, paidAt));
+                byPaidAt.add(paid);
+                totalDays += paid.days();
+            }
+        }
+
+        private void evictPaidOnOrBefore(LocalDateTime cutoff) {
+            while (!byPaidAt.isEmpty() && !byPaidAt.first().paidAt().isAfter(cutoff)) {
+                PaidInvoice paid = byPaidAt.pollFirst();
+                invoiceIds.remove(paid.invoiceId());
+                totalDays -= paid.days();
+            }
+        }
+
+        private CollectionStats stats() {
+            int count = byPaidAt.size();
+            return new CollectionStats(count, count == 0 ? 0 : (double) totalDays / count);
+        }
+    }
+
+    private record PaidInvoice(UUID invoiceId, LocalDateTime paidAt, long days) {}
+}
@@ -2,14 +2,14 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.entity.AlertEvent;
 import com.artivisi.accountingfinance.entity.AlertRule;
-import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.entity.Client;
 import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.enums.AlertSeverity;
 import com.artivisi.accountingfinance.enums.AlertType;
-import com.artivisi.accountingfinance.enums.InvoiceStatus;
 import com.artivisi.accountingfinance.enums.ProjectStatus;
 import com.artivisi.accountingfinance.repository.AlertEventRepository;
 import com.artivisi.accountingfinance.repository.AlertRuleRepository;
+import com.artivisi.accountingfinance.repository.ClientRepository;
 import com.artivisi.accountingfinance.repository.InvoiceRepository;
 import com.artivisi.accountingfinance.repository.ProjectRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -19,14 +19,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -38,10 +40,11 @@ public class AlertService {
 
     private final AlertRuleRepository alertRuleRepository;
     private final AlertEventRepository alertEventRepository;
-    private final DashboardService dashboardService;
     private final InvoiceRepository invoiceRepository;
     private final ProjectProfitabilityService projectProfitabilityService;
     private final ProjectRepository projectRepository;
+    private final ClientRepository clientRepository;
+    private final AlertAggregateService alertAggregateService;
 
     // --- CRUD ---
 
@@ -59,6 +62,7 @@ public class AlertService {
                 .orElseThrow(() -> new EntityNotFoundException("Alert rule not found: " + id));
         rule.setThreshold(threshold);
         rule.setEnabled(enabled);
+        alertAggregateService.markChanged();
         return alertRuleRepository.save(rule);
     }
 
@@ -85,6 +89,29 @@ public class AlertService {
 
     // --- Evaluation ---
 
+    /**
+     * Evaluate all rules only if the ledger, invoices or rules changed since the
+     * last check, or on the first check of a day. Meant to be called frequently.
+     */
+    @Transactional
+    public int evaluateChangedAlerts() {
+        if (!alertAggregateService.consumeChanges(LocalDate.now())) {
+            return 0;
+        }
+        // The changes count as evaluated only once the results are committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        alertAggregateService.markChanged();
+                    }
+                }
+            });
+        }
+        return evaluateAllAlerts();
+    }
+
     @Transactional
     public int evaluateAllAlerts() {
         List<AlertRule> enabledRules = alertRuleRepository.findByEnabledTrue();
@@ -92,9 +119,11 @@ public class AlertService {
 
         for (AlertRule rule : enabledRules) {
             try {
-                // Dedup: skip if unacknowledged event for same rule within 24h
-                if (alertEventRepository.existsRecentUnacknowledged(rule.getId(), LocalDateTime.now().minusHours(24))) {
-                    log.debug("Skipping {} — recent unacknowledged event exists", rule.getAlertType());
+                // Dedup: skip if the rule fired within 24h, acknowledged or not, so an
+                // acknowledged alert is not raised again on the next minute's run
+                if (rule.getLastTriggeredAt() != null
+                        && rule.getLastTriggeredAt().isAfter(LocalDateTime.now().minusHours(24))) {
+                    log.debug("Skipping {} — triggered at {}", rule.getAlertType(), rule.getLastTriggeredAt());
                     continue;
                 }
 
@@ -127,9 +156,7 @@ public class AlertService {
     }
 
     private AlertEvent evaluateCashLow(AlertRule rule) {
-        YearMonth now = YearMonth.now();
-        DashboardService.DashboardKPI kpi = dashboardService.calculateKPIs(now);
-        BigDecimal cashBalance = kpi.cashBalance();
+        BigDecimal cashBalance = alertAggregateService.getCashBalance();
 
         if (cashBalance.compareTo(rule.getThreshold()) < 0) {
             AlertSeverity severity = cashBalance.compareTo(BigDecimal.ZERO) <= 0
@@ -146,25 +173,24 @@ public class AlertService {
     }
 
     private AlertEvent evaluateReceivableOverdue(AlertRule rule) {
-        List<Invoice> overdueInvoices = invoiceRepository.findOverdueInvoices(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        long overdueCount = invoiceRepository.countOverdueInvoices(today);
 
-        if (overdueInvoices.isEmpty()) {
+        if (overdueCount == 0) {
             return null;
         }
 
-        BigDecimal totalOverdue = overdueInvoices.stream()
-                .map(Invoice::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalOverdue = invoiceRepository.sumOverdueAmount(today);
 
         if (totalOverdue.compareTo(rule.getThreshold()) > 0) {
-            AlertSeverity severity = overdueInvoices.size() > 5
+            AlertSeverity severity = overdueCount > 5
                     ? AlertSeverity.CRITICAL : AlertSeverity.WARNING;
 
             AlertEvent event = new AlertEvent();
             event.setAlertRule(rule);
             event.setSeverity(severity);
             event.setMessage(String.format("%d piutang jatuh tempo, total: Rp %,.0f",
-                    overdueInvoices.size(), totalOverdue));
+                    overdueCount, totalOverdue));
             return event;
         }
         return null;
@@ -172,14 +198,12 @@ public class AlertService {
 
     private AlertEvent evaluateExpenseSpike(AlertRule rule) {
         YearMonth currentMonth = YearMonth.now();
-        DashboardService.DashboardKPI currentKpi = dashboardService.calculateKPIs(currentMonth);
-        BigDecimal currentExpense = currentKpi.expense();
+        BigDecimal currentExpense = alertAggregateService.getMonthlyExpense(currentMonth);
 
         // Calculate average of previous 3 months
         BigDecimal avgExpense = BigDecimal.ZERO;
         for (int i = 1; i <= 3; i++) {
-            DashboardService.DashboardKPI prevKpi = dashboardService.calculateKPIs(currentMonth.minusMonths(i));
-            avgExpense = avgExpense.add(prevKpi.expense());
+            avgExpense = avgExpense.add(alertAggregateService.getMonthlyExpense(currentMonth.minusMonths(i)));
         }
         avgExpense = avgExpense.divide(BigDecimal.valueOf(3), 2, RoundingMode.HALF_UP);
 
@@ -210,9 +234,12 @@ public class AlertService {
         int highRiskCount = 0;
         StringBuilder details = new StringBuilder();
 
+        Map<UUID, AlertAggregateService.ProjectLedgerTotals> totals =
+                alertAggregateService.getProjectTotals(activeProjects);
+
         for (Project project : activeProjects) {
-            ProjectProfitabilityService.CostOverrunReport report =
-                    projectProfitabilityService.calculateCostOverrun(project.getId());
+            ProjectProfitabilityService.CostOverrunReport report = projectProfitabilityService
+                    .calculateCostOverrun(project, totals.get(project.getId()).costToDate());
 
             if (report.riskLevel() == ProjectProfitabilityService.CostOverrunRisk.HIGH) {
                 highRiskCount++;
@@ -241,23 +268,22 @@ public class AlertService {
         boolean hasNegativeMargin = false;
         StringBuilder details = new StringBuilder();
 
-        LocalDate startDate = LocalDate.of(1900, 1, 1);
-        LocalDate endDate = LocalDate.now();
+        Map<UUID, AlertAggregateService.ProjectLedgerTotals> totals =
+                alertAggregateService.getProjectTotals(activeProjects);
 
         for (Project project : activeProjects) {
-            ProjectProfitabilityService.ProjectProfitabilityReport report =
-                    projectProfitabilityService.calculateProjectProfitability(project.getId(), startDate, endDate);
+            AlertAggregateService.ProjectLedgerTotals projectTotals = totals.get(project.getId());
 
-            if (report.totalRevenue().compareTo(BigDecimal.ZERO) == 0) {
+            if (projectTotals.totalRevenue().compareTo(BigDecimal.ZERO) == 0) {
                 continue;
             }
 
-            if (report.profitMargin().compareTo(rule.getThreshold()) < 0) {
+            if (projectTotals.profitMargin().compareTo(rule.getThreshold()) < 0) {
                 lowMarginCount++;
-                if (report.profitMargin().compareTo(BigDecimal.ZERO) < 0) {
+                if (projectTotals.profitMargin().compareTo(BigDecimal.ZERO) < 0) {
                     hasNegativeMargin = true;
                 }
-                details.append(String.format("%s (margin: %.1f%%), ", project.getName(), report.profitMargin()));
+                details.append(String.format("%s (margin: %.1f%%), ", project.getName(), projectTotals.profitMargin()));
             }
         }
 
@@ -276,23 +302,14 @@ public class AlertService {
     }
 
     private AlertEvent evaluateCollectionSlowdown(AlertRule rule) {
-        List<Invoice> paidInvoices = invoiceRepository.findByStatus(InvoiceStatus.PAID);
+        // Invoices paid in the last 6 months
+        AlertAggregateService.CollectionStats stats = alertAggregateService.getCollectionStats(LocalDateTime.now());
 
-        // Filter to last 6 months and calculate avg days
-        LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6);
-        List<Invoice> recentPaid = paidInvoices.stream()
-                .filter(i -> i.getPaidAt() != null && i.getSentAt() != null)
-                .filter(i -> i.getPaidAt().isAfter(sixMonthsAgo))
-                .toList();
-
-        if (recentPaid.isEmpty()) {
+        if (stats.invoiceCount() == 0) {
             return null;
         }
 
-        long totalDays = recentPaid.stream()
-                .mapToLong(i -> ChronoUnit.DAYS.between(i.getSentAt(), i.getPaidAt()))
-                .sum();
-        double avgDays = (double) totalDays / recentPaid.size();
+        double avgDays = stats.averageDays();
 
         if (BigDecimal.valueOf(avgDays).compareTo(rule.getThreshold()) > 0) {
             AlertEvent event = new AlertEvent();
@@ -306,22 +323,36 @@ public class AlertService {
     }
 
     private AlertEvent evaluateClientConcentration(AlertRule rule) {
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusMonths(12);
-
-        List<ProjectProfitabilityService.ClientRankingItem> rankings =
-                projectProfitabilityService.getClientRanking(startDate, endDate, 0);
-
-        for (ProjectProfitabilityService.ClientRankingItem item : rankings) {
-            if (item.revenuePercentage().compareTo(rule.getThreshold()) > 0) {
-                AlertEvent event = new AlertEvent();
-                event.setAlertRule(rule);
-                event.setSeverity(AlertSeverity.WARNING);
-                event.setMessage(String.format("Klien %s menyumbang %.1f%% pendapatan (ambang batas: %.0f%%)",
-                        item.client().getName(), item.revenuePercentage(), rule.getThreshold()));
-                return event;
+        Map<UUID, BigDecimal> revenueByClient = alertAggregateService.getClientRevenue();
+
+        // Share of the top client among active clients with revenue in the last 12 months
+        Client topClient = null;
+        BigDecimal topRevenue = BigDecimal.ZERO;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Client client : clientRepository.findByActiveTrue()) {
+            BigDecimal revenue = revenueByClient.getOrDefault(client.getId(), BigDecimal.ZERO);
+            if (revenue.compareTo(BigDecimal.ZERO) > 0) {
+                totalRevenue = totalRevenue.add(revenue);
+                if (revenue.compareTo(topRevenue) > 0) {
+                    topClient = client;
+                    topRevenue = revenue;
+                }
             }
         }
+        if (topClient == null) {
+            return null;
+        }
+
+        BigDecimal percentage = topRevenue.multiply(BigDecimal.valueOf(100))
+                .divide(totalRevenue, 2, RoundingMode.HALF_UP);
+        if (percentage.compareTo(rule.getThreshold()) > 0) {
+            AlertEvent event = new AlertEvent();
+            event.setAlertRule(rule);
+            event.setSeverity(AlertSeverity.WARNING);
+            event.setMessage(String.format("Klien %s menyumbang %.1f%% pendapatan (ambang batas: %.0f%%)",
+                    topClient.getName(), percentage, rule.getThreshold()));
+            return event;
+        }
         return null;
     }
 }
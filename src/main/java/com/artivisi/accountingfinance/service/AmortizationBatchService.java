@@ -3,6 +3,7 @@ package com.artivisi.accountingfinance.service;
 import com.artivisi.accountingfinance.entity.AmortizationEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +17,18 @@ public class AmortizationBatchService {
 
     private final AmortizationEntryService entryService;
 
+    // Post all due entries in one journal per period end instead of one journal per entry
+    @Value("${app.amortization.consolidate-journals:true}")
+    private boolean consolidateJournals = true;
+
     @Transactional
     public BatchResult processAutoPostEntries(LocalDate asOfDate) {
         log.info("Processing auto-post amortization entries for date: {}", asOfDate);
 
+        if (consolidateJournals) {
+            return processConsolidated(asOfDate);
+        }
+
         List<AmortizationEntry> pendingEntries = entryService.findPendingAutoPostEntriesDueByDate(asOfDate);
 
         int successCount = 0;
@@ -39,10 +48,24 @@ public class AmortizationBatchService {
         }
 
         log.info("Batch processing complete: {} success, {} errors", successCount, errorCount);
-        return new BatchResult(pendingEntries.size(), successCount, errorCount);
+        return new BatchResult(pendingEntries.size(), successCount, errorCount, successCount);
+    }
+
+    // All due entries are posted in the caller's transaction: a failing period rolls back the whole batch
+    private BatchResult processConsolidated(LocalDate asOfDate) {
+        List<AmortizationEntry> pendingEntries = entryService.findPendingAutoPostEntriesDueByDateWithSchedule(asOfDate);
+        if (pendingEntries.isEmpty()) {
+            log.info("Batch processing complete: no due entries");
+            return new BatchResult(0, 0, 0, 0);
+        }
+
+        int journalCount = entryService.postConsolidated(pendingEntries);
+        log.info("Batch processing complete: {} entries posted in {} journals",
+                pendingEntries.size(), journalCount);
+        return new BatchResult(pendingEntries.size(), pendingEntries.size(), 0, journalCount);
     }
 
-    public record BatchResult(int totalProcessed, int successCount, int errorCount) {
+    public record BatchResult(int totalProcessed, int successCount, int errorCount, int journalCount) {
         public boolean hasErrors() {
             return errorCount > 0;
         }
@@ -15,7 +15,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
@@ -48,6 +53,14 @@ public class AmortizationEntryService {
         return entryRepository.findPendingAutoPostEntriesDueByDate(date);
     }
 
+    /**
+     * Same as {@link #findPendingAutoPostEntriesDueByDate(LocalDate)}, with schedules
+     * and their accounts fetched in the same query.
+     */
+    public List<AmortizationEntry> findPendingAutoPostEntriesDueByDateWithSchedule(LocalDate date) {
+        return entryRepository.findPendingAutoPostEntriesDueByDateWithSchedule(date);
+    }
+
     @Transactional
     public AmortizationEntry postEntry(UUID entryId) {
         AmortizationEntry entry = findById(entryId);
@@ -99,6 +112,83 @@ public class AmortizationEntryService {
         return savedEntry;
     }
 
+    /**
+     * Post due entries as one journal per period end date instead of one per entry.
+     * Entries whose schedules debit and credit the same accounts share a single
+     * line pair carrying their total. Each entry still records the journal number
+     * and the debit line it was posted to, so every schedule stays traceable.
+     * The batch is all-or-nothing: if any period fails, no entry is posted.
+     *
+     * @param entries pending entries of active schedules, with schedules and accounts loaded
+     * @return number of journals posted
+     */
+    @Transactional
+    public int postConsolidated(List<AmortizationEntry> entries) {
+        Map<LocalDate, List<AmortizationEntry>> byPeriodEnd = new TreeMap<>();
+        for (AmortizationEntry entry : entries) {
+            if (!entry.isPending()) {
+                throw new IllegalStateException("Cannot post entry with status: " + entry.getStatus());
+            }
+            if (!entry.getSchedule().isActive()) {
+                throw new IllegalStateException("Cannot post entry for schedule with status: "
+                        + entry.getSchedule().getStatus());
+            }
+            byPeriodEnd.computeIfAbsent(entry.getPeriodEnd(), d -> new ArrayList<>()).add(entry);
+        }
+
+        for (Map.Entry<LocalDate, List<AmortizationEntry>> group : byPeriodEnd.entrySet()) {
+            postConsolidatedJournal(group.getKey(), group.getValue());
+        }
+        entryRepository.saveAll(entries);
+
+        Map<UUID, AmortizationSchedule> schedules = new LinkedHashMap<>();
+        for (AmortizationEntry entry : entries) {
+            schedules.putIfAbsent(entry.getSchedule().getId(), entry.getSchedule());
+        }
+        scheduleService.updateScheduleCounters(schedules.values());
+
+        return byPeriodEnd.size();
+    }
+
+    private void postConsolidatedJournal(LocalDate periodEnd, List<AmortizationEntry> entries) {
+        // Line pairs keyed by debit and credit account, in order of first appearance
+        Map<List<UUID>, List<JournalEntry>> linesByAccounts = new LinkedHashMap<>();
+        // Debit line each schedule is posted to; the same instance is saved with the journal
+        Map<UUID, JournalEntry> debitLineBySchedule = new HashMap<>();
+        for (AmortizationEntry entry : entries) {
+            List<JournalEntry> pair = createJournalEntries(entry);
+            List<UUID> key = List.of(pair.get(0).getAccount().getId(), pair.get(1).getAccount().getId());
+            List<JournalEntry> lines = linesByAccounts.putIfAbsent(key, pair);
+            if (lines != null) {
+                lines.get(0).setDebitAmount(lines.get(0).getDebitAmount().add(entry.getAmount()));
+                lines.get(1).setCreditAmount(lines.get(1).getCreditAmount().add(entry.getAmount()));
+            } else {
+                lines = pair;
+            }
+            debitLineBySchedule.put(entry.getSchedule().getId(), lines.get(0));
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(periodEnd);
+        transaction.setDescription(String.format("Amortisasi Otomatis - %s (%d jadwal)",
+                entries.get(0).getPeriodLabel(), entries.size()));
+        transaction.setReferenceNumber("AMORT-" + periodEnd);
+
+        List<JournalEntry> journalEntries = linesByAccounts.values().stream().flatMap(List::stream).toList();
+        Transaction savedTx = journalEntryService.create(transaction, new ArrayList<>(journalEntries));
+        journalEntryService.post(savedTx.getJournalEntries().get(0).getJournalNumber());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (AmortizationEntry entry : entries) {
+            JournalEntry debitLine = debitLineBySchedule.get(entry.getSchedule().getId());
+            entry.setJournalEntryId(debitLine.getId());
+            entry.setJournalNumber(debitLine.getJournalNumber());
+            entry.setStatus(AmortizationEntryStatus.POSTED);
+            entry.setPostedAt(now);
+            entry.setGeneratedAt(now);
+        }
+    }
+
     @Transactional
     public AmortizationEntry skipEntry(UUID entryId) {
         AmortizationEntry entry = findById(entryId);
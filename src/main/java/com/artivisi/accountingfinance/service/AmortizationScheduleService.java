@@ -22,7 +22,10 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -152,6 +155,35 @@ public class AmortizationScheduleService {
         long completedPeriods = entryRepository.countPostedEntriesByScheduleId(scheduleId);
         BigDecimal amortizedAmount = entryRepository.sumPostedAmountByScheduleId(scheduleId);
 
+        applyCounters(schedule, completedPeriods, amortizedAmount);
+        scheduleRepository.save(schedule);
+    }
+
+    /**
+     * Refresh counters of several schedules from one grouped query over their posted entries.
+     */
+    @Transactional
+    public void updateScheduleCounters(Collection<AmortizationSchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Object[]> posted = new HashMap<>();
+        for (Object[] row : entryRepository.sumPostedByScheduleIds(
+                schedules.stream().map(AmortizationSchedule::getId).toList())) {
+            posted.put((UUID) row[0], row);
+        }
+
+        for (AmortizationSchedule schedule : schedules) {
+            Object[] row = posted.get(schedule.getId());
+            long completedPeriods = row != null ? ((Number) row[1]).longValue() : 0;
+            BigDecimal amortizedAmount = row != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            applyCounters(schedule, completedPeriods, amortizedAmount);
+        }
+        scheduleRepository.saveAll(schedules);
+    }
+
+    private void applyCounters(AmortizationSchedule schedule, long completedPeriods, BigDecimal amortizedAmount) {
         schedule.setCompletedPeriods((int) completedPeriods);
         schedule.setAmortizedAmount(amortizedAmount);
         schedule.setRemainingAmount(schedule.getTotalAmount().subtract(amortizedAmount));
@@ -160,8 +192,6 @@ public class AmortizationScheduleService {
         if (completedPeriods >= schedule.getTotalPeriods()) {
             schedule.setStatus(ScheduleStatus.COMPLETED);
         }
-
-        scheduleRepository.save(schedule);
     }
 
     public int calculateTotalPeriods(LocalDate startDate, LocalDate endDate, AmortizationFrequency frequency) {
@@ -193,27 +193,8 @@ public class BankReconciliationService {
      * Find the first book entry that matches the given statement item by amount and date tolerance.
      */
     private JournalEntry findMatchingEntry(BankStatementItem item, MatchContext ctx, int dateToleranceDays) {
-        BigDecimal itemAmount = item.getNetAmount();
-
-        for (JournalEntry entry : ctx.bookEntries()) {
-            if (isAmountAndDateMatch(entry, itemAmount, item.getTransactionDate(), dateToleranceDays, ctx)) {
-                return entry;
-            }
-        }
-        return null;
-    }
-
-    private boolean isAmountAndDateMatch(JournalEntry entry, BigDecimal itemAmount,
-                                         LocalDate itemDate, int dateToleranceDays, MatchContext ctx) {
-        if (ctx.matchedTransactionIds().contains(entry.getTransaction().getId())) {
-            return false;
-        }
-        BigDecimal entryAmount = computeEntryNetAmount(entry);
-        if (itemAmount.compareTo(entryAmount) != 0) {
-            return false;
-        }
-        long daysDiff = Math.abs(itemDate.toEpochDay() - entry.getJournalDate().toEpochDay());
-        return daysDiff <= dateToleranceDays;
+        return BankStatementMatcher.findAmountAndDateMatch(ctx.bookEntries(), ctx.matchedTransactionIds(),
+                item.getNetAmount(), item.getTransactionDate(), dateToleranceDays);
     }
 
     private int keywordMatchPass(MatchContext ctx, List<BankStatementItem> unmatchedItems) {
@@ -239,48 +220,8 @@ public class BankReconciliationService {
      * Find a book entry matching by amount, date within 3 days, and keyword overlap.
      */
     private JournalEntry findKeywordMatchingEntry(BankStatementItem item, MatchContext ctx) {
-        BigDecimal itemAmount = item.getNetAmount();
-        String itemDesc = item.getDescription() != null ? item.getDescription().toLowerCase() : "";
-
-        for (JournalEntry entry : ctx.bookEntries()) {
-            if (isKeywordMatch(entry, itemAmount, item.getTransactionDate(), itemDesc, ctx)) {
-                return entry;
-            }
-        }
-        return null;
-    }
-
-    private boolean isKeywordMatch(JournalEntry entry, BigDecimal itemAmount,
-                                    LocalDate itemDate, String itemDesc, MatchContext ctx) {
-        if (!isAmountAndDateMatch(entry, itemAmount, itemDate, 3, ctx)) {
-            return false;
-        }
-        String entryDesc = entry.getDescription() != null ? entry.getDescription().toLowerCase() : "";
-        return hasKeywordOverlap(itemDesc, entryDesc);
-    }
-
-    private boolean hasKeywordOverlap(String desc1, String desc2) {
-        if (desc1.isEmpty() || desc2.isEmpty()) {
-            return false;
-        }
-
-        String[] words1 = desc1.split("\\s+");
-        for (String word : words1) {
-            if (word.length() >= 4 && desc2.contains(word)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private BigDecimal computeEntryNetAmount(JournalEntry entry) {
-        BigDecimal debit = entry.getDebitAmount() != null ? entry.getDebitAmount() : BigDecimal.ZERO;
-        BigDecimal credit = entry.getCreditAmount() != null ? entry.getCreditAmount() : BigDecimal.ZERO;
-        // For a bank account (asset), debit increases balance, credit decreases
-        // Bank statement: credit = money in, debit = money out
-        // So: bank credit matches book debit, bank debit matches book credit
-        // Net amount convention: positive = money in (credit on bank, debit on books)
-        return debit.subtract(credit);
+        return BankStatementMatcher.findKeywordMatch(ctx.bookEntries(), ctx.matchedTransactionIds(),
+                item.getNetAmount(), item.getTransactionDate(), item.getDescription());
     }
 
     private void createMatch(BankReconciliation recon, BankStatementItem item, Transaction transaction,
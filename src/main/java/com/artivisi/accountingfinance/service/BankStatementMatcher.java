@@ -0,0 +1,97 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.JournalEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Matching rules between bank statement items and book entries of the bank's GL account.
+ *
+ * <p>Pure functions over already loaded entries, so the auto-match passes of
+ * {@link BankReconciliationService} can be exercised without a database. Entries
+ * whose transaction is already matched are skipped; the first qualifying entry wins.
+ */
+final class BankStatementMatcher {
+
+    private static final int KEYWORD_DATE_TOLERANCE_DAYS = 3;
+    private static final int MIN_KEYWORD_LENGTH = 4;
+
+    private BankStatementMatcher() {}
+
+    /**
+     * First entry with the same net amount and a date within the tolerance.
+     */
+    static JournalEntry findAmountAndDateMatch(List<JournalEntry> bookEntries, Set<UUID> matchedTransactionIds,
+                                               BigDecimal itemAmount, LocalDate itemDate, int dateToleranceDays) {
+        for (JournalEntry entry : bookEntries) {
+            if (isAmountAndDateMatch(entry, matchedTransactionIds, itemAmount, itemDate, dateToleranceDays)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * First entry with the same net amount, a date within 3 days and a shared
+     * word of at least 4 characters in the description.
+     */
+    static JournalEntry findKeywordMatch(List<JournalEntry> bookEntries, Set<UUID> matchedTransactionIds,
+                                         BigDecimal itemAmount, LocalDate itemDate, String itemDescription) {
+        String itemDesc = itemDescription != null ? itemDescription.toLowerCase(Locale.ROOT) : "";
+        for (JournalEntry entry : bookEntries) {
+            if (!isAmountAndDateMatch(entry, matchedTransactionIds, itemAmount, itemDate,
+                    KEYWORD_DATE_TOLERANCE_DAYS)) {
+                continue;
+            }
+            String entryDesc = entry.getDescription() != null ? entry.getDescription().toLowerCase(Locale.ROOT) : "";
+            if (hasKeywordOverlap(itemDesc, entryDesc)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    static boolean hasKeywordOverlap(String desc1, String desc2) {
+        if (desc1.isEmpty() || desc2.isEmpty()) {
+            return false;
+        }
+
+        String[] words1 = desc1.split("\\s+");
+        for (String word : words1) {
+            if (word.length() >= MIN_KEYWORD_LENGTH && desc2.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Net amount of a book entry in statement terms.
+     *
+     * <p>For a bank account (asset), debit increases the balance and credit decreases it.
+     * On the statement, credit is money in and debit money out, so a bank credit
+     * matches a book debit. Positive means money in.
+     */
+    static BigDecimal netAmount(JournalEntry entry) {
+        BigDecimal debit = entry.getDebitAmount() != null ? entry.getDebitAmount() : BigDecimal.ZERO;
+        BigDecimal credit = entry.getCreditAmount() != null ? entry.getCreditAmount() : BigDecimal.ZERO;
+        return debit.subtract(credit);
+    }
+
+    private static boolean isAmountAndDateMatch(JournalEntry entry, Set<UUID> matchedTransactionIds,
+                                                BigDecimal itemAmount, LocalDate itemDate, int dateToleranceDays) {
+        if (matchedTransactionIds.contains(entry.getTransaction().getId())) {
+            return false;
+        }
+        if (itemAmount.compareTo(netAmount(entry)) != 0) {
+            return false;
+        }
+        long daysDiff = Math.abs(itemDate.toEpochDay() - entry.getJournalDate().toEpochDay());
+        return daysDiff <= dateToleranceDays;
+    }
+}
@@ -23,6 +23,7 @@ public class BillOfMaterialService {
 
     private final BillOfMaterialRepository bomRepository;
     private final ProductRepository productRepository;
+    private final BomExplosionService bomExplosionService;
 
     @Transactional(readOnly = true)
     public List<BillOfMaterial> findAll() {
@@ -87,8 +88,12 @@ public class BillOfMaterialService {
             line.setBillOfMaterial(bom);
         }
 
+        bomExplosionService.validateNoCycle(null, product.getId(), componentIds(bom));
+
         log.info("Creating BOM {} for product {}", LogSanitizer.sanitize(bom.getCode()), LogSanitizer.sanitize(product.getCode()));
-        return bomRepository.save(bom);
+        BillOfMaterial saved = bomRepository.save(bom);
+        bomExplosionService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -137,8 +142,12 @@ public class BillOfMaterialService {
             existing.addLine(newLine);
         }
 
+        bomExplosionService.validateNoCycle(id, product.getId(), componentIds(existing));
+
         log.info("Updating BOM {} for product {}", LogSanitizer.sanitize(existing.getCode()), LogSanitizer.sanitize(product.getCode()));
-        return bomRepository.save(existing);
+        BillOfMaterial saved = bomRepository.save(existing);
+        bomExplosionService.invalidate();
+        return saved;
     }
 
     @Transactional
@@ -150,6 +159,13 @@ public class BillOfMaterialService {
         bom.setActive(false);
         log.info("Deactivating BOM {}", bom.getCode());
         bomRepository.save(bom);
+        bomExplosionService.invalidate();
+    }
+
+    private List<UUID> componentIds(BillOfMaterial bom) {
+        return bom.getLines().stream()
+                .map(line -> line.getComponent().getId())
+                .toList();
     }
 
     private void validateBom(BillOfMaterial bom) {
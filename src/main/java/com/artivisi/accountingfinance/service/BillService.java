@@ -7,6 +7,8 @@ import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.Product;
 import com.artivisi.accountingfinance.entity.Vendor;
 import com.artivisi.accountingfinance.enums.BillStatus;
+import com.artivisi.accountingfinance.enums.ChangeEntityType;
+import com.artivisi.accountingfinance.enums.ChangeType;
 import com.artivisi.accountingfinance.repository.BillPaymentRepository;
 import com.artivisi.accountingfinance.repository.BillRepository;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
@@ -37,6 +39,7 @@ public class BillService {
     private final VendorRepository vendorRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final ProductRepository productRepository;
+    private final ChangeLogService changeLogService;
 
     public Bill findById(UUID id) {
         return billRepository.findById(id)
@@ -98,7 +101,9 @@ public class BillService {
             bill.recalculateFromLines();
         }
 
-        return billRepository.save(bill);
+        Bill saved = billRepository.save(bill);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     @Transactional
@@ -139,6 +144,7 @@ public class BillService {
         }
         existing.recalculateFromLines();
 
+        changeLogService.record(existing, ChangeType.UPDATED);
         return billRepository.save(existing);
     }
 
@@ -150,6 +156,7 @@ public class BillService {
             throw new IllegalStateException("Hanya tagihan draf atau dibatalkan yang dapat dihapus");
         }
 
+        changeLogService.record(bill, ChangeType.DELETED);
         billRepository.delete(bill);
     }
 
@@ -164,6 +171,7 @@ public class BillService {
         bill.setStatus(BillStatus.APPROVED);
         bill.setApprovedAt(LocalDateTime.now());
         bill.setApprovedBy(SecurityContextHolder.getContext().getAuthentication().getName());
+        changeLogService.record(bill, ChangeType.UPDATED);
         return billRepository.save(bill);
     }
 
@@ -178,6 +186,7 @@ public class BillService {
 
         bill.setStatus(BillStatus.PAID);
         bill.setPaidAt(LocalDateTime.now());
+        changeLogService.record(bill, ChangeType.UPDATED);
         return billRepository.save(bill);
     }
 
@@ -201,6 +210,8 @@ public class BillService {
 
         payment.setBill(bill);
         billPaymentRepository.save(payment);
+        changeLogService.record(ChangeEntityType.BILL_PAYMENT, payment.getId(), ChangeType.CREATED,
+                bill.getBillNumber(), null);
 
         if (totalAfterPayment.compareTo(totalAmount) == 0) {
             bill.setStatus(BillStatus.PAID);
@@ -209,6 +220,7 @@ public class BillService {
             bill.setStatus(BillStatus.PARTIAL);
         }
 
+        changeLogService.record(bill, ChangeType.UPDATED);
         return billRepository.save(bill);
     }
 
@@ -225,6 +237,7 @@ public class BillService {
         }
 
         bill.setStatus(BillStatus.CANCELLED);
+        changeLogService.record(bill, ChangeType.UPDATED);
         return billRepository.save(bill);
     }
 
@@ -235,6 +248,7 @@ public class BillService {
         for (Bill bill : overdueBills) {
             bill.setStatus(BillStatus.OVERDUE);
             billRepository.save(bill);
+            changeLogService.record(bill, ChangeType.UPDATED);
             count++;
         }
         return count;
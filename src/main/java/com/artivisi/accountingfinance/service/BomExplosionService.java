@@ -0,0 +1,284 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Product;
+import com.artivisi.accountingfinance.repository.BillOfMaterialRepository;
+import com.artivisi.accountingfinance.repository.InventoryBalanceRepository;
+import com.artivisi.accountingfinance.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-level bill of material explosion and standard cost roll-up.
+ *
+ * All active BOMs are read into an in-memory product graph once. Products are
+ * ordered so every assembly comes before its components, which lets a single
+ * pass explode the demand of any number of planned orders (each sub-assembly is
+ * expanded once, with its summed demand) and roll costs up from purchased
+ * materials, reusing each sub-assembly's cost for every parent using it. When a
+ * product has several active BOMs, the one with the lowest code is used.
+ *
+ * The graph and the rolled-up costs are dropped whenever a BOM changes or a
+ * product's average cost moves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BomExplosionService {
+
+    private static final int QUANTITY_SCALE = 6;
+    private static final int COST_SCALE = 4;
+
+    private final BillOfMaterialRepository bomRepository;
+    private final InventoryBalanceRepository balanceRepository;
+    private final ProductRepository productRepository;
+
+    private final CacheGeneration generation = new CacheGeneration();
+    private volatile Graph graph;
+
+    /**
+     * Standard cost of one unit: the average cost for purchased materials, the
+     * rolled-up component cost for products made from a BOM.
+     */
+    public BigDecimal rolledUpCost(UUID productId) {
+        Graph current = currentGraph();
+        current.requireAcyclic(productId);
+        return current.costs().getOrDefault(productId, BigDecimal.ZERO);
+    }
+
+    /**
+     * Explode the demand of any number of planned orders down to purchased materials.
+     *
+     * @param demand quantity to produce per product id
+     */
+    public MaterialRequirements explode(Map<UUID, BigDecimal> demand) {
+        Graph current = currentGraph();
+        demand.keySet().forEach(current::requireAcyclic);
+
+        Map<UUID, BigDecimal> gross = new HashMap<>(demand);
+        Map<UUID, BigDecimal> assemblies = new LinkedHashMap<>();
+        for (UUID productId : current.order()) {
+            BigDecimal quantity = gross.remove(productId);
+            Bom bom = current.boms().get(productId);
+            if (quantity == null || quantity.signum() == 0 || bom == null) {
+                if (quantity != null) {
+                    gross.put(productId, quantity);
+                }
+                continue;
+            }
+            assemblies.merge(productId, quantity, BigDecimal::add);
+            BigDecimal runs = quantity.divide(bom.outputQuantity(), QUANTITY_SCALE, RoundingMode.HALF_UP);
+            for (BomLine line : bom.lines()) {
+                gross.merge(line.componentId(), line.quantity().multiply(runs), BigDecimal::add);
+            }
+        }
+
+        // Whatever is left has no BOM of its own and is bought in
+        Map<UUID, BigDecimal> materials = new LinkedHashMap<>();
+        BigDecimal materialCost = BigDecimal.ZERO;
+        for (Map.Entry<UUID, BigDecimal> entry : gross.entrySet()) {
+            if (entry.getValue().signum() == 0) {
+                continue;
+            }
+            materials.put(entry.getKey(), entry.getValue());
+            materialCost = materialCost.add(entry.getValue()
+                    .multiply(current.costs().getOrDefault(entry.getKey(), BigDecimal.ZERO)));
+        }
+        return new MaterialRequirements(materials, assemblies, materialCost.setScale(COST_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Reject a BOM whose components already contain its product somewhere below them.
+     *
+     * @param bomId the BOM being updated, left out of the check; null for a new BOM
+     */
+    public void validateNoCycle(UUID bomId, UUID productId, Collection<UUID> componentIds) {
+        Graph current = currentGraph();
+        for (UUID componentId : componentIds) {
+            List<UUID> path = current.findPath(componentId, productId, bomId);
+            if (path != null) {
+                List<UUID> cycle = new ArrayList<>();
+                cycle.add(productId);
+                cycle.addAll(path);
+                throw new IllegalArgumentException("BOM membentuk siklus: " + describe(cycle));
+            }
+        }
+    }
+
+    /**
+     * Drop the graph and costs after a BOM or a product's average cost changes.
+     */
+    public void invalidate() {
+        generation.invalidate(() -> graph = null);
+    }
+
+    private Graph currentGraph() {
+        Graph current = graph;
+        if (current != null) {
+            return current;
+        }
+        return generation.build(this::build, rebuilt -> graph = rebuilt);
+    }
+
+    private Graph build() {
+        long start = System.nanoTime();
+
+        // Every active BOM, for cycle checks; the first per product, for explosion
+        Map<UUID, Bom> allBoms = new LinkedHashMap<>();
+        for (Object[] row : bomRepository.findActiveBomLines()) {
+            Bom bom = allBoms.computeIfAbsent((UUID) row[0],
+                    id -> new Bom(id, (UUID) row[1], (BigDecimal) row[2], new ArrayList<>()));
+            bom.lines().add(new BomLine((UUID) row[3], (BigDecimal) row[4]));
+        }
+        Map<UUID, Bom> boms = new HashMap<>();
+        Map<UUID, List<Bom>> bomsByProduct = new HashMap<>();
+        for (Bom bom : allBoms.values()) {
+            boms.putIfAbsent(bom.productId(), bom);
+            bomsByProduct.computeIfAbsent(bom.productId(), _ -> new ArrayList<>()).add(bom);
+        }
+
+        // Kahn's algorithm: a product is placed once every assembly using it is placed
+        Map<UUID, Integer> parents = new HashMap<>();
+        for (Bom bom : boms.values()) {
+            parents.putIfAbsent(bom.productId(), 0);
+            for (BomLine line : bom.lines()) {
+                parents.merge(line.componentId(), 1, Integer::sum);
+            }
+        }
+        Deque<UUID> ready = parents.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        List<UUID> order = new ArrayList<>(parents.size());
+        while (!ready.isEmpty()) {
+            UUID productId = ready.poll();
+            order.add(productId);
+            Bom bom = boms.get(productId);
+            if (bom == null) {
+                continue;
+            }
+            for (BomLine line : bom.lines()) {
+                if (parents.merge(line.componentId(), -1, Integer::sum) == 0) {
+                    ready.add(line.componentId());
+                }
+            }
+        }
+        // Unplaced products sit on or below a cycle; assemblies using them are tainted as well
+        Set<UUID> cyclic = new HashSet<>(parents.keySet());
+        order.forEach(cyclic::remove);
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Bom bom = boms.get(order.get(i));
+            if (bom != null && bom.lines().stream().anyMatch(line -> cyclic.contains(line.componentId()))) {
+                cyclic.add(bom.productId());
+            }
+        }
+        if (!cyclic.isEmpty()) {
+            log.warn("BOM graph has a cycle affecting {} products; they are excluded from explosion and costing",
+                    cyclic.size());
+        }
+
+        // Components come after their assemblies, so walk backwards to roll costs up
+        Map<UUID, BigDecimal> costs = new HashMap<>();
+        for (Object[] row : balanceRepository.findAllAverageCosts()) {
+            if (row[1] != null) {
+                costs.put((UUID) row[0], (BigDecimal) row[1]);
+            }
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Bom bom = boms.get(order.get(i));
+            if (bom == null) {
+                continue;
+            }
+            BigDecimal total = BigDecimal.ZERO;
+            for (BomLine line : bom.lines()) {
+                total = total.add(line.quantity().multiply(costs.getOrDefault(line.componentId(), BigDecimal.ZERO)));
+            }
+            costs.put(bom.productId(), total.divide(bom.outputQuantity(), COST_SCALE, RoundingMode.HALF_UP));
+        }
+
+        log.debug("Built BOM graph: {} BOMs, {} products in {} ms",
+                allBoms.size(), order.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Graph(Map.copyOf(boms), bomsByProduct, List.copyOf(order), Set.copyOf(cyclic), costs);
+    }
+
+    private String describe(List<UUID> productIds) {
+        Map<UUID, String> codes = productRepository.findAllById(new HashSet<>(productIds)).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getCode));
+        return productIds.stream()
+                .map(id -> codes.getOrDefault(id, id.toString()))
+                .collect(Collectors.joining(" -> "));
+    }
+
+    public record MaterialRequirements(
+            Map<UUID, BigDecimal> materials,
+            Map<UUID, BigDecimal> assemblies,
+            BigDecimal materialCost
+    ) {}
+
+    private record BomLine(UUID componentId, BigDecimal quantity) {}
+
+    private record Bom(UUID id, UUID productId, BigDecimal outputQuantity, List<BomLine> lines) {}
+
+    private record Graph(
+            Map<UUID, Bom> boms,
+            Map<UUID, List<Bom>> bomsByProduct,
+            List<UUID> order,
+            Set<UUID> cyclic,
+            Map<UUID, BigDecimal> costs
+    ) {
+        private void requireAcyclic(UUID productId) {
+            if (cyclic.contains(productId)) {
+                throw new IllegalStateException("BOM produk " + productId + " mengandung siklus");
+            }
+        }
+
+        /**
+         * Products from {@code from} down to {@code to} over any active BOM except
+         * {@code excludedBomId}, or null when {@code to} is not below {@code from}.
+         */
+        private List<UUID> findPath(UUID from, UUID to, UUID excludedBomId) {
+            Map<UUID, UUID> reachedFrom = new HashMap<>();
+            reachedFrom.put(from, from);
+            Deque<UUID> queue = new ArrayDeque<>(List.of(from));
+            while (!queue.isEmpty()) {
+                UUID productId = queue.poll();
+                if (productId.equals(to)) {
+                    List<UUID> path = new ArrayList<>();
+                    for (UUID step = to; !step.equals(from); step = reachedFrom.get(step)) {
+                        path.addFirst(step);
+                    }
+                    path.addFirst(from);
+                    return path;
+                }
+                for (Bom bom : bomsByProduct.getOrDefault(productId, List.of())) {
+                    if (bom.id().equals(excludedBomId)) {
+                        continue;
+                    }
+                    for (BomLine line : bom.lines()) {
+                        if (reachedFrom.putIfAbsent(line.componentId(), productId) == null) {
+                            queue.add(line.componentId());
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
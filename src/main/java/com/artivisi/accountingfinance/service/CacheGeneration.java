@@ -0,0 +1,81 @@
+package com.artivisi.accountingfinance.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Invalidation counter for in-memory caches built from the database.
+ *
+ * Every invalidation advances the generation; a value built across an
+ * advance may be stale, so it is returned to its caller but not kept.
+ * Invalidating inside a transaction drops the cache again when the
+ * transaction completes, so a value rebuilt from the uncommitted (or rolled
+ * back) change is not left cached either.
+ */
+final class CacheGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Current generation, to check with {@link #isCurrent} once a value is built.
+     */
+    long current() {
+        return generation.get();
+    }
+
+    /**
+     * Whether nothing was invalidated since {@code generation} was read.
+     */
+    boolean isCurrent(long generation) {
+        return this.generation.get() == generation;
+    }
+
+    /**
+     * Builds a value, handing it to {@code keep} only if nothing was
+     * invalidated meanwhile, and returns it.
+     */
+    <T> T build(Supplier<T> builder, Consumer<T> keep) {
+        long start = generation.get();
+        T built = builder.get();
+        if (generation.get() == start) {
+            keep.accept(built);
+        }
+        return built;
+    }
+
+    /**
+     * Advances the generation and runs {@code drop} now and, inside a
+     * transaction, again when it completes.
+     */
+    void invalidate(Runnable drop) {
+        invalidateNow(drop);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateNow(drop);
+                }
+            });
+        }
+    }
+
+    /**
+     * Advances the generation and runs {@code drop}, for changes already committed.
+     */
+    void invalidateNow(Runnable drop) {
+        generation.incrementAndGet();
+        drop.run();
+    }
+
+    /**
+     * Whether a value built at {@code builtAtNanos} ({@link System#nanoTime()})
+     * is more than {@code maxAgeMinutes} old.
+     */
+    static boolean isOlderThan(long builtAtNanos, long maxAgeMinutes) {
+        return System.nanoTime() - builtAtNanos > maxAgeMinutes * 60_000_000_000L;
+    }
+}
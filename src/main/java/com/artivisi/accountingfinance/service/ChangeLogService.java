@@ -0,0 +1,153 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Bill;
+import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.ChangeEntityType;
+import com.artivisi.accountingfinance.enums.ChangeType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Change log behind the analysis change feed.
+ *
+ * Services record each change to a transaction, invoice, bill or payment in
+ * their own database transaction, so a change is in the log exactly when it
+ * is committed. The feed reads the log in commit order after an opaque cursor:
+ * rows are ordered by the writing transaction's id and then by sequence, and
+ * rows of transactions that may still be running (those at or above the
+ * oldest running one) are held back until they finish, so a consumer that
+ * keeps its cursor never misses a change.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ChangeLogService {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Appends a change to the log in the caller's transaction. The insert is
+     * synchronized on change_log only, so it does not flush the caller's
+     * pending entity changes early. {@code reference} is the number the entity
+     * is known by; for a payment, the number of its invoice or bill.
+     */
+    @Transactional
+    public void record(ChangeEntityType entityType, UUID entityId, ChangeType changeType,
+                       String reference, String status) {
+        entityManager.createNativeQuery(
+                "INSERT INTO change_log (entity_type, entity_id, change_type, reference, status) " +
+                "VALUES (:entityType, :entityId, :changeType, :reference, :status)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("change_log")
+                .setParameter("entityType", entityType.name())
+                .setParameter("entityId", entityId)
+                .setParameter("changeType", changeType.name())
+                .setParameter("reference", reference)
+                .setParameter("status", status)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public void record(Transaction transaction, ChangeType changeType) {
+        record(ChangeEntityType.TRANSACTION, transaction.getId(), changeType,
+                transaction.getTransactionNumber(), transaction.getStatus().name());
+    }
+
+    @Transactional
+    public void record(Invoice invoice, ChangeType changeType) {
+        record(ChangeEntityType.INVOICE, invoice.getId(), changeType,
+                invoice.getInvoiceNumber(), invoice.getStatus().name());
+    }
+
+    @Transactional
+    public void record(Bill bill, ChangeType changeType) {
+        record(ChangeEntityType.BILL, bill.getId(), changeType,
+                bill.getBillNumber(), bill.getStatus().name());
+    }
+
+    /**
+     * Up to {@code size} changes committed after {@code cursor} (null for the
+     * beginning of the log). The returned {@code nextCursor} is always set;
+     * pass it back to continue, also after an empty page.
+     */
+    @SuppressWarnings("unchecked")
+    public ChangePage readChanges(String cursor, int size) {
+        ChangeCursor after = cursor != null && !cursor.isBlank() ? ChangeCursor.decode(cursor) : ChangeCursor.START;
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT CAST(txid AS text), seq, entity_type, entity_id, change_type, reference, status, changed_at " +
+                "FROM change_log " +
+                "WHERE (txid, seq) > (CAST(:afterTxid AS xid8), :afterSeq) " +
+                "AND txid < pg_snapshot_xmin(pg_current_snapshot()) " +
+                "ORDER BY txid, seq " +
+                "LIMIT :limit")
+                .setParameter("afterTxid", after.txid())
+                .setParameter("afterSeq", after.seq())
+                .setParameter("limit", size + 1)
+                .getResultList();
+
+        boolean hasMore = rows.size() > size;
+        List<Object[]> pageRows = hasMore ? rows.subList(0, size) : rows;
+        List<Change> changes = pageRows.stream().map(ChangeLogService::toChange).toList();
+
+        ChangeCursor next = after;
+        if (!pageRows.isEmpty()) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            next = new ChangeCursor((String) last[0], ((Number) last[1]).longValue());
+        }
+        return new ChangePage(changes, next.encode(), hasMore);
+    }
+
+    private static Change toChange(Object[] row) {
+        return new Change(
+                ((Number) row[1]).longValue(),
+                ChangeEntityType.valueOf((String) row[2]),
+                (UUID) row[3],
+                ChangeType.valueOf((String) row[4]),
+                (String) row[5],
+                (String) row[6],
+                row[7] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[7]);
+    }
+
+    public record Change(
+            long sequence,
+            ChangeEntityType entityType,
+            UUID entityId,
+            ChangeType changeType,
+            String reference,
+            String status,
+            LocalDateTime changedAt
+    ) {}
+
+    public record ChangePage(List<Change> changes, String nextCursor, boolean hasMore) {
+    }
+
+    private record ChangeCursor(String txid, long seq) {
+
+        private static final ChangeCursor START = new ChangeCursor("0", 0);
+
+        private String encode() {
+            String raw = txid + "|" + seq;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static ChangeCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new ChangeCursor(String.valueOf(Long.parseUnsignedLong(parts[0])), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid change cursor");
+            }
+        }
+    }
+}
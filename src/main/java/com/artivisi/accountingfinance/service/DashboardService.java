@@ -11,6 +11,7 @@ import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -18,7 +19,9 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -30,11 +33,18 @@ public class DashboardService {
     private final TransactionRepository transactionRepository;
     private final AmortizationEntryRepository amortizationEntryRepository;
     private final JournalTemplateRepository journalTemplateRepository;
+    private final TemplateUsageTracker templateUsageTracker;
+    private final ReportComposer reportComposer;
 
     // Account codes for specific KPIs
     private static final String PIUTANG_USAHA_CODE = "1.1.04";
     private static final String HUTANG_USAHA_CODE = "2.1.01";
 
+    /**
+     * KPIs for the month. The revenue, expense and balance figures are
+     * independent, so they are computed concurrently by {@link ReportComposer}.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public DashboardKPI calculateKPIs(YearMonth month) {
         LocalDate startDate = month.atDay(1);
         LocalDate endDate = month.atEndOfMonth();
@@ -44,12 +54,33 @@ public class DashboardService {
         LocalDate prevStartDate = prevMonth.atDay(1);
         LocalDate prevEndDate = prevMonth.atEndOfMonth();
 
-        // Calculate revenue and expenses for current and previous month
-        BigDecimal currentRevenue = calculateTotalRevenue(startDate, endDate);
-        BigDecimal prevRevenue = calculateTotalRevenue(prevStartDate, prevEndDate);
+        Supplier<BigDecimal> currentRevenuePart;
+        Supplier<BigDecimal> prevRevenuePart;
+        Supplier<BigDecimal> currentExpensePart;
+        Supplier<BigDecimal> prevExpensePart;
+        Supplier<BigDecimal> cashBalancePart;
+        Supplier<BigDecimal> receivablesPart;
+        Supplier<BigDecimal> payablesPart;
+        Supplier<Long> transactionCountPart;
+        Supplier<List<CashBankItem>> cashBankItemsPart;
+        try (ReportComposer.Scope scope = reportComposer.open()) {
+            currentRevenuePart = scope.fork(() -> calculateTotalRevenue(startDate, endDate));
+            prevRevenuePart = scope.fork(() -> calculateTotalRevenue(prevStartDate, prevEndDate));
+            currentExpensePart = scope.fork(() -> calculateTotalExpense(startDate, endDate));
+            prevExpensePart = scope.fork(() -> calculateTotalExpense(prevStartDate, prevEndDate));
+            // Balances as of end of current month
+            cashBalancePart = scope.fork(() -> calculateCashBalance(endDate));
+            receivablesPart = scope.fork(() -> calculateAccountBalance(PIUTANG_USAHA_CODE, endDate));
+            payablesPart = scope.fork(() -> calculateAccountBalance(HUTANG_USAHA_CODE, endDate));
+            transactionCountPart = scope.fork(() -> transactionRepository.countByTransactionDateBetween(startDate, endDate));
+            cashBankItemsPart = scope.fork(() -> calculateCashBankBreakdown(endDate));
+            scope.join();
+        }
 
-        BigDecimal currentExpense = calculateTotalExpense(startDate, endDate);
-        BigDecimal prevExpense = calculateTotalExpense(prevStartDate, prevEndDate);
+        BigDecimal currentRevenue = currentRevenuePart.get();
+        BigDecimal prevRevenue = prevRevenuePart.get();
+        BigDecimal currentExpense = currentExpensePart.get();
+        BigDecimal prevExpense = prevExpensePart.get();
 
         BigDecimal currentNetProfit = currentRevenue.subtract(currentExpense);
         BigDecimal prevNetProfit = prevRevenue.subtract(prevExpense);
@@ -68,16 +99,11 @@ public class DashboardService {
         BigDecimal profitChange = calculateChangePercent(currentNetProfit, prevNetProfit);
         BigDecimal marginChange = currentProfitMargin.subtract(prevProfitMargin); // Points difference
 
-        // Calculate balances as of end of current month
-        BigDecimal cashBalance = calculateCashBalance(endDate);
-        BigDecimal receivablesBalance = calculateAccountBalance(PIUTANG_USAHA_CODE, endDate);
-        BigDecimal payablesBalance = calculateAccountBalance(HUTANG_USAHA_CODE, endDate);
-
-        // Transaction count for current month
-        long transactionCount = transactionRepository.countByTransactionDateBetween(startDate, endDate);
-
-        // Cash/Bank breakdown
-        List<CashBankItem> cashBankItems = calculateCashBankBreakdown(endDate);
+        BigDecimal cashBalance = cashBalancePart.get();
+        BigDecimal receivablesBalance = receivablesPart.get();
+        BigDecimal payablesBalance = payablesPart.get();
+        long transactionCount = transactionCountPart.get();
+        List<CashBankItem> cashBankItems = cashBankItemsPart.get();
 
         return new DashboardKPI(
                 month,
@@ -298,42 +324,42 @@ public class DashboardService {
 
     /**
      * Get frequently used templates for quick transaction entry.
-     * Returns top N templates sorted by usage count.
+     * Returns top N templates sorted by usage count, including uses not yet flushed.
      */
     public List<QuickTemplate> getFrequentTemplates(int limit) {
         return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByUsageCountDesc(true)
                 .stream()
-                .filter(t -> t.getUsageCount() != null && t.getUsageCount() > 0)
+                .map(this::toQuickTemplate)
+                .filter(t -> t.usageCount() != null && t.usageCount() > 0)
+                .sorted(Comparator.comparing(QuickTemplate::usageCount).reversed())
                 .limit(limit)
-                .map(t -> new QuickTemplate(
-                        t.getId(),
-                        t.getTemplateName(),
-                        t.getCategory(),
-                        t.getUsageCount(),
-                        t.getLastUsedAt()
-                ))
                 .toList();
     }
 
     /**
      * Get recently used templates for quick transaction entry.
-     * Returns top N templates sorted by last used date.
+     * Returns top N templates sorted by last used date, including uses not yet flushed.
      */
     public List<QuickTemplate> getRecentTemplates(int limit) {
         return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByLastUsedAtDesc(true)
                 .stream()
-                .filter(t -> t.getLastUsedAt() != null)
+                .map(this::toQuickTemplate)
+                .filter(t -> t.lastUsedAt() != null)
+                .sorted(Comparator.comparing(QuickTemplate::lastUsedAt).reversed())
                 .limit(limit)
-                .map(t -> new QuickTemplate(
-                        t.getId(),
-                        t.getTemplateName(),
-                        t.getCategory(),
-                        t.getUsageCount(),
-                        t.getLastUsedAt()
-                ))
                 .toList();
     }
 
+    private QuickTemplate toQuickTemplate(com.artivisi.accountingfinance.entity.JournalTemplate t) {
+        return new QuickTemplate(
+                t.getId(),
+                t.getTemplateName(),
+                t.getCategory(),
+                templateUsageTracker.getUsageCount(t),
+                templateUsageTracker.getLastUsedAt(t)
+        );
+    }
+
     public record QuickTemplate(
             java.util.UUID id,
             String templateName,
@@ -46,6 +46,7 @@ public class DataExportService {
     private final AuditLogRepository auditLogRepository;
     private final CompanyConfigRepository companyConfigRepository;
     private final DocumentStorageService documentStorageService;
+    private final TemplateUsageTracker templateUsageTracker;
 
     // Additional repositories for full export
     private final JournalTemplateRepository templateRepository;
@@ -326,8 +327,9 @@ public class DataExportService {
             csv.append(t.getIsSystem()).append(",");
             csv.append(t.getActive()).append(",");
             csv.append(t.getVersion()).append(",");
-            csv.append(t.getUsageCount()).append(",");
-            csv.append(t.getLastUsedAt() != null ? t.getLastUsedAt().format(DATETIME_FORMATTER) : "").append(",");
+            csv.append(templateUsageTracker.getUsageCount(t)).append(",");
+            LocalDateTime lastUsedAt = templateUsageTracker.getLastUsedAt(t);
+            csv.append(lastUsedAt != null ? lastUsedAt.format(DATETIME_FORMATTER) : "").append(",");
             csv.append(escapeCsv(t.getSemanticDescription())).append(",");
             csv.append(formatStringArray(t.getKeywords())).append(",");
             csv.append(formatStringArray(t.getExampleMerchants())).append(",");
@@ -2,6 +2,7 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.entity.*;
 import com.artivisi.accountingfinance.enums.*;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
 import com.artivisi.accountingfinance.repository.*;
 import com.artivisi.accountingfinance.security.LogSanitizer;
 import jakarta.persistence.EntityManager;
@@ -84,6 +85,10 @@ public class DataImportService {
     private final ProductionOrderRepository productionOrderRepository;
     private final InventoryTransactionRepository inventoryTransactionRepository;
     private final InventoryBalanceRepository inventoryBalanceRepository;
+    private final MerchantClassifier merchantClassifier;
+    private final BomExplosionService bomExplosionService;
+    private final ReferenceDataService referenceDataService;
+    private final OutboxService outboxService;
 
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -148,6 +153,12 @@ public class DataImportService {
             log.info("Imported {} records from {}", count, LogSanitizer.filename(filename));
         }
 
+        // Templates, merchant mappings, BOMs, balances, projects, tags and the ledger may have been replaced
+        merchantClassifier.invalidate();
+        bomExplosionService.invalidate();
+        referenceDataService.invalidate();
+        outboxService.publish(new LedgerChangedEvent(null, Set.of()));
+
         // Import document files
         int documentCount = importDocumentFiles(documentFiles);
         log.info("Imported {} document files", documentCount);
@@ -229,16 +240,18 @@ public class DataImportService {
             "journal_entries", "payroll_runs", "payroll_details",
             "amortization_schedules", "amortization_entries", "draft_transactions",
             "users", "user_roles", "user_template_preferences", "telegram_user_links", "audit_logs",
-            "transaction_sequences", "asset_categories",
+            "transaction_sequences", "asset_categories", "change_log",
             // Manufacturing tables
             "product_categories", "products", "bill_of_materials", "bill_of_material_lines",
-            "production_orders", "inventory_transactions", "inventory_fifo_layers", "inventory_balances",
+            "production_orders", "inventory_snapshots", "inventory_transactions", "inventory_fifo_layers",
+            "inventory_balances",
             // Recurring transaction tables
             "recurring_transactions", "recurring_transaction_account_mappings", "recurring_transaction_logs"
     );
 
     // Mapping from CSV filename to table name(s) that should be truncated
     // Includes dependent tables that would have broken references
+    // change_log goes with transactions and invoices; feed consumers resync from an empty cursor
     private static final Map<String, List<String>> FILE_TO_TABLES = Map.ofEntries(
             Map.entry("01_company_config.csv", List.of("company_config")),
             // COA change invalidates all journal entries and transactions
@@ -246,23 +259,24 @@ public class DataImportService {
                     "journal_entries", "transaction_account_mappings", "transaction_variables", "tax_transaction_details",
                     "transactions", "amortization_entries", "amortization_schedules",
                     "recurring_transaction_account_mappings",
-                    "documents", "chart_of_accounts")),
+                    "documents", "chart_of_accounts", "change_log")),
             Map.entry("03_salary_components.csv", List.of("employee_salary_components", "salary_components")),
             // Template change invalidates transactions, merchant mappings, payment terms
             Map.entry("04_journal_templates.csv", List.of(
                     "journal_entries", "transaction_account_mappings", "transaction_variables", "tax_transaction_details",
                     "transactions", "merchant_mappings", "project_payment_terms",
                     "recurring_transaction_logs", "recurring_transaction_account_mappings", "recurring_transactions",
-                    "user_template_preferences", "journal_template_tags", "journal_template_lines", "journal_templates")),
-            Map.entry("07_clients.csv", List.of("invoices", "projects", "clients")),
+                    "user_template_preferences", "journal_template_tags", "journal_template_lines", "journal_templates",
+                    "change_log")),
+            Map.entry("07_clients.csv", List.of("invoices", "projects", "clients", "change_log")),
             Map.entry("08_projects.csv", List.of("project_payment_terms", "project_milestones", "projects")),
             Map.entry("11_fiscal_periods.csv", List.of("fiscal_periods")),
             Map.entry("12_tax_deadlines.csv", List.of("tax_deadline_completions", "tax_deadlines")),
             Map.entry("13_company_bank_accounts.csv", List.of("company_bank_accounts")),
             Map.entry("14_merchant_mappings.csv", List.of("merchant_mappings")),
             Map.entry("15_employees.csv", List.of("payroll_details", "employee_salary_components", "employees")),
-            Map.entry("17_invoices.csv", List.of("invoices")),
-            Map.entry("18_transactions.csv", List.of("journal_entries", "transaction_account_mappings", "transaction_variables", "tax_transaction_details", "recurring_transaction_logs", "documents", "transactions")),
+            Map.entry("17_invoices.csv", List.of("invoices", "change_log")),
+            Map.entry("18_transactions.csv", List.of("journal_entries", "transaction_account_mappings", "transaction_variables", "tax_transaction_details", "recurring_transaction_logs", "documents", "transactions", "change_log")),
             Map.entry("21_payroll_runs.csv", List.of("payroll_details", "payroll_runs")),
             Map.entry("23_amortization_schedules.csv", List.of("amortization_entries", "amortization_schedules")),
             Map.entry("27_draft_transactions.csv", List.of("draft_transactions")),
@@ -271,17 +285,17 @@ public class DataImportService {
             Map.entry("34_asset_categories.csv", List.of("asset_categories")),
             // Manufacturing tables - with dependency order
             Map.entry("35_product_categories.csv", List.of(
-                    "inventory_balances", "inventory_fifo_layers", "inventory_transactions",
+                    "inventory_balances", "inventory_fifo_layers", "inventory_snapshots", "inventory_transactions",
                     "production_orders", "bill_of_material_lines", "bill_of_materials",
                     "products", "product_categories")),
             Map.entry("36_products.csv", List.of(
-                    "inventory_balances", "inventory_fifo_layers", "inventory_transactions",
+                    "inventory_balances", "inventory_fifo_layers", "inventory_snapshots", "inventory_transactions",
                     "production_orders", "bill_of_material_lines", "bill_of_materials", "products")),
             Map.entry("37_bill_of_materials.csv", List.of(
                     "production_orders", "bill_of_material_lines", "bill_of_materials")),
             Map.entry("39_production_orders.csv", List.of("production_orders")),
             Map.entry("40_inventory_transactions.csv", List.of(
-                    "inventory_balances", "inventory_fifo_layers", "inventory_transactions")),
+                    "inventory_balances", "inventory_fifo_layers", "inventory_snapshots", "inventory_transactions")),
             Map.entry("41_inventory_balances.csv", List.of("inventory_balances"))
     );
 
@@ -6,7 +6,9 @@ import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.MerchantMapping;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,7 +31,9 @@ public class DraftTransactionService {
 
     private final DraftTransactionRepository draftRepository;
     private final MerchantMappingRepository merchantMappingRepository;
-    private final Optional<VisionOcrService> visionOcrService;
+    private final MerchantClassifier merchantClassifier;
+    private final JournalTemplateRepository journalTemplateRepository;
+    private final Optional<OcrService> ocrService;
     private final ReceiptParserService receiptParserService;
     private final TransactionService transactionService;
 
@@ -38,12 +41,16 @@ public class DraftTransactionService {
     public DraftTransactionService(
             DraftTransactionRepository draftRepository,
             MerchantMappingRepository merchantMappingRepository,
-            Optional<VisionOcrService> visionOcrService,
+            MerchantClassifier merchantClassifier,
+            JournalTemplateRepository journalTemplateRepository,
+            Optional<OcrService> ocrService,
             ReceiptParserService receiptParserService,
             TransactionService transactionService) {
         this.draftRepository = draftRepository;
         this.merchantMappingRepository = merchantMappingRepository;
-        this.visionOcrService = visionOcrService;
+        this.merchantClassifier = merchantClassifier;
+        this.journalTemplateRepository = journalTemplateRepository;
+        this.ocrService = ocrService;
         this.receiptParserService = receiptParserService;
         this.transactionService = transactionService;
     }
@@ -51,27 +58,46 @@ public class DraftTransactionService {
     public DraftTransaction processReceiptImage(byte[] imageBytes, Document document,
                                                  Long telegramChatId, Long telegramMessageId,
                                                  String username) {
+        return processReceiptImage(imageBytes, document, telegramChatId, telegramMessageId, username,
+                new IngestTimings());
+    }
+
+    /**
+     * Same as {@link #processReceiptImage(byte[], Document, Long, Long, String)},
+     * recording the OCR, parse and draft stages in {@code timings}.
+     */
+    public DraftTransaction processReceiptImage(byte[] imageBytes, Document document,
+                                                Long telegramChatId, Long telegramMessageId,
+                                                String username, IngestTimings timings) {
         // 1. OCR extraction
-        if (visionOcrService.isEmpty()) {
-            log.error("VisionOcrService is not available");
+        if (ocrService.isEmpty()) {
+            log.error("OcrService is not available");
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, "OCR service is not configured");
         }
-        VisionOcrService.OcrResult ocrResult = visionOcrService.get().extractText(imageBytes);
+        long stageStart = System.nanoTime();
+        OcrService.OcrResult ocrResult = ocrService.get().extractText(imageBytes);
+        timings.record(IngestTimings.Stage.OCR, stageStart);
         if (!ocrResult.success()) {
             log.error("OCR failed: {}", ocrResult.errorMessage());
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, ocrResult.errorMessage());
         }
 
         // 2. Parse receipt
+        stageStart = System.nanoTime();
         ReceiptParserService.ParsedReceipt parsed = receiptParserService.parse(ocrResult.text());
+        timings.record(IngestTimings.Stage.PARSE, stageStart);
         if (parsed == null) {
             log.warn("Receipt parsing returned null for OCR text");
             return createFailedDraft(document, telegramChatId, telegramMessageId, username, "Failed to parse receipt");
         }
 
         // 3. Find merchant mapping
-        MerchantMapping mapping = findMerchantMapping(parsed.merchantName());
-        JournalTemplate suggestedTemplate = mapping != null ? mapping.getTemplate() : null;
+        stageStart = System.nanoTime();
+        MerchantClassifier.Match match = merchantClassifier.classify(parsed.merchantName()).orElse(null);
+        MerchantMapping mapping = match != null
+                ? merchantMappingRepository.getReferenceById(match.mappingId()) : null;
+        JournalTemplate suggestedTemplate = match != null
+                ? journalTemplateRepository.getReferenceById(match.templateId()) : null;
 
         // 4. Create draft
         DraftTransaction draft = new DraftTransaction();
@@ -100,6 +126,7 @@ public class DraftTransactionService {
         draft.setStatus(DraftTransaction.Status.PENDING);
 
         DraftTransaction saved = draftRepository.save(draft);
+        timings.record(IngestTimings.Stage.DRAFT, stageStart);
         log.info("Created draft transaction {} from Telegram", saved.getId());
 
         return saved;
@@ -120,34 +147,6 @@ public class DraftTransactionService {
         return draftRepository.save(draft);
     }
 
-    private MerchantMapping findMerchantMapping(String merchantName) {
-        if (merchantName == null || merchantName.isBlank()) {
-            return null;
-        }
-
-        // Try exact match first
-        List<MerchantMapping> exactMatches = merchantMappingRepository.findExactMatches(merchantName);
-        if (!exactMatches.isEmpty()) {
-            return exactMatches.getFirst();
-        }
-
-        // Try contains match
-        List<MerchantMapping> containsMatches = merchantMappingRepository.findContainsMatches(merchantName);
-        if (!containsMatches.isEmpty()) {
-            return containsMatches.getFirst();
-        }
-
-        // Try regex matches
-        List<MerchantMapping> regexMappings = merchantMappingRepository.findByMatchType(MerchantMapping.MatchType.REGEX);
-        for (MerchantMapping mapping : regexMappings) {
-            if (mapping.matches(merchantName)) {
-                return mapping;
-            }
-        }
-
-        return null;
-    }
-
     public DraftTransaction findById(UUID id) {
         return draftRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(ERR_DRAFT_NOT_FOUND + id));
@@ -26,6 +26,7 @@ public class FiscalPeriodService {
 
     private final FiscalPeriodRepository fiscalPeriodRepository;
     private final TransactionRepository transactionRepository;
+    private final InventorySnapshotService inventorySnapshotService;
 
     public FiscalPeriod findById(UUID id) {
         return fiscalPeriodRepository.findById(id)
@@ -108,6 +109,9 @@ public class FiscalPeriodService {
             period.setNotes(notes);
         }
 
+        // Month-end inventory position, the starting point for past valuations
+        inventorySnapshotService.takeSnapshot(period.getEndDate());
+
         return fiscalPeriodRepository.save(period);
     }
 
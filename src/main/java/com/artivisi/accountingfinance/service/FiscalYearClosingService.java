@@ -5,7 +5,9 @@ import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.entity.TransactionSequence;
+import com.artivisi.accountingfinance.enums.ChangeType;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
@@ -24,6 +26,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -59,6 +62,8 @@ public class FiscalYearClosingService {
     private final TransactionRepository transactionRepository;
     private final JournalTemplateRepository journalTemplateRepository;
     private final TransactionSequenceRepository transactionSequenceRepository;
+    private final OutboxService outboxService;
+    private final ChangeLogService changeLogService;
 
     /**
      * Check if closing entries already exist for a year.
@@ -158,6 +163,7 @@ public class FiscalYearClosingService {
         closingEntries.addAll(closeExpenseAccounts(ctx, incomeStatement));
         closingEntries.addAll(transferToRetainedEarnings(ctx, incomeStatement.netIncome()));
 
+        outboxService.publish(new LedgerChangedEvent(yearEnd, Set.of()));
         log.info("Completed fiscal year closing for {}: {} entries created", year, closingEntries.size());
         return closingEntries;
     }
@@ -201,6 +207,7 @@ public class FiscalYearClosingService {
                 ctx.labaBerjalan, BigDecimal.ZERO, report.totalRevenue(), ctx.username));
 
         Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.POSTED);
         log.info("Created revenue closing entry for year {}: {}", ctx.year, report.totalRevenue());
         return new ArrayList<>(saved.getJournalEntries());
     }
@@ -222,6 +229,7 @@ public class FiscalYearClosingService {
                 ctx.labaBerjalan, report.totalExpense(), BigDecimal.ZERO, ctx.username));
 
         Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.POSTED);
         log.info("Created expense closing entry for year {}: {}", ctx.year, report.totalExpense());
         return new ArrayList<>(saved.getJournalEntries());
     }
@@ -265,6 +273,7 @@ public class FiscalYearClosingService {
         }
 
         Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.POSTED);
         log.info("Created retained earnings transfer for year {}: {}", ctx.year, netIncome);
         return new ArrayList<>(saved.getJournalEntries());
     }
@@ -307,11 +316,13 @@ public class FiscalYearClosingService {
                     }
 
                     transactionRepository.save(transaction);
+                    changeLogService.record(transaction, ChangeType.VOIDED);
                     processedTransactions.add(transaction);
                 }
             }
         }
 
+        outboxService.publish(new LedgerChangedEvent(LocalDate.of(year, 12, 31), Set.of()));
         log.info("Reversed {} closing entries for year {}", count, year);
         return count;
     }
@@ -9,6 +9,7 @@ import com.artivisi.accountingfinance.entity.DepreciationEntryStatus;
 import com.artivisi.accountingfinance.entity.DepreciationMethod;
 import com.artivisi.accountingfinance.entity.DisposalType;
 import com.artivisi.accountingfinance.entity.FixedAsset;
+import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.JournalTemplateLine;
 import com.artivisi.accountingfinance.entity.Transaction;
@@ -17,10 +18,13 @@ import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.DepreciationEntryRepository;
 import com.artivisi.accountingfinance.repository.FixedAssetRepository;
 import com.artivisi.accountingfinance.security.LogSanitizer;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,10 +35,13 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -54,6 +61,13 @@ public class FixedAssetService {
     private final JournalTemplateService journalTemplateService;
     private final com.artivisi.accountingfinance.repository.JournalTemplateRepository journalTemplateRepository;
     private final TransactionService transactionService;
+    private final EntityManager entityManager;
+
+    @Value("${app.depreciation.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.depreciation.detail-lines:false}")
+    private boolean detailLines;
 
     // ============================================
     // Asset CRUD Operations
@@ -240,6 +254,44 @@ public class FixedAssetService {
      */
     @Transactional
     public List<DepreciationEntry> generateDepreciationEntries(YearMonth period) {
+        withJdbcBatching(() -> generateEntries(period));
+        return depreciationEntryRepository.findAllPendingWithDetails();
+    }
+
+    /**
+     * Generate and post depreciation for a period in one run, as done by the monthly scheduler.
+     */
+    @Transactional
+    public DepreciationRunSummary runMonthlyDepreciation(YearMonth period, String postedBy) {
+        return withJdbcBatching(() -> {
+            long started = System.nanoTime();
+            int generated = generateEntries(period);
+            long generateMillis = elapsedMillis(started);
+
+            started = System.nanoTime();
+            PostedJournals posted = postPending(period, postedBy, detailLines);
+            long postMillis = elapsedMillis(started);
+
+            return new DepreciationRunSummary(period, generated, posted.entries(), posted.journals(),
+                    generateMillis, postMillis);
+        });
+    }
+
+    // JDBC batching is switched on for the depreciation run only, not for the whole application
+    private <T> T withJdbcBatching(Supplier<T> work) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previous = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(1, batchSize));
+        try {
+            return work.get();
+        } finally {
+            session.setJdbcBatchSize(previous);
+        }
+    }
+
+    // Existing entries are excluded by the asset query, so each asset is read and written once
+    private int generateEntries(YearMonth period) {
+        long started = System.nanoTime();
         LocalDate periodStart = period.atDay(1);
         LocalDate periodEnd = period.atEndOfMonth();
 
@@ -247,19 +299,17 @@ public class FixedAssetService {
 
         if (assets.isEmpty()) {
             log.info("No assets need depreciation for period {}", period);
-            return List.of();
+            return 0;
         }
 
         log.info("Generating depreciation for {} assets in period {}", assets.size(), period);
 
-        for (FixedAsset asset : assets) {
-            // Check if entry already exists for this period
-            if (depreciationEntryRepository.findByAssetIdAndPeriodEnd(asset.getId(), periodEnd).isPresent()) {
-                log.debug("Depreciation entry already exists for asset {} in period {}",
-                        LogSanitizer.sanitize(asset.getAssetCode()), period);
-                continue;
-            }
+        int size = Math.max(1, batchSize);
+        LocalDateTime generatedAt = LocalDateTime.now();
+        List<DepreciationEntry> batch = new ArrayList<>(Math.min(assets.size(), size));
+        int generated = 0;
 
+        for (FixedAsset asset : assets) {
             BigDecimal depreciationAmount = calculateMonthlyDepreciation(asset);
 
             // Handle last period rounding
@@ -270,7 +320,6 @@ public class FixedAssetService {
 
             // Only create entry if depreciation amount is positive
             if (depreciationAmount.compareTo(BigDecimal.ZERO) > 0) {
-                // Create depreciation entry
                 DepreciationEntry entry = new DepreciationEntry();
                 entry.setFixedAsset(asset);
                 entry.setPeriodNumber(asset.getDepreciationPeriodsCompleted() + 1);
@@ -280,14 +329,31 @@ public class FixedAssetService {
                 entry.setAccumulatedDepreciation(asset.getAccumulatedDepreciation().add(depreciationAmount));
                 entry.setBookValue(asset.getBookValue().subtract(depreciationAmount));
                 entry.setStatus(DepreciationEntryStatus.PENDING);
-                entry.setGeneratedAt(LocalDateTime.now());
+                entry.setGeneratedAt(generatedAt);
+                batch.add(entry);
 
-                depreciationEntryRepository.save(entry);
-                log.debug("Generated depreciation entry for asset {}: {}", asset.getAssetCode(), depreciationAmount);
+                if (batch.size() == size) {
+                    generated += saveBatch(batch);
+                }
             }
         }
+        generated += saveBatch(batch);
 
-        return depreciationEntryRepository.findAllPendingWithDetails();
+        long millis = elapsedMillis(started);
+        log.info("Generated {} depreciation entries for period {} in {} ms ({} entries/s)",
+                generated, period, millis, perSecond(generated, millis));
+        return generated;
+    }
+
+    private int saveBatch(List<DepreciationEntry> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        depreciationEntryRepository.saveAll(batch);
+        depreciationEntryRepository.flush();
+        int saved = batch.size();
+        batch.clear();
+        return saved;
     }
 
     /**
@@ -307,12 +373,7 @@ public class FixedAssetService {
 
         FixedAsset asset = entry.getFixedAsset();
 
-        // Get depreciation template with lines loaded, fall back to name lookup
-        JournalTemplate template = journalTemplateRepository.findById(DEPRECIATION_TEMPLATE_ID)
-                .map(t -> journalTemplateService.findByIdWithLines(t.getId()))
-                .orElseGet(() -> journalTemplateRepository.findByTemplateNameAndIsCurrentVersionTrue("Penyusutan Aset")
-                        .map(t -> journalTemplateService.findByIdWithLines(t.getId()))
-                        .orElseThrow(() -> new IllegalStateException("Template penyusutan tidak ditemukan")));
+        JournalTemplate template = findDepreciationTemplate();
 
         // Create FormulaContext with depreciation variables
         FormulaContext context = FormulaContext.of(
@@ -371,26 +432,175 @@ public class FixedAssetService {
         return savedEntry;
     }
 
+    // Get depreciation template with lines loaded, fall back to name lookup
+    private JournalTemplate findDepreciationTemplate() {
+        return journalTemplateRepository.findById(DEPRECIATION_TEMPLATE_ID)
+                .map(t -> journalTemplateService.findByIdWithLines(t.getId()))
+                .orElseGet(() -> journalTemplateRepository.findByTemplateNameAndIsCurrentVersionTrue("Penyusutan Aset")
+                        .map(t -> journalTemplateService.findByIdWithLines(t.getId()))
+                        .orElseThrow(() -> new IllegalStateException("Template penyusutan tidak ditemukan")));
+    }
+
     /**
-     * Post all pending depreciation entries for a period.
+     * Post all pending depreciation entries up to a period, consolidated per
+     * asset category and account pair (see {@link #postAllPendingDepreciation(YearMonth, String, boolean)}).
      */
     @Transactional
     public int postAllPendingDepreciation(YearMonth period, String postedBy) {
-        LocalDate periodEnd = period.atEndOfMonth();
+        return withJdbcBatching(() -> postPending(period, postedBy, detailLines)).entries();
+    }
 
-        List<DepreciationEntry> pendingEntries = depreciationEntryRepository.findAllPending()
-                .stream()
-                .filter(e -> !e.getPeriodEnd().isAfter(periodEnd))
-                .toList();
+    /**
+     * Post all pending depreciation entries up to a period.
+     * One journal is posted per period, asset category, and expense/accumulated
+     * depreciation account pair instead of one per asset.
+     *
+     * @param detailLines true to write one debit/credit line pair per asset,
+     *                    false for a single pair carrying the group total
+     * @return number of depreciation entries posted
+     */
+    @Transactional
+    public int postAllPendingDepreciation(YearMonth period, String postedBy, boolean detailLines) {
+        return withJdbcBatching(() -> postPending(period, postedBy, detailLines)).entries();
+    }
+
+    private PostedJournals postPending(YearMonth period, String postedBy, boolean detailLines) {
+        long started = System.nanoTime();
+        List<DepreciationEntry> pendingEntries =
+                depreciationEntryRepository.findPendingUpToPeriodEndWithDetails(period.atEndOfMonth());
+
+        if (pendingEntries.isEmpty()) {
+            log.info("No pending depreciation entries for period up to {}", period);
+            return new PostedJournals(0, 0);
+        }
 
-        int count = 0;
+        // Entries are ordered by period, so an asset with several pending months is posted oldest first
+        Map<DepreciationJournalKey, List<DepreciationEntry>> groups = new LinkedHashMap<>();
         for (DepreciationEntry entry : pendingEntries) {
-            doPostDepreciationEntry(entry, postedBy);
-            count++;
+            groups.computeIfAbsent(DepreciationJournalKey.of(entry), k -> new ArrayList<>()).add(entry);
+        }
+
+        JournalTemplate template = findDepreciationTemplate();
+        for (List<DepreciationEntry> entries : groups.values()) {
+            postConsolidatedJournal(template, entries, postedBy, detailLines);
+        }
+
+        long millis = elapsedMillis(started);
+        log.info("Posted {} depreciation entries in {} journals for period up to {} in {} ms ({} entries/s)",
+                pendingEntries.size(), groups.size(), period, millis, perSecond(pendingEntries.size(), millis));
+        return new PostedJournals(pendingEntries.size(), groups.size());
+    }
+
+    private void postConsolidatedJournal(JournalTemplate template, List<DepreciationEntry> entries,
+                                         String postedBy, boolean detailLines) {
+        DepreciationEntry first = entries.get(0);
+        FixedAsset firstAsset = first.getFixedAsset();
+        AssetCategory category = firstAsset.getCategory();
+        ChartOfAccount expenseAccount = firstAsset.getDepreciationExpenseAccount();
+        ChartOfAccount accumulatedAccount = firstAsset.getAccumulatedDepreciationAccount();
+
+        BigDecimal total = entries.stream()
+                .map(DepreciationEntry::getDepreciationAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(template);
+        transaction.setTransactionDate(first.getPeriodEnd());
+        transaction.setAmount(total);
+        transaction.setDescription("Penyusutan " + category.getName() + " - " + first.getPeriodDisplayName()
+                + " (" + entries.size() + " aset)");
+        transaction.setReferenceNumber("DEP-" + category.getCode() + "-" + YearMonth.from(first.getPeriodEnd()));
+
+        if (detailLines) {
+            for (DepreciationEntry entry : entries) {
+                FixedAsset asset = entry.getFixedAsset();
+                addDepreciationLines(transaction, expenseAccount, accumulatedAccount, entry.getDepreciationAmount(),
+                        asset.getAssetCode() + " - " + asset.getName());
+            }
+        } else {
+            addDepreciationLines(transaction, expenseAccount, accumulatedAccount, total, null);
         }
 
-        log.info("Posted {} depreciation entries for period up to {}", count, period);
-        return count;
+        // Journal lines are built here; posting only numbers and validates them
+        Transaction postedTransaction = transactionService.post(
+                transactionService.saveDirectly(transaction).getId(), postedBy);
+
+        LocalDateTime postedAt = LocalDateTime.now();
+        List<FixedAsset> assets = new ArrayList<>(entries.size());
+        for (DepreciationEntry entry : entries) {
+            entry.setStatus(DepreciationEntryStatus.POSTED);
+            entry.setTransaction(postedTransaction);
+            entry.setPostedAt(postedAt);
+            entry.getFixedAsset().recordDepreciation(entry.getDepreciationAmount(), entry.getPeriodEnd());
+            assets.add(entry.getFixedAsset());
+        }
+        depreciationEntryRepository.saveAll(entries);
+        fixedAssetRepository.saveAll(assets);
+
+        log.debug("Posted depreciation journal {} for category {}: {} assets, total {}",
+                postedTransaction.getTransactionNumber(), LogSanitizer.sanitize(category.getCode()),
+                entries.size(), total);
+    }
+
+    private void addDepreciationLines(Transaction transaction, ChartOfAccount expenseAccount,
+                                      ChartOfAccount accumulatedAccount, BigDecimal amount, String memo) {
+        JournalEntry debit = new JournalEntry();
+        debit.setAccount(expenseAccount);
+        debit.setDebitAmount(amount);
+        debit.setCreditAmount(BigDecimal.ZERO);
+        debit.setMemo(memo);
+        transaction.addJournalEntry(debit);
+
+        JournalEntry credit = new JournalEntry();
+        credit.setAccount(accumulatedAccount);
+        credit.setDebitAmount(BigDecimal.ZERO);
+        credit.setCreditAmount(amount);
+        credit.setMemo(memo);
+        transaction.addJournalEntry(credit);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static long perSecond(int items, long millis) {
+        return millis == 0 ? items * 1000L : items * 1000L / millis;
+    }
+
+    /**
+     * Outcome of a monthly depreciation run, with per-step timings.
+     */
+    public record DepreciationRunSummary(
+            YearMonth period,
+            int generated,
+            int posted,
+            int journals,
+            long generateMillis,
+            long postMillis
+    ) {
+        public long generatedPerSecond() {
+            return perSecond(generated, generateMillis);
+        }
+
+        public long postedPerSecond() {
+            return perSecond(posted, postMillis);
+        }
+    }
+
+    private record PostedJournals(int entries, int journals) {}
+
+    private record DepreciationJournalKey(
+            LocalDate periodEnd,
+            UUID categoryId,
+            UUID expenseAccountId,
+            UUID accumulatedAccountId
+    ) {
+        static DepreciationJournalKey of(DepreciationEntry entry) {
+            FixedAsset asset = entry.getFixedAsset();
+            return new DepreciationJournalKey(entry.getPeriodEnd(), asset.getCategory().getId(),
+                    asset.getDepreciationExpenseAccount().getId(),
+                    asset.getAccumulatedDepreciationAccount().getId());
+        }
     }
 
     /**
@@ -0,0 +1,262 @@
+package com.artivisi.accountingfinance.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for API endpoints that create drafts or postings.
+ *
+ * The first request with a key claims it in idempotency_keys (committed at
+ * once), does the work and stores its response; a retry with the same key gets
+ * the stored response back, marked with {@value #REPLAYED_HEADER}. Keys are
+ * scoped to the caller. A duplicate that arrives while the first request is
+ * still running waits for it, up to {@code app.idempotency.wait-seconds}, and
+ * then gets 409. A request that fails releases its key so it can be retried.
+ *
+ * A claim whose request never finished (e.g. the node died) expires after
+ * {@code app.idempotency.processing-timeout-seconds}; a stored response after
+ * {@code app.idempotency.ttl-hours}. Expired rows are purged daily.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate newTransaction;
+    private final int ttlHours;
+    private final int waitSeconds;
+    private final int processingTimeoutSeconds;
+
+    // Requests in progress on this node, so local duplicates wait without polling
+    private final ConcurrentHashMap<String, CountDownLatch> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(EntityManager entityManager,
+                              JsonMapper jsonMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.ttl-hours:24}") int ttlHours,
+                              @Value("${app.idempotency.wait-seconds:30}") int waitSeconds,
+                              @Value("${app.idempotency.processing-timeout-seconds:300}") int processingTimeoutSeconds) {
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlHours = ttlHours;
+        this.waitSeconds = waitSeconds;
+        this.processingTimeoutSeconds = processingTimeoutSeconds;
+    }
+
+    private record StoredRequest(String requestHash, boolean completed, Integer responseStatus, String responseBody) {
+    }
+
+    /**
+     * Runs {@code action} once per key. Without a key the action simply runs.
+     * {@code operation} names the endpoint (and path variables), so the same
+     * key sent to another endpoint counts as a different request.
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String principal = currentPrincipal();
+        String requestHash = fingerprint(operation, request);
+        String slot = principal + "\n" + key;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitSeconds);
+
+        while (true) {
+            CountDownLatch mine = new CountDownLatch(1);
+            CountDownLatch running = inFlight.putIfAbsent(slot, mine);
+            if (running != null) {
+                await(running, deadline);
+            } else {
+                try {
+                    String claimId = claim(principal, key, requestHash);
+                    if (claimId != null) {
+                        return runClaimed(claimId, action);
+                    }
+                } finally {
+                    inFlight.remove(slot, mine);
+                    mine.countDown();
+                }
+            }
+
+            StoredRequest stored = find(principal, key);
+            if (stored == null) {
+                // Released by a failed request, or expired: claim again
+                continue;
+            }
+            if (!stored.requestHash().equals(requestHash)) {
+                throw new IllegalArgumentException(HEADER + " was already used for a different request");
+            }
+            if (stored.completed()) {
+                return replay(stored, responseType);
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("A request with this " + HEADER + " is still being processed");
+            }
+            if (running == null) {
+                // Claimed by a request on another node: poll
+                sleep(deadline);
+            }
+        }
+    }
+
+    /**
+     * Deletes expired keys and claims. Returns the number deleted.
+     */
+    public int purgeExpired() {
+        Integer deleted = newTransaction.execute(status -> entityManager.createNativeQuery(
+                "DELETE FROM idempotency_keys WHERE expires_at <= NOW()")
+                .executeUpdate());
+        return deleted != null ? deleted : 0;
+    }
+
+    private <T> ResponseEntity<T> runClaimed(String claimId, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(claimId);
+            throw e;
+        }
+        try {
+            complete(claimId, response);
+        } catch (RuntimeException e) {
+            // The work is done; a retry after the claim expires would repeat it
+            log.error("Could not store idempotent response for claim {}", claimId, e);
+        }
+        return response;
+    }
+
+    /**
+     * Inserts a PROCESSING claim, or takes over an expired row. Returns the
+     * claim id, or null when the key is held by a live request or response.
+     */
+    @SuppressWarnings("unchecked")
+    private String claim(String principal, String key, String requestHash) {
+        List<Object> ids = newTransaction.execute(status -> entityManager.createNativeQuery(
+                "INSERT INTO idempotency_keys (principal, idempotency_key, request_hash, status, expires_at) " +
+                "VALUES (:principal, :key, :requestHash, 'PROCESSING', NOW() + make_interval(secs => :lease)) " +
+                "ON CONFLICT (principal, idempotency_key) DO UPDATE " +
+                "SET request_hash = EXCLUDED.request_hash, status = 'PROCESSING', " +
+                "response_status = NULL, response_body = NULL, created_at = NOW(), expires_at = EXCLUDED.expires_at " +
+                "WHERE idempotency_keys.expires_at <= NOW() " +
+                "RETURNING CAST(id AS text)")
+                .setParameter("principal", principal)
+                .setParameter("key", key)
+                .setParameter("requestHash", requestHash)
+                .setParameter("lease", processingTimeoutSeconds)
+                .getResultList());
+        return ids == null || ids.isEmpty() ? null : (String) ids.getFirst();
+    }
+
+    private void complete(String claimId, ResponseEntity<?> response) {
+        String body = response.getBody() != null ? jsonMapper.writeValueAsString(response.getBody()) : null;
+        newTransaction.executeWithoutResult(status -> entityManager.createNativeQuery(
+                "UPDATE idempotency_keys SET status = 'COMPLETED', response_status = :responseStatus, " +
+                "response_body = CAST(:responseBody AS jsonb), expires_at = NOW() + make_interval(hours => :ttl) " +
+                "WHERE id = CAST(:id AS uuid)")
+                .setParameter("responseStatus", response.getStatusCode().value())
+                .setParameter("responseBody", body)
+                .setParameter("ttl", ttlHours)
+                .setParameter("id", claimId)
+                .executeUpdate());
+    }
+
+    private void release(String claimId) {
+        newTransaction.executeWithoutResult(status -> entityManager.createNativeQuery(
+                "DELETE FROM idempotency_keys WHERE id = CAST(:id AS uuid)")
+                .setParameter("id", claimId)
+                .executeUpdate());
+    }
+
+    @SuppressWarnings("unchecked")
+    private StoredRequest find(String principal, String key) {
+        List<Object[]> rows = newTransaction.execute(status -> entityManager.createNativeQuery(
+                "SELECT request_hash, status, response_status, CAST(response_body AS text) " +
+                "FROM idempotency_keys " +
+                "WHERE principal = :principal AND idempotency_key = :key AND expires_at > NOW()")
+                .setParameter("principal", principal)
+                .setParameter("key", key)
+                .getResultList());
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.getFirst();
+        return new StoredRequest((String) row[0], "COMPLETED".equals(row[1]),
+                row[2] != null ? ((Number) row[2]).intValue() : null, (String) row[3]);
+    }
+
+    private <T> ResponseEntity<T> replay(StoredRequest stored, Class<T> responseType) {
+        T body = stored.responseBody() != null ? jsonMapper.readValue(stored.responseBody(), responseType) : null;
+        return ResponseEntity.status(stored.responseStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(jsonMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getName() != null ? auth.getName() : "anonymous";
+    }
+
+    private static void await(CountDownLatch latch, long deadline) {
+        try {
+            latch.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+
+    private static void sleep(long deadline) {
+        long millis = Math.min(POLL_INTERVAL_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        try {
+            Thread.sleep(Math.max(1, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+}
@@ -5,15 +5,23 @@ import com.artivisi.accountingfinance.entity.InventoryTransaction;
 import com.artivisi.accountingfinance.entity.InventoryTransactionType;
 import com.artivisi.accountingfinance.entity.Product;
 import com.artivisi.accountingfinance.repository.InventoryBalanceRepository;
+import com.artivisi.accountingfinance.repository.InventorySnapshotRepository;
 import com.artivisi.accountingfinance.repository.InventoryTransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Service for generating inventory reports.
@@ -26,6 +34,14 @@ public class InventoryReportService {
 
     private final InventoryBalanceRepository balanceRepository;
     private final InventoryTransactionRepository transactionRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+
+    private static final List<InventoryTransactionType> INBOUND_TYPES = Arrays.stream(InventoryTransactionType.values())
+            .filter(InventoryTransactionType::isInbound)
+            .toList();
+    private static final List<InventoryTransactionType> OUTBOUND_TYPES = Arrays.stream(InventoryTransactionType.values())
+            .filter(type -> !type.isInbound())
+            .toList();
 
     /**
      * Generate stock balance report showing current stock levels.
@@ -60,6 +76,55 @@ public class InventoryReportService {
         return new StockBalanceReport(items, totalQuantity, totalValue);
     }
 
+    /**
+     * Generate stock balance as of the end of {@code asOfDate}, or the current
+     * balance when it is null. Positions come from the nearest snapshot on or
+     * before the date plus the movements since, as in
+     * {@link #generateValuationReport(UUID, LocalDate)}.
+     */
+    public StockBalanceReport generateStockBalanceReport(UUID categoryId, String search, LocalDate asOfDate) {
+        if (asOfDate == null) {
+            return generateStockBalanceReport(categoryId, search);
+        }
+
+        LocalDate baseDate = snapshotRepository.findLatestSnapshotDateOnOrBefore(asOfDate);
+        List<StockBalanceItem> items = snapshotRepository.findStockBalancesAsOf(
+                        asOfDate, baseDate, InventorySnapshotService.INBOUND_TYPE_NAMES, categoryId,
+                        search != null ? search.strip() : "")
+                .stream()
+                .map(this::createStockBalanceItem)
+                .toList();
+
+        BigDecimal totalQuantity = items.stream()
+                .map(StockBalanceItem::quantity)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalValue = items.stream()
+                .map(StockBalanceItem::totalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new StockBalanceReport(items, totalQuantity, totalValue);
+    }
+
+    private StockBalanceItem createStockBalanceItem(Object[] row) {
+        BigDecimal minimumStock = (BigDecimal) row[4];
+        BigDecimal quantity = (BigDecimal) row[5];
+        BigDecimal totalCost = (BigDecimal) row[6];
+        String categoryName = row[2] != null ? (String) row[2] : "-";
+
+        return new StockBalanceItem(
+                (String) row[0],
+                (String) row[1],
+                categoryName,
+                (String) row[3],
+                quantity,
+                quantity.signum() > 0 ? totalCost.divide(quantity, 4, RoundingMode.HALF_UP) : BigDecimal.ZERO,
+                totalCost,
+                minimumStock,
+                quantity.compareTo(minimumStock) < 0
+        );
+    }
+
     private StockBalanceItem createStockBalanceItem(InventoryBalance balance) {
         Product product = balance.getProduct();
         String categoryName = product.getCategory() != null ? product.getCategory().getName() : "-";
@@ -80,84 +145,105 @@ public class InventoryReportService {
     /**
      * Generate stock movement report for a date range.
      * Shows inbound, outbound quantities and values.
+     * Holds every row in memory; prefer {@link #generateStockMovementPage} or
+     * {@link #streamStockMovements} for long ranges.
      */
     public StockMovementReport generateStockMovementReport(
             LocalDate startDate, LocalDate endDate,
             UUID categoryId, UUID productId) {
 
-        List<InventoryTransaction> transactions;
-
-        if (productId != null) {
-            transactions = transactionRepository.findByProductIdAndDateRange(productId, startDate, endDate);
-        } else if (categoryId != null) {
-            transactions = transactionRepository.findByCategoryIdAndDateRange(categoryId, startDate, endDate);
-        } else {
-            transactions = transactionRepository.findByDateRange(startDate, endDate);
-        }
-
-        List<StockMovementItem> items = transactions.stream()
+        StockMovementSummary summary = summarizeStockMovements(startDate, endDate, categoryId, productId);
+        List<StockMovementItem> items = transactionRepository.findStockMovementRows(
+                        startDate, endDate, productId, categoryFilter(categoryId, productId), Pageable.unpaged())
+                .stream()
                 .map(this::createStockMovementItem)
                 .toList();
 
-        // Calculate totals
-        BigDecimal totalInboundQty = items.stream()
-                .filter(item -> isInbound(item.transactionType()))
-                .map(StockMovementItem::quantity)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalOutboundQty = items.stream()
-                .filter(item -> isOutbound(item.transactionType()))
-                .map(StockMovementItem::quantity)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalInboundValue = items.stream()
-                .filter(item -> isInbound(item.transactionType()))
-                .map(StockMovementItem::totalCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalOutboundValue = items.stream()
-                .filter(item -> isOutbound(item.transactionType()))
-                .map(StockMovementItem::totalCost)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         return new StockMovementReport(
                 startDate, endDate, items,
-                totalInboundQty, totalOutboundQty,
-                totalInboundValue, totalOutboundValue
+                summary.totalInboundQty(), summary.totalOutboundQty(),
+                summary.totalInboundValue(), summary.totalOutboundValue()
         );
     }
 
-    private StockMovementItem createStockMovementItem(InventoryTransaction tx) {
-        Product product = tx.getProduct();
-        String categoryName = product.getCategory() != null ? product.getCategory().getName() : "-";
+    /**
+     * Count and inbound/outbound totals for the stock movement report,
+     * computed in a single aggregate query. A product filter takes precedence
+     * over a category filter.
+     */
+    public StockMovementSummary summarizeStockMovements(
+            LocalDate startDate, LocalDate endDate,
+            UUID categoryId, UUID productId) {
 
-        return new StockMovementItem(
-                tx.getTransactionDate(),
-                product.getCode(),
-                product.getName(),
-                categoryName,
-                tx.getTransactionType(),
-                getTransactionTypeLabel(tx.getTransactionType()),
-                tx.getQuantity(),
-                tx.getUnitCost(),
-                tx.getTotalCost(),
-                tx.getReferenceNumber(),
-                tx.getBalanceAfter()
+        Object[] row = transactionRepository.sumStockMovements(
+                startDate, endDate, productId, categoryFilter(categoryId, productId),
+                INBOUND_TYPES, OUTBOUND_TYPES).getFirst();
+
+        return new StockMovementSummary(
+                startDate, endDate,
+                ((Number) row[0]).longValue(),
+                (BigDecimal) row[1], (BigDecimal) row[2],
+                (BigDecimal) row[3], (BigDecimal) row[4]
         );
     }
 
-    private boolean isInbound(InventoryTransactionType type) {
-        return type == InventoryTransactionType.PURCHASE ||
-               type == InventoryTransactionType.ADJUSTMENT_IN ||
-               type == InventoryTransactionType.PRODUCTION_IN ||
-               type == InventoryTransactionType.TRANSFER_IN;
+    /**
+     * One page of stock movement rows, with totals over the whole range.
+     */
+    public StockMovementPage generateStockMovementPage(
+            LocalDate startDate, LocalDate endDate,
+            UUID categoryId, UUID productId, Pageable pageable) {
+
+        StockMovementSummary summary = summarizeStockMovements(startDate, endDate, categoryId, productId);
+        List<StockMovementItem> items = summary.itemCount() == 0
+                ? List.of()
+                : transactionRepository.findStockMovementRows(
+                                startDate, endDate, productId, categoryFilter(categoryId, productId), pageable)
+                        .stream()
+                        .map(this::createStockMovementItem)
+                        .toList();
+
+        return new StockMovementPage(summary, new PageImpl<>(items, pageable, summary.itemCount()));
     }
 
-    private boolean isOutbound(InventoryTransactionType type) {
-        return type == InventoryTransactionType.SALE ||
-               type == InventoryTransactionType.ADJUSTMENT_OUT ||
-               type == InventoryTransactionType.PRODUCTION_OUT ||
-               type == InventoryTransactionType.TRANSFER_OUT;
+    /**
+     * Hands the totals and every stock movement row to {@code writer}. Rows are
+     * read through a database cursor, so the writer must consume the stream
+     * before returning; it runs inside this read-only transaction.
+     */
+    public void streamStockMovements(
+            LocalDate startDate, LocalDate endDate,
+            UUID categoryId, UUID productId,
+            BiConsumer<StockMovementSummary, Stream<StockMovementItem>> writer) {
+
+        StockMovementSummary summary = summarizeStockMovements(startDate, endDate, categoryId, productId);
+        try (Stream<Object[]> rows = transactionRepository.streamStockMovementRows(
+                startDate, endDate, productId, categoryFilter(categoryId, productId))) {
+            writer.accept(summary, rows.map(this::createStockMovementItem));
+        }
+    }
+
+    private UUID categoryFilter(UUID categoryId, UUID productId) {
+        return productId != null ? null : categoryId;
+    }
+
+    private StockMovementItem createStockMovementItem(Object[] row) {
+        InventoryTransactionType type = (InventoryTransactionType) row[4];
+        String categoryName = row[3] != null ? (String) row[3] : "-";
+
+        return new StockMovementItem(
+                (LocalDate) row[0],
+                (String) row[1],
+                (String) row[2],
+                categoryName,
+                type,
+                getTransactionTypeLabel(type),
+                (BigDecimal) row[5],
+                (BigDecimal) row[6],
+                (BigDecimal) row[7],
+                (String) row[8],
+                (BigDecimal) row[9]
+        );
     }
 
     private String getTransactionTypeLabel(InventoryTransactionType type) {
@@ -199,6 +285,49 @@ public class InventoryReportService {
         return new ValuationReport(items, totalValue);
     }
 
+    /**
+     * Generate inventory valuation as of the end of {@code asOfDate}, or the
+     * current valuation when it is null. Starts from the nearest snapshot on or
+     * before the date and adds the movements since, so the cost depends on the
+     * number of products and not on the length of the history.
+     */
+    public ValuationReport generateValuationReport(UUID categoryId, LocalDate asOfDate) {
+        if (asOfDate == null) {
+            return generateValuationReport(categoryId);
+        }
+
+        LocalDate baseDate = snapshotRepository.findLatestSnapshotDateOnOrBefore(asOfDate);
+        List<ValuationItem> items = snapshotRepository.findPositionsAsOf(
+                        asOfDate, baseDate, InventorySnapshotService.INBOUND_TYPE_NAMES, categoryId)
+                .stream()
+                .map(this::createValuationItem)
+                .toList();
+
+        BigDecimal totalValue = items.stream()
+                .map(ValuationItem::totalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new ValuationReport(items, totalValue);
+    }
+
+    private ValuationItem createValuationItem(Object[] row) {
+        BigDecimal quantity = (BigDecimal) row[5];
+        BigDecimal totalCost = (BigDecimal) row[6];
+        String categoryName = row[2] != null ? (String) row[2] : "-";
+        String costingMethod = "FIFO".equals(row[4]) ? "FIFO" : "Rata-rata";
+
+        return new ValuationItem(
+                (String) row[0],
+                (String) row[1],
+                categoryName,
+                (String) row[3],
+                quantity,
+                totalCost.divide(quantity, 4, RoundingMode.HALF_UP),
+                totalCost,
+                costingMethod
+        );
+    }
+
     private ValuationItem createValuationItem(InventoryBalance balance) {
         Product product = balance.getProduct();
         String categoryName = product.getCategory() != null ? product.getCategory().getName() : "-";
@@ -244,6 +373,26 @@ public class InventoryReportService {
             BigDecimal totalOutboundQty,
             BigDecimal totalInboundValue,
             BigDecimal totalOutboundValue
+    ) {
+        public StockMovementSummary summary() {
+            return new StockMovementSummary(startDate, endDate, items.size(),
+                    totalInboundQty, totalOutboundQty, totalInboundValue, totalOutboundValue);
+        }
+    }
+
+    public record StockMovementSummary(
+            LocalDate startDate,
+            LocalDate endDate,
+            long itemCount,
+            BigDecimal totalInboundQty,
+            BigDecimal totalOutboundQty,
+            BigDecimal totalInboundValue,
+            BigDecimal totalOutboundValue
+    ) {}
+
+    public record StockMovementPage(
+            StockMovementSummary summary,
+            Page<StockMovementItem> items
     ) {}
 
     public record StockMovementItem(
@@ -2,10 +2,12 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.entity.CostingMethod;
 import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.InventoryBalance;
 import com.artivisi.accountingfinance.entity.InventoryFifoLayer;
 import com.artivisi.accountingfinance.entity.InventoryTransaction;
 import com.artivisi.accountingfinance.entity.InventoryTransactionType;
+import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.JournalTemplateLine;
 import com.artivisi.accountingfinance.entity.Product;
@@ -15,8 +17,10 @@ import com.artivisi.accountingfinance.repository.InventoryFifoLayerRepository;
 import com.artivisi.accountingfinance.repository.InventoryTransactionRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,11 +31,17 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -44,12 +54,16 @@ public class InventoryService {
     private final ProductRepository productRepository;
     private final JournalTemplateRepository journalTemplateRepository;
     private final TransactionService transactionService;
+    private final BomExplosionService bomExplosionService;
+    private final InventorySnapshotService inventorySnapshotService;
+    private final EntityManager entityManager;
 
     // Template names for inventory journal entries (lookup by name, not hardcoded UUID)
     private static final String PURCHASE_TEMPLATE_NAME = "Pembelian Persediaan";
     private static final String SALE_TEMPLATE_NAME = "Penjualan Persediaan";
     private static final String ADJUSTMENT_IN_TEMPLATE_NAME = "Penyesuaian Persediaan Masuk";
     private static final String ADJUSTMENT_OUT_TEMPLATE_NAME = "Penyesuaian Persediaan Keluar";
+    private static final String PRODUCTION_TEMPLATE_NAME = "Produksi Barang Jadi";
 
     /**
      * Record an inventory purchase.
@@ -125,6 +139,115 @@ public class InventoryService {
                 quantity, null, referenceNumber, notes);
     }
 
+    /**
+     * Record a complete production run: consume every component and receive the
+     * finished goods in one pass.
+     *
+     * Component and output balances are locked together in product id order, so
+     * runs sharing components cannot deadlock. Available FIFO layers of all
+     * components are read in one query and written back in one batch. A single
+     * journal moves the consumed cost from the components' inventory accounts to
+     * the finished goods inventory account, instead of one journal per line.
+     *
+     * @param componentQuantities quantity to consume per component product id, in BOM order
+     */
+    @Transactional
+    public ProductionResult recordProduction(UUID outputProductId, BigDecimal outputQuantity,
+                                             Map<UUID, BigDecimal> componentQuantities, LocalDate date,
+                                             String referenceNumber, String consumptionNotes, String outputNotes) {
+        Set<UUID> productIds = new HashSet<>(componentQuantities.keySet());
+        productIds.add(outputProductId);
+        Map<UUID, InventoryBalance> balances = new HashMap<>();
+        for (InventoryBalance balance : balanceRepository.findByProductIdsForUpdate(productIds)) {
+            balances.put(balance.getProduct().getId(), balance);
+        }
+
+        // Check every component before changing anything
+        for (Map.Entry<UUID, BigDecimal> component : componentQuantities.entrySet()) {
+            InventoryBalance balance = balances.get(component.getKey());
+            BigDecimal available = balance != null ? balance.getQuantity() : BigDecimal.ZERO;
+            if (balance == null || available.compareTo(component.getValue()) < 0) {
+                String code = balance != null ? balance.getProduct().getCode() : getProduct(component.getKey()).getCode();
+                throw new IllegalArgumentException(
+                        String.format("Stok tidak mencukupi untuk %s. Stok saat ini: %s, diminta: %s",
+                                code, available, component.getValue()));
+            }
+        }
+
+        List<UUID> fifoProductIds = componentQuantities.keySet().stream()
+                .filter(id -> balances.get(id).getProduct().getCostingMethod() == CostingMethod.FIFO)
+                .toList();
+        Map<UUID, List<InventoryFifoLayer>> layersByProduct = new HashMap<>();
+        if (!fifoProductIds.isEmpty()) {
+            for (InventoryFifoLayer layer : fifoLayerRepository.findAvailableLayersForProducts(fifoProductIds)) {
+                layersByProduct.computeIfAbsent(layer.getProduct().getId(), _ -> new ArrayList<>()).add(layer);
+            }
+        }
+
+        String username = getCurrentUsername();
+        List<InventoryFifoLayer> touchedLayers = new ArrayList<>();
+        List<InventoryTransaction> consumptions = new ArrayList<>(componentQuantities.size());
+        BigDecimal totalCost = BigDecimal.ZERO;
+        for (Map.Entry<UUID, BigDecimal> component : componentQuantities.entrySet()) {
+            InventoryBalance balance = balances.get(component.getKey());
+            Product product = balance.getProduct();
+            BigDecimal quantity = component.getValue();
+
+            BigDecimal cost;
+            BigDecimal unitCost;
+            if (product.getCostingMethod() == CostingMethod.FIFO) {
+                cost = consumeLayers(product, layersByProduct.getOrDefault(product.getId(), List.of()),
+                        quantity, touchedLayers);
+                unitCost = quantity.signum() > 0 ? cost.divide(quantity, 4, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+                BigDecimal averageCostBefore = balance.getAverageCost();
+                removeFifoCost(balance, quantity, cost);
+                invalidateRolledUpCosts(averageCostBefore, balance);
+            } else {
+                unitCost = balance.getAverageCost();
+                cost = balance.removeInventory(quantity);
+            }
+            totalCost = totalCost.add(cost);
+
+            InventoryTransaction transaction = new InventoryTransaction();
+            transaction.setProduct(product);
+            transaction.setTransactionType(InventoryTransactionType.PRODUCTION_OUT);
+            transaction.setTransactionDate(date);
+            transaction.setQuantity(quantity);
+            transaction.setUnitCost(unitCost);
+            transaction.setTotalCost(cost);
+            transaction.setReferenceNumber(referenceNumber);
+            transaction.setNotes(consumptionNotes);
+            transaction.setBalanceAfter(balance.getQuantity());
+            transaction.setTotalCostAfter(balance.getTotalCost());
+            transaction.setCreatedBy(username);
+            consumptions.add(transaction);
+        }
+
+        fifoLayerRepository.saveAll(touchedLayers);
+        balanceRepository.saveAll(componentQuantities.keySet().stream().map(balances::get).toList());
+        consumptions = transactionRepository.saveAll(consumptions);
+        inventorySnapshotService.invalidateFrom(date);
+
+        BigDecimal unitCost = totalCost.divide(outputQuantity, 4, RoundingMode.HALF_UP);
+        Product outputProduct = balances.containsKey(outputProductId)
+                ? balances.get(outputProductId).getProduct()
+                : getProduct(outputProductId);
+        InventoryTransaction output = recordInboundTransaction(outputProduct, InventoryTransactionType.PRODUCTION_IN,
+                date, outputQuantity, unitCost, referenceNumber, outputNotes);
+
+        Transaction journal = createProductionJournal(outputProduct, consumptions, date, referenceNumber, username);
+        if (journal != null) {
+            List<InventoryTransaction> linked = new ArrayList<>(consumptions);
+            linked.add(output);
+            linked.forEach(t -> t.setTransaction(journal));
+            transactionRepository.saveAll(linked);
+        }
+
+        log.info("Production {} recorded: {} components consumed for {} {}, total cost {}",
+                referenceNumber, consumptions.size(), outputQuantity, outputProduct.getCode(), totalCost);
+        return new ProductionResult(consumptions, output, totalCost, unitCost, journal);
+    }
+
     /**
      * Get or create inventory balance for a product.
      * Note: Always called from @Transactional methods, no separate transaction needed.
@@ -150,6 +273,15 @@ public class InventoryService {
                 .orElse(BigDecimal.ZERO);
     }
 
+    /**
+     * Get current stock quantities for several products, keyed by product id.
+     * Products without a balance are left out.
+     */
+    public Map<UUID, BigDecimal> getCurrentStocks(Collection<UUID> productIds) {
+        return balanceRepository.findByProductIds(productIds).stream()
+                .collect(Collectors.toMap(b -> b.getProduct().getId(), InventoryBalance::getQuantity));
+    }
+
     /**
      * Get current average cost for a product.
      */
@@ -258,10 +390,12 @@ public class InventoryService {
         log.info("Recording inbound {} for product {} qty {} @ {}", type, product.getCode(), quantity, unitCost);
 
         InventoryBalance balance = getOrCreateBalance(product);
+        BigDecimal averageCostBefore = balance.getAverageCost();
 
         // Update balance
         balance.addInventory(quantity, unitCost);
         balanceRepository.save(balance);
+        invalidateRolledUpCosts(averageCostBefore, balance);
 
         // Create transaction
         InventoryTransaction transaction = new InventoryTransaction();
@@ -278,6 +412,7 @@ public class InventoryService {
         transaction.setCreatedBy(getCurrentUsername());
 
         transaction = transactionRepository.save(transaction);
+        inventorySnapshotService.invalidateFrom(date);
 
         // Create FIFO layer if product uses FIFO
         if (product.getCostingMethod() == CostingMethod.FIFO) {
@@ -315,7 +450,11 @@ public class InventoryService {
                                                            String notes) {
         log.info("Recording outbound {} for product {} qty {}", type, product.getCode(), quantity);
 
-        InventoryBalance balance = getOrCreateBalance(product);
+        // Locking the balance serializes outbound movements of the product, so
+        // the stock check and the FIFO layers read below stay valid until commit
+        InventoryBalance balance = balanceRepository.findByProductIdsForUpdate(List.of(product.getId())).stream()
+                .findFirst()
+                .orElseGet(() -> getOrCreateBalance(product));
 
         // Check sufficient stock
         if (balance.getQuantity().compareTo(quantity) < 0) {
@@ -338,15 +477,9 @@ public class InventoryService {
 
         // Update balance for FIFO (already done in consumeFifoLayers for weighted average)
         if (product.getCostingMethod() == CostingMethod.FIFO) {
-            balance.setQuantity(balance.getQuantity().subtract(quantity));
-            balance.setTotalCost(balance.getTotalCost().subtract(totalCost));
-            if (balance.getQuantity().compareTo(BigDecimal.ZERO) > 0) {
-                balance.setAverageCost(balance.getTotalCost().divide(balance.getQuantity(), 4, RoundingMode.HALF_UP));
-            } else {
-                balance.setAverageCost(BigDecimal.ZERO);
-                balance.setTotalCost(BigDecimal.ZERO);
-            }
-            balance.setLastTransactionDate(LocalDateTime.now());
+            BigDecimal averageCostBefore = balance.getAverageCost();
+            removeFifoCost(balance, quantity, totalCost);
+            invalidateRolledUpCosts(averageCostBefore, balance);
         }
         balanceRepository.save(balance);
 
@@ -366,6 +499,7 @@ public class InventoryService {
         transaction.setCreatedBy(getCurrentUsername());
 
         transaction = transactionRepository.save(transaction);
+        inventorySnapshotService.invalidateFrom(date);
 
         // Create journal entry if product has inventory account configured
         if (product.getInventoryAccount() != null) {
@@ -382,22 +516,32 @@ public class InventoryService {
         return transaction;
     }
 
+    /**
+     * Consume oldest layers first. Reads only the layers the quantity reaches
+     * and updates them in one statement, without loading them as entities.
+     * The caller holds the product's balance lock, so the layers cannot change
+     * between the read and the update.
+     */
     private BigDecimal consumeFifoLayers(Product product, BigDecimal quantity) {
-        List<InventoryFifoLayer> layers = fifoLayerRepository.findAvailableLayers(product.getId());
+        List<Object[]> layers = fifoLayerRepository.findLayersToConsume(product.getId(), quantity);
 
+        List<UUID> layerIds = new ArrayList<>(layers.size());
+        UUID partialLayerId = null;
+        BigDecimal partialQuantity = BigDecimal.ZERO;
         BigDecimal remainingQty = quantity;
         BigDecimal totalCost = BigDecimal.ZERO;
 
-        for (InventoryFifoLayer layer : layers) {
-            if (remainingQty.compareTo(BigDecimal.ZERO) <= 0) {
-                break;
-            }
-
-            BigDecimal consumed = layer.consume(remainingQty);
-            totalCost = totalCost.add(layer.getCostForQuantity(consumed));
+        for (Object[] layer : layers) {
+            UUID layerId = (UUID) layer[0];
+            BigDecimal available = (BigDecimal) layer[1];
+            BigDecimal consumed = available.min(remainingQty);
+            totalCost = totalCost.add(consumed.multiply((BigDecimal) layer[2]));
             remainingQty = remainingQty.subtract(consumed);
-
-            fifoLayerRepository.save(layer);
+            layerIds.add(layerId);
+            if (consumed.compareTo(available) < 0) {
+                partialLayerId = layerId;
+                partialQuantity = consumed;
+            }
         }
 
         if (remainingQty.compareTo(BigDecimal.ZERO) > 0) {
@@ -405,12 +549,33 @@ public class InventoryService {
                     String.format("FIFO layers insufficient for %s. Missing: %s", product.getCode(), remainingQty));
         }
 
+        int updated = fifoLayerRepository.consumeLayers(layerIds, partialLayerId, partialQuantity);
+        if (updated != layerIds.size()) {
+            throw new IllegalStateException(
+                    String.format("FIFO layers of %s changed during the sale, please retry", product.getCode()));
+        }
+        refreshLoadedLayers(layerIds);
         return totalCost;
     }
 
-    private BigDecimal calculateFifoCogs(UUID productId, BigDecimal quantity) {
-        List<InventoryFifoLayer> layers = fifoLayerRepository.findAvailableLayers(productId);
+    /**
+     * The layer update bypasses the persistence context; reload any of the
+     * layers this session already holds so it does not see stale quantities.
+     */
+    private void refreshLoadedLayers(List<UUID> layerIds) {
+        for (UUID layerId : layerIds) {
+            InventoryFifoLayer layer = entityManager.getReference(InventoryFifoLayer.class, layerId);
+            if (Hibernate.isInitialized(layer)) {
+                entityManager.refresh(layer);
+            }
+        }
+    }
 
+    /**
+     * Consume oldest layers first, adding every layer drawn from to {@code touched}.
+     */
+    private BigDecimal consumeLayers(Product product, List<InventoryFifoLayer> layers, BigDecimal quantity,
+                                     List<InventoryFifoLayer> touched) {
         BigDecimal remainingQty = quantity;
         BigDecimal totalCost = BigDecimal.ZERO;
 
@@ -418,16 +583,49 @@ public class InventoryService {
             if (remainingQty.compareTo(BigDecimal.ZERO) <= 0) {
                 break;
             }
+            if (layer.getRemainingQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+
+            BigDecimal consumed = layer.consume(remainingQty);
+            totalCost = totalCost.add(layer.getCostForQuantity(consumed));
+            remainingQty = remainingQty.subtract(consumed);
+            touched.add(layer);
+        }
 
-            BigDecimal available = layer.getRemainingQuantity();
-            BigDecimal toConsume = available.min(remainingQty);
-            totalCost = totalCost.add(layer.getCostForQuantity(toConsume));
-            remainingQty = remainingQty.subtract(toConsume);
+        if (remainingQty.compareTo(BigDecimal.ZERO) > 0) {
+            throw new IllegalStateException(
+                    String.format("FIFO layers insufficient for %s. Missing: %s", product.getCode(), remainingQty));
         }
 
         return totalCost;
     }
 
+    /**
+     * Rolled-up BOM costs start from average costs, so drop them when one moves.
+     */
+    private void invalidateRolledUpCosts(BigDecimal averageCostBefore, InventoryBalance balance) {
+        if (averageCostBefore == null || averageCostBefore.compareTo(balance.getAverageCost()) != 0) {
+            bomExplosionService.invalidate();
+        }
+    }
+
+    private void removeFifoCost(InventoryBalance balance, BigDecimal quantity, BigDecimal totalCost) {
+        balance.setQuantity(balance.getQuantity().subtract(quantity));
+        balance.setTotalCost(balance.getTotalCost().subtract(totalCost));
+        if (balance.getQuantity().compareTo(BigDecimal.ZERO) > 0) {
+            balance.setAverageCost(balance.getTotalCost().divide(balance.getQuantity(), 4, RoundingMode.HALF_UP));
+        } else {
+            balance.setAverageCost(BigDecimal.ZERO);
+            balance.setTotalCost(BigDecimal.ZERO);
+        }
+        balance.setLastTransactionDate(LocalDateTime.now());
+    }
+
+    private BigDecimal calculateFifoCogs(UUID productId, BigDecimal quantity) {
+        return fifoLayerRepository.calculateFifoCost(productId, quantity);
+    }
+
     private BigDecimal calculateWeightedAverageCogs(UUID productId, BigDecimal quantity) {
         BigDecimal avgCost = getCurrentAverageCost(productId);
         return quantity.multiply(avgCost);
@@ -479,6 +677,70 @@ public class InventoryService {
         return postedTransaction;
     }
 
+    /**
+     * One journal for a production run: debit finished goods inventory, credit
+     * each component inventory account, netted per account. Components without
+     * an inventory account are left out, as they are for single movements.
+     */
+    private Transaction createProductionJournal(Product outputProduct, List<InventoryTransaction> consumptions,
+                                                LocalDate date, String referenceNumber, String postedBy) {
+        ChartOfAccount outputAccount = outputProduct.getInventoryAccount();
+        if (outputAccount == null) {
+            return null;
+        }
+
+        Map<UUID, ChartOfAccount> accounts = new LinkedHashMap<>();
+        Map<UUID, BigDecimal> netDebits = new LinkedHashMap<>();
+        accounts.put(outputAccount.getId(), outputAccount);
+        netDebits.put(outputAccount.getId(), BigDecimal.ZERO);
+        BigDecimal journalAmount = BigDecimal.ZERO;
+        for (InventoryTransaction consumption : consumptions) {
+            ChartOfAccount account = consumption.getProduct().getInventoryAccount();
+            if (account == null || consumption.getTotalCost().signum() == 0) {
+                continue;
+            }
+            accounts.putIfAbsent(account.getId(), account);
+            netDebits.merge(account.getId(), consumption.getTotalCost().negate(), BigDecimal::add);
+            netDebits.merge(outputAccount.getId(), consumption.getTotalCost(), BigDecimal::add);
+            journalAmount = journalAmount.add(consumption.getTotalCost());
+        }
+        if (netDebits.values().stream().allMatch(amount -> amount.signum() == 0)) {
+            return null;
+        }
+
+        Optional<JournalTemplate> template = journalTemplateRepository
+                .findByTemplateNameAndIsCurrentVersionTrue(PRODUCTION_TEMPLATE_NAME);
+        if (template.isEmpty()) {
+            log.warn("Journal template not found: {}", PRODUCTION_TEMPLATE_NAME);
+            return null;
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setJournalTemplate(template.get());
+        transaction.setTransactionDate(date);
+        transaction.setAmount(journalAmount);
+        transaction.setDescription(String.format("Produksi %s - %d komponen",
+                outputProduct.getCode(), consumptions.size()));
+        transaction.setReferenceNumber(referenceNumber);
+
+        for (Map.Entry<UUID, BigDecimal> net : netDebits.entrySet()) {
+            BigDecimal amount = net.getValue();
+            if (amount.signum() == 0) {
+                continue;
+            }
+            JournalEntry line = new JournalEntry();
+            line.setAccount(accounts.get(net.getKey()));
+            line.setDebitAmount(amount.signum() > 0 ? amount : BigDecimal.ZERO);
+            line.setCreditAmount(amount.signum() < 0 ? amount.negate() : BigDecimal.ZERO);
+            transaction.addJournalEntry(line);
+        }
+
+        // Journal lines are built here; posting only numbers and validates them
+        Transaction posted = transactionService.post(transactionService.saveDirectly(transaction).getId(), postedBy);
+        log.info("Created production journal {} for {}", posted.getTransactionNumber(), referenceNumber);
+        return posted;
+    }
+
     private FormulaContext buildFormulaContext(InventoryTransaction invTransaction) {
         Map<String, BigDecimal> variables = new HashMap<>();
         variables.put("amount", invTransaction.getTotalCost());
@@ -540,4 +802,12 @@ public class InventoryService {
         return String.format("%s %s - %s x %s",
                 typeDesc, product.getCode(), invTransaction.getQuantity(), product.getUnit());
     }
+
+    public record ProductionResult(
+            List<InventoryTransaction> consumptions,
+            InventoryTransaction output,
+            BigDecimal totalCost,
+            BigDecimal unitCost,
+            Transaction journal
+    ) {}
 }
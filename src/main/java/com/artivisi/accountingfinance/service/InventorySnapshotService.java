@@ -0,0 +1,60 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.InventoryTransactionType;
+import com.artivisi.accountingfinance.repository.InventorySnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes and invalidates per-product inventory snapshots.
+ *
+ * A snapshot is taken when a fiscal month is closed, from the previous snapshot
+ * plus the movements since, so taking one never replays the full history.
+ * A movement dated on or before a snapshot makes that snapshot and every later
+ * one stale; they are deleted, and valuations fall back to the previous one
+ * until the period is closed again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class InventorySnapshotService {
+
+    static final List<String> INBOUND_TYPE_NAMES = Arrays.stream(InventoryTransactionType.values())
+            .filter(InventoryTransactionType::isInbound)
+            .map(Enum::name)
+            .toList();
+
+    private final InventorySnapshotRepository snapshotRepository;
+
+    /**
+     * Writes the snapshot as of the end of {@code snapshotDate}, replacing any
+     * existing one for that date. Returns the number of product rows written.
+     */
+    @Transactional
+    public int takeSnapshot(LocalDate snapshotDate) {
+        snapshotRepository.deleteBySnapshotDate(snapshotDate);
+        LocalDate baseDate = snapshotRepository.findLatestSnapshotDateBefore(snapshotDate);
+        int rows = snapshotRepository.insertSnapshot(snapshotDate, baseDate, INBOUND_TYPE_NAMES);
+        log.info("Inventory snapshot {} written for {} products (from {})",
+                snapshotDate, rows, baseDate != null ? baseDate : "full history");
+        return rows;
+    }
+
+    /**
+     * Deletes the snapshots a movement dated {@code date} would change.
+     */
+    @Transactional
+    public void invalidateFrom(LocalDate date) {
+        int deleted = snapshotRepository.deleteFromDate(date);
+        if (deleted > 0) {
+            log.info("Deleted {} inventory snapshot rows on or after {}", deleted, date);
+        }
+    }
+}
@@ -8,7 +8,10 @@ import com.artivisi.accountingfinance.entity.Product;
 import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.entity.ProjectPaymentTerm;
 import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.ChangeEntityType;
+import com.artivisi.accountingfinance.enums.ChangeType;
 import com.artivisi.accountingfinance.enums.InvoiceStatus;
+import com.artivisi.accountingfinance.event.InvoicePaidEvent;
 import com.artivisi.accountingfinance.repository.ClientRepository;
 import com.artivisi.accountingfinance.repository.InvoicePaymentRepository;
 import com.artivisi.accountingfinance.repository.InvoiceRepository;
@@ -41,6 +44,8 @@ public class InvoiceService {
     private final ProjectRepository projectRepository;
     private final ProjectPaymentTermRepository paymentTermRepository;
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final ChangeLogService changeLogService;
 
     private final @Lazy InvoiceService self;
 
@@ -92,7 +97,9 @@ public class InvoiceService {
         invoice.setStatus(InvoiceStatus.DRAFT);
         attachLines(invoice, lines);
 
-        return invoiceRepository.save(invoice);
+        Invoice saved = invoiceRepository.save(invoice);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     @Transactional
@@ -125,7 +132,9 @@ public class InvoiceService {
         invoice.setStatus(InvoiceStatus.DRAFT);
         invoice.setNotes("Generated from payment term: " + paymentTerm.getName());
 
-        return invoiceRepository.save(invoice);
+        Invoice saved = invoiceRepository.save(invoice);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     public Invoice update(UUID id, Invoice updatedInvoice) {
@@ -183,6 +192,7 @@ public class InvoiceService {
             existing.setAmount(updatedInvoice.getAmount());
         }
 
+        changeLogService.record(existing, ChangeType.UPDATED);
         return invoiceRepository.save(existing);
     }
 
@@ -194,6 +204,7 @@ public class InvoiceService {
             throw new IllegalStateException("Only draft or cancelled invoices can be deleted");
         }
 
+        changeLogService.record(invoice, ChangeType.DELETED);
         invoiceRepository.delete(invoice);
     }
 
@@ -207,6 +218,7 @@ public class InvoiceService {
 
         invoice.setStatus(InvoiceStatus.SENT);
         invoice.setSentAt(LocalDateTime.now());
+        changeLogService.record(invoice, ChangeType.UPDATED);
         return invoiceRepository.save(invoice);
     }
 
@@ -221,6 +233,8 @@ public class InvoiceService {
 
         invoice.setStatus(InvoiceStatus.PAID);
         invoice.setPaidAt(LocalDateTime.now());
+        outboxService.publish(InvoicePaidEvent.of(invoice));
+        changeLogService.record(invoice, ChangeType.UPDATED);
         return invoiceRepository.save(invoice);
     }
 
@@ -236,6 +250,8 @@ public class InvoiceService {
         invoice.setTransaction(transaction);
         invoice.setStatus(InvoiceStatus.PAID);
         invoice.setPaidAt(LocalDateTime.now());
+        outboxService.publish(InvoicePaidEvent.of(invoice));
+        changeLogService.record(invoice, ChangeType.UPDATED);
         return invoiceRepository.save(invoice);
     }
 
@@ -259,14 +275,18 @@ public class InvoiceService {
 
         payment.setInvoice(invoice);
         invoicePaymentRepository.save(payment);
+        changeLogService.record(ChangeEntityType.INVOICE_PAYMENT, payment.getId(), ChangeType.CREATED,
+                invoice.getInvoiceNumber(), null);
 
         if (totalAfterPayment.compareTo(totalAmount) == 0) {
             invoice.setStatus(InvoiceStatus.PAID);
             invoice.setPaidAt(LocalDateTime.now());
+            outboxService.publish(InvoicePaidEvent.of(invoice));
         } else {
             invoice.setStatus(InvoiceStatus.PARTIAL);
         }
 
+        changeLogService.record(invoice, ChangeType.UPDATED);
         return invoiceRepository.save(invoice);
     }
 
@@ -283,6 +303,7 @@ public class InvoiceService {
         }
 
         invoice.setStatus(InvoiceStatus.CANCELLED);
+        changeLogService.record(invoice, ChangeType.UPDATED);
         return invoiceRepository.save(invoice);
     }
 
@@ -293,6 +314,7 @@ public class InvoiceService {
         for (Invoice invoice : overdueInvoices) {
             invoice.setStatus(InvoiceStatus.OVERDUE);
             invoiceRepository.save(invoice);
+            changeLogService.record(invoice, ChangeType.UPDATED);
             count++;
         }
         return count;
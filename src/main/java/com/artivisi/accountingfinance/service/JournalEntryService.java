@@ -4,8 +4,10 @@ import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.ChangeType;
 import com.artivisi.accountingfinance.enums.NormalBalance;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
@@ -41,6 +43,8 @@ public class JournalEntryService {
     private final TransactionRepository transactionRepository;
     private final JournalTemplateRepository journalTemplateRepository;
     private final TransactionSequenceRepository transactionSequenceRepository;
+    private final OutboxService outboxService;
+    private final ChangeLogService changeLogService;
 
     // Helper to calculate balance based on account's normal balance
     private BigDecimal calculateBalance(NormalBalance normalBalance, BigDecimal debit, BigDecimal credit) {
@@ -344,7 +348,9 @@ public class JournalEntryService {
             transaction.addJournalEntry(entry);
         }
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     /**
@@ -404,7 +410,9 @@ public class JournalEntryService {
             transaction.addJournalEntry(entry);
         }
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.UPDATED);
+        return saved;
     }
 
     /**
@@ -461,6 +469,8 @@ public class JournalEntryService {
         }
 
         transactionRepository.save(transaction);
+        changeLogService.record(transaction, ChangeType.POSTED);
+        outboxService.publish(LedgerChangedEvent.of(transaction));
         return entries;
     }
 
@@ -514,6 +524,8 @@ public class JournalEntryService {
         }
 
         transactionRepository.save(transaction);
+        changeLogService.record(transaction, ChangeType.VOIDED);
+        outboxService.publish(LedgerChangedEvent.of(transaction));
         return entries;
     }
 
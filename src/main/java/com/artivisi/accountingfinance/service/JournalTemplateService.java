@@ -18,7 +18,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -35,6 +36,8 @@ public class JournalTemplateService {
     private final JournalTemplateTagRepository journalTemplateTagRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final FormulaEvaluator formulaEvaluator;
+    private final TemplateUsageTracker templateUsageTracker;
+    private final MerchantClassifier merchantClassifier;
 
     public List<JournalTemplate> findAll() {
         return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByTemplateNameAsc(true);
@@ -51,12 +54,25 @@ public class JournalTemplateService {
         return journalTemplateRepository.findByCategoryAndActiveAndIsCurrentVersionTrueOrderByTemplateNameAsc(category, true);
     }
 
+    /**
+     * Active templates by usage count, including uses not yet flushed.
+     */
     public List<JournalTemplate> findMostUsed() {
-        return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByUsageCountDesc(true);
+        List<JournalTemplate> templates = new ArrayList<>(
+                journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByUsageCountDesc(true));
+        templates.sort(Comparator.comparingInt(templateUsageTracker::getUsageCount).reversed());
+        return templates;
     }
 
+    /**
+     * Active templates by last use, including uses not yet flushed; never used last.
+     */
     public List<JournalTemplate> findRecentlyUsed() {
-        return journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByLastUsedAtDesc(true);
+        List<JournalTemplate> templates = new ArrayList<>(
+                journalTemplateRepository.findByActiveAndIsCurrentVersionTrueOrderByLastUsedAtDesc(true));
+        templates.sort(Comparator.comparing(templateUsageTracker::getLastUsedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return templates;
     }
 
     public Page<JournalTemplate> search(String search, Pageable pageable) {
@@ -76,6 +92,7 @@ public class JournalTemplateService {
     @Transactional
     public JournalTemplate create(@Valid JournalTemplate template) {
         validateTemplateLines(template);
+        merchantClassifier.invalidate();
         return journalTemplateRepository.save(template);
     }
 
@@ -86,6 +103,7 @@ public class JournalTemplateService {
         if (existing.getIsSystem()) {
             throw new IllegalStateException("Cannot modify system template");
         }
+        merchantClassifier.invalidate();
 
         // Check if template is in use by any transaction
         boolean isInUse = journalTemplateRepository.isTemplateInUse(id);
@@ -163,8 +181,8 @@ public class JournalTemplateService {
         newVersion.setVersion(nextVersion);
         newVersion.setOriginalTemplate(rootTemplate);
         newVersion.setIsCurrentVersion(true);
-        newVersion.setUsageCount(existing.getUsageCount());
-        newVersion.setLastUsedAt(existing.getLastUsedAt());
+        newVersion.setUsageCount(templateUsageTracker.getUsageCount(existing));
+        newVersion.setLastUsedAt(templateUsageTracker.getLastUsedAt(existing));
 
         // AI semantic metadata
         newVersion.setSemanticDescription(templateData.getSemanticDescription());
@@ -229,15 +247,16 @@ public class JournalTemplateService {
             duplicate.addLine(newLine);
         }
 
+        merchantClassifier.invalidate();
         return journalTemplateRepository.save(duplicate);
     }
 
-    @Transactional
+    /**
+     * Count a template use. The counter is coalesced in memory and flushed
+     * periodically, so callers never lock the template row.
+     */
     public void recordUsage(UUID id) {
-        JournalTemplate template = findById(id);
-        template.setUsageCount(template.getUsageCount() + 1);
-        template.setLastUsedAt(LocalDateTime.now());
-        journalTemplateRepository.save(template);
+        templateUsageTracker.record(id);
     }
 
     @Transactional
@@ -245,6 +264,7 @@ public class JournalTemplateService {
         JournalTemplate template = findById(id);
         template.setActive(true);
         journalTemplateRepository.save(template);
+        merchantClassifier.invalidate();
     }
 
     @Transactional
@@ -255,6 +275,7 @@ public class JournalTemplateService {
         }
         template.setActive(false);
         journalTemplateRepository.save(template);
+        merchantClassifier.invalidate();
     }
 
     @Transactional
@@ -264,6 +285,7 @@ public class JournalTemplateService {
             throw new IllegalStateException("Cannot delete system template");
         }
         journalTemplateRepository.delete(template);
+        merchantClassifier.invalidate();
     }
 
     // Tag-related methods
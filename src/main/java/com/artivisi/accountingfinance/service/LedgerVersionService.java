@@ -0,0 +1,104 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Monotonic ledger version and the report results cached against it.
+ *
+ * The version is a database sequence advanced after every commit that changes
+ * posted journal totals, so it survives restarts and is never advanced before
+ * the change is visible: a report computed under a version always reflects at
+ * least that version's ledger. Results are cached per version and key; entries
+ * of an older version are dropped as soon as a newer one is seen, and entries
+ * are recomputed after {@code app.analysis-cache.max-age-minutes} to pick up
+ * edits that do not move the version (e.g. an account renamed).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class LedgerVersionService {
+
+    private final EntityManager entityManager;
+
+    @Value("${app.analysis-cache.max-entries:200}")
+    private int maxEntries = 200;
+
+    @Value("${app.analysis-cache.max-age-minutes:10}")
+    private long maxAgeMinutes = 10;
+
+    // Guarded by this
+    private long cachedVersion = -1;
+    private final Map<String, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private record CachedResult(Object value, long builtAtNanos) {
+
+        private boolean isOlderThan(long minutes) {
+            return System.nanoTime() - builtAtNanos > minutes * 60_000_000_000L;
+        }
+    }
+
+    /**
+     * The current ledger version. Reads the sequence only, never the journal;
+     * 0 until the first change.
+     */
+    public long currentVersion() {
+        return ((Number) entityManager.createNativeQuery(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM ledger_version_seq")
+                .getSingleResult()).longValue();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        long version = ((Number) entityManager.createNativeQuery("SELECT nextval('ledger_version_seq')")
+                .getSingleResult()).longValue();
+        log.debug("Ledger version {} after change dated {}", version, event.transactionDate());
+    }
+
+    /**
+     * The result cached for {@code key} at {@code version}, computing and
+     * caching it on a miss. A result computed for a version older than one
+     * already seen is returned but not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(long version, String key, Supplier<T> compute) {
+        synchronized (this) {
+            if (version == cachedVersion) {
+                CachedResult cached = results.get(key);
+                if (cached != null && !cached.isOlderThan(maxAgeMinutes)) {
+                    return (T) cached.value();
+                }
+            }
+        }
+
+        T value = compute.get();
+        synchronized (this) {
+            if (version > cachedVersion) {
+                results.clear();
+                cachedVersion = version;
+            }
+            if (version == cachedVersion) {
+                results.put(key, new CachedResult(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+}
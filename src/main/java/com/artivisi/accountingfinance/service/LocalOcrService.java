@@ -0,0 +1,114 @@
+package com.artivisi.accountingfinance.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stand-in OCR backend that needs no external service, enabled with
+ * {@code app.ocr.backend=local}. Google Cloud Vision is not created when it is set.
+ *
+ * The text for an image is read from {@code <sha256 of image>.txt} in
+ * {@code app.ocr.local.text-dir}. Without such a file, an "image" that is plain
+ * UTF-8 text is returned as its own OCR text, so tests can send receipt text
+ * directly. {@code app.ocr.local.delay-ms} adds a fixed latency to mimic a real
+ * OCR call in load tests.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ocr.backend", havingValue = "local")
+public class LocalOcrService implements OcrService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalOcrService.class);
+
+    @Value("${app.ocr.local.text-dir:}")
+    private String textDir = "";
+
+    @Value("${app.ocr.local.delay-ms:0}")
+    private long delayMillis;
+
+    @Override
+    public OcrResult extractText(byte[] imageBytes) {
+        if (imageBytes == null || imageBytes.length == 0) {
+            return OcrResult.error("Empty image");
+        }
+        simulateLatency();
+
+        try {
+            String text = readTextFile(imageBytes);
+            if (text == null) {
+                text = decodeText(imageBytes);
+            }
+            if (text == null) {
+                return OcrResult.error("No local OCR text for this image");
+            }
+            log.debug("Local OCR returned {} characters", text.length());
+            return OcrResult.success(text);
+        } catch (IOException e) {
+            return OcrResult.error("Local OCR failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @SuppressFBWarnings(
+        value = "PATH_TRAVERSAL_IN",
+        justification = "The directory comes from application configuration and the file name is a " +
+                        "hex SHA-256 digest, so the resolved path cannot leave the configured directory."
+    )
+    private String readTextFile(byte[] imageBytes) throws IOException {
+        if (textDir == null || textDir.isBlank()) {
+            return null;
+        }
+        Path file = Path.of(textDir).resolve(sha256(imageBytes) + ".txt");
+        return Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+    }
+
+    private static String decodeText(byte[] bytes) {
+        try {
+            String text = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+            return text.indexOf('\0') >= 0 || text.isBlank() ? null : text;
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void simulateLatency() {
+        if (delayMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
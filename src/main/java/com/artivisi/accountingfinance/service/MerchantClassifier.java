@@ -0,0 +1,167 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
+import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import com.artivisi.accountingfinance.util.AhoCorasickMatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * In-memory index of merchant mappings and template names used to classify
+ * incoming receipts and texts without querying per request.
+ *
+ * EXACT mappings are a hash lookup, CONTAINS mappings one Aho-Corasick pass
+ * over the merchant name and REGEX mappings precompiled patterns. Precedence is
+ * EXACT, then CONTAINS, then REGEX; within a type the most used mapping wins.
+ * The index is built on first use and dropped whenever mappings or templates
+ * change, or after {@code app.merchant-classifier.max-age-minutes} to pick up
+ * edits made outside the application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class MerchantClassifier {
+
+    private final MerchantMappingRepository merchantMappingRepository;
+    private final JournalTemplateRepository journalTemplateRepository;
+
+    @Value("${app.merchant-classifier.max-age-minutes:10}")
+    private long maxAgeMinutes = 10;
+
+    private final CacheGeneration generation = new CacheGeneration();
+    private volatile Index index;
+
+    /**
+     * Mapping and template for a merchant name, if any mapping matches.
+     */
+    public Optional<Match> classify(String merchantName) {
+        if (merchantName == null || merchantName.isBlank()) {
+            return Optional.empty();
+        }
+        return currentIndex().classify(merchantName);
+    }
+
+    /**
+     * First active template (by name) whose name contains any of the keywords.
+     */
+    public Optional<UUID> suggestTemplate(List<String> keywords) {
+        if (keywords.isEmpty()) {
+            return Optional.empty();
+        }
+        return currentIndex().suggestTemplate(keywords);
+    }
+
+    /**
+     * Drop the index after merchant mappings or journal templates change.
+     */
+    public void invalidate() {
+        generation.invalidate(() -> index = null);
+    }
+
+    private Index currentIndex() {
+        Index current = index;
+        if (current != null && !CacheGeneration.isOlderThan(current.builtAtNanos(), maxAgeMinutes)) {
+            return current;
+        }
+        return generation.build(this::build, rebuilt -> index = rebuilt);
+    }
+
+    private Index build() {
+        long start = System.nanoTime();
+
+        Map<String, Match> exact = new HashMap<>();
+        AhoCorasickMatcher.Builder<Match> contains = AhoCorasickMatcher.builder();
+        List<RegexMapping> regex = new ArrayList<>();
+        for (MerchantMapping mapping : merchantMappingRepository.findAllByPriority()) {
+            String pattern = mapping.getMerchantPattern();
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            Match match = new Match(mapping.getId(), mapping.getTemplate().getId());
+            switch (mapping.getMatchType()) {
+                case EXACT -> exact.putIfAbsent(pattern.toLowerCase(Locale.ROOT), match);
+                case CONTAINS -> contains.add(pattern, match);
+                case REGEX -> {
+                    try {
+                        regex.add(new RegexMapping(mapping.compiledPattern(), match));
+                    } catch (PatternSyntaxException e) {
+                        log.warn("Skipping merchant mapping {} with invalid regex '{}': {}",
+                                mapping.getId(), pattern, e.getDescription());
+                    }
+                }
+            }
+        }
+
+        List<TemplateName> templates = new ArrayList<>();
+        for (Object[] row : journalTemplateRepository.findActiveTemplateNames()) {
+            templates.add(new TemplateName((UUID) row[0], ((String) row[1]).toLowerCase(Locale.ROOT)));
+        }
+
+        AhoCorasickMatcher<Match> containsMatcher = contains.build();
+        log.debug("Built merchant classifier: {} exact, {} contains, {} regex, {} templates in {} ms",
+                exact.size(), containsMatcher.size(), regex.size(), templates.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return new Index(Map.copyOf(exact), containsMatcher, List.copyOf(regex), List.copyOf(templates),
+                System.nanoTime());
+    }
+
+    public record Match(UUID mappingId, UUID templateId) {}
+
+    private record RegexMapping(Pattern pattern, Match match) {}
+
+    private record TemplateName(UUID id, String lowerName) {}
+
+    private record Index(
+            Map<String, Match> exact,
+            AhoCorasickMatcher<Match> contains,
+            List<RegexMapping> regex,
+            List<TemplateName> templates,
+            long builtAtNanos,
+            Map<List<String>, Optional<UUID>> suggestions
+    ) {
+        private Index(Map<String, Match> exact, AhoCorasickMatcher<Match> contains, List<RegexMapping> regex,
+                      List<TemplateName> templates, long builtAtNanos) {
+            this(exact, contains, regex, templates, builtAtNanos, new ConcurrentHashMap<>());
+        }
+
+        private Optional<Match> classify(String merchantName) {
+            Match match = exact.get(merchantName.toLowerCase(Locale.ROOT));
+            if (match != null) {
+                return Optional.of(match);
+            }
+            Optional<Match> contained = contains.firstMatch(merchantName);
+            if (contained.isPresent()) {
+                return contained;
+            }
+            for (RegexMapping mapping : regex) {
+                if (mapping.pattern().matcher(merchantName).find()) {
+                    return Optional.of(mapping.match());
+                }
+            }
+            return Optional.empty();
+        }
+
+        private Optional<UUID> suggestTemplate(List<String> keywords) {
+            return suggestions.computeIfAbsent(keywords, k -> templates.stream()
+                    .filter(template -> k.stream().anyMatch(template.lowerName()::contains))
+                    .map(TemplateName::id)
+                    .findFirst());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.artivisi.accountingfinance.service;
+
+/**
+ * Extracts the text of a receipt image. {@link VisionOcrService} calls Google
+ * Cloud Vision; {@link LocalOcrService} stands in for it in tests and load runs.
+ */
+public interface OcrService {
+
+    record OcrResult(String text, boolean success, String errorMessage) {
+        public static OcrResult success(String text) {
+            return new OcrResult(text, true, null);
+        }
+
+        public static OcrResult error(String message) {
+            return new OcrResult(null, false, message);
+        }
+    }
+
+    OcrResult extractText(byte[] imageBytes);
+
+    boolean isEnabled();
+}
@@ -0,0 +1,167 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.OutboxEvent;
+import com.artivisi.accountingfinance.event.DomainEvent;
+import com.artivisi.accountingfinance.event.DomainEventListener;
+import com.artivisi.accountingfinance.event.OutboxEventQueuedEvent;
+import com.artivisi.accountingfinance.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for domain events.
+ *
+ * {@link #publish} stores an event in the caller's transaction, so it is kept
+ * exactly when the change it describes is committed, and also publishes it as
+ * an application event for the few listeners that must run right at commit
+ * (e.g. the ledger version behind report ETags). {@link OutboxWorker} then
+ * claims stored events and delivers them to every {@link DomainEventListener}
+ * off the request thread. An event whose delivery throws is retried with a
+ * growing delay up to {@code app.outbox.max-attempts}, then left as FAILED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonMapper jsonMapper;
+    private final ObjectProvider<DomainEventListener> listeners;
+
+    @Value("${app.outbox.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.outbox.retry-delay-seconds:30}")
+    private long retryDelaySeconds = 30;
+
+    @Value("${app.outbox.stale-after-minutes:5}")
+    private long staleAfterMinutes = 5;
+
+    /**
+     * Stores {@code event} for delivery once the current transaction commits.
+     */
+    @Transactional
+    public void publish(DomainEvent event) {
+        eventPublisher.publishEvent(event);
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(event.getClass().getSimpleName());
+        outboxEvent.setPayload(jsonMapper.convertValue(event, PAYLOAD_TYPE));
+        outboxEvent.setAvailableAt(LocalDateTime.now());
+        outboxEvent = outboxEventRepository.save(outboxEvent);
+
+        eventPublisher.publishEvent(new OutboxEventQueuedEvent(outboxEvent.getId()));
+    }
+
+    /**
+     * Marks up to {@code limit} due events as PROCESSING and returns their ids.
+     * Concurrent callers never get the same event.
+     */
+    @Transactional
+    public List<UUID> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> ids = outboxEventRepository.lockDueIds(now, now.minusMinutes(staleAfterMinutes), limit);
+        if (!ids.isEmpty()) {
+            outboxEventRepository.markProcessing(ids, now);
+        }
+        return ids;
+    }
+
+    /**
+     * Delivers a claimed event to every listener and records the outcome. A
+     * listener that throws does not keep the event from the others.
+     */
+    public void process(UUID outboxEventId) {
+        OutboxEvent outboxEvent = outboxEventRepository.findById(outboxEventId).orElse(null);
+        if (outboxEvent == null || outboxEvent.getStatus() != OutboxEvent.Status.PROCESSING) {
+            return;
+        }
+
+        RuntimeException failure = null;
+        try {
+            DomainEvent event = toDomainEvent(outboxEvent);
+            for (DomainEventListener listener : listeners) {
+                try {
+                    listener.onDomainEvent(event);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        if (failure == null) {
+            complete(outboxEvent);
+        } else {
+            fail(outboxEvent, failure);
+        }
+    }
+
+    /**
+     * Deletes delivered events completed before {@code before}.
+     */
+    @Transactional
+    public int purgeDone(LocalDateTime before) {
+        return outboxEventRepository.deleteDoneBefore(before);
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent outboxEvent) {
+        Class<?> type = EVENT_TYPES.get(outboxEvent.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown domain event type: " + outboxEvent.getEventType());
+        }
+        return (DomainEvent) jsonMapper.convertValue(outboxEvent.getPayload(), type);
+    }
+
+    private void complete(OutboxEvent outboxEvent) {
+        outboxEvent.setStatus(OutboxEvent.Status.DONE);
+        outboxEvent.setCompletedAt(LocalDateTime.now());
+        outboxEvent.setLastError(null);
+        outboxEventRepository.save(outboxEvent);
+        log.debug("Outbox event {} {} delivered", outboxEvent.getEventType(), outboxEvent.getId());
+    }
+
+    private void fail(OutboxEvent outboxEvent, RuntimeException e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        outboxEvent.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (outboxEvent.getAttempts() >= maxAttempts) {
+            outboxEvent.setStatus(OutboxEvent.Status.FAILED);
+            outboxEvent.setCompletedAt(LocalDateTime.now());
+            log.error("Outbox event {} {} failed after {} attempts",
+                    outboxEvent.getEventType(), outboxEvent.getId(), outboxEvent.getAttempts(), e);
+        } else {
+            outboxEvent.setStatus(OutboxEvent.Status.PENDING);
+            outboxEvent.setAvailableAt(LocalDateTime.now().plusSeconds(retryDelaySeconds * outboxEvent.getAttempts()));
+            log.warn("Outbox event {} {} failed on attempt {}, will retry: {}",
+                    outboxEvent.getEventType(), outboxEvent.getId(), outboxEvent.getAttempts(), error);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,130 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.event.OutboxEventQueuedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers outbox events on virtual threads, at most
+ * {@code app.outbox.workers} at a time.
+ *
+ * A drain starts as soon as a transaction that stored events commits and also
+ * on a fixed poll, which picks up retries and events left behind by a restart.
+ * One drain runs at a time per instance; it claims only as many events as
+ * there are free workers, so events it cannot start yet stay PENDING for other
+ * instances.
+ */
+@Service
+@Slf4j
+public class OutboxWorker {
+
+    private final OutboxService outboxService;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    public OutboxWorker(OutboxService outboxService,
+                        @Value("${app.outbox.workers:4}") int workers) {
+        this.outboxService = outboxService;
+        this.permits = new Semaphore(Math.max(1, workers));
+    }
+
+    @TransactionalEventListener
+    public void onEventQueued(OutboxEventQueuedEvent event) {
+        executor.execute(this::drain);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:5000}")
+    public void poll() {
+        // Off the scheduler thread: a drain waits while all workers are busy
+        executor.execute(this::drain);
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-schedule:0 20 3 * * *}")
+    public void purge() {
+        int purged = outboxService.purgeDone(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    /**
+     * Claims and starts due events until none are left. Returns the number
+     * started. A call made while another drain is running asks that drain to
+     * look again and returns at once.
+     */
+    public int drain() {
+        wakeRequested.set(true);
+        int started = 0;
+        while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                wakeRequested.set(false);
+                started += claimAndStart();
+            } finally {
+                draining.set(false);
+            }
+        }
+        return started;
+    }
+
+    private int claimAndStart() {
+        int started = 0;
+        while (true) {
+            // Wait for one free worker, then take any others that are free too
+            permits.acquireUninterruptibly();
+            int free = 1 + permits.drainPermits();
+            List<UUID> ids;
+            try {
+                ids = outboxService.claim(free);
+            } catch (RuntimeException e) {
+                permits.release(free);
+                log.warn("Could not claim outbox events: {}", e.getMessage());
+                return started;
+            }
+            permits.release(free - ids.size());
+            if (ids.isEmpty()) {
+                return started;
+            }
+            for (UUID id : ids) {
+                executor.execute(() -> run(id));
+            }
+            started += ids.size();
+        }
+    }
+
+    private void run(UUID outboxEventId) {
+        try {
+            outboxService.process(outboxEventId);
+        } catch (RuntimeException e) {
+            // The event stays PROCESSING and is picked up again once stale
+            log.error("Error delivering outbox event {}", outboxEventId, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
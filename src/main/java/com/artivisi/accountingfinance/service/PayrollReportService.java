@@ -27,17 +27,27 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -52,18 +62,22 @@ public class PayrollReportService {
     private static final String BPJS_KESEHATAN = "BPJS Kesehatan";
     private static final String NUMBER_PATTERN = "#,##0";
     private static final String PERIODE_PREFIX = "Periode ";
-    private static final DecimalFormat NUMBER_FORMAT;
+    // DecimalFormat is not thread-safe; 1721-A1 documents are rendered concurrently in bulk
+    private static final ThreadLocal<DecimalFormat> NUMBER_FORMAT;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.of("id", "ID"));
 
     static {
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.of("id", "ID"));
         symbols.setGroupingSeparator('.');
         symbols.setDecimalSeparator(',');
-        NUMBER_FORMAT = new DecimalFormat(NUMBER_PATTERN, symbols);
+        NUMBER_FORMAT = ThreadLocal.withInitial(() -> new DecimalFormat(NUMBER_PATTERN, symbols));
     }
 
     private final PayrollService payrollService;
 
+    @Value("${app.payroll.bulk-pdf-concurrency:4}")
+    private int bulkPdfConcurrency = 4;
+
     // ==================== PAYROLL SUMMARY REPORT ====================
 
     public byte[] exportPayrollSummaryToPdf(PayrollRun payrollRun, List<PayrollDetail> details) {
@@ -726,6 +740,54 @@ public class PayrollReportService {
         }
     }
 
+    /**
+     * Write the 1721-A1 of every summary into one ZIP stream, one PDF entry per
+     * employee in the given order. Documents are rendered in parallel, with at most
+     * {@code app.payroll.bulk-pdf-concurrency} in flight, so memory stays bounded
+     * while entries are streamed out as soon as they are ready.
+     */
+    public void writeBuktiPotong1721A1Zip(List<PayrollService.YearlyPayrollSummary> summaries,
+                                          OutputStream out) throws IOException {
+        int window = Math.max(1, bulkPdfConcurrency);
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>(window);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(window);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            int submitted = 0;
+            for (PayrollService.YearlyPayrollSummary summary : summaries) {
+                while (submitted < summaries.size() && inFlight.size() < window) {
+                    PayrollService.YearlyPayrollSummary next = summaries.get(submitted++);
+                    inFlight.add(executor.submit(() -> generateBuktiPotong1721A1(next)));
+                }
+
+                zip.putNextEntry(new ZipEntry(buktiPotong1721A1Filename(summary)));
+                zip.write(awaitPdf(inFlight.poll()));
+                zip.closeEntry();
+            }
+        } finally {
+            inFlight.forEach(pdf -> pdf.cancel(true));
+        }
+        log.info("Generated {} 1721-A1 documents", summaries.size());
+    }
+
+    public String buktiPotong1721A1Filename(PayrollService.YearlyPayrollSummary summary) {
+        return "1721-A1-" + summary.employee().getEmployeeId() + "-" + summary.year() + ".pdf";
+    }
+
+    private byte[] awaitPdf(Future<byte[]> pdf) {
+        try {
+            return pdf.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReportGenerationException("Interrupted while generating 1721-A1", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ReportGenerationException reportException) {
+                throw reportException;
+            }
+            throw new ReportGenerationException("Failed to generate PDF: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     private java.math.BigDecimal getPtkpAmount(com.artivisi.accountingfinance.entity.PtkpStatus status) {
         return status.getAnnualAmount();
     }
@@ -749,7 +811,7 @@ public class PayrollReportService {
         if (value == null || value.compareTo(BigDecimal.ZERO) == 0) {
             return "-";
         }
-        return NUMBER_FORMAT.format(value);
+        return NUMBER_FORMAT.get().format(value);
     }
 
     // PDF Fonts
@@ -10,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -98,6 +99,11 @@ public class ProductService {
         return productRepository.findByCode(code);
     }
 
+    @Transactional(readOnly = true)
+    public List<Product> findAllById(Collection<UUID> ids) {
+        return productRepository.findAllById(ids);
+    }
+
     @Transactional(readOnly = true)
     public List<Product> findAllActive() {
         return productRepository.findAllActive();
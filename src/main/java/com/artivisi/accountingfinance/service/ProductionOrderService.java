@@ -16,7 +16,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.Year;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +33,7 @@ public class ProductionOrderService {
     private final ProductionOrderRepository orderRepository;
     private final BillOfMaterialRepository bomRepository;
     private final InventoryService inventoryService;
+    private final BomExplosionService bomExplosionService;
 
     @Transactional(readOnly = true)
     public List<ProductionOrder> findAll() {
@@ -96,6 +100,27 @@ public class ProductionOrderService {
         return orderRepository.save(existing);
     }
 
+    /**
+     * Material requirements of all draft and in-progress orders, exploded through
+     * every sub-assembly level in one pass. Each order's own BOM gives the first
+     * level; sub-assemblies below it use their product's BOM.
+     */
+    @Transactional(readOnly = true)
+    public BomExplosionService.MaterialRequirements planOpenOrders() {
+        List<ProductionOrder> orders = orderRepository.findByStatusInWithBomLines(
+                List.of(ProductionOrderStatus.DRAFT, ProductionOrderStatus.IN_PROGRESS));
+
+        Map<UUID, BigDecimal> demand = new HashMap<>();
+        for (ProductionOrder order : orders) {
+            BillOfMaterial bom = order.getBillOfMaterial();
+            BigDecimal multiplier = order.getQuantity().divide(bom.getOutputQuantity(), 4, RoundingMode.HALF_UP);
+            for (BillOfMaterialLine line : bom.getLines()) {
+                demand.merge(line.getComponent().getId(), line.getQuantity().multiply(multiplier), BigDecimal::add);
+            }
+        }
+        return bomExplosionService.explode(demand);
+    }
+
     /**
      * Start production - changes status from DRAFT to IN_PROGRESS.
      * This reserves the raw materials but doesn't consume them yet.
@@ -148,37 +173,25 @@ public class ProductionOrderService {
         BillOfMaterial bom = order.getBillOfMaterial();
         BigDecimal multiplier = order.getQuantity().divide(bom.getOutputQuantity(), 4, RoundingMode.HALF_UP);
 
-        // Calculate total component cost and consume materials
-        BigDecimal totalCost = BigDecimal.ZERO;
-        String referenceNumber = order.getOrderNumber();
-
+        // Sum per component so a component listed on several BOM lines is consumed once
+        Map<UUID, BigDecimal> componentQuantities = new LinkedHashMap<>();
         for (BillOfMaterialLine line : bom.getLines()) {
-            BigDecimal requiredQty = line.getQuantity().multiply(multiplier);
-
-            // Record production out (consume raw materials)
-            var outTx = inventoryService.recordProductionOut(
-                    line.getComponent().getId(),
-                    order.getOrderDate(),
-                    requiredQty,
-                    referenceNumber,
-                    "Konsumsi untuk produksi " + bom.getProduct().getCode()
-            );
-
-            totalCost = totalCost.add(outTx.getTotalCost());
+            componentQuantities.merge(line.getComponent().getId(),
+                    line.getQuantity().multiply(multiplier), BigDecimal::add);
         }
 
-        // Calculate unit cost for finished goods
-        BigDecimal unitCost = totalCost.divide(order.getQuantity(), 4, RoundingMode.HALF_UP);
-
-        // Record production in (add finished goods)
-        inventoryService.recordProductionIn(
+        // Consume materials, add finished goods and post one production journal
+        InventoryService.ProductionResult result = inventoryService.recordProduction(
                 bom.getProduct().getId(),
-                order.getOrderDate(),
                 order.getQuantity(),
-                unitCost,
-                referenceNumber,
+                componentQuantities,
+                order.getOrderDate(),
+                order.getOrderNumber(),
+                "Konsumsi untuk produksi " + bom.getProduct().getCode(),
                 "Hasil produksi dari BOM " + bom.getCode()
         );
+        BigDecimal totalCost = result.totalCost();
+        BigDecimal unitCost = result.unitCost();
 
         order.setTotalComponentCost(totalCost);
         order.setUnitCost(unitCost);
@@ -19,9 +19,18 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.stream.Collectors;
+
+/**
+ * Project and client profitability.
+ *
+ * Journal entry totals are read with one query grouped by project and account;
+ * project, client and ranking views are all built from that result.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -36,179 +45,110 @@ public class ProjectProfitabilityService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
 
-        List<ChartOfAccount> revenueAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.REVENUE, true);
-        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
-
-        List<ProfitabilityLineItem> revenueItems = new ArrayList<>();
-        List<ProfitabilityLineItem> expenseItems = new ArrayList<>();
-
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        BigDecimal totalExpense = BigDecimal.ZERO;
-
-        // Calculate revenue by project
-        for (ChartOfAccount account : revenueAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.CREDIT
-                    ? credit.subtract(debit)
-                    : debit.subtract(credit);
-
-            if (balance.compareTo(BigDecimal.ZERO) != 0) {
-                revenueItems.add(new ProfitabilityLineItem(account, balance));
-                totalRevenue = totalRevenue.add(balance);
-            }
-        }
-
-        // Calculate expenses by project
-        for (ChartOfAccount account : expenseAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
-                    ? debit.subtract(credit)
-                    : credit.subtract(debit);
+        return calculateProjectProfitability(List.of(project), startDate, endDate).getFirst();
+    }
 
-            if (balance.compareTo(BigDecimal.ZERO) != 0) {
-                expenseItems.add(new ProfitabilityLineItem(account, balance));
-                totalExpense = totalExpense.add(balance);
-            }
+    /**
+     * Profitability of several projects from one grouped query over their journal entries.
+     * Reports are returned in the order of the given projects.
+     */
+    public List<ProjectProfitabilityReport> calculateProjectProfitability(List<Project> projects,
+                                                                          LocalDate startDate, LocalDate endDate) {
+        if (projects.isEmpty()) {
+            return List.of();
         }
 
-        BigDecimal grossProfit = totalRevenue.subtract(totalExpense);
-        BigDecimal profitMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
-                ? grossProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        List<UUID> projectIds = projects.stream().map(Project::getId).toList();
+        Map<UUID, Map<UUID, AccountTotals>> totals = groupByProject(journalEntryRepository
+                .sumByProjectAndAccountForProjectsAndDateRange(projectIds, startDate, endDate));
+        ProfitabilityAccounts accounts = loadAccounts();
 
-        return new ProjectProfitabilityReport(
-                project, startDate, endDate,
-                revenueItems, expenseItems,
-                totalRevenue, totalExpense,
-                grossProfit, profitMargin
-        );
+        return projects.stream()
+                .map(project -> buildReport(project, startDate, endDate, accounts,
+                        totals.getOrDefault(project.getId(), Map.of())))
+                .toList();
     }
 
     public ClientProfitabilityReport calculateClientProfitability(UUID clientId, LocalDate startDate, LocalDate endDate) {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new EntityNotFoundException("Client not found: " + clientId));
 
-        List<Project> projects = projectRepository.findByClientId(clientId);
-        List<ProjectProfitabilitySummary> projectSummaries = new ArrayList<>();
-
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
-
-        for (Project project : projects) {
-            ProjectProfitabilityReport report = calculateProjectProfitability(project.getId(), startDate, endDate);
-            if (report.totalRevenue().compareTo(BigDecimal.ZERO) > 0 ||
-                report.totalExpense().compareTo(BigDecimal.ZERO) > 0) {
-                projectSummaries.add(new ProjectProfitabilitySummary(
-                        project,
-                        report.totalRevenue(),
-                        report.grossProfit(),
-                        report.profitMargin()
-                ));
-                totalRevenue = totalRevenue.add(report.totalRevenue());
-                totalProfit = totalProfit.add(report.grossProfit());
-            }
-        }
+        List<ProjectProfitabilityReport> reports = calculateProjectProfitability(
+                projectRepository.findByClientId(clientId), startDate, endDate);
 
-        BigDecimal overallMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
-                ? totalProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        return new ClientProfitabilityReport(
-                client, startDate, endDate,
-                projectSummaries,
-                totalRevenue, totalProfit, overallMargin
-        );
+        return buildClientReport(client, startDate, endDate, reports);
     }
 
     public List<ClientRankingItem> getClientRanking(LocalDate startDate, LocalDate endDate, int limit) {
         List<Client> clients = clientRepository.findByActiveTrue();
-        List<ClientRankingItem> rankings = new ArrayList<>();
+        if (clients.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<Project>> projectsByClient = projectRepository
+                .findByClientIdIn(clients.stream().map(Client::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(p -> p.getClient().getId()));
 
+        // One grouped query for every project, then roll up per client in memory
+        Map<UUID, Map<UUID, AccountTotals>> totals = groupByProject(
+                journalEntryRepository.sumByProjectAndAccountAndDateRange(startDate, endDate));
+        ProfitabilityAccounts accounts = loadAccounts();
+
+        List<ClientProfitabilityReport> clientReports = new ArrayList<>();
         BigDecimal grandTotalRevenue = BigDecimal.ZERO;
 
         for (Client client : clients) {
-            ClientProfitabilityReport report = calculateClientProfitability(client.getId(), startDate, endDate);
+            List<ProjectProfitabilityReport> reports = projectsByClient.getOrDefault(client.getId(), List.of())
+                    .stream()
+                    .map(project -> buildReport(project, startDate, endDate, accounts,
+                            totals.getOrDefault(project.getId(), Map.of())))
+                    .toList();
+            ClientProfitabilityReport report = buildClientReport(client, startDate, endDate, reports);
             if (report.totalRevenue().compareTo(BigDecimal.ZERO) > 0) {
-                rankings.add(new ClientRankingItem(
-                        client,
-                        report.totalRevenue(),
-                        report.totalProfit(),
-                        report.overallMargin(),
-                        BigDecimal.ZERO // Will calculate percentage later
-                ));
+                clientReports.add(report);
                 grandTotalRevenue = grandTotalRevenue.add(report.totalRevenue());
             }
         }
 
         // Sort by revenue descending
-        rankings.sort(Comparator.comparing(ClientRankingItem::totalRevenue).reversed());
+        clientReports.sort(Comparator.comparing(ClientProfitabilityReport::totalRevenue).reversed());
 
         // Calculate percentage of total revenue
-        final BigDecimal finalGrandTotal = grandTotalRevenue;
-        List<ClientRankingItem> finalRankings = new ArrayList<>();
-        int rank = 1;
-        for (ClientRankingItem item : rankings) {
-            BigDecimal percentage = finalGrandTotal.compareTo(BigDecimal.ZERO) > 0
-                    ? item.totalRevenue().multiply(BigDecimal.valueOf(100)).divide(finalGrandTotal, 2, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO;
-            finalRankings.add(new ClientRankingItem(
-                    item.client(),
-                    item.totalRevenue(),
-                    item.totalProfit(),
-                    item.profitMargin(),
+        List<ClientRankingItem> rankings = new ArrayList<>();
+        for (ClientProfitabilityReport report : clientReports) {
+            BigDecimal percentage = report.totalRevenue().multiply(BigDecimal.valueOf(100))
+                    .divide(grandTotalRevenue, 2, RoundingMode.HALF_UP);
+            rankings.add(new ClientRankingItem(
+                    report.client(),
+                    report.totalRevenue(),
+                    report.totalProfit(),
+                    report.overallMargin(),
                     percentage
             ));
-            if (limit > 0 && rank++ >= limit) break;
+            if (limit > 0 && rankings.size() >= limit) break;
         }
 
-        return finalRankings;
+        return rankings;
     }
 
     public CostOverrunReport calculateCostOverrun(UUID projectId) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
 
-        BigDecimal budget = project.getBudgetAmount() != null ? project.getBudgetAmount() : BigDecimal.ZERO;
-        BigDecimal contractValue = project.getContractValue() != null ? project.getContractValue() : BigDecimal.ZERO;
-
         // Calculate total spent (expenses) for this project
-        List<ChartOfAccount> expenseAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EXPENSE, true);
-
-        BigDecimal totalSpent = BigDecimal.ZERO;
-        LocalDate startDate = LocalDate.of(1900, 1, 1);
-        LocalDate endDate = LocalDate.now();
-
-        for (ChartOfAccount account : expenseAccounts) {
-            if (account.getIsHeader()) continue;
-
-            BigDecimal debit = journalEntryRepository.sumDebitByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
-            BigDecimal credit = journalEntryRepository.sumCreditByProjectAndAccountAndDateRange(
-                    projectId, account.getId(), startDate, endDate);
+        BigDecimal totalSpent = calculateProjectProfitability(
+                List.of(project), LocalDate.of(1900, 1, 1), LocalDate.now()).getFirst().costToDate();
 
-            BigDecimal balance = account.getNormalBalance() == NormalBalance.DEBIT
-                    ? debit.subtract(credit)
-                    : credit.subtract(debit);
+        return calculateCostOverrun(project, totalSpent);
+    }
 
-            if (balance.compareTo(BigDecimal.ZERO) > 0) {
-                totalSpent = totalSpent.add(balance);
-            }
-        }
+    /**
+     * Cost overrun of a project whose cost to date is already known.
+     */
+    public CostOverrunReport calculateCostOverrun(Project project, BigDecimal totalSpent) {
+        BigDecimal budget = project.getBudgetAmount() != null ? project.getBudgetAmount() : BigDecimal.ZERO;
+        BigDecimal contractValue = project.getContractValue() != null ? project.getContractValue() : BigDecimal.ZERO;
 
         // Calculate progress from milestones
         int progress = project.getProgressPercent();
@@ -251,6 +191,112 @@ public class ProjectProfitabilityService {
         );
     }
 
+    private ProjectProfitabilityReport buildReport(Project project, LocalDate startDate, LocalDate endDate,
+                                                   ProfitabilityAccounts accounts,
+                                                   Map<UUID, AccountTotals> totals) {
+        List<ProfitabilityLineItem> revenueItems = new ArrayList<>();
+        List<ProfitabilityLineItem> expenseItems = new ArrayList<>();
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+
+        for (ChartOfAccount account : accounts.revenue()) {
+            BigDecimal balance = balanceOf(account, totals.get(account.getId()));
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                revenueItems.add(new ProfitabilityLineItem(account, balance));
+                totalRevenue = totalRevenue.add(balance);
+            }
+        }
+
+        for (ChartOfAccount account : accounts.expense()) {
+            BigDecimal balance = balanceOf(account, totals.get(account.getId()));
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                expenseItems.add(new ProfitabilityLineItem(account, balance));
+                totalExpense = totalExpense.add(balance);
+            }
+        }
+
+        BigDecimal grossProfit = totalRevenue.subtract(totalExpense);
+        BigDecimal profitMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
+                ? grossProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return new ProjectProfitabilityReport(
+                project, startDate, endDate,
+                revenueItems, expenseItems,
+                totalRevenue, totalExpense,
+                grossProfit, profitMargin
+        );
+    }
+
+    private ClientProfitabilityReport buildClientReport(Client client, LocalDate startDate, LocalDate endDate,
+                                                        List<ProjectProfitabilityReport> reports) {
+        List<ProjectProfitabilitySummary> projectSummaries = new ArrayList<>();
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalProfit = BigDecimal.ZERO;
+
+        for (ProjectProfitabilityReport report : reports) {
+            if (report.totalRevenue().compareTo(BigDecimal.ZERO) > 0 ||
+                report.totalExpense().compareTo(BigDecimal.ZERO) > 0) {
+                projectSummaries.add(new ProjectProfitabilitySummary(
+                        report.project(),
+                        report.totalRevenue(),
+                        report.grossProfit(),
+                        report.profitMargin()
+                ));
+                totalRevenue = totalRevenue.add(report.totalRevenue());
+                totalProfit = totalProfit.add(report.grossProfit());
+            }
+        }
+
+        BigDecimal overallMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0
+                ? totalProfit.multiply(BigDecimal.valueOf(100)).divide(totalRevenue, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return new ClientProfitabilityReport(
+                client, startDate, endDate,
+                projectSummaries,
+                totalRevenue, totalProfit, overallMargin
+        );
+    }
+
+    private BigDecimal balanceOf(ChartOfAccount account, AccountTotals totals) {
+        if (totals == null) {
+            return BigDecimal.ZERO;
+        }
+        return account.getNormalBalance() == NormalBalance.DEBIT
+                ? totals.debit().subtract(totals.credit())
+                : totals.credit().subtract(totals.debit());
+    }
+
+    private ProfitabilityAccounts loadAccounts() {
+        return new ProfitabilityAccounts(
+                postableAccounts(AccountType.REVENUE),
+                postableAccounts(AccountType.EXPENSE));
+    }
+
+    private List<ChartOfAccount> postableAccounts(AccountType accountType) {
+        return chartOfAccountRepository.findByAccountTypeAndActiveOrderByAccountCodeAsc(accountType, true)
+                .stream()
+                .filter(account -> !account.getIsHeader())
+                .toList();
+    }
+
+    // Rows are [projectId, accountId, sumDebit, sumCredit]
+    private Map<UUID, Map<UUID, AccountTotals>> groupByProject(List<Object[]> rows) {
+        Map<UUID, Map<UUID, AccountTotals>> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.computeIfAbsent((UUID) row[0], id -> new HashMap<>())
+                    .put((UUID) row[1], new AccountTotals((BigDecimal) row[2], (BigDecimal) row[3]));
+        }
+        return totals;
+    }
+
+    private record ProfitabilityAccounts(List<ChartOfAccount> revenue, List<ChartOfAccount> expense) {}
+
+    private record AccountTotals(BigDecimal debit, BigDecimal credit) {}
+
     // DTOs
     public record ProjectProfitabilityReport(
             Project project,
@@ -262,7 +308,17 @@ public class ProjectProfitabilityService {
             BigDecimal totalExpense,
             BigDecimal grossProfit,
             BigDecimal profitMargin
-    ) {}
+    ) {
+        /**
+         * Sum of expense accounts with a positive balance, as used for cost overrun.
+         */
+        public BigDecimal costToDate() {
+            return expenseItems.stream()
+                    .map(ProfitabilityLineItem::amount)
+                    .filter(amount -> amount.compareTo(BigDecimal.ZERO) > 0)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
 
     public record ProfitabilityLineItem(
             ChartOfAccount account,
@@ -24,6 +24,7 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
     private final ClientRepository clientRepository;
+    private final ReferenceDataService referenceDataService;
 
     public Project findById(UUID id) {
         return projectRepository.findByIdWithDetails(id)
@@ -67,6 +68,7 @@ public class ProjectService {
         }
 
         project.setStatus(ProjectStatus.ACTIVE);
+        referenceDataService.invalidate();
         return projectRepository.save(project);
     }
 
@@ -97,6 +99,7 @@ public class ProjectService {
         existing.setStartDate(updatedProject.getStartDate());
         existing.setEndDate(updatedProject.getEndDate());
 
+        referenceDataService.invalidate();
         return projectRepository.save(existing);
     }
 
@@ -106,6 +109,7 @@ public class ProjectService {
                 .orElseThrow(() -> new EntityNotFoundException(ERR_PROJECT_NOT_FOUND + id));
         project.setStatus(newStatus);
         projectRepository.save(project);
+        referenceDataService.invalidate();
     }
 
     @Transactional
@@ -114,6 +118,7 @@ public class ProjectService {
                 .orElseThrow(() -> new EntityNotFoundException(ERR_PROJECT_NOT_FOUND + id));
         project.setStatus(ProjectStatus.ARCHIVED);
         projectRepository.save(project);
+        referenceDataService.invalidate();
     }
 
     @Transactional
@@ -122,6 +127,7 @@ public class ProjectService {
                 .orElseThrow(() -> new EntityNotFoundException(ERR_PROJECT_NOT_FOUND + id));
         project.setStatus(ProjectStatus.COMPLETED);
         projectRepository.save(project);
+        referenceDataService.invalidate();
     }
 
     @Transactional
@@ -130,6 +136,7 @@ public class ProjectService {
                 .orElseThrow(() -> new EntityNotFoundException(ERR_PROJECT_NOT_FOUND + id));
         project.setStatus(ProjectStatus.ACTIVE);
         projectRepository.save(project);
+        referenceDataService.invalidate();
     }
 
     public long countByStatus(ProjectStatus status) {
@@ -16,19 +16,31 @@ import com.artivisi.accountingfinance.repository.RecurringTransactionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -43,6 +55,13 @@ public class RecurringTransactionService {
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalTemplateService journalTemplateService;
     private final TransactionService transactionService;
+    private final @Lazy RecurringTransactionService self;
+
+    @Value("${app.recurring.chunk-size:100}")
+    private int chunkSize = 100;
+
+    @Value("${app.recurring.max-concurrency:8}")
+    private int maxConcurrency = 8;
 
     public RecurringTransaction findById(UUID id) {
         RecurringTransaction result = recurringTransactionRepository.findByIdWithTemplate(id);
@@ -240,42 +259,165 @@ public class RecurringTransactionService {
      * Process all due recurring transactions. Called by the scheduler.
      * Returns the number of successfully processed transactions.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int processAllDue() {
-        LocalDate today = LocalDate.now();
-        List<RecurringTransaction> dueTransactions =
-                recurringTransactionRepository.findByStatusAndNextRunDateLessThanEqual(RecurringStatus.ACTIVE, today);
+        return runAllDue(LocalDate.now()).processed();
+    }
+
+    /**
+     * Process all recurring transactions due on or before {@code today}.
+     *
+     * Due items are handled in chunks; within a chunk, items run concurrently on
+     * virtual threads, at most {@code app.recurring.max-concurrency} at a time,
+     * each in its own database transaction. A successful run is recorded with an
+     * idempotency key (recurring ID + scheduled date), so an interrupted or
+     * overlapping run never posts the same occurrence twice.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RecurringRunSummary runAllDue(LocalDate today) {
+        long started = System.nanoTime();
+        List<UUID> dueIds = recurringTransactionRepository.findDueIds(RecurringStatus.ACTIVE, today);
+
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger alreadyProcessed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong maxLagDays = new AtomicLong();
+
+        int chunk = Math.max(1, chunkSize);
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < dueIds.size(); from += chunk) {
+                List<UUID> ids = dueIds.subList(from, Math.min(from + chunk, dueIds.size()));
+                List<Future<?>> futures = new ArrayList<>(ids.size());
+                for (UUID id : ids) {
+                    futures.add(executor.submit(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            RunOutcome outcome = runOne(id, today);
+                            switch (outcome.result()) {
+                                case PROCESSED -> {
+                                    processed.incrementAndGet();
+                                    maxLagDays.accumulateAndGet(outcome.lagDays(), Math::max);
+                                }
+                                case ALREADY_PROCESSED -> alreadyProcessed.incrementAndGet();
+                                case FAILED -> failed.incrementAndGet();
+                                case NOT_DUE -> { }
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+                // Finish a chunk before submitting the next so memory and queued work stay bounded
+                for (Future<?> future : futures) {
+                    awaitQuietly(future);
+                }
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        RecurringRunSummary summary = new RecurringRunSummary(
+                dueIds.size(), processed.get(), alreadyProcessed.get(), failed.get(),
+                elapsedMillis, processed.get() * 1000.0 / elapsedMillis, maxLagDays.get());
+        if (!dueIds.isEmpty()) {
+            log.info("Recurring run: {} due, {} processed, {} already processed, {} failed in {} ms " +
+                            "({} items/s, max lag {} days)",
+                    summary.due(), summary.processed(), summary.alreadyProcessed(), summary.failed(),
+                    summary.elapsedMillis(), String.format("%.1f", summary.itemsPerSecond()), summary.maxLagDays());
+        }
+        return summary;
+    }
 
-        int successCount = 0;
-        for (RecurringTransaction recurring : dueTransactions) {
+    private RunOutcome runOne(UUID id, LocalDate today) {
+        try {
+            return self.processDue(id, today);
+        } catch (DataIntegrityViolationException e) {
+            // Another run committed the same idempotency key first
+            log.info("Recurring transaction {} already processed by a concurrent run", id);
+            return new RunOutcome(RunResult.ALREADY_PROCESSED, 0);
+        } catch (Exception e) {
+            log.error("Failed to process recurring transaction: {}", id, e);
             try {
-                processOne(recurring, today);
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to process recurring transaction: {} ({})", recurring.getName(), recurring.getId(), e);
-                RecurringTransactionLog logEntry = new RecurringTransactionLog();
-                logEntry.setScheduledDate(recurring.getNextRunDate());
-                logEntry.setExecutedAt(LocalDateTime.now());
-                logEntry.setStatus(RecurringLogStatus.FAILED);
-                logEntry.setErrorMessage(e.getMessage());
-                recurring.addLog(logEntry);
-                recurringTransactionRepository.save(recurring);
+                self.recordFailure(id, e.getMessage());
+            } catch (Exception logFailure) {
+                log.error("Failed to record failure for recurring transaction: {}", id, logFailure);
             }
+            return new RunOutcome(RunResult.FAILED, 0);
+        }
+    }
+
+    private static void awaitQuietly(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Recurring transaction worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Process one due occurrence in its own transaction. Re-reads the recurring
+     * transaction so concurrent edits and earlier runs are taken into account.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RunOutcome processDue(UUID id, LocalDate today) {
+        RecurringTransaction recurring = recurringTransactionRepository.findByIdWithMappings(id);
+        if (recurring == null || recurring.getStatus() != RecurringStatus.ACTIVE
+                || recurring.getNextRunDate() == null || recurring.getNextRunDate().isAfter(today)) {
+            return new RunOutcome(RunResult.NOT_DUE, 0);
+        }
+
+        String idempotencyKey = idempotencyKey(id, recurring.getNextRunDate());
+        if (logRepository.existsByIdempotencyKey(idempotencyKey)) {
+            return new RunOutcome(RunResult.ALREADY_PROCESSED, 0);
         }
-        return successCount;
+
+        long lagDays = ChronoUnit.DAYS.between(recurring.getNextRunDate(), today);
+        processOne(recurring, today, idempotencyKey);
+        return new RunOutcome(RunResult.PROCESSED, lagDays);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(UUID id, String errorMessage) {
+        RecurringTransaction recurring = recurringTransactionRepository.findById(id).orElse(null);
+        if (recurring == null) {
+            return;
+        }
+        RecurringTransactionLog logEntry = new RecurringTransactionLog();
+        logEntry.setScheduledDate(recurring.getNextRunDate() != null ? recurring.getNextRunDate() : LocalDate.now());
+        logEntry.setExecutedAt(LocalDateTime.now());
+        logEntry.setStatus(RecurringLogStatus.FAILED);
+        logEntry.setErrorMessage(errorMessage);
+        recurring.addLog(logEntry);
+        recurringTransactionRepository.save(recurring);
+    }
+
+    static String idempotencyKey(UUID recurringId, LocalDate scheduledDate) {
+        return recurringId + ":" + scheduledDate;
     }
 
-    private void processOne(RecurringTransaction recurring, LocalDate today) {
+    private void processOne(RecurringTransaction recurring, LocalDate today, String idempotencyKey) {
         LocalDate scheduledDate = recurring.getNextRunDate();
 
+        // Claim the occurrence first: a concurrent run holding the same key blocks
+        // here and fails on the unique index once this transaction commits
+        RecurringTransactionLog logEntry = new RecurringTransactionLog();
+        logEntry.setScheduledDate(scheduledDate);
+        logEntry.setExecutedAt(LocalDateTime.now());
+        logEntry.setStatus(RecurringLogStatus.SUCCESS);
+        logEntry.setIdempotencyKey(idempotencyKey);
+        logEntry.setRecurringTransaction(recurring);
+        logRepository.saveAndFlush(logEntry);
+
         // Check if weekend and skipWeekends is enabled
         if (recurring.isSkipWeekends() && isWeekend(scheduledDate)) {
-            RecurringTransactionLog logEntry = new RecurringTransactionLog();
-            logEntry.setScheduledDate(scheduledDate);
-            logEntry.setExecutedAt(LocalDateTime.now());
-            logEntry.setStatus(RecurringLogStatus.SKIPPED);
-            logEntry.setErrorMessage("Dilewati karena jatuh pada akhir pekan");
-            recurring.addLog(logEntry);
+            RecurringTransactionLog skippedEntry = new RecurringTransactionLog();
+            skippedEntry.setScheduledDate(scheduledDate);
+            skippedEntry.setExecutedAt(LocalDateTime.now());
+            skippedEntry.setStatus(RecurringLogStatus.SKIPPED);
+            skippedEntry.setErrorMessage("Dilewati karena jatuh pada akhir pekan");
+            recurring.addLog(skippedEntry);
 
             // Advance to next Monday
             scheduledDate = advancePastWeekend(scheduledDate);
@@ -302,11 +444,7 @@ public class RecurringTransactionService {
         }
 
         // Log success
-        RecurringTransactionLog logEntry = new RecurringTransactionLog();
-        logEntry.setScheduledDate(recurring.getNextRunDate());
-        logEntry.setExecutedAt(LocalDateTime.now());
         logEntry.setTransaction(transaction);
-        logEntry.setStatus(RecurringLogStatus.SUCCESS);
         recurring.addLog(logEntry);
 
         // Update recurring state
@@ -337,6 +475,26 @@ public class RecurringTransactionService {
         recurringTransactionRepository.save(recurring);
     }
 
+    public enum RunResult {
+        PROCESSED, ALREADY_PROCESSED, NOT_DUE, FAILED
+    }
+
+    public record RunOutcome(RunResult result, long lagDays) {}
+
+    /**
+     * Outcome of one scheduler run. Lag is how many days the oldest processed
+     * occurrence was overdue.
+     */
+    public record RecurringRunSummary(
+            int due,
+            int processed,
+            int alreadyProcessed,
+            int failed,
+            long elapsedMillis,
+            double itemsPerSecond,
+            long maxLagDays
+    ) {}
+
     /**
      * Calculate the next run date based on frequency and configuration.
      */
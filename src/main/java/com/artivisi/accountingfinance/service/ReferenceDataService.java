@@ -0,0 +1,119 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.Tag;
+import com.artivisi.accountingfinance.enums.ProjectStatus;
+import com.artivisi.accountingfinance.repository.ProjectRepository;
+import com.artivisi.accountingfinance.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory lookup lists behind the transaction list filters: projects and
+ * active tags grouped by type.
+ *
+ * They change rarely but are needed on every list page view, so they are read
+ * once into small immutable records and served from memory. The lists are
+ * dropped whenever a project, tag or tag type changes, or after
+ * {@code app.reference-data.max-age-minutes} to pick up edits made outside the
+ * application.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReferenceDataService {
+
+    private final ProjectRepository projectRepository;
+    private final TagRepository tagRepository;
+
+    @Value("${app.reference-data.max-age-minutes:10}")
+    private long maxAgeMinutes = 10;
+
+    private final CacheGeneration generation = new CacheGeneration();
+    private volatile Snapshot snapshot;
+
+    public record ProjectOption(UUID id, String code, String name) {
+    }
+
+    public record TagTypeOption(UUID id, String name) {
+    }
+
+    public record TagOption(UUID id, String name) {
+    }
+
+    /**
+     * Active projects ordered by code.
+     */
+    public List<ProjectOption> activeProjects() {
+        return current().activeProjects();
+    }
+
+    /**
+     * Active tags grouped by tag type, both ordered by name.
+     */
+    public Map<TagTypeOption, List<TagOption>> activeTagsByType() {
+        return current().activeTagsByType();
+    }
+
+    /**
+     * Id of the project with this code, whatever its status.
+     */
+    public Optional<UUID> findProjectIdByCode(String code) {
+        return Optional.ofNullable(current().projectIdsByCode().get(code));
+    }
+
+    /**
+     * Drop the lists after projects, tags or tag types change.
+     */
+    public void invalidate() {
+        generation.invalidate(() -> snapshot = null);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !CacheGeneration.isOlderThan(current.builtAtNanos(), maxAgeMinutes)) {
+            return current;
+        }
+        return generation.build(this::build, rebuilt -> snapshot = rebuilt);
+    }
+
+    private Snapshot build() {
+        List<ProjectOption> activeProjects = new ArrayList<>();
+        Map<String, UUID> projectIdsByCode = new HashMap<>();
+        for (Object[] row : projectRepository.findAllCodesAndNames()) {
+            ProjectOption project = new ProjectOption((UUID) row[0], (String) row[1], (String) row[2]);
+            projectIdsByCode.put(project.code(), project.id());
+            if (row[3] == ProjectStatus.ACTIVE) {
+                activeProjects.add(project);
+            }
+        }
+
+        Map<TagTypeOption, List<TagOption>> tagsByType = new LinkedHashMap<>();
+        for (Tag tag : tagRepository.findAllActiveOrdered()) {
+            TagTypeOption type = new TagTypeOption(tag.getTagType().getId(), tag.getTagType().getName());
+            tagsByType.computeIfAbsent(type, _ -> new ArrayList<>()).add(new TagOption(tag.getId(), tag.getName()));
+        }
+        tagsByType.replaceAll((_, tags) -> List.copyOf(tags));
+
+        return new Snapshot(List.copyOf(activeProjects), Map.copyOf(projectIdsByCode),
+                Collections.unmodifiableMap(tagsByType), System.nanoTime());
+    }
+
+    private record Snapshot(
+            List<ProjectOption> activeProjects,
+            Map<String, UUID> projectIdsByCode,
+            Map<TagTypeOption, List<TagOption>> activeTagsByType,
+            long builtAtNanos
+    ) {
+    }
+}
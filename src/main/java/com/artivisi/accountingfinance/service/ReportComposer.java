@@ -0,0 +1,186 @@
+package com.artivisi.accountingfinance.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent parts of a composite report concurrently.
+ *
+ * A {@link Scope} forks each part onto a virtual thread, where it runs in its
+ * own read-only transaction on its own connection; at most
+ * {@code app.report-composition.max-concurrency} parts run at a time across
+ * all requests, so pool usage stays bounded. Each part has
+ * {@code app.report-composition.subtask-timeout-seconds} from getting its permit,
+ * also applied as its query timeout, so time spent queued behind other requests'
+ * parts does not count against it. The first part to fail or time out cancels the
+ * others and fails the scope; closing a scope cancels whatever is unfinished.
+ *
+ * A caller already inside a transaction gets its parts run inline, in that
+ * transaction, so they see its uncommitted writes and it does not hold one
+ * connection while waiting for others.
+ */
+@Service
+public class ReportComposer {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore permits;
+    private final long subtaskTimeoutSeconds;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ReportComposer(PlatformTransactionManager transactionManager,
+                          @Value("${app.report-composition.max-concurrency:4}") int maxConcurrency,
+                          @Value("${app.report-composition.subtask-timeout-seconds:30}") int subtaskTimeoutSeconds) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout(subtaskTimeoutSeconds);
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.subtaskTimeoutSeconds = subtaskTimeoutSeconds;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Opens a scope for forking the parts of one report. Use in try-with-resources.
+     */
+    public Scope open() {
+        return new Scope(!TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final boolean concurrent;
+        // Forked on the caller thread, cancelled from whichever part fails first
+        private final List<Part<?>> parts = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Scope(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
+        /**
+         * Starts a part. Its result is available from the returned supplier after {@link #join()}.
+         */
+        public <T> Supplier<T> fork(Supplier<T> task) {
+            if (!concurrent) {
+                T result = task.get();
+                return () -> result;
+            }
+            Part<T> part = new Part<>();
+            part.future = executor.submit(() -> run(task, part));
+            parts.add(part);
+            return part;
+        }
+
+        /**
+         * Waits for every part. Throws the first part's failure, or
+         * {@link IllegalStateException} when a part exceeds its timeout.
+         */
+        public void join() {
+            long timeout = TimeUnit.SECONDS.toNanos(subtaskTimeoutSeconds);
+            for (Part<?> part : parts) {
+                try {
+                    // A part waiting for a permit is not timed yet; waits are bounded by the running parts' timeouts
+                    part.started.await();
+                    long remaining = part.startedAt + timeout - System.nanoTime();
+                    part.future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    cancelAll();
+                    throw new IllegalStateException(
+                            "Report part did not finish within " + subtaskTimeoutSeconds + " s", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelAll();
+                    throw new IllegalStateException("Interrupted while composing report", e);
+                } catch (ExecutionException | CancellationException e) {
+                    cancelAll();
+                    throw propagate(failure.get() != null ? failure.get() : e.getCause());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private <T> T run(Supplier<T> task, Part<T> part) throws InterruptedException {
+            try {
+                permits.acquire();
+            } finally {
+                part.markStarted();
+            }
+            try {
+                return readOnlyTransaction.execute(status -> task.get());
+            } catch (RuntimeException | Error e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void cancelAll() {
+            for (Part<?> part : parts) {
+                part.cancel();
+            }
+        }
+
+        private RuntimeException propagate(Throwable cause) {
+            if (cause instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException("Report part failed", cause);
+        }
+    }
+
+    private static final class Part<T> implements Supplier<T> {
+
+        // Released once the part holds a permit, or when it is cancelled before getting one
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile long startedAt;
+        private volatile Future<T> future;
+
+        private void markStarted() {
+            startedAt = System.nanoTime();
+            started.countDown();
+        }
+
+        private void cancel() {
+            future.cancel(true);
+            if (started.getCount() > 0) {
+                markStarted();
+            }
+        }
+
+        @Override
+        public T get() {
+            return future.resultNow();
+        }
+    }
+}
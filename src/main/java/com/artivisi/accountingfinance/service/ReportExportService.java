@@ -24,6 +24,8 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
@@ -34,12 +36,16 @@ import com.artivisi.accountingfinance.enums.FiscalAdjustmentDirection;
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -50,6 +56,8 @@ public class ReportExportService {
     private final InventoryReportService inventoryReportService;
 
     private static final String COMPANY_NAME = "PT ArtiVisi Intermedia";
+    private static final int STREAMING_PDF_FLUSH_ROWS = 200;
+    private static final int STREAMING_EXCEL_WINDOW_ROWS = 200;
     private static final String PDF_GENERATION_ERROR = "Failed to generate PDF: ";
     private static final String EXCEL_GENERATION_ERROR = "Failed to generate Excel: ";
     private static final String TOTAL_LABEL = "TOTAL";
@@ -973,24 +981,52 @@ public class ReportExportService {
 
     public byte[] exportStockMovementToPdf(InventoryReportService.StockMovementReport report) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            writeStockMovementPdf(report.summary(), report.items().stream(), baos);
+            return baos.toByteArray();
+        } catch (IOException e) {
+            log.error("Error generating Stock Movement PDF", e);
+            throw new ReportGenerationException(PDF_GENERATION_ERROR + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the stock movement PDF to {@code out}, reading rows through a
+     * cursor and flushing table rows to the document as it goes.
+     */
+    public void writeStockMovementPdf(LocalDate startDate, LocalDate endDate,
+                                      UUID categoryId, UUID productId, OutputStream out) {
+        inventoryReportService.streamStockMovements(startDate, endDate, categoryId, productId,
+                (summary, items) -> writeStockMovementPdf(summary, items, out));
+    }
+
+    private void writeStockMovementPdf(InventoryReportService.StockMovementSummary summary,
+                                       Stream<InventoryReportService.StockMovementItem> items,
+                                       OutputStream out) {
+        try {
             Document document = new Document(PageSize.A4.rotate());
-            PdfWriter.getInstance(document, baos);
+            PdfWriter.getInstance(document, out);
             document.open();
 
             addReportHeader(document, "LAPORAN MUTASI STOK", "Stock Movement Report",
-                    LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT));
+                    LABEL_PERIODE + summary.startDate().format(DATE_FORMAT) + " - " + summary.endDate().format(DATE_FORMAT));
 
             PdfPTable table = new PdfPTable(9);
             table.setWidthPercentage(100);
             table.setWidths(new float[]{3, 8, 10, 12, 10, 10, 10, 10, 10});
             table.setSpacingBefore(20);
+            table.setHeaderRows(1);
+            // Incomplete table: each document.add writes the rows so far and releases them
+            table.setComplete(false);
 
             addTableHeader(table, "No", COL_TANGGAL, "Kode", COL_NAMA_PRODUK, "Tipe", "Qty", "Harga", COL_NILAI, "Saldo");
 
+            DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(DATE_PATTERN_DMY);
             int no = 1;
-            for (InventoryReportService.StockMovementItem item : report.items()) {
-                addTableCell(table, String.valueOf(no++), Element.ALIGN_CENTER);
-                addTableCell(table, item.transactionDate().format(DateTimeFormatter.ofPattern(DATE_PATTERN_DMY)), Element.ALIGN_CENTER);
+            Iterator<InventoryReportService.StockMovementItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                InventoryReportService.StockMovementItem item = iterator.next();
+                addTableCell(table, String.valueOf(no), Element.ALIGN_CENTER);
+                addTableCell(table, item.transactionDate().format(dateFormat), Element.ALIGN_CENTER);
                 addTableCell(table, item.productCode(), Element.ALIGN_LEFT);
                 addTableCell(table, item.productName(), Element.ALIGN_LEFT);
                 addTableCell(table, item.transactionTypeLabel(), Element.ALIGN_LEFT);
@@ -998,8 +1034,12 @@ public class ReportExportService {
                 addTableCell(table, formatNumber(item.unitCost()), Element.ALIGN_RIGHT);
                 addTableCell(table, formatNumber(item.totalCost()), Element.ALIGN_RIGHT);
                 addTableCell(table, formatNumber(item.balanceAfter()), Element.ALIGN_RIGHT);
+                if (no++ % STREAMING_PDF_FLUSH_ROWS == 0) {
+                    document.add(table);
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
 
             // Summary table
@@ -1013,33 +1053,50 @@ public class ReportExportService {
             summaryTable.setSpacingBefore(10);
 
             addTableCell(summaryTable, "Total Masuk (Qty)", Element.ALIGN_LEFT);
-            addTableCell(summaryTable, formatNumber(report.totalInboundQty()), Element.ALIGN_RIGHT);
+            addTableCell(summaryTable, formatNumber(summary.totalInboundQty()), Element.ALIGN_RIGHT);
             addTableCell(summaryTable, "Total Keluar (Qty)", Element.ALIGN_LEFT);
-            addTableCell(summaryTable, formatNumber(report.totalOutboundQty()), Element.ALIGN_RIGHT);
+            addTableCell(summaryTable, formatNumber(summary.totalOutboundQty()), Element.ALIGN_RIGHT);
             addTableCell(summaryTable, "Total Masuk (Nilai)", Element.ALIGN_LEFT);
-            addTableCell(summaryTable, formatNumber(report.totalInboundValue()), Element.ALIGN_RIGHT);
+            addTableCell(summaryTable, formatNumber(summary.totalInboundValue()), Element.ALIGN_RIGHT);
             addTableCell(summaryTable, "Total Keluar (Nilai)", Element.ALIGN_LEFT);
-            addTableCell(summaryTable, formatNumber(report.totalOutboundValue()), Element.ALIGN_RIGHT);
+            addTableCell(summaryTable, formatNumber(summary.totalOutboundValue()), Element.ALIGN_RIGHT);
 
             document.add(summaryTable);
             document.close();
-
-            return baos.toByteArray();
-        } catch (DocumentException | IOException e) {
+        } catch (DocumentException e) {
             log.error("Error generating Stock Movement PDF", e);
             throw new ReportGenerationException(PDF_GENERATION_ERROR + e.getMessage(), e);
         }
     }
 
     public byte[] exportStockMovementToExcel(InventoryReportService.StockMovementReport report) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeStockMovementExcel(report.summary(), report.items().stream(), baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes the stock movement workbook to {@code out}, reading rows through a
+     * cursor. Only a window of rows is kept in memory; the rest goes to a
+     * temporary file until the workbook is written.
+     */
+    public void writeStockMovementExcel(LocalDate startDate, LocalDate endDate,
+                                        UUID categoryId, UUID productId, OutputStream out) {
+        inventoryReportService.streamStockMovements(startDate, endDate, categoryId, productId,
+                (summary, items) -> writeStockMovementExcel(summary, items, out));
+    }
+
+    private void writeStockMovementExcel(InventoryReportService.StockMovementSummary summary,
+                                         Stream<InventoryReportService.StockMovementItem> items,
+                                         OutputStream out) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(STREAMING_EXCEL_WINDOW_ROWS)) {
 
-            Sheet sheet = workbook.createSheet("Mutasi Stok");
+            SXSSFSheet sheet = workbook.createSheet("Mutasi Stok");
+            sheet.trackAllColumnsForAutoSizing();
             int rowNum = 0;
 
             rowNum = addExcelHeader(workbook, sheet, rowNum, "LAPORAN MUTASI STOK",
-                    LABEL_PERIODE + report.startDate().format(DATE_FORMAT) + " - " + report.endDate().format(DATE_FORMAT), 9);
+                    LABEL_PERIODE + summary.startDate().format(DATE_FORMAT) + " - " + summary.endDate().format(DATE_FORMAT), 9);
 
             Row headerRow = sheet.createRow(rowNum++);
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -1058,7 +1115,9 @@ public class ReportExportService {
             CellStyle dateStyle = createDateStyle(workbook);
 
             int no = 1;
-            for (InventoryReportService.StockMovementItem item : report.items()) {
+            Iterator<InventoryReportService.StockMovementItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                InventoryReportService.StockMovementItem item = iterator.next();
                 Row row = sheet.createRow(rowNum++);
                 createNumericCell(row, 0, BigDecimal.valueOf(no++), textStyle);
                 Cell dateCell = row.createCell(1);
@@ -1082,23 +1141,22 @@ public class ReportExportService {
 
             Row inboundQtyRow = sheet.createRow(rowNum++);
             createCell(inboundQtyRow, 0, "Total Masuk (Qty)", textStyle);
-            createNumericCell(inboundQtyRow, 1, report.totalInboundQty(), numberStyle);
+            createNumericCell(inboundQtyRow, 1, summary.totalInboundQty(), numberStyle);
 
             Row outboundQtyRow = sheet.createRow(rowNum++);
             createCell(outboundQtyRow, 0, "Total Keluar (Qty)", textStyle);
-            createNumericCell(outboundQtyRow, 1, report.totalOutboundQty(), numberStyle);
+            createNumericCell(outboundQtyRow, 1, summary.totalOutboundQty(), numberStyle);
 
             Row inboundValueRow = sheet.createRow(rowNum++);
             createCell(inboundValueRow, 0, "Total Masuk (Nilai)", textStyle);
-            createNumericCell(inboundValueRow, 1, report.totalInboundValue(), numberStyle);
+            createNumericCell(inboundValueRow, 1, summary.totalInboundValue(), numberStyle);
 
             Row outboundValueRow = sheet.createRow(rowNum);
             createCell(outboundValueRow, 0, "Total Keluar (Nilai)", textStyle);
-            createNumericCell(outboundValueRow, 1, report.totalOutboundValue(), numberStyle);
+            createNumericCell(outboundValueRow, 1, summary.totalOutboundValue(), numberStyle);
 
             autoSizeColumns(sheet, 9);
-            workbook.write(baos);
-            return baos.toByteArray();
+            workbook.write(out);
         } catch (IOException e) {
             log.error("Error generating Stock Movement Excel", e);
             throw new ReportGenerationException(EXCEL_GENERATION_ERROR + e.getMessage(), e);
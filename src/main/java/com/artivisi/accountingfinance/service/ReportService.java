@@ -11,6 +11,7 @@ import com.artivisi.accountingfinance.repository.JournalEntryRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -20,6 +21,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +32,7 @@ public class ReportService {
     private final ChartOfAccountRepository chartOfAccountRepository;
     private final JournalEntryRepository journalEntryRepository;
     private final TransactionRepository transactionRepository;
+    private final ReportComposer reportComposer;
 
     public TrialBalanceReport generateTrialBalance(LocalDate asOfDate) {
         List<ChartOfAccount> accounts = chartOfAccountRepository.findAllTransactableAccounts();
@@ -142,19 +145,34 @@ public class ReportService {
                 totalRevenue, totalExpense, netIncome);
     }
 
+    /**
+     * Balance sheet as of the date. The three sections and the two income
+     * statements behind retained and current year earnings are independent,
+     * so they are computed concurrently by {@link ReportComposer}.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BalanceSheetReport generateBalanceSheet(LocalDate asOfDate) {
-        List<ChartOfAccount> assetAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.ASSET, true);
-        List<ChartOfAccount> liabilityAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.LIABILITY, true);
-        List<ChartOfAccount> equityAccounts = chartOfAccountRepository
-                .findByAccountTypeAndActiveOrderByAccountCodeAsc(AccountType.EQUITY, true);
-
         LocalDate periodStart = LocalDate.of(1900, 1, 1);
+        LocalDate fiscalYearStart = asOfDate.withDayOfYear(1);
+
+        Supplier<List<BalanceSheetItem>> assetPart;
+        Supplier<List<BalanceSheetItem>> liabilityPart;
+        Supplier<List<BalanceSheetItem>> equityPart;
+        Supplier<IncomeStatementReport> priorYearsPart;
+        Supplier<IncomeStatementReport> currentYearPart;
+        try (ReportComposer.Scope scope = reportComposer.open()) {
+            assetPart = scope.fork(() -> calculateBalanceSheetItems(AccountType.ASSET, periodStart, asOfDate));
+            liabilityPart = scope.fork(() -> calculateBalanceSheetItems(AccountType.LIABILITY, periodStart, asOfDate));
+            equityPart = scope.fork(() -> calculateBalanceSheetItems(AccountType.EQUITY, periodStart, asOfDate));
+            // Prior year retained earnings (all net income before current fiscal year)
+            priorYearsPart = scope.fork(() -> generateIncomeStatement(periodStart, fiscalYearStart.minusDays(1)));
+            currentYearPart = scope.fork(() -> generateIncomeStatement(fiscalYearStart, asOfDate));
+            scope.join();
+        }
 
-        List<BalanceSheetItem> assetItems = calculateBalanceSheetItems(assetAccounts, periodStart, asOfDate);
-        List<BalanceSheetItem> liabilityItems = calculateBalanceSheetItems(liabilityAccounts, periodStart, asOfDate);
-        List<BalanceSheetItem> equityItems = calculateBalanceSheetItems(equityAccounts, periodStart, asOfDate);
+        List<BalanceSheetItem> assetItems = assetPart.get();
+        List<BalanceSheetItem> liabilityItems = liabilityPart.get();
+        List<BalanceSheetItem> equityItems = equityPart.get();
 
         // Contra-assets (CREDIT normal balance like Accumulated Depreciation) reduce total assets
         BigDecimal totalAssets = assetItems.stream()
@@ -171,16 +189,8 @@ public class ReportService {
                 .map(BalanceSheetItem::balance)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        LocalDate fiscalYearStart = asOfDate.withDayOfYear(1);
-
-        // Calculate prior year retained earnings (all net income before current fiscal year)
-        IncomeStatementReport priorYearsIncome = generateIncomeStatement(
-                LocalDate.of(1900, 1, 1), fiscalYearStart.minusDays(1));
-        BigDecimal retainedEarnings = priorYearsIncome.netIncome();
-
-        // Calculate current year earnings
-        IncomeStatementReport incomeStatement = generateIncomeStatement(fiscalYearStart, asOfDate);
-        BigDecimal currentYearEarnings = incomeStatement.netIncome();
+        BigDecimal retainedEarnings = priorYearsPart.get().netIncome();
+        BigDecimal currentYearEarnings = currentYearPart.get().netIncome();
 
         totalEquity = totalEquity.add(retainedEarnings).add(currentYearEarnings);
 
@@ -242,6 +252,13 @@ public class ReportService {
         return items;
     }
 
+    private List<BalanceSheetItem> calculateBalanceSheetItems(AccountType accountType,
+                                                              LocalDate startDate, LocalDate endDate) {
+        return calculateBalanceSheetItems(
+                chartOfAccountRepository.findByAccountTypeAndActiveOrderByAccountCodeAsc(accountType, true),
+                startDate, endDate);
+    }
+
     private List<BalanceSheetItem> calculateBalanceSheetItems(List<ChartOfAccount> accounts,
                                                               LocalDate startDate, LocalDate endDate) {
         List<BalanceSheetItem> items = new ArrayList<>();
@@ -320,15 +320,12 @@ public class SptTahunanExportService {
      * Matches DJP BPA1 converter template for Coretax XML import.
      */
     public Bpa1Report generateBpa1(int year) {
-        List<UUID> employeeIds = payrollService.getEmployeesWithPayrollInYear(year);
-
         List<Bpa1LineItem> items = new ArrayList<>();
         BigDecimal totalGross = BigDecimal.ZERO;
         BigDecimal totalPph21Terutang = BigDecimal.ZERO;
         BigDecimal totalPph21Dipotong = BigDecimal.ZERO;
 
-        for (UUID employeeId : employeeIds) {
-            YearlyPayrollSummary summary = payrollService.getYearlyPayrollSummary(employeeId, year);
+        for (YearlyPayrollSummary summary : payrollService.getYearlyPayrollSummaries(year)) {
             Employee employee = summary.employee();
 
             BigDecimal penghasilanBruto = summary.totalGross();
@@ -26,9 +26,11 @@ public class TagService {
 
     private final TagRepository tagRepository;
     private final TransactionTagRepository transactionTagRepository;
+    private final ReferenceDataService referenceDataService;
 
     public Tag create(Tag tag) {
         validateUniqueCode(tag.getTagType().getId(), tag.getCode(), null);
+        referenceDataService.invalidate();
         return tagRepository.save(tag);
     }
 
@@ -43,6 +45,7 @@ public class TagService {
         existing.setDescription(updated.getDescription());
         existing.setActive(updated.isActive());
 
+        referenceDataService.invalidate();
         return tagRepository.save(existing);
     }
 
@@ -57,6 +60,7 @@ public class TagService {
 
         tag.softDelete();
         tagRepository.save(tag);
+        referenceDataService.invalidate();
         log.info("Soft-deleted tag: {} (type: {})", tag.getCode(), tag.getTagType().getCode());
     }
 
@@ -22,9 +22,11 @@ public class TagTypeService {
 
     private final TagTypeRepository tagTypeRepository;
     private final TagRepository tagRepository;
+    private final ReferenceDataService referenceDataService;
 
     public TagType create(TagType tagType) {
         validateUniqueCode(tagType.getCode(), null);
+        referenceDataService.invalidate();
         return tagTypeRepository.save(tagType);
     }
 
@@ -39,6 +41,7 @@ public class TagTypeService {
         existing.setDescription(updated.getDescription());
         existing.setActive(updated.isActive());
 
+        referenceDataService.invalidate();
         return tagTypeRepository.save(existing);
     }
 
@@ -53,6 +56,7 @@ public class TagTypeService {
 
         tagType.softDelete();
         tagTypeRepository.save(tagType);
+        referenceDataService.invalidate();
         log.info("Soft-deleted tag type: {}", tagType.getCode());
     }
 
@@ -6,6 +6,9 @@ import com.artivisi.accountingfinance.entity.TaxTransactionDetail;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.TaxType;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
+import com.artivisi.accountingfinance.event.DomainEvent;
+import com.artivisi.accountingfinance.event.DomainEventListener;
+import com.artivisi.accountingfinance.event.TransactionPostedEvent;
 import com.artivisi.accountingfinance.repository.TaxTransactionDetailRepository;
 import com.artivisi.accountingfinance.repository.TransactionRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -24,7 +27,7 @@ import java.util.UUID;
 @Slf4j
 @Service
 @Transactional(readOnly = true)
-public class TaxTransactionDetailService {
+public class TaxTransactionDetailService implements DomainEventListener {
 
     private static final String DETAIL_NOT_FOUND = "Tax detail tidak ditemukan: ";
     private static final String TRANSACTION_NOT_FOUND = "Transaksi tidak ditemukan: ";
@@ -107,6 +110,20 @@ public class TaxTransactionDetailService {
         taxDetailRepository.delete(detail);
     }
 
+    /**
+     * Auto-populates tax details once a posting is committed, off the posting
+     * path. A transaction voided in the meantime is left alone.
+     */
+    @Override
+    @Transactional
+    public void onDomainEvent(DomainEvent event) {
+        if (event instanceof TransactionPostedEvent posted) {
+            transactionRepository.findById(posted.transactionId())
+                    .filter(Transaction::isPosted)
+                    .ifPresent(this::autoPopulateFromTransaction);
+        }
+    }
+
     @Transactional
     public int autoPopulateFromTransaction(Transaction transaction) {
         List<TaxTransactionDetail> existing = findByTransactionId(transaction.getId());
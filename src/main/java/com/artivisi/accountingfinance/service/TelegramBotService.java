@@ -11,16 +11,23 @@ import com.artivisi.accountingfinance.entity.TelegramUserLink;
 import com.artivisi.accountingfinance.entity.User;
 import com.artivisi.accountingfinance.repository.TelegramUserLinkRepository;
 import com.artivisi.accountingfinance.repository.UserRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestProgress;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
 import com.artivisi.accountingfinance.service.telegram.TelegramApiClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -71,6 +78,23 @@ public class TelegramBotService {
     }
 
     public void handleUpdate(TelegramUpdate update) {
+        handleUpdate(update, new IngestTimings(), new IngestProgress(), true);
+    }
+
+    public void handleUpdate(TelegramUpdate update, IngestTimings timings, boolean lastAttempt) {
+        handleUpdate(update, timings, new IngestProgress(), lastAttempt);
+    }
+
+    /**
+     * Handles one update, recording the download, store, OCR, parse and draft
+     * stages of a receipt photo in {@code timings}. Unless this is the
+     * {@code lastAttempt}, a transient failure (network, Telegram 5xx, storage)
+     * is thrown for the queue to retry instead of being reported to the user.
+     * Steps recorded in {@code progress} by an earlier attempt are skipped, and
+     * the steps this attempt finishes are added to it.
+     */
+    public void handleUpdate(TelegramUpdate update, IngestTimings timings, IngestProgress progress,
+                             boolean lastAttempt) {
         if (!config.isEnabled() || telegramApiClient == null) {
             log.warn("Telegram bot is not enabled");
             return;
@@ -103,7 +127,8 @@ public class TelegramBotService {
             if (log.isInfoEnabled()) {
                 log.info("Processing photo message with {} photos", message.getPhoto().size());
             }
-            handlePhotoMessage(chatId, message.getPhoto(), message.getMessageId(), linkOpt);
+            handlePhotoMessage(chatId, message.getPhoto(), message.getMessageId(), linkOpt, timings, progress,
+                    lastAttempt);
         } else {
             log.info("Ignoring message - no text or photo");
         }
@@ -236,7 +261,9 @@ public class TelegramBotService {
     }
 
     private void handlePhotoMessage(Long chatId, List<TelegramPhotoSize> photos,
-                                     Long messageId, Optional<TelegramUserLink> linkOpt) {
+                                     Long messageId, Optional<TelegramUserLink> linkOpt,
+                                     IngestTimings timings, IngestProgress progress,
+                                     boolean lastAttempt) {
         if (linkOpt.isEmpty()) {
             sendMessage(chatId, "Akun belum terhubung. Ketik /start untuk mulai.");
             return;
@@ -255,30 +282,60 @@ public class TelegramBotService {
             return;
         }
 
-        sendMessage(chatId, "⏳ Memproses struk...");
+        if (!progress.isNoticeSent()) {
+            sendMessage(chatId, "⏳ Memproses struk...");
+            progress.markNoticeSent();
+        }
 
         try {
-            // Download photo
-            byte[] photoBytes = downloadPhoto(photo.getFileId());
-
-            // Save as document
-            Document document = documentService.saveFromBytes(
-                    photoBytes, "receipt_" + messageId + ".jpg", "image/jpeg", appUsername);
+            byte[] photoBytes;
+            Document document;
+            if (progress.getDocumentId() != null) {
+                // Stored by an earlier attempt; read it back instead of storing it again
+                long stageStart = System.nanoTime();
+                document = documentService.findById(progress.getDocumentId());
+                photoBytes = documentService.loadAsResource(document.getId()).getContentAsByteArray();
+                timings.record(IngestTimings.Stage.DOWNLOAD, stageStart);
+            } else {
+                // Download photo
+                long stageStart = System.nanoTime();
+                photoBytes = downloadPhoto(photo.getFileId());
+                timings.record(IngestTimings.Stage.DOWNLOAD, stageStart);
+
+                // Save as document
+                stageStart = System.nanoTime();
+                document = documentService.saveFromBytes(
+                        photoBytes, "receipt_" + messageId + ".jpg", "image/jpeg", appUsername);
+                progress.setDocumentId(document.getId());
+                timings.record(IngestTimings.Stage.STORE, stageStart);
+            }
 
             // Process receipt
             DraftTransaction draft = draftService.processReceiptImage(
-                    photoBytes, document, chatId, messageId, appUsername);
+                    photoBytes, document, chatId, messageId, appUsername, timings);
 
             // Send result
             sendProcessingResult(chatId, draft);
 
         } catch (Exception e) {
+            if (!lastAttempt && isTransient(e)) {
+                log.warn("Transient error processing photo for chat {}, will retry: {}", chatId, e.getMessage());
+                throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+            }
             // Network/file errors are expected - log at warn without stack trace
             log.warn("Error processing photo for chat {}: {}", chatId, e.getMessage());
             sendMessage(chatId, "❌ Gagal memproses struk: " + e.getMessage());
         }
     }
 
+    private static boolean isTransient(Exception e) {
+        return e instanceof IOException
+                || e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || e instanceof HttpClientErrorException.TooManyRequests
+                || e instanceof TransientDataAccessException;
+    }
+
     @SuppressFBWarnings(
         value = "URLCONNECTION_SSRF_FD",
         justification = "SSRF is prevented via domain validation: " +
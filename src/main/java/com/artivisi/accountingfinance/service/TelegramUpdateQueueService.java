@@ -0,0 +1,207 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
+import com.artivisi.accountingfinance.entity.TelegramUpdateJob;
+import com.artivisi.accountingfinance.event.TelegramUpdateQueuedEvent;
+import com.artivisi.accountingfinance.repository.TelegramUpdateJobRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestProgress;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable queue between the Telegram webhook and the update workers.
+ *
+ * The webhook only stores the update; {@link TelegramUpdateWorker} claims due
+ * jobs and runs them through {@link TelegramBotService}. A job is keyed by the
+ * Telegram update_id, so a webhook retry of an update already stored is dropped.
+ * A job that throws is retried with a growing delay up to
+ * {@code app.telegram.queue.max-attempts}, then left as FAILED. The steps an
+ * attempt finished are kept on the job, so a retry does not repeat them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramUpdateQueueService {
+
+    private final TelegramUpdateJobRepository jobRepository;
+    private final TelegramBotService telegramBotService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<IngestTimings.Stage, StageStats> stageStats = createStageStats();
+
+    @Value("${app.telegram.queue.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${app.telegram.queue.retry-delay-seconds:30}")
+    private long retryDelaySeconds = 30;
+
+    @Value("${app.telegram.queue.stale-after-minutes:10}")
+    private long staleAfterMinutes = 10;
+
+    /**
+     * Per-stage totals since startup, over every processed update that went
+     * through that stage.
+     */
+    public record StageStatistics(IngestTimings.Stage stage, long count, long totalMillis, long maxMillis) {
+        public double averageMillis() {
+            return count == 0 ? 0 : (double) totalMillis / count;
+        }
+    }
+
+    /**
+     * Stores an update for processing. Returns false when an update with the
+     * same update_id is already stored.
+     */
+    public boolean enqueue(TelegramUpdate update) {
+        if (jobRepository.existsByUpdateId(update.getUpdateId())) {
+            log.debug("Telegram update {} already queued", update.getUpdateId());
+            return false;
+        }
+
+        TelegramUpdateJob job = new TelegramUpdateJob();
+        job.setUpdateId(update.getUpdateId());
+        job.setPayload(update);
+        job.setAvailableAt(LocalDateTime.now());
+        try {
+            jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry of the same update was stored first
+            log.debug("Telegram update {} queued concurrently", update.getUpdateId());
+            return false;
+        }
+
+        eventPublisher.publishEvent(new TelegramUpdateQueuedEvent(update.getUpdateId()));
+        return true;
+    }
+
+    /**
+     * Marks up to {@code limit} due jobs as PROCESSING and returns their ids.
+     * Concurrent callers never get the same job.
+     */
+    @Transactional
+    public List<UUID> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> ids = jobRepository.lockDueIds(now, now.minusMinutes(staleAfterMinutes), limit);
+        if (!ids.isEmpty()) {
+            jobRepository.markProcessing(ids, now);
+        }
+        return ids;
+    }
+
+    /**
+     * Runs a claimed job and records its outcome and stage timings.
+     */
+    public void process(UUID jobId) {
+        TelegramUpdateJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != TelegramUpdateJob.Status.PROCESSING) {
+            return;
+        }
+
+        IngestTimings timings = new IngestTimings();
+        IngestProgress progress = new IngestProgress(Boolean.TRUE.equals(job.getNoticeSent()), job.getDocumentId());
+        timings.recordMillis(IngestTimings.Stage.QUEUE_WAIT,
+                Duration.between(job.getAvailableAt(), job.getStartedAt()).toMillis());
+        long started = System.nanoTime();
+        try {
+            telegramBotService.handleUpdate(job.getPayload(), timings, progress, job.getAttempts() >= maxAttempts);
+            timings.record(IngestTimings.Stage.TOTAL, started);
+            saveProgress(job, progress);
+            complete(job, timings);
+        } catch (RuntimeException e) {
+            timings.record(IngestTimings.Stage.TOTAL, started);
+            saveProgress(job, progress);
+            fail(job, e, timings);
+        }
+        recordStatistics(timings);
+    }
+
+    /**
+     * Deletes finished jobs completed before {@code before}. Their update_ids
+     * stop being deduplicated, long after Telegram has stopped retrying them.
+     */
+    @Transactional
+    public int purgeDone(LocalDateTime before) {
+        return jobRepository.deleteDoneBefore(before);
+    }
+
+    public List<StageStatistics> stageStatistics() {
+        List<StageStatistics> result = new ArrayList<>();
+        stageStats.forEach((stage, stats) -> {
+            long count = stats.count.sum();
+            if (count > 0) {
+                result.add(new StageStatistics(stage, count, stats.totalMillis.sum(), stats.maxMillis.get()));
+            }
+        });
+        return result;
+    }
+
+    private static void saveProgress(TelegramUpdateJob job, IngestProgress progress) {
+        job.setNoticeSent(progress.isNoticeSent());
+        job.setDocumentId(progress.getDocumentId());
+    }
+
+    private void complete(TelegramUpdateJob job, IngestTimings timings) {
+        job.setStatus(TelegramUpdateJob.Status.DONE);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLastError(null);
+        job.setStageTimings(timings.toNamedMap());
+        jobRepository.save(job);
+        log.debug("Telegram update {} processed: {}", job.getUpdateId(), timings.toNamedMap());
+    }
+
+    private void fail(TelegramUpdateJob job, RuntimeException e, IngestTimings timings) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        job.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        job.setStageTimings(timings.toNamedMap());
+        if (job.getAttempts() >= maxAttempts) {
+            job.setStatus(TelegramUpdateJob.Status.FAILED);
+            job.setCompletedAt(LocalDateTime.now());
+            log.error("Telegram update {} failed after {} attempts", job.getUpdateId(), job.getAttempts(), e);
+        } else {
+            job.setStatus(TelegramUpdateJob.Status.PENDING);
+            job.setAvailableAt(LocalDateTime.now().plusSeconds(retryDelaySeconds * job.getAttempts()));
+            log.warn("Telegram update {} failed on attempt {}, will retry: {}",
+                    job.getUpdateId(), job.getAttempts(), error);
+        }
+        jobRepository.save(job);
+    }
+
+    private void recordStatistics(IngestTimings timings) {
+        timings.asMap().forEach((stage, millis) -> {
+            StageStats stats = stageStats.get(stage);
+            stats.count.increment();
+            stats.totalMillis.add(millis);
+            stats.maxMillis.accumulate(millis);
+        });
+    }
+
+    private static Map<IngestTimings.Stage, StageStats> createStageStats() {
+        Map<IngestTimings.Stage, StageStats> stats = new EnumMap<>(IngestTimings.Stage.class);
+        for (IngestTimings.Stage stage : IngestTimings.Stage.values()) {
+            stats.put(stage, new StageStats());
+        }
+        return stats;
+    }
+
+    private static final class StageStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory accumulator for journal template usage statistics.
+ *
+ * Usage is counted in striped counters so concurrent transactions never write
+ * to the template row. Pending counts are written back periodically as one
+ * aggregated UPDATE per template (see TemplateUsageScheduler). Readers that
+ * need current numbers merge the persisted values with the pending deltas.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TemplateUsageTracker {
+
+    private final JournalTemplateRepository journalTemplateRepository;
+
+    private final Map<UUID, PendingUsage> pending = new ConcurrentHashMap<>();
+
+    public void record(UUID templateId) {
+        pending.computeIfAbsent(templateId, id -> new PendingUsage())
+                .record(LocalDateTime.now());
+    }
+
+    /**
+     * Usage count persisted on the template plus recorded uses not yet flushed.
+     */
+    public int getUsageCount(JournalTemplate template) {
+        int persisted = template.getUsageCount() != null ? template.getUsageCount() : 0;
+        PendingUsage usage = pending.get(template.getId());
+        return usage == null ? persisted : persisted + (int) usage.unflushed();
+    }
+
+    /**
+     * Latest of the persisted last-used timestamp and any recorded use not yet flushed.
+     */
+    public LocalDateTime getLastUsedAt(JournalTemplate template) {
+        PendingUsage usage = pending.get(template.getId());
+        LocalDateTime pendingLastUsed = usage != null ? usage.lastUsedAt.get() : null;
+        if (pendingLastUsed == null) {
+            return template.getLastUsedAt();
+        }
+        if (template.getLastUsedAt() == null || template.getLastUsedAt().isBefore(pendingLastUsed)) {
+            return pendingLastUsed;
+        }
+        return template.getLastUsedAt();
+    }
+
+    /**
+     * Write pending usage to the database, one UPDATE per template with new uses.
+     * Counters are never reset; each entry remembers how much has been written so
+     * uses recorded while the flush is running are picked up by the next one.
+     *
+     * @return number of templates updated
+     */
+    public synchronized int flush() {
+        int updatedTemplates = 0;
+        for (Map.Entry<UUID, PendingUsage> entry : pending.entrySet()) {
+            PendingUsage usage = entry.getValue();
+            long recorded = usage.count.sum();
+            long delta = recorded - usage.flushed;
+            if (delta <= 0) {
+                continue;
+            }
+
+            try {
+                int rows = journalTemplateRepository.incrementUsage(
+                        entry.getKey(), Math.toIntExact(delta), usage.lastUsedAt.get());
+                if (rows == 0) {
+                    // Template no longer exists
+                    pending.remove(entry.getKey(), usage);
+                    continue;
+                }
+                usage.flushed = recorded;
+                updatedTemplates++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush usage for template {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return updatedTemplates;
+    }
+
+    private static final class PendingUsage {
+        private final LongAdder count = new LongAdder();
+        private final AtomicReference<LocalDateTime> lastUsedAt = new AtomicReference<>();
+        // Only written by flush(), which is synchronized
+        private volatile long flushed;
+
+        private void record(LocalDateTime usedAt) {
+            count.increment();
+            lastUsedAt.accumulateAndGet(usedAt,
+                    (current, candidate) -> current == null || current.isBefore(candidate) ? candidate : current);
+        }
+
+        private long unflushed() {
+            return Math.max(0, count.sum() - flushed);
+        }
+    }
+}
@@ -64,6 +64,7 @@ public class TransactionApiService {
     private final JournalTemplateService journalTemplateService;
     private final TemplateExecutionEngine templateExecutionEngine;
     private final MerchantMappingRepository merchantMappingRepository;
+    private final MerchantClassifier merchantClassifier;
     private final DocumentStorageService documentStorageService;
     private final DocumentRepository documentRepository;
     private final ChartOfAccountRepository chartOfAccountRepository;
@@ -82,8 +83,10 @@ public class TransactionApiService {
         }
 
         // Find merchant mapping
-        MerchantMapping mapping = findMerchantMapping(request.merchant());
-        JournalTemplate suggestedTemplate = mapping != null ? mapping.getTemplate()
+        MerchantClassifier.Match match = merchantClassifier.classify(request.merchant()).orElse(null);
+        MerchantMapping mapping = toMapping(match);
+        JournalTemplate suggestedTemplate = match != null
+                ? journalTemplateRepository.getReferenceById(match.templateId())
                 : suggestTemplateByCategory(request.category());
 
         // Store image if provided
@@ -141,8 +144,10 @@ public class TransactionApiService {
         }
 
         // Find merchant mapping
-        MerchantMapping mapping = findMerchantMapping(request.merchant());
-        JournalTemplate suggestedTemplate = mapping != null ? mapping.getTemplate()
+        MerchantClassifier.Match match = merchantClassifier.classify(request.merchant()).orElse(null);
+        MerchantMapping mapping = toMapping(match);
+        JournalTemplate suggestedTemplate = match != null
+                ? journalTemplateRepository.getReferenceById(match.templateId())
                 : suggestTemplateByCategory(request.category());
 
         // Create draft
@@ -389,35 +394,8 @@ public class TransactionApiService {
         return accountMappings;
     }
 
-    /**
-     * Find merchant mapping by name.
-     */
-    private MerchantMapping findMerchantMapping(String merchantName) {
-        if (merchantName == null || merchantName.isBlank()) {
-            return null;
-        }
-
-        // Try exact match first
-        List<MerchantMapping> exactMatches = merchantMappingRepository.findExactMatches(merchantName);
-        if (!exactMatches.isEmpty()) {
-            return exactMatches.getFirst();
-        }
-
-        // Try contains match
-        List<MerchantMapping> containsMatches = merchantMappingRepository.findContainsMatches(merchantName);
-        if (!containsMatches.isEmpty()) {
-            return containsMatches.getFirst();
-        }
-
-        // Try regex matches
-        List<MerchantMapping> regexMappings = merchantMappingRepository.findByMatchType(MerchantMapping.MatchType.REGEX);
-        for (MerchantMapping mapping : regexMappings) {
-            if (mapping.matches(merchantName)) {
-                return mapping;
-            }
-        }
-
-        return null;
+    private MerchantMapping toMapping(MerchantClassifier.Match match) {
+        return match != null ? merchantMappingRepository.getReferenceById(match.mappingId()) : null;
     }
 
     /**
@@ -433,15 +411,9 @@ public class TransactionApiService {
             return null;
         }
 
-        List<JournalTemplate> allTemplates = journalTemplateService.findAll();
-        for (JournalTemplate template : allTemplates) {
-            String name = template.getTemplateName().toLowerCase();
-            if (templateKeywords.stream().anyMatch(name::contains)) {
-                return template;
-            }
-        }
-
-        return null;
+        return merchantClassifier.suggestTemplate(templateKeywords)
+                .map(journalTemplateRepository::getReferenceById)
+                .orElse(null);
     }
 
     private List<String> findTemplateKeywords(String categoryLower) {
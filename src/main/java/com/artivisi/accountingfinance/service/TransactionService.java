@@ -1,6 +1,7 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.dto.TransactionListItem;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.DraftTransaction;
 import com.artivisi.accountingfinance.entity.JournalEntry;
@@ -13,10 +14,13 @@ import com.artivisi.accountingfinance.entity.TransactionAccountMapping;
 import com.artivisi.accountingfinance.entity.TransactionSequence;
 import com.artivisi.accountingfinance.entity.TransactionTag;
 import com.artivisi.accountingfinance.entity.TransactionVariable;
+import com.artivisi.accountingfinance.enums.ChangeType;
 import com.artivisi.accountingfinance.enums.JournalPosition;
 import com.artivisi.accountingfinance.enums.TemplateCategory;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.enums.VoidReason;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import com.artivisi.accountingfinance.event.TransactionPostedEvent;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
@@ -36,12 +40,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -62,9 +69,10 @@ public class TransactionService {
     private final TagRepository tagRepository;
     private final JournalTemplateService journalTemplateService;
     private final FormulaEvaluator formulaEvaluator;
-    private final TaxTransactionDetailService taxTransactionDetailService;
     private final FiscalPeriodService fiscalPeriodService;
     private final EntityManager entityManager;
+    private final OutboxService outboxService;
+    private final ChangeLogService changeLogService;
 
     public List<Transaction> findAll() {
         return transactionRepository.findAll();
@@ -97,10 +105,130 @@ public class TransactionService {
         return transactionRepository.findByFiltersWithTag(statusName, categoryName, projectId, tagId, startDate, endDate, pageable);
     }
 
+    /**
+     * One page of the transaction list as flat rows, with the same filters as
+     * {@link #findByFilters(TransactionStatus, TemplateCategory, UUID, UUID, LocalDate, LocalDate, Pageable)}.
+     */
+    public Page<TransactionListItem> findListItems(TransactionStatus status, TemplateCategory category, UUID projectId,
+                                                   UUID tagId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        String statusName = status != null ? status.name() : null;
+        String categoryName = category != null ? category.name() : null;
+        return transactionRepository.findListRowsByFilters(statusName, categoryName, projectId, tagId,
+                startDate, endDate, pageable).map(TransactionService::toListItem);
+    }
+
+    public TransactionListItem findListItem(UUID id) {
+        return transactionRepository.findListRowsByIds(List.of(id)).stream()
+                .findFirst()
+                .map(TransactionService::toListItem)
+                .orElseThrow(() -> new EntityNotFoundException(ERR_TRANSACTION_NOT_FOUND + id));
+    }
+
     public Page<Transaction> search(String search, Pageable pageable) {
         return transactionRepository.searchTransactions(search, pageable);
     }
 
+    /**
+     * Relevance-ranked search over transaction number, description, reference and
+     * journal numbers. Pages are keyed on the last row seen rather than an offset,
+     * so deep pages cost the same as the first; pass the previous page's
+     * {@code nextCursor} (or null for the first page).
+     */
+    public SearchPage searchRanked(String search, String cursor, int size) {
+        RankedIds ranked = rankedIds(search, cursor, size);
+        Map<UUID, Transaction> byId = new HashMap<>();
+        transactionRepository.findAllByIdWithTemplate(ranked.ids()).forEach(t -> byId.put(t.getId(), t));
+
+        List<Transaction> items = ranked.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new SearchPage(items, ranked.nextCursor());
+    }
+
+    /**
+     * {@link #searchRanked} for the transaction list, returning flat rows.
+     */
+    public ListItemSearchPage searchRankedListItems(String search, String cursor, int size) {
+        RankedIds ranked = rankedIds(search, cursor, size);
+        Map<UUID, TransactionListItem> byId = new HashMap<>();
+        if (!ranked.ids().isEmpty()) {
+            transactionRepository.findListRowsByIds(ranked.ids())
+                    .forEach(row -> byId.put((UUID) row[0], toListItem(row)));
+        }
+
+        List<TransactionListItem> items = ranked.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new ListItemSearchPage(items, ranked.nextCursor());
+    }
+
+    private RankedIds rankedIds(String search, String cursor, int size) {
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+        List<Object[]> rows = transactionRepository.searchRankedAfter(search.trim(),
+                after != null ? after.rank() : null,
+                after != null ? after.transactionDate() : null,
+                after != null ? after.id() : null,
+                size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<Object[]> pageRows = hasMore ? rows.subList(0, size) : rows;
+        List<UUID> ids = pageRows.stream().map(row -> (UUID) row[0]).toList();
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new SearchCursor(((Number) last[1]).doubleValue(), toLocalDate(last[2]), (UUID) last[0]).encode();
+        }
+        return new RankedIds(ids, nextCursor);
+    }
+
+    private static TransactionListItem toListItem(Object[] row) {
+        return new TransactionListItem(
+                (UUID) row[0],
+                (String) row[1],
+                toLocalDate(row[2]),
+                (String) row[3],
+                (String) row[4],
+                (String) row[5],
+                TemplateCategory.valueOf((String) row[6]),
+                (BigDecimal) row[7],
+                TransactionStatus.valueOf((String) row[8]),
+                row[9] != null ? VoidReason.valueOf((String) row[9]) : null,
+                Boolean.TRUE.equals(row[10]),
+                Boolean.TRUE.equals(row[11]));
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    public record SearchPage(List<Transaction> items, String nextCursor) {
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    public record ListItemSearchPage(List<TransactionListItem> items, String nextCursor) {
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    private record RankedIds(List<UUID> ids, String nextCursor) {
+    }
+
+    private record SearchCursor(double rank, LocalDate transactionDate, UUID id) {
+
+        private String encode() {
+            String raw = rank + "|" + transactionDate + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static SearchCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new SearchCursor(Double.parseDouble(parts[0]), LocalDate.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+        }
+    }
+
     public Transaction findById(UUID id) {
         return transactionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(ERR_TRANSACTION_NOT_FOUND + id));
@@ -175,7 +303,9 @@ public class TransactionService {
         }
 
         journalTemplateService.recordUsage(template.getId());
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     @Transactional
@@ -193,7 +323,9 @@ public class TransactionService {
         existing.setNotes(transactionData.getNotes());
 
         // Validation happens when saving the existing entity which has all required fields
-        return transactionRepository.save(existing);
+        Transaction saved = transactionRepository.save(existing);
+        changeLogService.record(saved, ChangeType.UPDATED);
+        return saved;
     }
 
     @Transactional
@@ -211,6 +343,7 @@ public class TransactionService {
         }
         transaction.setTransactionTags(newTags);
         transactionRepository.save(transaction);
+        changeLogService.record(transaction, ChangeType.UPDATED);
     }
 
     @Transactional
@@ -279,7 +412,9 @@ public class TransactionService {
         transaction.setPostedBy(postedBy);
 
         Transaction saved = transactionRepository.save(transaction);
-        taxTransactionDetailService.autoPopulateFromTransaction(saved);
+        changeLogService.record(saved, ChangeType.POSTED);
+        outboxService.publish(LedgerChangedEvent.of(saved));
+        outboxService.publish(new TransactionPostedEvent(saved.getId()));
         return saved;
     }
 
@@ -364,6 +499,7 @@ public class TransactionService {
             reversal.setAccount(original.getAccount());
             reversal.setDebitAmount(original.getCreditAmount());
             reversal.setCreditAmount(original.getDebitAmount());
+            reversal.setMemo(original.getMemo());
             reversal.setIsReversal(true);
             reversal.setReversedEntry(original);
 
@@ -376,7 +512,10 @@ public class TransactionService {
         transaction.setVoidedAt(LocalDateTime.now());
         transaction.setVoidedBy(voidedBy);
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.VOIDED);
+        outboxService.publish(LedgerChangedEvent.of(saved));
+        return saved;
     }
 
     @Transactional
@@ -448,6 +587,7 @@ public class TransactionService {
 
         List<UUID> ids = voidedTransactions.stream().map(Transaction::getId).toList();
         log.info("Purging {} voided transactions: {}", ids.size(), ids);
+        voidedTransactions.forEach(tx -> changeLogService.record(tx, ChangeType.DELETED));
 
         // Null out nullable FK references from other tables
         nullOutForeignKeyReferences(ids);
@@ -527,6 +667,7 @@ public class TransactionService {
             draftTransactionRepository.save(draft);
         });
 
+        changeLogService.record(transaction, ChangeType.DELETED);
         transactionRepository.delete(transaction);
     }
 
@@ -605,7 +746,9 @@ public class TransactionService {
         transaction.setCreatedBy(createdBy);
 
         journalTemplateService.recordUsage(template.getId());
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     @Transactional
@@ -638,7 +781,9 @@ public class TransactionService {
         }
 
         journalTemplateService.recordUsage(template.getId());
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        changeLogService.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     @Transactional
@@ -659,7 +804,8 @@ public class TransactionService {
 
         journalTemplateService.recordUsage(template.getId());
         Transaction saved = transactionRepository.save(transaction);
-        
+        changeLogService.record(saved, ChangeType.CREATED);
+
         // Link the document from draft to transaction
         if (draft.getDocument() != null) {
             draft.getDocument().setTransaction(saved);
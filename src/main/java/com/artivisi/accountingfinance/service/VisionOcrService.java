@@ -11,7 +11,7 @@ import com.google.protobuf.ByteString;
 import com.artivisi.accountingfinance.config.GoogleCloudVisionConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -19,9 +19,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * OCR backed by Google Cloud Vision. Not created when {@code app.ocr.backend=local},
+ * so only one {@link OcrService} bean exists.
+ */
 @Service
-@ConditionalOnProperty(name = "google.cloud.vision.enabled", havingValue = "true")
-public class VisionOcrService {
+@ConditionalOnExpression("${google.cloud.vision.enabled:false} and '${app.ocr.backend:}' != 'local'")
+public class VisionOcrService implements OcrService {
 
     private static final Logger log = LoggerFactory.getLogger(VisionOcrService.class);
 
@@ -33,16 +37,7 @@ public class VisionOcrService {
         this.config = config;
     }
 
-    public record OcrResult(String text, boolean success, String errorMessage) {
-        public static OcrResult success(String text) {
-            return new OcrResult(text, true, null);
-        }
-
-        public static OcrResult error(String message) {
-            return new OcrResult(null, false, message);
-        }
-    }
-
+    @Override
     public OcrResult extractText(byte[] imageBytes) {
         if (!config.isEnabled() || imageAnnotatorClient == null) {
             return OcrResult.error("Google Cloud Vision is not enabled");
@@ -92,6 +87,7 @@ public class VisionOcrService {
         return extractText(imageBytes);
     }
 
+    @Override
     public boolean isEnabled() {
         return config.isEnabled() && imageAnnotatorClient != null;
     }
@@ -0,0 +1,39 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+import java.util.UUID;
+
+/**
+ * Receipt steps already finished by earlier attempts of one Telegram update.
+ * The queue loads it from the job before each attempt and stores it back after,
+ * so a retry skips the processing notice and reuses the stored photo.
+ */
+public final class IngestProgress {
+
+    private boolean noticeSent;
+    private UUID documentId;
+
+    public IngestProgress() {
+    }
+
+    public IngestProgress(boolean noticeSent, UUID documentId) {
+        this.noticeSent = noticeSent;
+        this.documentId = documentId;
+    }
+
+    public boolean isNoticeSent() {
+        return noticeSent;
+    }
+
+    public void markNoticeSent() {
+        this.noticeSent = true;
+    }
+
+    /** Id of the document holding the receipt photo, or null if not stored yet. */
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(UUID documentId) {
+        this.documentId = documentId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.artivisi.accountingfinance.service.telegram;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time spent in each stage of processing one Telegram update. Filled in by the
+ * services the update passes through; not thread-safe, one per update.
+ */
+public final class IngestTimings {
+
+    public enum Stage {
+        QUEUE_WAIT, DOWNLOAD, STORE, OCR, PARSE, DRAFT, TOTAL
+    }
+
+    private final Map<Stage, Long> millis = new EnumMap<>(Stage.class);
+
+    /** Records the time since {@code startNanos}, a {@link System#nanoTime()} value. */
+    public void record(Stage stage, long startNanos) {
+        recordMillis(stage, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public void recordMillis(Stage stage, long elapsedMillis) {
+        millis.merge(stage, Math.max(0, elapsedMillis), Long::sum);
+    }
+
+    public Map<Stage, Long> asMap() {
+        return Collections.unmodifiableMap(millis);
+    }
+
+    /** Stage names to milliseconds, in stage order, for storing with the job. */
+    public Map<String, Long> toNamedMap() {
+        Map<String, Long> named = new LinkedHashMap<>();
+        millis.forEach((stage, value) -> named.put(stage.name().toLowerCase(Locale.ROOT), value));
+        return named;
+    }
+}
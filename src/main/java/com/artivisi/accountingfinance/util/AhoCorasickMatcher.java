@@ -0,0 +1,123 @@
+package com.artivisi.accountingfinance.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+
+/**
+ * Case-insensitive multi-pattern substring matcher (Aho-Corasick automaton).
+ *
+ * Finds which of many patterns occur in a text in a single pass over the text,
+ * regardless of the number of patterns. When several patterns occur, the one
+ * added first wins, so callers add patterns in priority order. Instances are
+ * immutable and safe to share between threads.
+ */
+public final class AhoCorasickMatcher<T> {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final Node root;
+    private final List<T> values;
+
+    private AhoCorasickMatcher(Node root, List<T> values) {
+        this.root = root;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Value of the highest-priority pattern occurring anywhere in the text.
+     */
+    public Optional<T> firstMatch(String text) {
+        if (text == null || values.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int best = NO_MATCH;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            while (node != root && !node.next.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.next.getOrDefault(c, root);
+            best = Math.min(best, node.best);
+        }
+        return best == NO_MATCH ? Optional.empty() : Optional.of(values.get(best));
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public static final class Builder<T> {
+        private final Node root = new Node();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a pattern; blank patterns are ignored.
+         */
+        public Builder<T> add(String pattern, T value) {
+            if (pattern == null || pattern.isEmpty()) {
+                return this;
+            }
+            Node node = root;
+            for (char c : pattern.toLowerCase(Locale.ROOT).toCharArray()) {
+                node = node.next.computeIfAbsent(c, _ -> new Node());
+            }
+            if (node.own == NO_MATCH) {
+                node.own = values.size();
+                values.add(value);
+            }
+            return this;
+        }
+
+        public AhoCorasickMatcher<T> build() {
+            // Breadth-first so every fail target is complete before it is used
+            root.fail = root;
+            root.best = root.own;
+            Queue<Node> queue = new ArrayDeque<>();
+            for (Node child : root.next.values()) {
+                child.fail = root;
+                child.best = child.own;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                for (Map.Entry<Character, Node> edge : node.next.entrySet()) {
+                    char c = edge.getKey();
+                    Node child = edge.getValue();
+                    Node fail = node.fail;
+                    while (fail != root && !fail.next.containsKey(c)) {
+                        fail = fail.fail;
+                    }
+                    Node target = fail.next.get(c);
+                    child.fail = target != null && target != child ? target : root;
+                    child.best = Math.min(child.own, child.fail.best);
+                    queue.add(child);
+                }
+            }
+            return new AhoCorasickMatcher<>(root, List.copyOf(values));
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private Node fail;
+        // Index of the pattern ending exactly here, and the best one ending here or along the fail chain
+        private int own = NO_MATCH;
+        private int best = NO_MATCH;
+    }
+}
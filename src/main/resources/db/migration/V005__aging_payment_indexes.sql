@@ -0,0 +1,6 @@
+-- V005: Aging Report Indexes
+-- Aging snapshots sum payments per document up to an as-of date.
+-- Covering indexes let that aggregate run as an index-only scan.
+
+CREATE INDEX idx_invoice_payments_invoice_date ON invoice_payments(id_invoice, payment_date) INCLUDE (amount);
+CREATE INDEX idx_bill_payments_bill_date ON bill_payments(id_bill, payment_date) INCLUDE (amount);
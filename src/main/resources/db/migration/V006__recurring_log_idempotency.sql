@@ -0,0 +1,9 @@
+-- V006: Recurring Transaction Run Idempotency
+-- A successful run is keyed by (recurring transaction, scheduled date) so a
+-- crashed or overlapping scheduler run cannot post the same occurrence twice.
+
+ALTER TABLE recurring_transaction_logs ADD COLUMN idempotency_key VARCHAR(100);
+
+CREATE UNIQUE INDEX uk_recurring_logs_idempotency_key
+    ON recurring_transaction_logs(idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
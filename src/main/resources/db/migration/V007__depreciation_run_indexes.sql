@@ -0,0 +1,4 @@
+-- V007: Depreciation Run Indexes
+-- Monthly generation anti-joins active assets against existing entries for the period.
+
+CREATE INDEX idx_depreciation_entries_asset_period_end ON depreciation_entries(id_fixed_asset, period_end);
@@ -0,0 +1,11 @@
+-- V008: Transaction Search Trigram Indexes
+-- Substring search (ILIKE '%term%') and similarity ranking over transaction
+-- number, description, reference and journal number use GIN trigram indexes
+-- instead of scanning the whole table.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_trx_number_trgm ON transactions USING GIN (transaction_number gin_trgm_ops);
+CREATE INDEX idx_trx_description_trgm ON transactions USING GIN (description gin_trgm_ops);
+CREATE INDEX idx_trx_reference_trgm ON transactions USING GIN (reference_number gin_trgm_ops);
+CREATE INDEX idx_je_number_trgm ON journal_entries USING GIN (journal_number gin_trgm_ops);
@@ -0,0 +1,30 @@
+-- V009: Telegram Update Queue
+-- The webhook stores each update here and returns at once; a worker pool
+-- processes the jobs. update_id is unique so Telegram's webhook retries do not
+-- create a second job (and a second draft) for the same receipt.
+
+CREATE TABLE telegram_update_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    update_id BIGINT NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    last_error VARCHAR(500),
+    stage_timings JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_telegram_update_jobs_update_id UNIQUE (update_id),
+    CONSTRAINT chk_telegram_update_jobs_status CHECK (status IN ('PENDING', 'PROCESSING', 'DONE', 'FAILED'))
+);
+
+-- Workers only look at open jobs; finished jobs stay until purged
+CREATE INDEX idx_telegram_update_jobs_open
+    ON telegram_update_jobs(available_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_telegram_update_jobs_completed
+    ON telegram_update_jobs(completed_at)
+    WHERE status = 'DONE';
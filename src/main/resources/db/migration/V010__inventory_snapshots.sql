@@ -0,0 +1,19 @@
+-- V010: Inventory Snapshots
+-- Per-product quantity and cost as of a month end, written when the fiscal
+-- period is closed. Valuation for a past date starts from the nearest earlier
+-- snapshot and adds only the movements after it, instead of replaying the whole
+-- inventory_transactions history. Snapshots on or after the date of a
+-- backdated movement are deleted and written again at the next close.
+
+CREATE TABLE inventory_snapshots (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    snapshot_date DATE NOT NULL,
+    id_product UUID NOT NULL REFERENCES products(id),
+    quantity DECIMAL(15, 4) NOT NULL,
+    total_cost DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_inventory_snapshots_date_product UNIQUE (snapshot_date, id_product)
+);
+
+CREATE INDEX idx_inventory_snapshots_product ON inventory_snapshots(id_product);
@@ -0,0 +1,8 @@
+-- V011: FIFO Layer Lookup
+-- Sales read the available layers of one product in FIFO order and stop once
+-- the sold quantity is covered. Consumed layers stay in the table for history,
+-- so index only the ones that still hold stock, in the order they are used.
+
+CREATE INDEX idx_fifo_layers_available
+    ON inventory_fifo_layers(id_product, layer_date, created_at, id)
+    WHERE fully_consumed = false AND remaining_quantity > 0;
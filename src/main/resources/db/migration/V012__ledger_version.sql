@@ -0,0 +1,8 @@
+-- V012: Ledger Version
+-- Advanced after every commit that changes posted journal totals (post, void,
+-- fiscal year closing, data import). The analysis API derives its ETags and
+-- report cache keys from it, so polling clients get 304 Not Modified until the
+-- ledger actually changes. A sequence rather than a counter row, so bumping it
+-- never waits on another transaction's lock and the value survives restarts.
+
+CREATE SEQUENCE ledger_version_seq;
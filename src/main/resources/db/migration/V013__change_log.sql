@@ -0,0 +1,20 @@
+-- V013: Change Log
+-- One row per change to a transaction, invoice, bill or payment, written in the
+-- same database transaction as the change, read by the analysis change feed.
+-- seq alone is not commit order: a row with a lower seq can commit after a
+-- consumer has already read past a higher one. Rows are therefore read in
+-- (txid, seq) order and only from transactions older than every transaction
+-- still running, so a cursor never skips a row that commits later.
+
+CREATE TABLE change_log (
+    seq BIGSERIAL PRIMARY KEY,
+    txid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id UUID NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    reference VARCHAR(100),
+    status VARCHAR(30),
+    changed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_change_log_txid_seq ON change_log(txid, seq);
@@ -0,0 +1,23 @@
+-- V014: API Idempotency Keys
+-- A POST to a transaction-creating API endpoint may carry an Idempotency-Key
+-- header. The first request with a key claims it here and stores its response;
+-- a retry with the same key gets that response back instead of creating a
+-- second draft or posting. Only a hash of the request is kept, to detect a key
+-- reused for a different request. Rows expire: a claim whose request never
+-- finished after a short lease, a stored response after the retention period.
+
+CREATE TABLE idempotency_keys (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    principal VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_status INTEGER,
+    response_body JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_idempotency_keys_principal_key UNIQUE (principal, idempotency_key),
+    CONSTRAINT chk_idempotency_keys_status CHECK (status IN ('PROCESSING', 'COMPLETED'))
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,30 @@
+-- V015: Domain Event Outbox
+-- Services store each domain event (posting, voiding, invoice payment, ...)
+-- here in the transaction that caused it, so an event exists exactly when its
+-- change is committed. After commit a worker pool delivers the events to their
+-- listeners, retrying failures; slow secondary work such as tax detail
+-- auto-population thus stays out of the posting transaction.
+
+CREATE TABLE outbox_events (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    event_type VARCHAR(100) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT chk_outbox_events_status CHECK (status IN ('PENDING', 'PROCESSING', 'DONE', 'FAILED'))
+);
+
+-- Workers only look at open events; delivered events stay until purged
+CREATE INDEX idx_outbox_events_open
+    ON outbox_events(available_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+CREATE INDEX idx_outbox_events_completed
+    ON outbox_events(completed_at)
+    WHERE status = 'DONE';
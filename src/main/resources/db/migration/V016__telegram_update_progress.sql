@@ -0,0 +1,8 @@
+-- V016: Telegram Update Progress
+-- A job that fails transiently is retried from the start. These columns record
+-- the steps an earlier attempt already finished, so a retry does not send the
+-- processing notice again or store the receipt photo a second time.
+
+ALTER TABLE telegram_update_jobs
+    ADD COLUMN notice_sent BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN id_document UUID REFERENCES documents(id);
@@ -0,0 +1,6 @@
+-- V017: Journal Line Memo
+-- A short note per journal line. Consolidated journals carry several lines on
+-- the same accounts (e.g. one depreciation pair per asset); the memo tells
+-- which item each line belongs to.
+
+ALTER TABLE journal_entries ADD COLUMN memo VARCHAR(500);
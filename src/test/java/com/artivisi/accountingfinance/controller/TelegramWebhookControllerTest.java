@@ -2,7 +2,7 @@ package com.artivisi.accountingfinance.controller;
 
 import com.artivisi.accountingfinance.config.TelegramConfig;
 import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
-import com.artivisi.accountingfinance.service.TelegramBotService;
+import com.artivisi.accountingfinance.service.TelegramUpdateQueueService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -27,10 +27,30 @@ class TelegramWebhookControllerTest {
 
     private static final String TEST_SECRET_TOKEN = "test-secret-token-12345";
 
+    private static final String START_UPDATE_JSON = """
+            {
+                "update_id": 123456789,
+                "message": {
+                    "message_id": 1,
+                    "from": {
+                        "id": 123456,
+                        "is_bot": false,
+                        "first_name": "John"
+                    },
+                    "chat": {
+                        "id": 123456,
+                        "type": "private"
+                    },
+                    "date": 1609459200,
+                    "text": "/start"
+                }
+            }
+            """;
+
     private MockMvc mockMvc;
 
     @Mock
-    private TelegramBotService telegramBotService;
+    private TelegramUpdateQueueService updateQueueService;
 
     @Mock
     private TelegramConfig telegramConfig;
@@ -43,8 +63,9 @@ class TelegramWebhookControllerTest {
         webhookConfig.setSecretToken(TEST_SECRET_TOKEN);
         when(telegramConfig.getWebhook()).thenReturn(webhookConfig);
         when(telegramConfig.isEnabled()).thenReturn(true);
+        lenient().when(updateQueueService.enqueue(any())).thenReturn(true);
 
-        TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, telegramConfig);
+        TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, telegramConfig);
         controller.validateSecurityConfiguration();
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
@@ -86,8 +107,8 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        // Verify the service was called
-        verify(telegramBotService).handleUpdate(any());
+        // Verify the update was queued
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -143,7 +164,7 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -186,7 +207,7 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
@@ -280,42 +301,47 @@ class TelegramWebhookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("OK"));
 
-        verify(telegramBotService).handleUpdate(any());
+        verify(updateQueueService).enqueue(any());
     }
 
     @Test
-    @DisplayName("Should handle service exception gracefully")
-    void shouldHandleServiceException() throws Exception {
-        // Mock service to throw exception
-        doThrow(new RuntimeException("Service error")).when(telegramBotService).handleUpdate(any());
+    @DisplayName("Should acknowledge a retried update without queueing it again")
+    void shouldAcknowledgeDuplicateUpdate() throws Exception {
+        when(updateQueueService.enqueue(any())).thenReturn(false);
 
-        String telegramJson = """
-                {
-                    "update_id": 123456789,
-                    "message": {
-                        "message_id": 1,
-                        "from": {
-                            "id": 123456,
-                            "is_bot": false,
-                            "first_name": "John"
-                        },
-                        "chat": {
-                            "id": 123456,
-                            "type": "private"
-                        },
-                        "date": 1609459200,
-                        "text": "/start"
-                    }
-                }
-                """;
+        mockMvc.perform(post("/api/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Telegram-Bot-Api-Secret-Token", TEST_SECRET_TOKEN)
+                        .content(START_UPDATE_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Duplicate"));
+    }
+
+    @Test
+    @DisplayName("Should ask Telegram to retry when the update cannot be queued")
+    void shouldAskForRetryWhenQueueFails() throws Exception {
+        when(updateQueueService.enqueue(any())).thenThrow(new RuntimeException("Database unavailable"));
 
-        // Should still return 200 to prevent Telegram from retrying
+        // Not stored, so let Telegram deliver it again; a retry is deduplicated by update_id
         mockMvc.perform(post("/api/telegram/webhook")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Telegram-Bot-Api-Secret-Token", TEST_SECRET_TOKEN)
-                        .content(telegramJson))
+                        .content(START_UPDATE_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Retry later"));
+    }
+
+    @Test
+    @DisplayName("Should ignore an update without update_id")
+    void shouldIgnoreUpdateWithoutId() throws Exception {
+        mockMvc.perform(post("/api/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Telegram-Bot-Api-Secret-Token", TEST_SECRET_TOKEN)
+                        .content("{}"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Error handled"));
+                .andExpect(content().string("Ignored"));
+
+        verify(updateQueueService, never()).enqueue(any());
     }
 
     @Nested
@@ -332,7 +358,7 @@ class TelegramWebhookControllerTest {
             when(config.isEnabled()).thenReturn(true);
             when(config.getWebhook()).thenReturn(webhook);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             assertThatThrownBy(controller::validateSecurityConfiguration)
                     .isInstanceOf(IllegalStateException.class)
@@ -349,7 +375,7 @@ class TelegramWebhookControllerTest {
             when(config.isEnabled()).thenReturn(true);
             when(config.getWebhook()).thenReturn(webhook);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             assertThatThrownBy(controller::validateSecurityConfiguration)
                     .isInstanceOf(IllegalStateException.class)
@@ -365,7 +391,7 @@ class TelegramWebhookControllerTest {
             TelegramConfig config = mock(TelegramConfig.class);
             when(config.isEnabled()).thenReturn(false);
 
-            TelegramWebhookController controller = new TelegramWebhookController(telegramBotService, config);
+            TelegramWebhookController controller = new TelegramWebhookController(updateQueueService, config);
 
             // Should not throw
             controller.validateSecurityConfiguration();
@@ -97,7 +97,7 @@ class TransactionControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(view().name("transactions/list"))
                     .andExpect(model().attributeExists("transactions", "page", "draftCount",
-                            "statuses", "categories", "templates"));
+                            "statuses", "categories", "projects", "tagsByType"));
         }
 
         @Test
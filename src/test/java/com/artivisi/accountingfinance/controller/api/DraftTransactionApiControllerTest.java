@@ -6,6 +6,8 @@ import com.artivisi.accountingfinance.dto.CreateFromTextRequest;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,7 +20,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
@@ -29,6 +34,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,6 +57,12 @@ class DraftTransactionApiControllerTest {
     @Autowired
     private JournalTemplateRepository journalTemplateRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private ObjectMapper objectMapper = new ObjectMapper();
 
     @org.junit.jupiter.api.BeforeEach
@@ -333,6 +345,83 @@ class DraftTransactionApiControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Idempotency-Key")
+    class IdempotencyKeyTests {
+
+        private final String key = "test-draft-" + UUID.randomUUID();
+
+        @AfterEach
+        void deleteKey() {
+            TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+            newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            newTransaction.executeWithoutResult(status -> entityManager.createNativeQuery(
+                    "DELETE FROM idempotency_keys WHERE idempotency_key = :key")
+                    .setParameter("key", key)
+                    .executeUpdate());
+        }
+
+        @Test
+        @DisplayName("Should return the first draft for a retried receipt")
+        void shouldReplayRetriedReceipt() throws Exception {
+            String requestJson = String.format("""
+                    {
+                        "merchant": "Indomaret",
+                        "amount": 45000,
+                        "transactionDate": "%s",
+                        "currency": "IDR",
+                        "confidence": 0.95,
+                        "source": "claude-code"
+                    }
+                    """, LocalDate.now());
+
+            MvcResult first = mockMvc.perform(post("/api/drafts/from-receipt")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(requestJson))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                    .andReturn();
+            String draftId = objectMapper.readTree(first.getResponse().getContentAsString()).get("draftId").asText();
+
+            mockMvc.perform(post("/api/drafts/from-receipt")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(requestJson))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", "true"))
+                    .andExpect(jsonPath("$.draftId").value(draftId));
+        }
+
+        @Test
+        @DisplayName("Should reject a key reused for a different receipt")
+        void shouldRejectKeyReusedForDifferentReceipt() throws Exception {
+            String receipt = """
+                    {
+                        "merchant": "Indomaret",
+                        "amount": %s,
+                        "transactionDate": "%s",
+                        "currency": "IDR",
+                        "confidence": 0.95,
+                        "source": "claude-code"
+                    }
+                    """;
+
+            mockMvc.perform(post("/api/drafts/from-receipt")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(String.format(receipt, 45000, LocalDate.now())))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(post("/api/drafts/from-receipt")
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(String.format(receipt, 54000, LocalDate.now())))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").exists());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/drafts/templates")
     class ListTemplatesTests {
@@ -0,0 +1,221 @@
+package com.artivisi.accountingfinance.controller.api;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.service.JournalEntryService;
+import com.artivisi.accountingfinance.service.LedgerVersionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the conditional GET support of FinancialAnalysisApiController.
+ * Posting tests commit their journal, since the version only moves after a
+ * commit, and delete it afterwards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "admin", authorities = {"SCOPE_analysis:read"})
+@DisplayName("FinancialAnalysisApiController Integration Tests")
+class FinancialAnalysisApiControllerTest {
+
+    private static final String TRIAL_BALANCE = "/api/analysis/trial-balance?asOfDate=2024-01-31";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private LedgerVersionService ledgerVersionService;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+
+    private final List<UUID> committedTransactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .build();
+    }
+
+    @AfterEach
+    void deleteCommittedJournals() {
+        if (committedTransactionIds.isEmpty()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String sql : new String[]{
+                    "DELETE FROM journal_entries WHERE id_transaction IN :ids",
+                    "DELETE FROM change_log WHERE entity_id IN :ids",
+                    "DELETE FROM transactions WHERE id IN :ids"}) {
+                entityManager.createNativeQuery(sql)
+                        .setParameter("ids", committedTransactionIds)
+                        .executeUpdate();
+            }
+        });
+    }
+
+    @Nested
+    @DisplayName("ETag and If-None-Match")
+    class ConditionalGetTests {
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match with 304 and no body")
+        void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+            String etag = fetchEtag(TRIAL_BALANCE);
+
+            MvcResult result = mockMvc.perform(get(TRIAL_BALANCE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andReturn();
+
+            assertThat(result.getResponse().getContentAsString()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should change the ETag after the ledger changes")
+        void shouldChangeEtagAfterLedgerChange() throws Exception {
+            String etag = fetchEtag(TRIAL_BALANCE);
+
+            ledgerVersionService.onLedgerChanged(new LedgerChangedEvent(LocalDate.of(2024, 1, 15), Set.of()));
+
+            mockMvc.perform(get(TRIAL_BALANCE).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+            assertThat(fetchEtag(TRIAL_BALANCE)).isNotEqualTo(etag);
+        }
+
+        @Test
+        @DisplayName("Should give different parameters different ETags")
+        void shouldDeriveEtagFromParameters() throws Exception {
+            String january = fetchEtag(TRIAL_BALANCE);
+            String february = fetchEtag("/api/analysis/trial-balance?asOfDate=2024-02-29");
+            String withClosing = fetchEtag("/api/analysis/income-statement?startDate=2024-01-01&endDate=2024-12-31");
+            String withoutClosing = fetchEtag(
+                    "/api/analysis/income-statement?startDate=2024-01-01&endDate=2024-12-31&excludeClosing=true");
+
+            assertThat(february).isNotEqualTo(january);
+            assertThat(withoutClosing).isNotEqualTo(withClosing);
+        }
+
+        @Test
+        @DisplayName("Should serve every ledger report with an ETag")
+        void shouldSetEtagOnLedgerReports() throws Exception {
+            for (String url : new String[]{
+                    "/api/analysis/snapshot?month=2024-01",
+                    "/api/analysis/balance-sheet?asOfDate=2024-01-31",
+                    "/api/analysis/cash-flow?startDate=2024-01-01&endDate=2024-01-31",
+                    "/api/analysis/tax-summary?startDate=2024-01-01&endDate=2024-01-31"}) {
+                String etag = fetchEtag(url);
+                mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Posting and voiding")
+    class LedgerChangeTests {
+
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should change the trial balance ETag after a post and after its void")
+        void shouldChangeEtagAfterPostAndVoid() throws Exception {
+            String url = "/api/analysis/trial-balance?asOfDate=" + LocalDate.now();
+            Transaction journal = journalEntryService.create(journalHeader(), balancedEntries());
+            committedTransactionIds.add(journal.getId());
+            String journalNumber = journal.getJournalEntries().getFirst().getJournalNumber();
+            String draft = fetchEtag(url);
+
+            journalEntryService.post(journalNumber);
+            String posted = fetchEtag(url);
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, draft))
+                    .andExpect(status().isOk());
+
+            journalEntryService.voidEntry(journalNumber, "Salah input");
+            String voided = fetchEtag(url);
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, posted))
+                    .andExpect(status().isOk());
+
+            assertThat(posted).isNotEqualTo(draft);
+            assertThat(voided).isNotEqualTo(posted).isNotEqualTo(draft);
+        }
+    }
+
+    private Transaction journalHeader() {
+        Transaction header = new Transaction();
+        header.setTransactionDate(LocalDate.now());
+        header.setDescription("Ledger version journal");
+        return header;
+    }
+
+    private List<JournalEntry> balancedEntries() {
+        ChartOfAccount cash = chartOfAccountRepository.findByAccountCode("1.1.01").orElseThrow();
+        ChartOfAccount revenue = chartOfAccountRepository.findByAccountCode("4.1.01").orElseThrow();
+
+        JournalEntry debit = new JournalEntry();
+        debit.setAccount(cash);
+        debit.setDebitAmount(new BigDecimal("1000000"));
+        debit.setCreditAmount(BigDecimal.ZERO);
+
+        JournalEntry credit = new JournalEntry();
+        credit.setAccount(revenue);
+        credit.setDebitAmount(BigDecimal.ZERO);
+        credit.setCreditAmount(new BigDecimal("1000000"));
+        return new ArrayList<>(List.of(debit, credit));
+    }
+
+    private String fetchEtag(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(result.getResponse().getHeaders(HttpHeaders.ETAG)).hasSize(1);
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,78 @@
+package com.artivisi.accountingfinance.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Buffers rows for one table and loads them with {@code COPY ... FROM STDIN}.
+ *
+ * COPY skips per-row parse, plan and round trip, which makes it an order of
+ * magnitude faster than batched inserts for millions of journal lines. Rows are
+ * only sent on {@link #flush()}, so the caller controls the order tables are
+ * loaded in and foreign keys always point at rows that are already there.
+ */
+final class CsvCopy {
+
+    private final CopyManager copyManager;
+    private final String sql;
+    private final StringBuilder buffer = new StringBuilder(1 << 20);
+    private int pending;
+    private long total;
+
+    CsvCopy(Connection connection, String table, String columns) throws SQLException {
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.sql = "COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    /**
+     * Append one row. {@code null} becomes SQL NULL, strings are quoted, decimals are
+     * written without exponent and everything else with {@code toString()}.
+     */
+    void row(Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        pending++;
+        total++;
+    }
+
+    void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            copyManager.copyIn(sql, new StringReader(buffer.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+        buffer.setLength(0);
+        pending = 0;
+    }
+
+    long total() {
+        return total;
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String s) {
+            buffer.append('"').append(s.replace("\"", "\"\"")).append('"');
+        } else if (value instanceof BigDecimal decimal) {
+            buffer.append(decimal.toPlainString());
+        } else {
+            buffer.append(value);
+        }
+    }
+}
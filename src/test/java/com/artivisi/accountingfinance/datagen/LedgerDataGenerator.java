@@ -0,0 +1,852 @@
+package com.artivisi.accountingfinance.datagen;
+
+import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.entity.PtkpStatus;
+import com.artivisi.accountingfinance.service.BpjsCalculationService;
+import com.artivisi.accountingfinance.service.FormulaEvaluator;
+import com.artivisi.accountingfinance.service.Pph21CalculationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Generates a multi-year ledger for load and scale testing on top of the chart
+ * of accounts and journal templates already in the database.
+ *
+ * <ul>
+ *   <li>Transactions use the active journal templates whose lines all have an
+ *       account and whose formulas only need {@code amount}. Lines are evaluated
+ *       with {@link FormulaEvaluator}, so PPN and withholding splits are real.</li>
+ *   <li>Invoices have lines and PPN; paid ones have a payment and an income transaction.</li>
+ *   <li>Payroll runs are posted monthly with {@code Post Gaji Bulanan}, using TER PPh 21
+ *       and BPJS from the calculation services. Periods that already exist are skipped.</li>
+ *   <li>Inventory purchases and sales keep running balances, weighted average or FIFO,
+ *       and end with matching balances and FIFO layers.</li>
+ *   <li>Each month gets a bank statement for the busiest bank account mirroring its
+ *       book entries, plus bank-only admin fees, all unmatched.</li>
+ * </ul>
+ *
+ * Rows are loaded with COPY on the caller's connection: inside a test transaction
+ * they roll back with it, from {@link #main(String[])} they are committed at the end.
+ * Codes and numbers carry a random run id so the generator can run repeatedly on one
+ * database.
+ */
+public class LedgerDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerDataGenerator.class);
+
+    static final String GENERATED_BY = "generator";
+    private static final String PAYROLL_TEMPLATE_NAME = "Post Gaji Bulanan";
+    private static final BigDecimal PPN_RATE = new BigDecimal("11");
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal BANK_ADMIN_FEE = new BigDecimal("15000.00");
+    private static final long DEFAULT_MIN_AMOUNT = 100_000L;
+    private static final long DEFAULT_MAX_AMOUNT = 50_000_000L;
+
+    private static final String[] COUNTERPARTIES = {
+            "PT Sumber Makmur", "CV Maju Jaya", "Tokopedia", "Shopee", "AWS", "Google Cloud",
+            "Telkomsel", "PLN", "Indihome", "PT Kreasi Digital", "Universitas Nusantara",
+            "PT Bank Mandiri", "Gojek", "Grab", "PT Solusi Prima", "Koperasi Sejahtera"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Budi", "Siti", "Agus", "Dewi", "Rudi", "Rina", "Andi", "Maya", "Eko", "Wulan", "Hendra", "Ayu"
+    };
+    private static final String[] LAST_NAMES = {
+            "Santoso", "Wijaya", "Pratama", "Lestari", "Hidayat", "Saputra", "Kusuma", "Nugroho"
+    };
+    private static final PtkpStatus[] PTKP = {
+            PtkpStatus.TK_0, PtkpStatus.TK_1, PtkpStatus.K_0, PtkpStatus.K_1, PtkpStatus.K_2
+    };
+
+    private final DataSource dataSource;
+    private final FormulaEvaluator formulaEvaluator = new FormulaEvaluator();
+    private final Pph21CalculationService pph21CalculationService = new Pph21CalculationService();
+    private final BpjsCalculationService bpjsCalculationService = new BpjsCalculationService();
+
+    public LedgerDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Generate {@code volume} on the connection bound to the current transaction,
+     * or a new one when there is none.
+     */
+    public Result generate(LedgerVolume volume) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return new Run(connection, volume).execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Ledger generation failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Load a ledger into an existing database, for example a staging copy:
+     * <pre>
+     * ./mvnw -Pbenchmark test-compile exec:java@ledger-data \
+     *     -Dledger.url=jdbc:postgresql://localhost/accountingdb -Dledger.user=... -Dledger.password=... \
+     *     -Dledger.volume=production -Dledger.months=24
+     * </pre>
+     * The schema must be migrated and have a chart of accounts and templates,
+     * e.g. from an industry seed pack. Everything is committed in one transaction.
+     */
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("ledger.url", "jdbc:postgresql://localhost:5432/accountingdb");
+        LedgerVolume volume = LedgerVolume.fromSystemProperties(LedgerVolume.small());
+        try (SingleConnectionDataSource ds = new SingleConnectionDataSource(url,
+                System.getProperty("ledger.user", "accounting"),
+                System.getProperty("ledger.password", "accounting"), true)) {
+            ds.setAutoCommit(false);
+            Result result = new LedgerDataGenerator(ds).generate(volume);
+            try (Connection connection = ds.getConnection()) {
+                connection.commit();
+            }
+            log.info("Generated {}", result);
+        }
+    }
+
+    /**
+     * What was generated. {@code bankAccountId} is the chart of accounts id of the
+     * bank account the statements were generated for, null when there is none.
+     */
+    public record Result(
+            String runId,
+            LocalDate firstDate,
+            LocalDate lastDate,
+            long transactions,
+            long journalEntries,
+            long invoices,
+            long payrollRuns,
+            long inventoryMovements,
+            long bankStatementItems,
+            UUID bankAccountId,
+            Duration elapsed
+    ) {}
+
+    record TemplateLine(UUID accountId, String accountCode, boolean debit, String formula) {}
+
+    record Template(UUID id, String name, String category, long minAmount, long maxAmount,
+                    List<TemplateLine> lines) {}
+
+    record Posting(UUID accountId, BigDecimal debit, BigDecimal credit) {}
+
+    record BankLine(LocalDate date, String description, BigDecimal moneyIn, BigDecimal moneyOut) {}
+
+    record Employee(UUID id, BigDecimal salary, PtkpStatus ptkpStatus) {}
+
+    record Product(UUID id, boolean fifo, BigDecimal baseCost, BigDecimal sellingPrice) {}
+
+    /** A FIFO layer, mutable while sales consume it. */
+    static final class Layer {
+        final UUID id;
+        final UUID inventoryTransactionId;
+        final LocalDate date;
+        final BigDecimal original;
+        final BigDecimal unitCost;
+        BigDecimal remaining;
+
+        Layer(UUID inventoryTransactionId, LocalDate date, BigDecimal quantity, BigDecimal unitCost) {
+            this.id = UUID.randomUUID();
+            this.inventoryTransactionId = inventoryTransactionId;
+            this.date = date;
+            this.original = quantity;
+            this.remaining = quantity;
+            this.unitCost = unitCost;
+        }
+    }
+
+    /** Running stock of one product. */
+    static final class Stock {
+        BigDecimal quantity = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        LocalDate lastDate;
+        final Deque<Layer> open = new ArrayDeque<>();
+        final List<Layer> all = new ArrayList<>();
+
+        BigDecimal averageCost() {
+            return quantity.signum() == 0 ? BigDecimal.ZERO : totalCost.divide(quantity, 4, RoundingMode.HALF_UP);
+        }
+    }
+
+    private final class Run {
+
+        private final Connection connection;
+        private final LedgerVolume volume;
+        private final Random random;
+        private final String runId = UUID.randomUUID().toString().substring(0, 4).toUpperCase(Locale.ROOT);
+        private final LocalDate today = LocalDate.now();
+
+        private final CsvCopy transactions;
+        private final CsvCopy journalEntries;
+        private final CsvCopy clientRows;
+        private final CsvCopy invoices;
+        private final CsvCopy invoiceLines;
+        private final CsvCopy invoicePayments;
+        private final CsvCopy employeeRows;
+        private final CsvCopy payrollRuns;
+        private final CsvCopy payrollDetails;
+        private final CsvCopy productRows;
+        private final CsvCopy inventoryTransactions;
+        private final CsvCopy fifoLayers;
+        private final CsvCopy inventoryBalances;
+        private final CsvCopy bankStatements;
+        private final CsvCopy bankStatementItems;
+
+        private List<Template> pool;
+        private List<Template> incomePool;
+        private Template payrollTemplate;
+        private UUID bankAccountId;
+        private UUID companyBankAccountId;
+        private UUID parserConfigId;
+        private final List<UUID> clients = new ArrayList<>();
+        private final List<Employee> employees = new ArrayList<>();
+        private final List<Product> products = new ArrayList<>();
+        private final Map<UUID, Stock> stock = new HashMap<>();
+        private final Map<YearMonth, List<BankLine>> bankLines = new HashMap<>();
+        private BigDecimal bankBalance = BigDecimal.ZERO;
+        private long transactionSeq;
+        private long payrollRunCount;
+
+        Run(Connection connection, LedgerVolume volume) throws SQLException {
+            this.connection = connection;
+            this.volume = volume;
+            this.random = new Random(volume.seed());
+            this.transactions = copy("transactions", "id, transaction_number, transaction_date, id_journal_template, "
+                    + "amount, description, reference_number, status, posted_at, posted_by, created_by");
+            this.journalEntries = copy("journal_entries", "id, journal_number, posted_at, id_transaction, id_account, "
+                    + "debit_amount, credit_amount, created_by");
+            this.clientRows = copy("clients", "id, code, name, email, active");
+            this.invoices = copy("invoices", "id, invoice_number, id_client, invoice_date, due_date, amount, "
+                    + "tax_amount, status, sent_at, paid_at, id_transaction");
+            this.invoiceLines = copy("invoice_lines", "id, id_invoice, description, quantity, unit_price, tax_rate, "
+                    + "tax_amount, amount, line_order");
+            this.invoicePayments = copy("invoice_payments", "id, id_invoice, payment_date, amount, payment_method, "
+                    + "reference_number");
+            this.employeeRows = copy("employees", "id, employee_id, name, ptkp_status, hire_date, job_title, department");
+            this.payrollRuns = copy("payroll_runs", "id, payroll_period, period_start, period_end, status, total_gross, "
+                    + "total_deductions, total_net_pay, total_company_bpjs, total_pph21, employee_count, "
+                    + "id_transaction, posted_at");
+            this.payrollDetails = copy("payroll_details", "id, id_payroll_run, id_employee, base_salary, gross_salary, "
+                    + "bpjs_kes_company, bpjs_kes_employee, bpjs_jkk, bpjs_jkm, bpjs_jht_company, bpjs_jht_employee, "
+                    + "bpjs_jp_company, bpjs_jp_employee, pph21, total_deductions, net_pay, jkk_risk_class");
+            this.productRows = copy("products", "id, code, name, unit, costing_method, selling_price, active");
+            this.inventoryTransactions = copy("inventory_transactions", "id, id_product, transaction_type, "
+                    + "transaction_date, quantity, unit_cost, total_cost, unit_price, reference_number, balance_after, "
+                    + "total_cost_after, created_by");
+            this.fifoLayers = copy("inventory_fifo_layers", "id, id_product, id_inventory_transaction, layer_date, "
+                    + "original_quantity, remaining_quantity, unit_cost, fully_consumed");
+            this.inventoryBalances = copy("inventory_balances", "id, id_product, quantity, total_cost, average_cost, "
+                    + "last_transaction_date");
+            this.bankStatements = copy("bank_statements", "id, id_bank_account, id_parser_config, "
+                    + "statement_period_start, statement_period_end, opening_balance, closing_balance, "
+                    + "original_filename, total_items, total_debit, total_credit, imported_at, imported_by");
+            this.bankStatementItems = copy("bank_statement_items", "id, id_bank_statement, line_number, "
+                    + "transaction_date, description, debit_amount, credit_amount, balance, match_status");
+        }
+
+        Result execute() throws SQLException {
+            long started = System.nanoTime();
+            loadTemplates();
+            Set<String> existingPeriods = existingPayrollPeriods();
+            createMasterData();
+
+            YearMonth current = YearMonth.from(today);
+            YearMonth first = current.minusMonths(volume.months() - 1L);
+            for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+                generateTransactions(month);
+                generateInvoices(month);
+                if (month.isBefore(current) && !existingPeriods.contains(month.toString())) {
+                    generatePayroll(month);
+                }
+                generateInventory(month);
+                generateBankStatement(month);
+                flushMonth();
+            }
+            finishInventory();
+            analyze();
+
+            Result result = new Result(runId, first.atDay(1), today, transactions.total(), journalEntries.total(),
+                    invoices.total(), payrollRunCount, inventoryTransactions.total(), bankStatementItems.total(),
+                    bankAccountId, Duration.ofNanos(System.nanoTime() - started));
+            log.info("Generated ledger {}: {} transactions, {} journal entries in {} ms", runId,
+                    result.transactions(), result.journalEntries(), result.elapsed().toMillis());
+            return result;
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Templates and master data
+        // ----------------------------------------------------------------------------------------
+
+        private void loadTemplates() throws SQLException {
+            Map<UUID, Template> templates = new LinkedHashMap<>();
+            Set<UUID> incomplete = new HashSet<>();
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("""
+                         SELECT t.id, t.template_name, t.category, t.typical_amount_min, t.typical_amount_max,
+                                l.id_account, a.account_code, l.position, l.formula
+                         FROM journal_templates t
+                         JOIN journal_template_lines l ON l.id_journal_template = t.id AND l.deleted_at IS NULL
+                         LEFT JOIN chart_of_accounts a ON a.id = l.id_account
+                         WHERE t.active AND t.is_current_version AND t.deleted_at IS NULL
+                         ORDER BY t.template_name, t.id, l.line_order
+                         """)) {
+                while (rs.next()) {
+                    UUID id = rs.getObject(1, UUID.class);
+                    Template template = templates.get(id);
+                    if (template == null) {
+                        BigDecimal min = rs.getBigDecimal(4);
+                        BigDecimal max = rs.getBigDecimal(5);
+                        template = new Template(id, rs.getString(2), rs.getString(3),
+                                min != null ? min.longValue() : DEFAULT_MIN_AMOUNT,
+                                max != null ? max.longValue() : DEFAULT_MAX_AMOUNT,
+                                new ArrayList<>());
+                        templates.put(id, template);
+                    }
+                    UUID accountId = rs.getObject(6, UUID.class);
+                    if (accountId == null) {
+                        incomplete.add(id);
+                    }
+                    template.lines().add(new TemplateLine(accountId, rs.getString(7),
+                            "DEBIT".equals(rs.getString(8)), rs.getString(9)));
+                }
+            }
+
+            pool = new ArrayList<>();
+            for (Template template : templates.values()) {
+                if (PAYROLL_TEMPLATE_NAME.equals(template.name())) {
+                    payrollTemplate = incomplete.contains(template.id()) ? null : template;
+                } else if (!incomplete.contains(template.id()) && template.lines().size() >= 2
+                        && template.maxAmount() >= template.minAmount()
+                        && post(template, FormulaContext.of(BigDecimal.valueOf(1_000_000L))) != null) {
+                    pool.add(template);
+                }
+            }
+            if (pool.isEmpty()) {
+                throw new IllegalStateException("No journal template usable for generation. "
+                        + "Load a chart of accounts and templates first, e.g. from an industry seed pack.");
+            }
+            incomePool = pool.stream().filter(t -> "INCOME".equals(t.category())).toList();
+            bankAccountId = busiestBankAccount();
+            log.info("Generating from {} templates, bank account {}", pool.size(), bankAccountId);
+        }
+
+        /** The cash or bank account ({@code 1.1.0x}) used by the most template lines. */
+        private UUID busiestBankAccount() {
+            Map<UUID, Integer> uses = new HashMap<>();
+            for (Template template : pool) {
+                for (TemplateLine line : template.lines()) {
+                    if (line.accountCode() != null && line.accountCode().startsWith("1.1.0")) {
+                        uses.merge(line.accountId(), 1, Integer::sum);
+                    }
+                }
+            }
+            return uses.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+
+        private Set<String> existingPayrollPeriods() throws SQLException {
+            Set<String> periods = new HashSet<>();
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT payroll_period FROM payroll_runs")) {
+                while (rs.next()) {
+                    periods.add(rs.getString(1));
+                }
+            }
+            return periods;
+        }
+
+        private void createMasterData() throws SQLException {
+            for (int i = 1; i <= volume.clients(); i++) {
+                UUID id = UUID.randomUUID();
+                String name = pick(COUNTERPARTIES) + " " + i;
+                clientRows.row(id, code("C", i), name, "finance" + i + "@client.example", true);
+                clients.add(id);
+            }
+
+            LocalDate hireDate = today.minusMonths(volume.months() + 1L).withDayOfMonth(1);
+            for (int i = 1; i <= volume.employees(); i++) {
+                UUID id = UUID.randomUUID();
+                PtkpStatus ptkp = pick(PTKP);
+                BigDecimal salary = BigDecimal.valueOf(50L + random.nextInt(350)).multiply(BigDecimal.valueOf(100_000L));
+                employeeRows.row(id, code("E", i), pick(FIRST_NAMES) + " " + pick(LAST_NAMES), ptkp.name(),
+                        hireDate, "Staff", "Operasional");
+                employees.add(new Employee(id, salary, ptkp));
+            }
+
+            for (int i = 1; i <= volume.products(); i++) {
+                UUID id = UUID.randomUUID();
+                boolean fifo = i % 3 == 0;
+                BigDecimal cost = BigDecimal.valueOf(5L + random.nextInt(500)).multiply(BigDecimal.valueOf(1_000L));
+                BigDecimal price = cost.multiply(new BigDecimal("1.35")).setScale(0, RoundingMode.HALF_UP);
+                productRows.row(id, code("P", i), "Produk " + i, "pcs", fifo ? "FIFO" : "WEIGHTED_AVERAGE",
+                        price.setScale(2), true);
+                products.add(new Product(id, fifo, cost, price));
+                stock.put(id, new Stock());
+            }
+
+            if (volume.bankStatements() && bankAccountId != null) {
+                parserConfigId = firstParserConfig();
+                if (parserConfigId != null) {
+                    companyBankAccountId = UUID.randomUUID();
+                    try (PreparedStatement ps = connection.prepareStatement("""
+                            INSERT INTO company_bank_accounts (id, bank_name, account_number, account_name, id_account)
+                            SELECT ?, account_name, ?, ?, id FROM chart_of_accounts WHERE id = ?
+                            """)) {
+                        ps.setObject(1, companyBankAccountId);
+                        ps.setString(2, "GEN" + runId + String.format("%06d", random.nextInt(1_000_000)));
+                        ps.setString(3, "Generated " + runId);
+                        ps.setObject(4, bankAccountId);
+                        ps.executeUpdate();
+                    }
+                }
+            }
+
+            clientRows.flush();
+            employeeRows.flush();
+            productRows.flush();
+        }
+
+        private UUID firstParserConfig() throws SQLException {
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery(
+                         "SELECT id FROM bank_statement_parser_configs WHERE active ORDER BY config_name LIMIT 1")) {
+                return rs.next() ? rs.getObject(1, UUID.class) : null;
+            }
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Transactions
+        // ----------------------------------------------------------------------------------------
+
+        private void generateTransactions(YearMonth month) {
+            for (int i = 0; i < volume.transactionsPerMonth(); i++) {
+                Template template = pool.get(random.nextInt(pool.size()));
+                BigDecimal amount = randomAmount(template.minAmount(), template.maxAmount());
+                String description = template.name() + " - " + pick(COUNTERPARTIES);
+                postTransaction(template, dayIn(month), amount, description, null, FormulaContext.of(amount));
+            }
+        }
+
+        /**
+         * Write a posted transaction and its journal lines, or nothing when the
+         * template does not balance for this amount. Returns the transaction id.
+         */
+        private UUID postTransaction(Template template, LocalDate date, BigDecimal amount, String description,
+                                     String reference, FormulaContext context) {
+            List<Posting> postings = post(template, context);
+            if (postings == null) {
+                return null;
+            }
+
+            UUID id = UUID.randomUUID();
+            String number = "GEN" + runId + "-" + String.format("%07d", ++transactionSeq);
+            LocalDateTime postedAt = date.atTime(8 + random.nextInt(10), random.nextInt(60));
+            transactions.row(id, number, date, template.id(), amount, description, reference, "POSTED",
+                    postedAt, GENERATED_BY, GENERATED_BY);
+            int lineNo = 0;
+            for (Posting posting : postings) {
+                journalEntries.row(UUID.randomUUID(), number + "-" + (++lineNo), postedAt, id, posting.accountId(),
+                        posting.debit(), posting.credit(), GENERATED_BY);
+                if (posting.accountId().equals(bankAccountId)) {
+                    bankLines.computeIfAbsent(YearMonth.from(date), key -> new ArrayList<>())
+                            .add(new BankLine(date, description, posting.debit(), posting.credit()));
+                }
+            }
+            return id;
+        }
+
+        /**
+         * Evaluate the template lines. Zero lines (an untriggered PPh 23, say) are
+         * dropped. A rounding residual of at most a rupiah per line goes to a
+         * non-input line on the lighter side, as {@code JournalBalancer} does when
+         * the app posts; anything else means the template cannot be used as is.
+         */
+        private List<Posting> post(Template template, FormulaContext context) {
+            List<BigDecimal> values = new ArrayList<>(template.lines().size());
+            BigDecimal debit = BigDecimal.ZERO;
+            BigDecimal credit = BigDecimal.ZERO;
+            try {
+                for (TemplateLine line : template.lines()) {
+                    BigDecimal value = formulaEvaluator.evaluate(line.formula(), context);
+                    if (value.signum() < 0) {
+                        return null;
+                    }
+                    values.add(value);
+                    if (line.debit()) {
+                        debit = debit.add(value);
+                    } else {
+                        credit = credit.add(value);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+
+            BigDecimal residual = debit.subtract(credit);
+            if (residual.signum() != 0) {
+                if (residual.abs().compareTo(BigDecimal.valueOf(values.size())) > 0) {
+                    return null;
+                }
+                int absorber = -1;
+                for (int i = 0; i < values.size() && absorber < 0; i++) {
+                    TemplateLine line = template.lines().get(i);
+                    boolean lighterSide = residual.signum() > 0 ? !line.debit() : line.debit();
+                    if (lighterSide && !"amount".equalsIgnoreCase(line.formula().trim()) && values.get(i).signum() > 0) {
+                        absorber = i;
+                    }
+                }
+                if (absorber < 0) {
+                    return null;
+                }
+                values.set(absorber, values.get(absorber).add(residual.abs()));
+            }
+
+            List<Posting> postings = new ArrayList<>(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                BigDecimal value = values.get(i);
+                if (value.signum() == 0) {
+                    continue;
+                }
+                TemplateLine line = template.lines().get(i);
+                postings.add(line.debit()
+                        ? new Posting(line.accountId(), value, BigDecimal.ZERO)
+                        : new Posting(line.accountId(), BigDecimal.ZERO, value));
+            }
+            return postings.size() >= 2 ? postings : null;
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Invoices
+        // ----------------------------------------------------------------------------------------
+
+        private void generateInvoices(YearMonth month) {
+            if (clients.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < volume.invoicesPerMonth(); i++) {
+                UUID id = UUID.randomUUID();
+                LocalDate invoiceDate = dayIn(month);
+                LocalDate dueDate = invoiceDate.plusDays(30);
+                String number = "INV-GEN" + runId + "-" + month.toString().replace("-", "") + "-"
+                        + String.format("%05d", i + 1);
+
+                BigDecimal subtotal = BigDecimal.ZERO;
+                BigDecimal tax = BigDecimal.ZERO;
+                int lineCount = 1 + random.nextInt(3);
+                for (int line = 0; line < lineCount; line++) {
+                    BigDecimal quantity = BigDecimal.valueOf(1L + random.nextInt(10)).setScale(2);
+                    BigDecimal unitPrice = randomAmount(500_000L, 20_000_000L);
+                    BigDecimal amount = quantity.multiply(unitPrice).setScale(2, RoundingMode.HALF_UP);
+                    BigDecimal lineTax = amount.multiply(PPN_RATE).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+                    invoiceLines.row(UUID.randomUUID(), id, "Jasa " + (line + 1) + " " + number, quantity, unitPrice,
+                            PPN_RATE.setScale(2), lineTax, amount, line);
+                    subtotal = subtotal.add(amount);
+                    tax = tax.add(lineTax);
+                }
+
+                BigDecimal total = subtotal.add(tax);
+                LocalDate paidDate = invoiceDate.plusDays(7L + random.nextInt(40));
+                boolean paid = !paidDate.isAfter(today) && random.nextInt(10) < 9;
+                UUID transactionId = null;
+                String status;
+                if (paid) {
+                    status = "PAID";
+                    if (!incomePool.isEmpty()) {
+                        Template template = incomePool.get(random.nextInt(incomePool.size()));
+                        transactionId = postTransaction(template, paidDate, total, "Pelunasan " + number, number,
+                                FormulaContext.of(total));
+                    }
+                    invoicePayments.row(UUID.randomUUID(), id, paidDate, total, "TRANSFER", number);
+                } else {
+                    status = dueDate.isBefore(today) ? "OVERDUE" : "SENT";
+                }
+                invoices.row(id, number, clients.get(random.nextInt(clients.size())), invoiceDate, dueDate, subtotal,
+                        tax, status, invoiceDate.atTime(10, 0), paid ? paidDate.atTime(15, 0) : null, transactionId);
+            }
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Payroll
+        // ----------------------------------------------------------------------------------------
+
+        /**
+         * One posted run per month. PPh 21 uses the TER rate for every month,
+         * including December, which the app reconciles against the year.
+         */
+        private void generatePayroll(YearMonth month) {
+            if (payrollTemplate == null || employees.isEmpty()) {
+                return;
+            }
+            UUID runRowId = UUID.randomUUID();
+            BigDecimal gross = BigDecimal.ZERO;
+            BigDecimal deductions = BigDecimal.ZERO;
+            BigDecimal netPay = BigDecimal.ZERO;
+            BigDecimal companyBpjsKes = BigDecimal.ZERO;
+            BigDecimal companyBpjsTk = BigDecimal.ZERO;
+            BigDecimal employeeBpjsKes = BigDecimal.ZERO;
+            BigDecimal employeeBpjsTk = BigDecimal.ZERO;
+            BigDecimal pph21 = BigDecimal.ZERO;
+            for (Employee employee : employees) {
+                var bpjs = bpjsCalculationService.calculate(employee.salary());
+                BigDecimal tax = pph21CalculationService.calculateTer(employee.salary(), employee.ptkpStatus())
+                        .monthlyPph21();
+                BigDecimal employeeDeductions = bpjs.totalEmployee().add(tax);
+                BigDecimal net = employee.salary().subtract(employeeDeductions);
+                payrollDetails.row(UUID.randomUUID(), runRowId, employee.id(), employee.salary(), employee.salary(),
+                        bpjs.kesehatanCompany(), bpjs.kesehatanEmployee(), bpjs.jkk(), bpjs.jkm(),
+                        bpjs.jhtCompany(), bpjs.jhtEmployee(), bpjs.jpCompany(), bpjs.jpEmployee(),
+                        tax, employeeDeductions, net, 1);
+                gross = gross.add(employee.salary());
+                deductions = deductions.add(employeeDeductions);
+                netPay = netPay.add(net);
+                companyBpjsKes = companyBpjsKes.add(bpjs.kesehatanCompany());
+                companyBpjsTk = companyBpjsTk.add(bpjs.totalCompany().subtract(bpjs.kesehatanCompany()));
+                employeeBpjsKes = employeeBpjsKes.add(bpjs.kesehatanEmployee());
+                employeeBpjsTk = employeeBpjsTk.add(bpjs.totalEmployee().subtract(bpjs.kesehatanEmployee()));
+                pph21 = pph21.add(tax);
+            }
+
+            // Same variables as PayrollService.postPayroll
+            BigDecimal companyBpjs = companyBpjsKes.add(companyBpjsTk);
+            Map<String, BigDecimal> variables = new HashMap<>();
+            variables.put("grossSalary", gross);
+            variables.put("companyBpjs", companyBpjs);
+            variables.put("companyBpjsKes", companyBpjsKes);
+            variables.put("companyBpjsTk", companyBpjsTk);
+            variables.put("totalBpjs", companyBpjs.add(employeeBpjsKes).add(employeeBpjsTk));
+            variables.put("totalBpjsKes", companyBpjsKes.add(employeeBpjsKes));
+            variables.put("totalBpjsTk", companyBpjsTk.add(employeeBpjsTk));
+            variables.put("pph21", pph21);
+            variables.put("netPay", netPay);
+            LocalDate periodEnd = month.atEndOfMonth();
+            UUID transactionId = postTransaction(payrollTemplate, periodEnd, gross,
+                    "Payroll " + month, "PAYROLL-" + month, FormulaContext.of(gross, variables));
+
+            payrollRuns.row(runRowId, month.toString(), month.atDay(1), periodEnd,
+                    transactionId != null ? "POSTED" : "APPROVED", gross, deductions, netPay, companyBpjs, pph21,
+                    employees.size(), transactionId, transactionId != null ? periodEnd.atTime(17, 0) : null);
+            payrollRunCount++;
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Inventory
+        // ----------------------------------------------------------------------------------------
+
+        private void generateInventory(YearMonth month) {
+            if (products.isEmpty()) {
+                return;
+            }
+            List<LocalDate> dates = new ArrayList<>(volume.inventoryMovementsPerMonth());
+            for (int i = 0; i < volume.inventoryMovementsPerMonth(); i++) {
+                dates.add(dayIn(month));
+            }
+            dates.sort(Comparator.naturalOrder());
+
+            int seq = 0;
+            for (LocalDate date : dates) {
+                Product product = products.get(random.nextInt(products.size()));
+                Stock current = stock.get(product.id());
+                String reference = "INVGEN" + runId + "-" + month.toString().replace("-", "") + "-" + (++seq);
+                boolean purchase = current.quantity.compareTo(BigDecimal.TEN) < 0 || random.nextInt(10) < 4;
+                if (purchase) {
+                    purchase(product, current, date, reference);
+                } else {
+                    sell(product, current, date, reference);
+                }
+            }
+        }
+
+        private void purchase(Product product, Stock current, LocalDate date, String reference) {
+            UUID id = UUID.randomUUID();
+            BigDecimal quantity = BigDecimal.valueOf(10L + random.nextInt(91));
+            BigDecimal unitCost = product.baseCost()
+                    .multiply(BigDecimal.valueOf(90L + random.nextInt(21)))
+                    .divide(HUNDRED, 4, RoundingMode.HALF_UP);
+            BigDecimal totalCost = quantity.multiply(unitCost).setScale(2, RoundingMode.HALF_UP);
+            current.quantity = current.quantity.add(quantity);
+            current.totalCost = current.totalCost.add(totalCost);
+            current.lastDate = date;
+            if (product.fifo()) {
+                Layer layer = new Layer(id, date, quantity, unitCost);
+                current.open.addLast(layer);
+                current.all.add(layer);
+            }
+            inventoryTransactions.row(id, product.id(), "PURCHASE", date, quantity, unitCost, totalCost, null,
+                    reference, current.quantity, current.totalCost, GENERATED_BY);
+        }
+
+        private void sell(Product product, Stock current, LocalDate date, String reference) {
+            BigDecimal quantity = BigDecimal.valueOf(1L + random.nextInt(
+                    Math.min(20, current.quantity.intValue())));
+            BigDecimal totalCost;
+            if (product.fifo()) {
+                totalCost = BigDecimal.ZERO;
+                BigDecimal needed = quantity;
+                while (needed.signum() > 0) {
+                    Layer layer = current.open.peekFirst();
+                    BigDecimal taken = needed.min(layer.remaining);
+                    totalCost = totalCost.add(taken.multiply(layer.unitCost));
+                    layer.remaining = layer.remaining.subtract(taken);
+                    needed = needed.subtract(taken);
+                    if (layer.remaining.signum() == 0) {
+                        current.open.pollFirst();
+                    }
+                }
+                totalCost = totalCost.setScale(2, RoundingMode.HALF_UP);
+            } else {
+                totalCost = quantity.multiply(current.averageCost()).setScale(2, RoundingMode.HALF_UP);
+            }
+            current.quantity = current.quantity.subtract(quantity);
+            current.totalCost = current.quantity.signum() == 0
+                    ? BigDecimal.ZERO
+                    : current.totalCost.subtract(totalCost).max(BigDecimal.ZERO);
+            current.lastDate = date;
+            BigDecimal unitCost = totalCost.divide(quantity, 4, RoundingMode.HALF_UP);
+            inventoryTransactions.row(UUID.randomUUID(), product.id(), "SALE", date, quantity, unitCost, totalCost,
+                    product.sellingPrice(), reference, current.quantity, current.totalCost, GENERATED_BY);
+        }
+
+        private void finishInventory() throws SQLException {
+            for (Product product : products) {
+                Stock current = stock.get(product.id());
+                for (Layer layer : current.all) {
+                    fifoLayers.row(layer.id, product.id(), layer.inventoryTransactionId, layer.date, layer.original,
+                            layer.remaining, layer.unitCost, layer.remaining.signum() == 0);
+                }
+                inventoryBalances.row(UUID.randomUUID(), product.id(), current.quantity, current.totalCost,
+                        current.averageCost(), current.lastDate != null ? current.lastDate.atTime(12, 0) : null);
+            }
+            fifoLayers.flush();
+            inventoryBalances.flush();
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Bank statements
+        // ----------------------------------------------------------------------------------------
+
+        /**
+         * The statement for one month of the bank account, in the bank's terms: a
+         * book debit is money in (statement credit). Items land on the book date or
+         * the next day, plus one admin fee that has no book entry.
+         */
+        private void generateBankStatement(YearMonth month) {
+            if (companyBankAccountId == null) {
+                return;
+            }
+            LocalDate end = month.atEndOfMonth().isAfter(today) ? today : month.atEndOfMonth();
+            List<BankLine> booked = bankLines.getOrDefault(month, List.of());
+            bankLines.remove(month);
+            List<BankLine> lines = new ArrayList<>(booked.size() + 1);
+            for (BankLine line : booked) {
+                LocalDate date = line.date().plusDays(random.nextInt(2));
+                lines.add(new BankLine(date.isAfter(end) ? end : date, line.description(),
+                        line.moneyIn(), line.moneyOut()));
+            }
+            lines.add(new BankLine(end, "BIAYA ADM", BigDecimal.ZERO, BANK_ADMIN_FEE));
+            lines.sort(Comparator.comparing(BankLine::date));
+
+            UUID statementId = UUID.randomUUID();
+            BigDecimal opening = bankBalance;
+            BigDecimal totalIn = BigDecimal.ZERO;
+            BigDecimal totalOut = BigDecimal.ZERO;
+            int lineNo = 0;
+            for (BankLine line : lines) {
+                bankBalance = bankBalance.add(line.moneyIn()).subtract(line.moneyOut());
+                totalIn = totalIn.add(line.moneyIn());
+                totalOut = totalOut.add(line.moneyOut());
+                bankStatementItems.row(UUID.randomUUID(), statementId, ++lineNo, line.date(),
+                        line.description().toUpperCase(Locale.ROOT),
+                        line.moneyOut().signum() > 0 ? line.moneyOut() : null,
+                        line.moneyIn().signum() > 0 ? line.moneyIn() : null,
+                        bankBalance, "UNMATCHED");
+            }
+            bankStatements.row(statementId, companyBankAccountId, parserConfigId, month.atDay(1), end, opening,
+                    bankBalance, "GEN" + runId + "-" + month + ".csv", lines.size(), totalOut, totalIn,
+                    end.atTime(20, 0), GENERATED_BY);
+        }
+
+        // ----------------------------------------------------------------------------------------
+        // Loading
+        // ----------------------------------------------------------------------------------------
+
+        /** Send the month's rows, parents before children. */
+        private void flushMonth() throws SQLException {
+            transactions.flush();
+            journalEntries.flush();
+            invoices.flush();
+            invoiceLines.flush();
+            invoicePayments.flush();
+            payrollRuns.flush();
+            payrollDetails.flush();
+            inventoryTransactions.flush();
+            bankStatements.flush();
+            bankStatementItems.flush();
+        }
+
+        private void analyze() throws SQLException {
+            try (Statement st = connection.createStatement()) {
+                for (String table : List.of("transactions", "journal_entries", "invoices", "inventory_transactions",
+                        "bank_statement_items")) {
+                    st.execute("ANALYZE " + table);
+                }
+            }
+        }
+
+        private CsvCopy copy(String table, String columns) throws SQLException {
+            return new CsvCopy(connection, table, columns);
+        }
+
+        private String code(String prefix, int seq) {
+            return "GEN" + runId + "-" + prefix + String.format("%05d", seq);
+        }
+
+        /** A day in the month, not after today. */
+        private LocalDate dayIn(YearMonth month) {
+            int lastDay = month.equals(YearMonth.from(today)) ? today.getDayOfMonth() : month.lengthOfMonth();
+            return month.atDay(1 + random.nextInt(lastDay));
+        }
+
+        /** Log-uniform between min and max, rounded to the thousand, so small amounts dominate. */
+        private BigDecimal randomAmount(long min, long max) {
+            double low = Math.log(Math.max(min, 1_000L));
+            double high = Math.log(Math.max(max, min + 1_000L));
+            long value = Math.round(Math.exp(low + random.nextDouble() * (high - low)) / 1_000d) * 1_000L;
+            return BigDecimal.valueOf(Math.max(value, 1_000L)).setScale(2);
+        }
+
+        private <T> T pick(T[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
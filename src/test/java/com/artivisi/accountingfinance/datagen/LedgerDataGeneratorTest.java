@@ -0,0 +1,175 @@
+package com.artivisi.accountingfinance.datagen;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a small ledger on the V800 chart of accounts and templates and checks
+ * it is consistent the way the app would have left it.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("LedgerDataGenerator Integration Tests")
+class LedgerDataGeneratorTest {
+
+    private static final LedgerVolume VOLUME = new LedgerVolume(3, 200, 10, 5, 4, 9, 120, true, 7L);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportService reportService;
+
+    private LedgerDataGenerator.Result result;
+    private String prefix;
+
+    @BeforeEach
+    void generate() {
+        result = new LedgerDataGenerator(dataSource).generate(VOLUME);
+        prefix = "GEN" + result.runId() + "%";
+    }
+
+    @Nested
+    @DisplayName("Journal")
+    class JournalTests {
+
+        @Test
+        @DisplayName("Should post every generated transaction with balanced journal lines")
+        void shouldPostBalancedTransactions() {
+            assertThat(result.transactions()).isGreaterThanOrEqualTo(VOLUME.totalTransactions());
+            assertThat(count("SELECT COUNT(*) FROM transactions WHERE transaction_number LIKE ? AND status = 'POSTED'"))
+                    .isEqualTo(result.transactions());
+
+            List<Map<String, Object>> unbalanced = jdbcTemplate.queryForList("""
+                    SELECT t.transaction_number, SUM(j.debit_amount) AS debit, SUM(j.credit_amount) AS credit
+                    FROM transactions t JOIN journal_entries j ON j.id_transaction = t.id
+                    WHERE t.transaction_number LIKE ?
+                    GROUP BY t.transaction_number
+                    HAVING SUM(j.debit_amount) <> SUM(j.credit_amount) OR COUNT(*) < 2
+                    """, prefix);
+            assertThat(unbalanced).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should spread transactions over the months up to today")
+        void shouldSpreadOverMonths() {
+            LocalDate first = jdbcTemplate.queryForObject(
+                    "SELECT MIN(transaction_date) FROM transactions WHERE transaction_number LIKE ?", LocalDate.class, prefix);
+            LocalDate last = jdbcTemplate.queryForObject(
+                    "SELECT MAX(transaction_date) FROM transactions WHERE transaction_number LIKE ?", LocalDate.class, prefix);
+
+            assertThat(first).isEqualTo(result.firstDate()).hasDayOfMonth(1);
+            assertThat(last).isBeforeOrEqualTo(LocalDate.now());
+            assertThat(first).isAfterOrEqualTo(LocalDate.now().minusMonths(VOLUME.months()));
+        }
+
+        @Test
+        @DisplayName("Should keep the trial balance balanced")
+        void shouldKeepTrialBalanceBalanced() {
+            var trialBalance = reportService.generateTrialBalance(LocalDate.now());
+
+            assertThat(trialBalance.totalDebit()).isEqualByComparingTo(trialBalance.totalCredit());
+        }
+    }
+
+    @Nested
+    @DisplayName("Invoices and Payroll")
+    class InvoiceAndPayrollTests {
+
+        @Test
+        @DisplayName("Should link paid invoices to a payment and an income transaction")
+        void shouldLinkPaidInvoices() {
+            assertThat(result.invoices()).isEqualTo(VOLUME.months() * (long) VOLUME.invoicesPerMonth());
+            assertThat(count("""
+                    SELECT COUNT(*) FROM invoices i
+                    WHERE i.invoice_number LIKE 'INV-' || ? AND i.status = 'PAID'
+                      AND (i.id_transaction IS NULL
+                           OR (SELECT SUM(p.amount) FROM invoice_payments p WHERE p.id_invoice = i.id)
+                              <> i.amount + i.tax_amount)
+                    """)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should post payroll runs whose journal matches the run totals")
+        void shouldPostPayroll() {
+            List<Map<String, Object>> runs = jdbcTemplate.queryForList("""
+                    SELECT r.total_gross, r.total_company_bpjs, SUM(j.debit_amount) AS debit
+                    FROM payroll_runs r
+                    JOIN transactions t ON t.id = r.id_transaction
+                    JOIN journal_entries j ON j.id_transaction = t.id
+                    WHERE t.transaction_number LIKE ?
+                    GROUP BY r.id, r.total_gross, r.total_company_bpjs
+                    """, prefix);
+
+            assertThat(runs).hasSize((int) result.payrollRuns());
+            assertThat(runs).allSatisfy(run -> assertThat((BigDecimal) run.get("debit"))
+                    .isEqualByComparingTo(((BigDecimal) run.get("total_gross"))
+                            .add((BigDecimal) run.get("total_company_bpjs"))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Inventory and Bank Statements")
+    class InventoryAndBankTests {
+
+        @Test
+        @DisplayName("Should end each product with the balance of its last movement and matching FIFO layers")
+        void shouldMatchInventoryBalances() {
+            assertThat(result.inventoryMovements()).isEqualTo(VOLUME.months() * (long) VOLUME.inventoryMovementsPerMonth());
+            assertThat(count("""
+                    SELECT COUNT(*) FROM inventory_balances b
+                    JOIN products p ON p.id = b.id_product
+                    WHERE p.code LIKE ?
+                      AND (b.quantity < 0
+                           OR (p.costing_method = 'FIFO' AND b.quantity <> (
+                                SELECT COALESCE(SUM(l.remaining_quantity), 0)
+                                FROM inventory_fifo_layers l WHERE l.id_product = p.id)))
+                    """)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should mirror the bank account's book entries in monthly statements")
+        void shouldMirrorBankEntries() {
+            assertThat(result.bankAccountId()).isNotNull();
+            long bookEntries = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM journal_entries j JOIN transactions t ON t.id = j.id_transaction
+                    WHERE t.transaction_number LIKE ? AND j.id_account = ?
+                    """, Long.class, prefix, result.bankAccountId());
+
+            // One admin fee per month has no book entry
+            assertThat(result.bankStatementItems()).isEqualTo(bookEntries + VOLUME.months());
+            assertThat(count("""
+                    SELECT COUNT(*) FROM bank_statements s
+                    WHERE s.original_filename LIKE ?
+                      AND s.closing_balance <> s.opening_balance + s.total_credit - s.total_debit
+                    """)).isZero();
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, prefix);
+    }
+}
@@ -0,0 +1,82 @@
+package com.artivisi.accountingfinance.datagen;
+
+/**
+ * How much data {@link LedgerDataGenerator} creates.
+ *
+ * Months run back from the current month, so report and dashboard defaults
+ * (this month, this year) always see generated data. Every value can be
+ * overridden with a {@code ledger.*} system property, see
+ * {@link #fromSystemProperties(LedgerVolume)}.
+ *
+ * @param months                     months of history, ending with the current month
+ * @param transactionsPerMonth       posted transactions from the journal template pool
+ * @param invoicesPerMonth           invoices; paid ones get their own income transaction
+ * @param clients                    clients the invoices are spread over
+ * @param employees                  employees in every monthly payroll run
+ * @param products                   inventory products, a third of them FIFO
+ * @param inventoryMovementsPerMonth purchases and sales across the products
+ * @param bankStatements             whether to import one statement per month for the bank account
+ * @param seed                       random seed; the same seed and volume give the same ledger
+ */
+public record LedgerVolume(
+        int months,
+        int transactionsPerMonth,
+        int invoicesPerMonth,
+        int clients,
+        int employees,
+        int products,
+        int inventoryMovementsPerMonth,
+        boolean bankStatements,
+        long seed
+) {
+
+    /**
+     * A few months at the volume in capacity-planning.md. Small enough to
+     * generate per test.
+     */
+    public static LedgerVolume small() {
+        return new LedgerVolume(3, 250, 15, 20, 10, 20, 100, true, 42L);
+    }
+
+    /**
+     * Three years of a tenant at 100x the capacity-planning volume.
+     */
+    public static LedgerVolume production() {
+        return new LedgerVolume(36, 25_000, 1_500, 500, 200, 1_000, 10_000, true, 42L);
+    }
+
+    /**
+     * {@code base} with any of {@code -Dledger.months}, {@code -Dledger.transactionsPerMonth},
+     * {@code -Dledger.invoicesPerMonth}, {@code -Dledger.clients}, {@code -Dledger.employees},
+     * {@code -Dledger.products}, {@code -Dledger.inventoryMovementsPerMonth},
+     * {@code -Dledger.bankStatements} and {@code -Dledger.seed} applied. Use
+     * {@code -Dledger.volume=production} to start from {@link #production()}.
+     */
+    public static LedgerVolume fromSystemProperties(LedgerVolume base) {
+        LedgerVolume start = "production".equalsIgnoreCase(System.getProperty("ledger.volume")) ? production() : base;
+        return new LedgerVolume(
+                Integer.getInteger("ledger.months", start.months()),
+                Integer.getInteger("ledger.transactionsPerMonth", start.transactionsPerMonth()),
+                Integer.getInteger("ledger.invoicesPerMonth", start.invoicesPerMonth()),
+                Integer.getInteger("ledger.clients", start.clients()),
+                Integer.getInteger("ledger.employees", start.employees()),
+                Integer.getInteger("ledger.products", start.products()),
+                Integer.getInteger("ledger.inventoryMovementsPerMonth", start.inventoryMovementsPerMonth()),
+                Boolean.parseBoolean(System.getProperty("ledger.bankStatements", String.valueOf(start.bankStatements()))),
+                Long.getLong("ledger.seed", start.seed()));
+    }
+
+    public LedgerVolume withTransactionsPerMonth(int transactionsPerMonth) {
+        return new LedgerVolume(months, transactionsPerMonth, invoicesPerMonth, clients, employees, products,
+                inventoryMovementsPerMonth, bankStatements, seed);
+    }
+
+    public LedgerVolume withMonths(int months) {
+        return new LedgerVolume(months, transactionsPerMonth, invoicesPerMonth, clients, employees, products,
+                inventoryMovementsPerMonth, bankStatements, seed);
+    }
+
+    public int totalTransactions() {
+        return months * transactionsPerMonth;
+    }
+}
@@ -62,6 +62,19 @@ class EntityTest {
         assertThat(mapping.matches("TEST")).isFalse();
     }
 
+    @Test
+    void merchantMapping_shouldReuseCompiledRegexUntilPatternChanges() {
+        MerchantMapping mapping = new MerchantMapping();
+        mapping.setMerchantPattern("GOJEK.*FOOD");
+        mapping.setMatchType(MerchantMapping.MatchType.REGEX);
+
+        assertThat(mapping.compiledPattern()).isSameAs(mapping.compiledPattern());
+
+        mapping.setMerchantPattern("GRAB.*");
+        assertThat(mapping.matches("GRABFOOD")).isTrue();
+        assertThat(mapping.matches("GOJEK FOOD")).isFalse();
+    }
+
     @Test
     void merchantMapping_shouldIncrementMatchCount() {
         MerchantMapping mapping = new MerchantMapping();
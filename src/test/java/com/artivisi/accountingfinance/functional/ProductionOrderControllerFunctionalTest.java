@@ -91,6 +91,22 @@ class ProductionOrderControllerFunctionalTest extends PlaywrightTestBase {
         assertThat(page.locator("a[href*='/inventory/production/create']").first()).isVisible();
     }
 
+    // ==================== MATERIAL REQUIREMENTS ====================
+
+    @Test
+    @DisplayName("Should display material requirements of open orders")
+    void shouldDisplayMaterialRequirements() {
+        navigateTo("/inventory/production");
+        waitForPageLoad();
+
+        page.getByTestId("material-requirements-link").click();
+        waitForPageLoad();
+
+        assertThat(page).hasURL(java.util.regex.Pattern.compile(".*\\/inventory\\/production\\/requirements"));
+        assertThat(page.getByTestId("material-cost")).isVisible();
+        assertThat(page.locator("[data-testid^='material-row-']").first()).isVisible();
+    }
+
     // ==================== NEW ORDER FORM ====================
 
     @Test
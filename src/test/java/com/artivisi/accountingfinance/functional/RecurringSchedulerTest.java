@@ -20,6 +20,7 @@ import org.springframework.context.annotation.Import;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -126,6 +127,48 @@ class RecurringSchedulerTest extends PlaywrightTestBase {
         assertThat(updated.getNextRunDate()).isNull();
     }
 
+    @Test
+    @DisplayName("Should not post the same occurrence twice")
+    void shouldNotPostSameOccurrenceTwice() {
+        LocalDate today = LocalDate.now();
+        RecurringTransaction recurring = createTestRecurring("Idempotency Test", today);
+
+        recurringTransactionService.processAllDue();
+
+        // Simulate a crash that left the schedule pointing at the processed date
+        RecurringTransaction processed = recurringTransactionRepository.findById(recurring.getId()).orElseThrow();
+        processed.setNextRunDate(today);
+        recurringTransactionRepository.save(processed);
+
+        RecurringTransactionService.RunOutcome outcome = recurringTransactionService.processDue(recurring.getId(), today);
+        assertThat(outcome.result()).isEqualTo(RecurringTransactionService.RunResult.ALREADY_PROCESSED);
+
+        List<RecurringTransactionLog> logs = logRepository
+                .findByRecurringTransactionIdOrderByScheduledDateDesc(recurring.getId());
+        assertThat(logs).filteredOn(l -> l.getStatus() == RecurringLogStatus.SUCCESS).hasSize(1);
+        assertThat(logs.getFirst().getIdempotencyKey()).isEqualTo(recurring.getId() + ":" + today);
+    }
+
+    @Test
+    @DisplayName("Should process many due items concurrently and report a run summary")
+    void shouldProcessManyDueItems() {
+        LocalDate today = LocalDate.now();
+        List<RecurringTransaction> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createTestRecurring("Parallel Test " + i, today.minusDays(2)));
+        }
+
+        RecurringTransactionService.RecurringRunSummary summary = recurringTransactionService.runAllDue(today);
+
+        assertThat(summary.due()).isGreaterThanOrEqualTo(5);
+        assertThat(summary.processed()).isGreaterThanOrEqualTo(5);
+        assertThat(summary.maxLagDays()).isGreaterThanOrEqualTo(2);
+        for (RecurringTransaction recurring : created) {
+            RecurringTransaction updated = recurringTransactionRepository.findById(recurring.getId()).orElseThrow();
+            assertThat(updated.getTotalRuns()).isEqualTo(1);
+        }
+    }
+
     private RecurringTransaction createTestRecurring(String name, LocalDate nextRunDate) {
         List<JournalTemplate> templates = journalTemplateService.findAll();
         JournalTemplate template = templates.getFirst();
@@ -1,8 +1,10 @@
 package com.artivisi.accountingfinance.functional;
 
+import com.artivisi.accountingfinance.entity.OutboxEvent;
 import com.artivisi.accountingfinance.entity.Project;
 import com.artivisi.accountingfinance.functional.taxdetail.TaxDetailTestDataInitializer;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.OutboxEventRepository;
 import com.artivisi.accountingfinance.repository.ProjectRepository;
 import com.artivisi.accountingfinance.ui.PlaywrightTestBase;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -20,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
 import java.time.Duration;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
@@ -38,6 +41,9 @@ class TaxDetailAutoPopulateTest extends PlaywrightTestBase {
     @Autowired
     private ChartOfAccountRepository chartOfAccountRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     private APIRequestContext apiContext;
     private ObjectMapper objectMapper;
     private String accessToken;
@@ -204,6 +210,11 @@ class TaxDetailAutoPopulateTest extends PlaywrightTestBase {
                 .as("Post failed: %d %s", postResponse.status(), postResponse.text())
                 .isTrue();
 
+        // Tax details are populated from the outbox once the posting commits
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(100)).until(() ->
+                outboxEventRepository.countByStatusIn(
+                        EnumSet.of(OutboxEvent.Status.PENDING, OutboxEvent.Status.PROCESSING)) == 0);
+
         return transactionId;
     }
 
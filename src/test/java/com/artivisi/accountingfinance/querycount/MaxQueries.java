@@ -0,0 +1,25 @@
+package com.artivisi.accountingfinance.querycount;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fail the test when its body issues more SQL statements than allowed.
+ *
+ * Only the test method is counted, not {@code @BeforeEach} setup. For budgets
+ * that depend on the data (per account, per transaction), use
+ * {@link QueryCount} directly.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface MaxQueries {
+
+    int value();
+}
@@ -0,0 +1,259 @@
+package com.artivisi.accountingfinance.querycount;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.datagen.LedgerDataGenerator;
+import com.artivisi.accountingfinance.datagen.LedgerVolume;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.TransactionRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the report pages, the transaction list and analysis API endpoints.
+ *
+ * Budgets are the measured counts, with no room above them: the statements the
+ * request issues regardless of data (security audit, ledger version, layout)
+ * plus, where the code still sums per account or looks up per transaction,
+ * that many queries per row. Statements are counted per thread and do not vary
+ * between runs, so any extra statement fails, including a second per-row
+ * lookup on a path that already has one. When an N+1 is removed, drop its
+ * per-row term and lower the budget to the new count.
+ *
+ * The counts measured on the small ledger (59 transactable accounts, 20
+ * revenue and expense accounts, 9 cash accounts, 18 templates) are noted on
+ * each test.
+ *
+ * Each test runs over a generated ledger. Pass {@code -Dledger.volume=production}
+ * to check the budgets at production volume.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "admin", authorities = {"REPORT_VIEW", "SCOPE_analysis:read"})
+@DisplayName("Query Budget Baseline")
+class QueryBudgetBaselineTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private MockMvc mockMvc;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate monthStart = today.withDayOfMonth(1);
+
+    private int accounts;
+    private int incomeAccounts;
+    private int cashAccounts;
+    private int postedThisMonth;
+    private int templatesUsed;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        new LedgerDataGenerator(dataSource).generate(LedgerVolume.fromSystemProperties(LedgerVolume.small()));
+
+        List<ChartOfAccount> transactable = chartOfAccountRepository.findAllTransactableAccounts();
+        accounts = transactable.size();
+        incomeAccounts = (int) transactable.stream()
+                .filter(a -> a.getAccountType() == AccountType.REVENUE || a.getAccountType() == AccountType.EXPENSE)
+                .count();
+        cashAccounts = chartOfAccountRepository.findCashBankAccounts().size();
+        postedThisMonth = transactionRepository.findPostedTransactionsBetweenDates(monthStart, today).size();
+        templatesUsed = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(DISTINCT id_journal_template) FROM transactions", Integer.class);
+    }
+
+    @Nested
+    @DisplayName("Report Pages")
+    class ReportPageTests {
+
+        @Test
+        @DisplayName("Trial balance sums debit and credit once per account")
+        void trialBalance() throws Exception {
+            // Measured: 122 = 4 + 2 x 59
+            assertBudget(4 + 2 * accounts, "/reports/trial-balance?asOfDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Income statement sums debit and credit once per revenue and expense account")
+        void incomeStatement() throws Exception {
+            // Measured: 45 = 5 + 2 x 20
+            assertBudget(5 + 2 * incomeAccounts,
+                    "/reports/income-statement?startDate=" + monthStart + "&endDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Balance sheet sums balance sheet accounts once and income accounts twice")
+        void balanceSheet() throws Exception {
+            // Measured: 168 = 10 + 2 x 59 + 2 x 20
+            assertBudget(10 + 2 * accounts + 2 * incomeAccounts, "/reports/balance-sheet?asOfDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Cash flow sums cash accounts and reads entries once per transaction")
+        void cashFlow() throws Exception {
+            // Measured: 339 = 5 + 6 x 9 + 262 posted + 18 templates
+            assertBudget(5 + 6 * cashAccounts + postedThisMonth + templatesUsed,
+                    "/reports/cash-flow?startDate=" + monthStart + "&endDate=" + today);
+        }
+    }
+
+    @Nested
+    @WithMockUser(username = "admin", authorities = {"TRANSACTION_VIEW"})
+    @DisplayName("Transaction List")
+    class TransactionListTests {
+
+        @Test
+        @DisplayName("List page costs the same for any page size")
+        void listPage() throws Exception {
+            int small = measure("/transactions?size=5", false);
+            int large = measure("/transactions?size=100", false);
+
+            assertThat(large).isEqualTo(small).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Filtered fragment costs the same for any page size")
+        void filteredFragment() throws Exception {
+            int small = measure("/transactions?status=POSTED&category=INCOME&size=5", true);
+            int large = measure("/transactions?status=POSTED&category=INCOME&size=100", true);
+
+            assertThat(large).isEqualTo(small).isEqualTo(4);
+        }
+
+        private int measure(String url, boolean fragment) throws Exception {
+            MockHttpServletRequestBuilder request = get(url).header("HX-Request", String.valueOf(fragment));
+            // The first view warms the filter dropdown cache
+            mockMvc.perform(request).andExpect(status().isOk());
+            try (QueryCount queries = QueryCount.start()) {
+                mockMvc.perform(request).andExpect(status().isOk());
+                return queries.count();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Analysis API")
+    class AnalysisApiTests {
+
+        @Test
+        @MaxQueries(1)
+        @DisplayName("Accounts list does not scale with the chart of accounts")
+        void accounts() throws Exception {
+            mockMvc.perform(get("/api/analysis/accounts")).andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Transaction page loads each template on the page once")
+        void transactions() throws Exception {
+            try (QueryCount queries = QueryCount.start()) {
+                String body = mockMvc.perform(get("/api/analysis/transactions?size=20"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                List<String> templateNames = JsonPath.read(body, "$.data.transactions[*].templateName");
+
+                // Measured: 12 = page and count + 10 templates
+                queries.assertAtMost(2 + (int) templateNames.stream().distinct().count());
+            }
+        }
+
+        @Test
+        @MaxQueries(2)
+        @DisplayName("Ranked search loads the page in fixed queries")
+        void transactionSearch() throws Exception {
+            mockMvc.perform(get("/api/analysis/transactions/search?q=test&size=20")).andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(1)
+        @DisplayName("Change feed reads a page in fixed queries")
+        void changeFeed() throws Exception {
+            mockMvc.perform(get("/api/analysis/changes?size=100")).andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Trial balance sums debit and credit once per account")
+        void trialBalance() throws Exception {
+            // Measured: 121 = 3 + 2 x 59
+            assertBudget(3 + 2 * accounts, "/api/analysis/trial-balance?asOfDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Income statement sums debit and credit once per revenue and expense account")
+        void incomeStatement() throws Exception {
+            // Measured: 44 = 4 + 2 x 20
+            assertBudget(4 + 2 * incomeAccounts,
+                    "/api/analysis/income-statement?startDate=" + monthStart + "&endDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Balance sheet sums balance sheet accounts once and income accounts twice")
+        void balanceSheet() throws Exception {
+            // Measured: 167 = 9 + 2 x 59 + 2 x 20
+            assertBudget(9 + 2 * accounts + 2 * incomeAccounts, "/api/analysis/balance-sheet?asOfDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Cash flow sums cash accounts and reads entries once per transaction")
+        void cashFlow() throws Exception {
+            // Measured: 338 = 4 + 6 x 9 + 262 posted + 18 templates
+            assertBudget(4 + 6 * cashAccounts + postedThisMonth + templatesUsed,
+                    "/api/analysis/cash-flow?startDate=" + monthStart + "&endDate=" + today);
+        }
+
+        @Test
+        @DisplayName("Snapshot sums revenue and expense accounts for two months and cash accounts twice")
+        void snapshot() throws Exception {
+            // Measured: 131 = 15 + 4 x 20 + 4 x 9
+            assertBudget(15 + 4 * incomeAccounts + 4 * cashAccounts,
+                    "/api/analysis/snapshot?month=" + YearMonth.from(today));
+        }
+    }
+
+    private void assertBudget(int max, String url) throws Exception {
+        try (QueryCount queries = QueryCount.start()) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            queries.assertAtMost(max);
+        }
+    }
+}
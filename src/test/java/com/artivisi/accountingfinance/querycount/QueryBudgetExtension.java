@@ -0,0 +1,31 @@
+package com.artivisi.accountingfinance.querycount;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Enforces {@link MaxQueries} around the test method invocation.
+ */
+public class QueryBudgetExtension implements InvocationInterceptor {
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation,
+                                    ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        Optional<MaxQueries> budget = AnnotationSupport.findAnnotation(invocationContext.getExecutable(), MaxQueries.class);
+        if (budget.isEmpty()) {
+            invocation.proceed();
+            return;
+        }
+
+        try (QueryCount queries = QueryCount.start()) {
+            invocation.proceed();
+            queries.assertAtMost(budget.get().value());
+        }
+    }
+}
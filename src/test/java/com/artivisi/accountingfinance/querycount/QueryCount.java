@@ -0,0 +1,114 @@
+package com.artivisi.accountingfinance.querycount;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread while it
+ * is open, to put a budget on the queries of a request or service call.
+ *
+ * <pre>
+ * try (QueryCount queries = QueryCount.start()) {
+ *     mockMvc.perform(get("/reports/trial-balance"));
+ *     queries.assertAtMost(20);
+ * }
+ * </pre>
+ *
+ * Recorders nest: every open recorder on the thread sees each statement. Only
+ * statements Hibernate prepares are counted; a flush that has not happened yet
+ * (the test transaction is rolled back, not committed) is not.
+ */
+public final class QueryCount implements AutoCloseable {
+
+    private static final int REPEATS_SHOWN = 5;
+
+    private static final ThreadLocal<Deque<QueryCount>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final List<String> statements = new ArrayList<>();
+    private boolean open = true;
+
+    private QueryCount() {
+    }
+
+    /**
+     * Start recording statements on the current thread.
+     */
+    public static QueryCount start() {
+        QueryCount count = new QueryCount();
+        ACTIVE.get().push(count);
+        return count;
+    }
+
+    /**
+     * Run the action and return the statements it issued.
+     */
+    public static QueryCount measure(ThrowingRunnable action) throws Exception {
+        try (QueryCount count = start()) {
+            action.run();
+            return count;
+        }
+    }
+
+    static void record(String sql) {
+        for (QueryCount count : ACTIVE.get()) {
+            count.statements.add(sql);
+        }
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * Fail when more than {@code max} statements were issued. The message lists
+     * the most repeated statements, which is where an N+1 shows up.
+     */
+    public QueryCount assertAtMost(int max) {
+        if (count() > max) {
+            throw new AssertionError(String.format("Expected at most %d queries but %d were executed%s",
+                    max, count(), describeRepeats()));
+        }
+        return this;
+    }
+
+    /**
+     * Statements grouped by SQL text, most repeated first. Hibernate binds
+     * parameters as placeholders, so per-row lookups share the same text.
+     */
+    public Map<String, Long> repeats() {
+        Map<String, Long> counts = statements.stream()
+                .collect(Collectors.groupingBy(sql -> sql, LinkedHashMap::new, Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, _) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            ACTIVE.get().remove(this);
+        }
+    }
+
+    private String describeRepeats() {
+        return repeats().entrySet().stream()
+                .limit(REPEATS_SHOWN)
+                .map(entry -> String.format("%n  %4d x %s", entry.getValue(), entry.getKey()))
+                .collect(Collectors.joining("", "; most repeated:", ""));
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,22 @@
+package com.artivisi.accountingfinance.querycount;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that hands every prepared SQL statement to the
+ * {@link QueryCount} recorders active on the calling thread.
+ *
+ * Registered for the test profile through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * MockMvc requests run on the test thread, so statements issued by controllers,
+ * services and view rendering are all seen. Work handed to other threads (async
+ * audit logging, parallel streams) is not counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCount.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,60 @@
+package com.artivisi.accountingfinance.querycount;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("QueryCount")
+class QueryCountTest {
+
+    private final QueryCountInspector inspector = new QueryCountInspector();
+
+    @Test
+    @DisplayName("Should count only statements issued while open")
+    void shouldCountOnlyWhileOpen() {
+        inspector.inspect("select 1");
+        QueryCount queries = QueryCount.start();
+        inspector.inspect("select 2");
+        queries.close();
+        inspector.inspect("select 3");
+
+        assertThat(queries.count()).isEqualTo(1);
+        assertThat(queries.statements()).containsExactly("select 2");
+    }
+
+    @Test
+    @DisplayName("Should let nested recorders see the same statements")
+    void shouldSupportNesting() {
+        try (QueryCount outer = QueryCount.start()) {
+            inspector.inspect("select a");
+            try (QueryCount inner = QueryCount.start()) {
+                inspector.inspect("select b");
+                assertThat(inner.count()).isEqualTo(1);
+            }
+            assertThat(outer.count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the most repeated statement when over budget")
+    void shouldReportRepeatsWhenOverBudget() throws Exception {
+        QueryCount queries = QueryCount.measure(() -> {
+            inspector.inspect("select * from accounts");
+            for (int i = 0; i < 3; i++) {
+                inspector.inspect("select sum(debit) from journal_entries where id_account=?");
+            }
+        });
+
+        assertThat(queries.repeats()).containsExactly(
+                entry("select sum(debit) from journal_entries where id_account=?", 3L),
+                entry("select * from accounts", 1L));
+        assertThat(queries.assertAtMost(4).count()).isEqualTo(4);
+        assertThatThrownBy(() -> queries.assertAtMost(2))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("at most 2 queries but 4")
+                .hasMessageContaining("3 x select sum(debit)");
+    }
+}
@@ -0,0 +1,247 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.dto.AgingDetailRow;
+import com.artivisi.accountingfinance.dto.AgingReport;
+import com.artivisi.accountingfinance.dto.AgingRow;
+import com.artivisi.accountingfinance.entity.Client;
+import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.entity.InvoicePayment;
+import com.artivisi.accountingfinance.enums.AgingPeriod;
+import com.artivisi.accountingfinance.enums.InvoiceStatus;
+import com.artivisi.accountingfinance.enums.PaymentMethod;
+import com.artivisi.accountingfinance.repository.ClientRepository;
+import com.artivisi.accountingfinance.repository.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for AgingReportService.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("AgingReportService Integration Tests")
+class AgingReportServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private AgingReportService agingReportService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client testClient;
+
+    @BeforeEach
+    void setUp() {
+        testClient = new Client();
+        testClient.setCode("CLI-AGING-" + System.nanoTime());
+        testClient.setName("Aging Test Client");
+        testClient = clientRepository.save(testClient);
+    }
+
+    @Nested
+    @DisplayName("Receivables Buckets")
+    class ReceivablesBucketTests {
+
+        @Test
+        @DisplayName("Should put balances into buckets by days past due")
+        void shouldBucketByDaysPastDue() {
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "1000000", InvoiceStatus.SENT);
+            createInvoice(AS_OF.minusDays(40), AS_OF.minusDays(10), "2000000", InvoiceStatus.SENT);
+            createInvoice(AS_OF.minusDays(80), AS_OF.minusDays(45), "3000000", InvoiceStatus.OVERDUE);
+            createInvoice(AS_OF.minusDays(100), AS_OF.minusDays(70), "4000000", InvoiceStatus.OVERDUE);
+            createInvoice(AS_OF.minusDays(200), AS_OF.minusDays(120), "5000000", InvoiceStatus.OVERDUE);
+
+            AgingRow row = findRow(agingReportService.generateReceivablesAging(AS_OF));
+
+            assertThat(row.bucket().current()).isEqualByComparingTo("1000000");
+            assertThat(row.bucket().days1to30()).isEqualByComparingTo("2000000");
+            assertThat(row.bucket().days31to60()).isEqualByComparingTo("3000000");
+            assertThat(row.bucket().days61to90()).isEqualByComparingTo("4000000");
+            assertThat(row.bucket().over90()).isEqualByComparingTo("5000000");
+            assertThat(row.bucket().total()).isEqualByComparingTo("15000000");
+        }
+
+        @Test
+        @DisplayName("Should exclude draft and cancelled invoices")
+        void shouldExcludeDraftAndCancelled() {
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "1000000", InvoiceStatus.SENT);
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "7000000", InvoiceStatus.DRAFT);
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "9000000", InvoiceStatus.CANCELLED);
+
+            AgingRow row = findRow(agingReportService.generateReceivablesAging(AS_OF));
+
+            assertThat(row.bucket().total()).isEqualByComparingTo("1000000");
+        }
+
+        @Test
+        @DisplayName("Report totals should equal the sum of rows")
+        void totalsShouldEqualSumOfRows() {
+            createInvoice(AS_OF.minusDays(40), AS_OF.minusDays(10), "2000000", InvoiceStatus.SENT);
+
+            AgingReport report = agingReportService.generateReceivablesAging(AS_OF);
+
+            BigDecimal sum = report.rows().stream()
+                    .map(r -> r.bucket().total())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(report.totals().total()).isEqualByComparingTo(sum);
+        }
+    }
+
+    @Nested
+    @DisplayName("As-of Snapshot")
+    class AsOfSnapshotTests {
+
+        @Test
+        @DisplayName("Should only deduct payments dated on or before the as-of date")
+        void shouldOnlyDeductPaymentsUpToAsOfDate() {
+            Invoice invoice = createInvoice(AS_OF.minusDays(40), AS_OF.minusDays(10), "5000000", InvoiceStatus.PAID);
+            addPayment(invoice, AS_OF.minusDays(5), "2000000");
+            addPayment(invoice, AS_OF.plusDays(5), "3000000");
+
+            AgingRow row = findRow(agingReportService.generateReceivablesAging(AS_OF));
+            assertThat(row.bucket().days1to30()).isEqualByComparingTo("3000000");
+
+            AgingReport later = agingReportService.generateReceivablesAging(AS_OF.plusDays(10));
+            assertThat(later.rows()).noneMatch(r -> r.entityId().equals(testClient.getId()));
+        }
+
+        @Test
+        @DisplayName("Should ignore invoices dated after the as-of date")
+        void shouldIgnoreFutureInvoices() {
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "1000000", InvoiceStatus.SENT);
+            createInvoice(AS_OF.plusDays(1), AS_OF.plusDays(30), "8000000", InvoiceStatus.SENT);
+
+            AgingRow row = findRow(agingReportService.generateReceivablesAging(AS_OF));
+
+            assertThat(row.bucket().total()).isEqualByComparingTo("1000000");
+        }
+
+        @Test
+        @DisplayName("Should treat invoices marked paid without payments as settled from the paid date")
+        void shouldSettleInvoicesMarkedPaidWithoutPayments() {
+            LocalDate today = LocalDate.now();
+            Invoice invoice = createInvoice(today.minusDays(40), today.minusDays(10), "4000000", InvoiceStatus.SENT);
+
+            invoiceService.markAsPaid(invoice.getId());
+
+            AgingReport current = agingReportService.generateReceivablesAging(today);
+            assertThat(current.rows()).noneMatch(r -> r.entityId().equals(testClient.getId()));
+            assertThat(agingReportService.findReceivablesDetails(
+                    testClient.getId(), null, today, PageRequest.of(0, 20)).getContent()).isEmpty();
+
+            AgingRow before = findRow(agingReportService.generateReceivablesAging(today.minusDays(1)));
+            assertThat(before.bucket().days1to30()).isEqualByComparingTo("4000000");
+        }
+    }
+
+    @Nested
+    @DisplayName("Drill-down")
+    class DrillDownTests {
+
+        @Test
+        @DisplayName("Should page through open invoices of one client and bucket")
+        void shouldPageOpenInvoicesByBucket() {
+            for (int i = 0; i < 3; i++) {
+                createInvoice(AS_OF.minusDays(40), AS_OF.minusDays(10 + i), "1000000", InvoiceStatus.SENT);
+            }
+            createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "1000000", InvoiceStatus.SENT);
+
+            Page<AgingDetailRow> firstPage = agingReportService.findReceivablesDetails(
+                    testClient.getId(), AgingPeriod.DAYS_1_TO_30, AS_OF, PageRequest.of(0, 2));
+
+            assertThat(firstPage.getTotalElements()).isEqualTo(3);
+            assertThat(firstPage.getContent()).hasSize(2);
+            assertThat(firstPage.getContent()).allSatisfy(row -> {
+                assertThat(row.daysOverdue()).isBetween(1L, 30L);
+                assertThat(row.balanceDue()).isEqualByComparingTo("1000000");
+            });
+            // Ordered by due date, oldest first
+            assertThat(firstPage.getContent().get(0).dueDate())
+                    .isBeforeOrEqualTo(firstPage.getContent().get(1).dueDate());
+        }
+
+        @Test
+        @DisplayName("Should report paid-as-of amount for partially paid invoices")
+        void shouldReportPaidAsOfAmount() {
+            Invoice invoice = createInvoice(AS_OF.minusDays(10), AS_OF.plusDays(5), "5000000", InvoiceStatus.PARTIAL);
+            addPayment(invoice, AS_OF.minusDays(1), "1500000");
+
+            Page<AgingDetailRow> details = agingReportService.findReceivablesDetails(
+                    testClient.getId(), null, AS_OF, PageRequest.of(0, 20));
+
+            assertThat(details.getContent()).singleElement().satisfies(row -> {
+                assertThat(row.documentNumber()).isEqualTo(invoice.getInvoiceNumber());
+                assertThat(row.paidAmount()).isEqualByComparingTo("1500000");
+                assertThat(row.balanceDue()).isEqualByComparingTo("3500000");
+                assertThat(row.daysOverdue()).isEqualTo(-5);
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Payables")
+    class PayablesTests {
+
+        @Test
+        @DisplayName("Should generate payables aging")
+        void shouldGeneratePayablesAging() {
+            AgingReport report = agingReportService.generatePayablesAging(LocalDate.now());
+
+            assertThat(report.reportType()).isEqualTo("PAYABLES");
+            assertThat(report.rows()).allSatisfy(r -> assertThat(r.bucket().total()).isPositive());
+        }
+    }
+
+    private AgingRow findRow(AgingReport report) {
+        return report.rows().stream()
+                .filter(r -> r.entityId().equals(testClient.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Invoice createInvoice(LocalDate invoiceDate, LocalDate dueDate, String amount, InvoiceStatus status) {
+        Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber("INV-AGING-" + System.nanoTime());
+        invoice.setClient(testClient);
+        invoice.setInvoiceDate(invoiceDate);
+        invoice.setDueDate(dueDate);
+        invoice.setAmount(new BigDecimal(amount));
+        invoice.setStatus(status);
+        return invoiceRepository.save(invoice);
+    }
+
+    private void addPayment(Invoice invoice, LocalDate paymentDate, String amount) {
+        InvoicePayment payment = new InvoicePayment();
+        payment.setInvoice(invoice);
+        payment.setPaymentDate(paymentDate);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(PaymentMethod.TRANSFER);
+        invoice.getPayments().add(payment);
+        invoiceRepository.save(invoice);
+    }
+}
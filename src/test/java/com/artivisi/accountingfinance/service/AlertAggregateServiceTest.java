@@ -0,0 +1,248 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.entity.Project;
+import com.artivisi.accountingfinance.enums.InvoiceStatus;
+import com.artivisi.accountingfinance.event.InvoicePaidEvent;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import com.artivisi.accountingfinance.repository.InvoiceRepository;
+import com.artivisi.accountingfinance.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for AlertAggregateService.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("AlertAggregateService Integration Tests")
+class AlertAggregateServiceTest {
+
+    @Autowired
+    private AlertAggregateService alertAggregateService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ProjectProfitabilityService projectProfitabilityService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @BeforeEach
+    void resetAggregates() {
+        // A check for a different day drops every cached aggregate
+        alertAggregateService.consumeChanges(LocalDate.now().minusDays(1));
+    }
+
+    @Nested
+    @DisplayName("Monthly Expense")
+    class MonthlyExpenseTests {
+
+        @Test
+        @DisplayName("Should match dashboard expense for the month")
+        void shouldMatchDashboardExpense() {
+            YearMonth month = YearMonth.of(2024, 1);
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(month.atDay(1), Set.of()));
+
+            assertThat(alertAggregateService.getMonthlyExpense(month))
+                    .isEqualByComparingTo(dashboardService.calculateKPIs(month).expense());
+        }
+
+        @Test
+        @DisplayName("Should return cached value until the month is invalidated")
+        void shouldReturnCachedValueUntilInvalidated() {
+            YearMonth month = YearMonth.now();
+            var first = alertAggregateService.getMonthlyExpense(month);
+
+            assertThat(alertAggregateService.getMonthlyExpense(month)).isSameAs(first);
+
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(month.atDay(1), Set.of()));
+            assertThat(alertAggregateService.getMonthlyExpense(month)).isEqualByComparingTo(first);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cash Balance")
+    class CashBalanceTests {
+
+        @Test
+        @DisplayName("Should match dashboard cash balance")
+        void shouldMatchDashboardCashBalance() {
+            assertThat(alertAggregateService.getCashBalance())
+                    .isEqualByComparingTo(dashboardService.calculateKPIs(YearMonth.now()).cashBalance());
+        }
+
+        @Test
+        @DisplayName("Should keep the balance when single months are invalidated")
+        void shouldKeepBalanceWhenMonthsInvalidated() {
+            BigDecimal first = alertAggregateService.getCashBalance();
+
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(LocalDate.now(), Set.of()));
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(LocalDate.of(1990, 1, 1), Set.of()));
+
+            assertThat(alertAggregateService.getCashBalance()).isEqualByComparingTo(first);
+        }
+    }
+
+    @Nested
+    @DisplayName("Client Revenue")
+    class ClientRevenueTests {
+
+        @Test
+        @DisplayName("Should match client ranking over the last twelve months")
+        void shouldMatchClientRanking() {
+            LocalDate today = LocalDate.now();
+            Map<UUID, BigDecimal> revenue = alertAggregateService.getClientRevenue();
+
+            for (ProjectProfitabilityService.ClientRankingItem item :
+                    projectProfitabilityService.getClientRanking(today.minusMonths(12), today, 0)) {
+                assertThat(revenue.get(item.client().getId())).isEqualByComparingTo(item.totalRevenue());
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep revenue when a month is invalidated")
+        void shouldKeepRevenueWhenMonthInvalidated() {
+            Map<UUID, BigDecimal> first = alertAggregateService.getClientRevenue();
+
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(LocalDate.now().minusMonths(1), Set.of()));
+
+            assertThat(alertAggregateService.getClientRevenue()).isEqualTo(first);
+        }
+    }
+
+    @Nested
+    @DisplayName("Project Totals")
+    class ProjectTotalsTests {
+
+        @Test
+        @DisplayName("Should match project profitability")
+        void shouldMatchProjectProfitability() {
+            List<Project> projects = projectRepository.findAll();
+            Set<UUID> ids = Set.copyOf(projects.stream().map(Project::getId).toList());
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(LocalDate.now(), ids));
+
+            Map<UUID, AlertAggregateService.ProjectLedgerTotals> totals =
+                    alertAggregateService.getProjectTotals(projects);
+
+            assertThat(totals).hasSameSizeAs(projects);
+            for (Project project : projects) {
+                ProjectProfitabilityService.ProjectProfitabilityReport report = projectProfitabilityService
+                        .calculateProjectProfitability(project.getId(), LocalDate.of(1900, 1, 1), LocalDate.now());
+                AlertAggregateService.ProjectLedgerTotals projectTotals = totals.get(project.getId());
+
+                assertThat(projectTotals.totalRevenue()).isEqualByComparingTo(report.totalRevenue());
+                assertThat(projectTotals.profitMargin()).isEqualByComparingTo(report.profitMargin());
+                assertThat(projectTotals.costToDate()).isEqualByComparingTo(report.costToDate());
+            }
+        }
+
+        @Test
+        @DisplayName("Should return empty map for no projects")
+        void shouldReturnEmptyMapForNoProjects() {
+            assertThat(alertAggregateService.getProjectTotals(List.of())).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Collection Window")
+    class CollectionWindowTests {
+
+        @Test
+        @DisplayName("Should average days from sent to paid over the window")
+        void shouldAverageCollectionDays() {
+            LocalDateTime now = LocalDateTime.now();
+            List<Invoice> recentPaid = invoiceRepository.findByStatus(InvoiceStatus.PAID).stream()
+                    .filter(i -> i.getPaidAt() != null && i.getSentAt() != null)
+                    .filter(i -> i.getPaidAt().isAfter(now.minusMonths(6)))
+                    .toList();
+
+            AlertAggregateService.CollectionStats stats = alertAggregateService.getCollectionStats(now);
+
+            assertThat(stats.invoiceCount()).isEqualTo(recentPaid.size());
+            if (!recentPaid.isEmpty()) {
+                double expected = recentPaid.stream()
+                        .mapToLong(i -> ChronoUnit.DAYS.between(i.getSentAt(), i.getPaidAt()))
+                        .average()
+                        .orElse(0);
+                assertThat(stats.averageDays()).isEqualTo(expected);
+            }
+        }
+
+        @Test
+        @DisplayName("Should add paid invoices once and drop them when they leave the window")
+        void shouldAddAndEvictPaidInvoices() {
+            LocalDateTime now = LocalDateTime.now();
+            int before = alertAggregateService.getCollectionStats(now).invoiceCount();
+
+            InvoicePaidEvent event = new InvoicePaidEvent(UUID.randomUUID(), now.minusDays(40), now.minusDays(10));
+            alertAggregateService.onInvoicePaid(event);
+            alertAggregateService.onInvoicePaid(event);
+
+            assertThat(alertAggregateService.getCollectionStats(now).invoiceCount()).isEqualTo(before + 1);
+
+            // Six months on, the payment has left the window
+            assertThat(alertAggregateService.getCollectionStats(now.plusMonths(6)).invoiceCount())
+                    .isLessThanOrEqualTo(before);
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Detection")
+    class ChangeDetectionTests {
+
+        @Test
+        @DisplayName("Should report changes only after events")
+        void shouldReportChangesOnlyAfterEvents() {
+            LocalDate today = LocalDate.now();
+            alertAggregateService.consumeChanges(today);
+
+            assertThat(alertAggregateService.consumeChanges(today)).isFalse();
+
+            alertAggregateService.onLedgerChanged(new LedgerChangedEvent(today, Set.of()));
+            assertThat(alertAggregateService.consumeChanges(today)).isTrue();
+            assertThat(alertAggregateService.consumeChanges(today)).isFalse();
+
+            alertAggregateService.markChanged();
+            assertThat(alertAggregateService.consumeChanges(today)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should report a change on the first check of a new day")
+        void shouldReportChangeOnNewDay() {
+            LocalDate today = LocalDate.now();
+            alertAggregateService.consumeChanges(today);
+            alertAggregateService.consumeChanges(today);
+
+            assertThat(alertAggregateService.consumeChanges(today.plusDays(1))).isTrue();
+            assertThat(alertAggregateService.consumeChanges(today.plusDays(1))).isFalse();
+        }
+    }
+}
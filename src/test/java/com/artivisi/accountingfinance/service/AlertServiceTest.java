@@ -18,9 +18,13 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -48,6 +52,12 @@ class AlertServiceTest {
     @Autowired
     private AlertEventRepository alertEventRepository;
 
+    @Autowired
+    private AlertAggregateService alertAggregateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Nested
     @DisplayName("CRUD Operations")
     class CrudTests {
@@ -252,6 +262,23 @@ class AlertServiceTest {
             assertThat(secondRun.size()).isGreaterThanOrEqualTo(firstRun.size());
         }
 
+        @Test
+        @DisplayName("Should not trigger again within 24h after the alert is acknowledged")
+        void shouldNotRetriggerAfterAcknowledge() {
+            AlertRule cashLow = alertRuleRepository.findByAlertType(AlertType.CASH_LOW).orElseThrow();
+            cashLow.setThreshold(new BigDecimal("999999999999"));
+            cashLow.setEnabled(true);
+            cashLow.setLastTriggeredAt(null);
+            alertRuleRepository.save(cashLow);
+            disableAllRulesExcept(AlertType.CASH_LOW);
+
+            assertThat(alertService.evaluateAllAlerts()).isEqualTo(1);
+            alertEventRepository.findByAcknowledgedAtIsNullOrderByTriggeredAtDesc()
+                    .forEach(e -> alertService.acknowledge(e.getId(), "testuser"));
+
+            assertThat(alertService.evaluateAllAlerts()).isZero();
+        }
+
         @Test
         @DisplayName("Should not trigger alerts when all rules are disabled")
         void shouldNotTriggerWhenAllDisabled() {
@@ -273,6 +300,7 @@ class AlertServiceTest {
             AlertRule cashLow = alertRuleRepository.findByAlertType(AlertType.CASH_LOW).orElseThrow();
             cashLow.setThreshold(new BigDecimal("999999999999"));
             cashLow.setEnabled(true);
+            cashLow.setLastTriggeredAt(null);
             alertRuleRepository.save(cashLow);
 
             // Disable all other rules
@@ -371,6 +399,23 @@ class AlertServiceTest {
             assertThat(triggered).isGreaterThanOrEqualTo(0);
         }
 
+        @Test
+        @DisplayName("Should evaluate changes again when the evaluation is rolled back")
+        void shouldKeepChangesWhenEvaluationRolledBack() {
+            LocalDate today = LocalDate.now();
+            alertAggregateService.consumeChanges(today);
+            alertAggregateService.markChanged();
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> {
+                alertService.evaluateChangedAlerts();
+                status.setRollbackOnly();
+            });
+
+            assertThat(alertAggregateService.consumeChanges(today)).isTrue();
+        }
+
         @Test
         @DisplayName("Should update lastTriggeredAt when alert triggers")
         void shouldUpdateLastTriggeredAtWhenTriggered() {
@@ -0,0 +1,166 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.AmortizationEntry;
+import com.artivisi.accountingfinance.entity.AmortizationSchedule;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.enums.AccountType;
+import com.artivisi.accountingfinance.enums.AmortizationEntryStatus;
+import com.artivisi.accountingfinance.enums.AmortizationFrequency;
+import com.artivisi.accountingfinance.enums.ScheduleType;
+import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for AmortizationBatchService.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "admin")
+@DisplayName("AmortizationBatchService Integration Tests")
+class AmortizationBatchServiceTest {
+
+    @Autowired
+    private AmortizationBatchService batchService;
+
+    @Autowired
+    private AmortizationScheduleService scheduleService;
+
+    @Autowired
+    private AmortizationEntryService entryService;
+
+    @Autowired
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    private ChartOfAccount prepaidAccount;
+    private ChartOfAccount expenseAccount;
+
+    @BeforeEach
+    void setUp() {
+        prepaidAccount = firstPostableAccount(AccountType.ASSET);
+        expenseAccount = firstPostableAccount(AccountType.EXPENSE);
+    }
+
+    @Nested
+    @DisplayName("Consolidated Auto-Post")
+    class ConsolidatedAutoPostTests {
+
+        @Test
+        @DisplayName("Should post entries of the same period and account pair to one journal line")
+        void shouldShareJournalLineForSameAccountPair() {
+            AmortizationSchedule first = createSchedule("AMB-A", "1200000");
+            AmortizationSchedule second = createSchedule("AMB-B", "2400000");
+
+            AmortizationBatchService.BatchResult result = batchService.processAutoPostEntries(LocalDate.now());
+
+            assertThat(result.hasErrors()).isFalse();
+            assertThat(result.journalCount()).isPositive().isLessThan(result.successCount());
+
+            AmortizationEntry firstEntry = entryService.findByScheduleId(first.getId()).get(0);
+            AmortizationEntry secondEntry = entryService.findByScheduleId(second.getId()).get(0);
+            assertThat(firstEntry.getStatus()).isEqualTo(AmortizationEntryStatus.POSTED);
+            assertThat(secondEntry.getStatus()).isEqualTo(AmortizationEntryStatus.POSTED);
+            assertThat(secondEntry.getJournalNumber()).isEqualTo(firstEntry.getJournalNumber());
+            assertThat(secondEntry.getJournalEntryId()).isEqualTo(firstEntry.getJournalEntryId());
+        }
+
+        @Test
+        @DisplayName("Should link each entry to the debit line of its own account pair")
+        void shouldLinkEntryToItsOwnDebitLine() {
+            AmortizationSchedule prepaid = createSchedule("AMB-D", "1200000");
+            AmortizationSchedule unearned = createSchedule("AMB-E", "2400000");
+            unearned.setScheduleType(ScheduleType.UNEARNED_REVENUE);
+
+            batchService.processAutoPostEntries(LocalDate.now());
+
+            AmortizationEntry prepaidEntry = entryService.findByScheduleId(prepaid.getId()).get(0);
+            AmortizationEntry unearnedEntry = entryService.findByScheduleId(unearned.getId()).get(0);
+            assertThat(unearnedEntry.getJournalEntryId()).isNotEqualTo(prepaidEntry.getJournalEntryId());
+            assertThat(journalEntryRepository.findById(prepaidEntry.getJournalEntryId()).orElseThrow())
+                    .satisfies(line -> {
+                        assertThat(line.getAccount().getId()).isEqualTo(expenseAccount.getId());
+                        assertThat(line.getDebitAmount()).isPositive();
+                    });
+            assertThat(journalEntryRepository.findById(unearnedEntry.getJournalEntryId()).orElseThrow())
+                    .satisfies(line -> {
+                        assertThat(line.getAccount().getId()).isEqualTo(prepaidAccount.getId());
+                        assertThat(line.getDebitAmount()).isPositive();
+                    });
+        }
+
+        @Test
+        @DisplayName("Should post each period end to its own journal")
+        void shouldPostEachPeriodEndSeparately() {
+            AmortizationSchedule schedule = createSchedule("AMB-P", "1200000");
+
+            batchService.processAutoPostEntries(LocalDate.now());
+
+            List<AmortizationEntry> posted = entryService.findByScheduleId(schedule.getId()).stream()
+                    .filter(AmortizationEntry::isPosted)
+                    .toList();
+            assertThat(posted).hasSizeGreaterThan(1);
+            assertThat(posted).extracting(AmortizationEntry::getJournalNumber).doesNotHaveDuplicates();
+        }
+
+        @Test
+        @DisplayName("Should update schedule counters from posted entries")
+        void shouldUpdateScheduleCounters() {
+            AmortizationSchedule schedule = createSchedule("AMB-C", "1200000");
+
+            batchService.processAutoPostEntries(LocalDate.now());
+
+            AmortizationSchedule updated = scheduleService.findById(schedule.getId());
+            long postedCount = entryService.findByScheduleId(schedule.getId()).stream()
+                    .filter(AmortizationEntry::isPosted)
+                    .count();
+            assertThat(updated.getCompletedPeriods()).isEqualTo((int) postedCount);
+            assertThat(updated.getAmortizedAmount())
+                    .isEqualByComparingTo(updated.getPeriodAmount().multiply(BigDecimal.valueOf(postedCount)));
+            assertThat(updated.getRemainingAmount())
+                    .isEqualByComparingTo(updated.getTotalAmount().subtract(updated.getAmortizedAmount()));
+        }
+    }
+
+    private AmortizationSchedule createSchedule(String codePrefix, String totalAmount) {
+        AmortizationSchedule schedule = new AmortizationSchedule();
+        schedule.setCode(codePrefix + "-" + System.nanoTime());
+        schedule.setName(codePrefix + " Prepaid Rent");
+        schedule.setScheduleType(ScheduleType.PREPAID_EXPENSE);
+        schedule.setSourceAccount(prepaidAccount);
+        schedule.setTargetAccount(expenseAccount);
+        schedule.setTotalAmount(new BigDecimal(totalAmount));
+        schedule.setStartDate(LocalDate.now().minusMonths(3).withDayOfMonth(1));
+        schedule.setEndDate(LocalDate.now().plusMonths(8).withDayOfMonth(1));
+        schedule.setFrequency(AmortizationFrequency.MONTHLY);
+        schedule.setAutoPost(true);
+        return scheduleService.create(schedule);
+    }
+
+    private ChartOfAccount firstPostableAccount(AccountType type) {
+        return chartOfAccountRepository.findByAccountTypeAndActiveOrderByAccountCodeAsc(type, true).stream()
+                .filter(account -> !Boolean.TRUE.equals(account.getIsHeader()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,154 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.BillOfMaterial;
+import com.artivisi.accountingfinance.entity.BillOfMaterialLine;
+import com.artivisi.accountingfinance.entity.Product;
+import com.artivisi.accountingfinance.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for BomExplosionService.
+ * Uses test data from V911__inventory_report_test_data.sql: component 1 at
+ * average cost 10,000 is made into component 2 (3 per 2 units), and both go
+ * into the finished product.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "testuser")
+@DisplayName("BomExplosionService Integration Tests")
+class BomExplosionServiceTest {
+
+    @Autowired
+    private BomExplosionService explosionService;
+
+    @Autowired
+    private BillOfMaterialService bomService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private static final UUID PRODUCT_FINISHED_ID = UUID.fromString("d0911002-0000-0000-0000-000000000003");
+    private static final UUID PRODUCT_COMPONENT_1_ID = UUID.fromString("d0911002-0000-0000-0000-000000000001");
+    private static final UUID PRODUCT_COMPONENT_2_ID = UUID.fromString("d0911002-0000-0000-0000-000000000002");
+
+    private BigDecimal materialCost;
+
+    @BeforeEach
+    void setup() {
+        createBom("BOM-EXPL-SUB", PRODUCT_COMPONENT_2_ID, "2", Map.of(PRODUCT_COMPONENT_1_ID, "3"));
+        createBom("BOM-EXPL-TOP", PRODUCT_FINISHED_ID, "1",
+                Map.of(PRODUCT_COMPONENT_2_ID, "2", PRODUCT_COMPONENT_1_ID, "1"));
+        materialCost = inventoryService.getCurrentAverageCost(PRODUCT_COMPONENT_1_ID);
+    }
+
+    @Nested
+    @DisplayName("Cost Roll-up")
+    class CostRollupTests {
+
+        @Test
+        @DisplayName("Should roll sub-assembly cost up into the finished product")
+        void shouldRollUpThroughSubAssembly() {
+            BigDecimal subAssemblyCost = materialCost.multiply(new BigDecimal("1.5"));
+
+            assertThat(explosionService.rolledUpCost(PRODUCT_COMPONENT_2_ID)).isEqualByComparingTo(subAssemblyCost);
+            assertThat(explosionService.rolledUpCost(PRODUCT_FINISHED_ID))
+                    .isEqualByComparingTo(subAssemblyCost.multiply(new BigDecimal("2")).add(materialCost));
+        }
+
+        @Test
+        @DisplayName("Should recompute costs after a material's average cost changes")
+        void shouldRecomputeAfterAverageCostChanges() {
+            BigDecimal before = explosionService.rolledUpCost(PRODUCT_FINISHED_ID);
+
+            inventoryService.recordPurchase(PRODUCT_COMPONENT_1_ID, LocalDate.now(), new BigDecimal("50"),
+                    materialCost.multiply(new BigDecimal("3")), "PO-EXPL-001", "Kenaikan harga");
+
+            assertThat(explosionService.rolledUpCost(PRODUCT_FINISHED_ID)).isGreaterThan(before);
+        }
+    }
+
+    @Nested
+    @DisplayName("Explosion")
+    class ExplosionTests {
+
+        @Test
+        @DisplayName("Should explode demand down to purchased materials")
+        void shouldExplodeToMaterials() {
+            BomExplosionService.MaterialRequirements requirements =
+                    explosionService.explode(Map.of(PRODUCT_FINISHED_ID, BigDecimal.TEN));
+
+            assertThat(requirements.assemblies().get(PRODUCT_FINISHED_ID)).isEqualByComparingTo("10");
+            assertThat(requirements.assemblies().get(PRODUCT_COMPONENT_2_ID)).isEqualByComparingTo("20");
+            assertThat(requirements.materials()).containsOnlyKeys(PRODUCT_COMPONENT_1_ID);
+            assertThat(requirements.materials().get(PRODUCT_COMPONENT_1_ID)).isEqualByComparingTo("40");
+            assertThat(requirements.materialCost())
+                    .isEqualByComparingTo(materialCost.multiply(new BigDecimal("40")));
+        }
+
+        @Test
+        @DisplayName("Should sum shared sub-assembly demand across orders")
+        void shouldSumSharedSubAssemblyDemand() {
+            BomExplosionService.MaterialRequirements requirements = explosionService.explode(
+                    Map.of(PRODUCT_FINISHED_ID, BigDecimal.TEN, PRODUCT_COMPONENT_2_ID, new BigDecimal("4")));
+
+            assertThat(requirements.assemblies().get(PRODUCT_COMPONENT_2_ID)).isEqualByComparingTo("24");
+            assertThat(requirements.materials().get(PRODUCT_COMPONENT_1_ID)).isEqualByComparingTo("46");
+        }
+    }
+
+    @Nested
+    @DisplayName("Cycle Detection")
+    class CycleDetectionTests {
+
+        @Test
+        @DisplayName("Should reject a BOM that makes a product its own indirect component")
+        void shouldRejectIndirectCycle() {
+            assertThatThrownBy(() -> createBom("BOM-EXPL-CYCLE", PRODUCT_COMPONENT_1_ID, "1",
+                    Map.of(PRODUCT_FINISHED_ID, "1")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("siklus");
+        }
+    }
+
+    private void createBom(String code, UUID productId, String outputQuantity, Map<UUID, String> components) {
+        BillOfMaterial bom = new BillOfMaterial();
+        bom.setCode(code);
+        bom.setName(code);
+        bom.setProduct(product(productId));
+        bom.setOutputQuantity(new BigDecimal(outputQuantity));
+        components.forEach((componentId, quantity) -> {
+            BillOfMaterialLine line = new BillOfMaterialLine();
+            line.setComponent(product(componentId));
+            line.setQuantity(new BigDecimal(quantity));
+            bom.addLine(line);
+        });
+        bomService.create(bom);
+    }
+
+    private Product product(UUID id) {
+        return productRepository.findById(id).orElseThrow();
+    }
+}
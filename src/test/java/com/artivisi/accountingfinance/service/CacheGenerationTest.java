@@ -0,0 +1,79 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CacheGeneration.
+ */
+@DisplayName("CacheGeneration - Cache Invalidation Counter")
+class CacheGenerationTest {
+
+    private final CacheGeneration generation = new CacheGeneration();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a value built without an invalidation")
+    void shouldKeepValueBuiltWithoutInvalidation() {
+        AtomicReference<String> kept = new AtomicReference<>();
+
+        String built = generation.build(() -> "fresh", kept::set);
+
+        assertThat(built).isEqualTo("fresh");
+        assertThat(kept).hasValue("fresh");
+    }
+
+    @Test
+    @DisplayName("Should return but not keep a value built across an invalidation")
+    void shouldNotKeepValueBuiltAcrossInvalidation() {
+        AtomicReference<String> kept = new AtomicReference<>();
+
+        String built = generation.build(() -> {
+            generation.invalidateNow(() -> kept.set(null));
+            return "stale";
+        }, kept::set);
+
+        assertThat(built).isEqualTo("stale");
+        assertThat(kept).hasValue(null);
+    }
+
+    @Test
+    @DisplayName("Should drop again when the invalidating transaction completes")
+    void shouldDropAgainAfterCompletion() {
+        AtomicInteger drops = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        generation.invalidate(drops::incrementAndGet);
+        long afterInvalidate = generation.current();
+        assertThat(drops).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(drops).hasValue(2);
+        assertThat(generation.isCurrent(afterInvalidate)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should tell values older than the maximum age")
+    void shouldTellValuesOlderThanMaxAge() {
+        long now = System.nanoTime();
+
+        assertThat(CacheGeneration.isOlderThan(now, 10)).isFalse();
+        assertThat(CacheGeneration.isOlderThan(now - 11 * 60_000_000_000L, 10)).isTrue();
+    }
+}
@@ -0,0 +1,269 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.entity.Client;
+import com.artivisi.accountingfinance.entity.Invoice;
+import com.artivisi.accountingfinance.entity.InvoicePayment;
+import com.artivisi.accountingfinance.entity.JournalEntry;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.ChangeEntityType;
+import com.artivisi.accountingfinance.enums.ChangeType;
+import com.artivisi.accountingfinance.enums.InvoiceStatus;
+import com.artivisi.accountingfinance.enums.PaymentMethod;
+import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.ClientRepository;
+import com.artivisi.accountingfinance.repository.InvoiceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for ChangeLogService.
+ * Feed tests commit their rows, since the feed only returns committed changes,
+ * and delete them afterwards.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("ChangeLogService Integration Tests")
+class ChangeLogServiceTest {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> committedIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteCommittedChanges() {
+        if (committedIds.isEmpty()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createNativeQuery("DELETE FROM change_log WHERE entity_id IN :ids")
+                        .setParameter("ids", committedIds)
+                        .executeUpdate());
+    }
+
+    @Nested
+    @DisplayName("Recording")
+    @WithMockUser(username = "admin")
+    class RecordingTests {
+
+        @Test
+        @DisplayName("Should log a manual journal's lifecycle against its transaction")
+        void shouldLogJournalLifecycle() {
+            Transaction journal = journalEntryService.create(journalHeader(), balancedEntries());
+            String journalNumber = journal.getJournalEntries().getFirst().getJournalNumber();
+
+            journalEntryService.post(journalNumber);
+            journalEntryService.voidEntry(journalNumber, "Salah input");
+
+            assertThat(history(journal.getId())).containsExactly(
+                    "TRANSACTION CREATED DRAFT",
+                    "TRANSACTION POSTED POSTED",
+                    "TRANSACTION VOIDED VOID");
+        }
+
+        @Test
+        @DisplayName("Should log a payment and the invoice status it leads to")
+        void shouldLogInvoicePayment() {
+            Invoice invoice = sentInvoice();
+            InvoicePayment payment = new InvoicePayment();
+            payment.setPaymentDate(LocalDate.now());
+            payment.setAmount(new BigDecimal("2000000"));
+            payment.setPaymentMethod(PaymentMethod.TRANSFER);
+
+            invoiceService.recordPayment(invoice.getId(), payment);
+
+            assertThat(history(payment.getId())).containsExactly("INVOICE_PAYMENT CREATED null");
+            assertThat(history(invoice.getId())).containsExactly("INVOICE UPDATED PARTIAL");
+        }
+    }
+
+    @Nested
+    @DisplayName("Reading")
+    class ReadingTests {
+
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should page through committed changes and resume from the cursor")
+        void shouldPageFromCursor() {
+            String cursor = drain();
+            UUID first = commitChange();
+            UUID second = commitChange();
+            UUID third = commitChange();
+
+            ChangeLogService.ChangePage page = changeLogService.readChanges(cursor, 2);
+            assertThat(entityIds(page)).containsExactly(first, second);
+            assertThat(page.hasMore()).isTrue();
+
+            ChangeLogService.ChangePage next = changeLogService.readChanges(page.nextCursor(), 2);
+            assertThat(entityIds(next)).containsExactly(third);
+            assertThat(next.hasMore()).isFalse();
+
+            ChangeLogService.ChangePage empty = changeLogService.readChanges(next.nextCursor(), 2);
+            assertThat(empty.changes()).isEmpty();
+            assertThat(empty.nextCursor()).isEqualTo(next.nextCursor());
+        }
+
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should hold back later commits until an earlier transaction finishes")
+        void shouldHoldBackBehindRunningTransaction() throws Exception {
+            String cursor = drain();
+            UUID early = UUID.randomUUID();
+            committedIds.add(early);
+            CountDownLatch recorded = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread writer = Thread.ofVirtual().start(() ->
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        changeLogService.record(ChangeEntityType.BILL, early, ChangeType.CREATED, "FEED-EARLY", "DRAFT");
+                        recorded.countDown();
+                        await(release);
+                    }));
+            try {
+                assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+                UUID late = commitChange();
+
+                assertThat(changeLogService.readChanges(cursor, 10).changes()).isEmpty();
+
+                release.countDown();
+                writer.join(10_000);
+                assertThat(entityIds(changeLogService.readChanges(cursor, 10))).containsExactly(early, late);
+            } finally {
+                release.countDown();
+                writer.join(10_000);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> changeLogService.readChanges("not-a-cursor", 10))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid change cursor");
+        }
+    }
+
+    private String drain() {
+        ChangeLogService.ChangePage page = changeLogService.readChanges(null, 500);
+        while (page.hasMore()) {
+            page = changeLogService.readChanges(page.nextCursor(), 500);
+        }
+        return page.nextCursor();
+    }
+
+    private UUID commitChange() {
+        UUID id = UUID.randomUUID();
+        committedIds.add(id);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                changeLogService.record(ChangeEntityType.INVOICE, id, ChangeType.CREATED, "FEED-TEST", "DRAFT"));
+        return id;
+    }
+
+    private static List<UUID> entityIds(ChangeLogService.ChangePage page) {
+        return page.changes().stream().map(ChangeLogService.Change::entityId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> history(UUID entityId) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT entity_type, change_type, status FROM change_log WHERE entity_id = :id ORDER BY seq")
+                .setParameter("id", entityId)
+                .getResultList();
+        return rows.stream().map(row -> row[0] + " " + row[1] + " " + row[2]).toList();
+    }
+
+    private Transaction journalHeader() {
+        Transaction header = new Transaction();
+        header.setTransactionDate(LocalDate.now());
+        header.setDescription("Change log journal");
+        return header;
+    }
+
+    private List<JournalEntry> balancedEntries() {
+        ChartOfAccount cash = chartOfAccountRepository.findByAccountCode("1.1.01").orElseThrow();
+        ChartOfAccount revenue = chartOfAccountRepository.findByAccountCode("4.1.01").orElseThrow();
+
+        JournalEntry debit = new JournalEntry();
+        debit.setAccount(cash);
+        debit.setDebitAmount(new BigDecimal("1000000"));
+        debit.setCreditAmount(BigDecimal.ZERO);
+
+        JournalEntry credit = new JournalEntry();
+        credit.setAccount(revenue);
+        credit.setDebitAmount(BigDecimal.ZERO);
+        credit.setCreditAmount(new BigDecimal("1000000"));
+        return new ArrayList<>(List.of(debit, credit));
+    }
+
+    private Invoice sentInvoice() {
+        Client client = new Client();
+        client.setCode("CLI-CHG-" + System.currentTimeMillis());
+        client.setName("Change Log Client");
+        client = clientRepository.save(client);
+
+        Invoice invoice = new Invoice();
+        invoice.setClient(client);
+        invoice.setInvoiceNumber("INV-CHG-" + UUID.randomUUID().toString().substring(0, 8));
+        invoice.setInvoiceDate(LocalDate.now());
+        invoice.setDueDate(LocalDate.now().plusDays(30));
+        invoice.setAmount(new BigDecimal("5000000"));
+        invoice.setStatus(InvoiceStatus.SENT);
+        return invoiceRepository.save(invoice);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,7 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.YearMonth;
@@ -29,6 +33,12 @@ class DashboardServiceTest {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Nested
     @DisplayName("KPI Calculation")
     class KpiTests {
@@ -64,6 +74,18 @@ class DashboardServiceTest {
                     .isEqualByComparingTo(kpi.revenue().subtract(kpi.expense()));
         }
 
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should compose the same KPIs concurrently outside a transaction")
+        void shouldComposeSameKpisConcurrently() {
+            YearMonth month = YearMonth.of(2025, 6);
+            DashboardService.DashboardKPI concurrent = dashboardService.calculateKPIs(month);
+            DashboardService.DashboardKPI inline = new TransactionTemplate(transactionManager)
+                    .execute(status -> dashboardService.calculateKPIs(month));
+
+            assertThat(concurrent).isEqualTo(inline);
+        }
+
         @Test
         @DisplayName("Should include transaction count")
         void shouldIncludeTransactionCount() {
@@ -301,6 +323,29 @@ class DashboardServiceTest {
             }
         }
 
+        @Test
+        @DisplayName("Should include usage not yet flushed")
+        void shouldIncludeUnflushedUsage() {
+            JournalTemplate template = journalTemplateService.findAll().getFirst();
+            int before = dashboardService.getFrequentTemplates(Integer.MAX_VALUE).stream()
+                    .filter(t -> t.id().equals(template.getId()))
+                    .map(DashboardService.QuickTemplate::usageCount)
+                    .findFirst()
+                    .orElse(0);
+
+            journalTemplateService.recordUsage(template.getId());
+
+            List<DashboardService.QuickTemplate> frequent = dashboardService.getFrequentTemplates(Integer.MAX_VALUE);
+            assertThat(frequent)
+                    .filteredOn(t -> t.id().equals(template.getId()))
+                    .singleElement()
+                    .satisfies(t -> assertThat(t.usageCount()).isEqualTo(before + 1));
+
+            List<DashboardService.QuickTemplate> recent = dashboardService.getRecentTemplates(1);
+            assertThat(recent).singleElement()
+                    .satisfies(t -> assertThat(t.id()).isEqualTo(template.getId()));
+        }
+
         @Test
         @DisplayName("Should include template details")
         void shouldIncludeTemplateDetails() {
@@ -1,6 +1,8 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.zip.ZipEntry;
@@ -32,6 +35,12 @@ class DataExportServiceTest {
     @Autowired
     private DataExportService dataExportService;
 
+    @Autowired
+    private JournalTemplateRepository journalTemplateRepository;
+
+    @Autowired
+    private TemplateUsageTracker templateUsageTracker;
+
     @Nested
     @DisplayName("Export Statistics Operations")
     class ExportStatisticsTests {
@@ -145,6 +154,26 @@ class DataExportServiceTest {
             assertThat(fileNames).contains("04_journal_templates.csv");
         }
 
+        @Test
+        @DisplayName("Should export template usage including uses not yet flushed")
+        void shouldExportPendingTemplateUsage() throws IOException {
+            JournalTemplate template = journalTemplateRepository.findAll().stream()
+                    .filter(t -> !t.getTemplateName().contains(",") && !t.getTemplateName().contains("\""))
+                    .findFirst().orElseThrow();
+            int persisted = template.getUsageCount() != null ? template.getUsageCount() : 0;
+            for (int i = 0; i < 3; i++) {
+                templateUsageTracker.record(template.getId());
+            }
+
+            String csv = readZipEntry(dataExportService.exportAllData(), "04_journal_templates.csv");
+
+            String row = csv.lines()
+                    .filter(line -> line.startsWith(template.getTemplateName() + ","))
+                    .findFirst().orElseThrow();
+            assertThat(row.split(",")[8]).isEqualTo(String.valueOf(templateUsageTracker.getUsageCount(template)))
+                    .isNotEqualTo(String.valueOf(persisted));
+        }
+
         @Test
         @DisplayName("Should contain clients CSV")
         void shouldContainClientsCsv() throws IOException {
@@ -417,6 +446,18 @@ class DataExportServiceTest {
         }
     }
 
+    private String readZipEntry(byte[] zipData, String name) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.getName().equals(name)) {
+                    return new String(zis.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No " + name + " in export");
+    }
+
     private Set<String> getZipFileNames(byte[] zipData) throws IOException {
         Set<String> names = new HashSet<>();
         try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipData))) {
@@ -4,6 +4,7 @@ import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.DraftTransaction;
 import com.artivisi.accountingfinance.repository.DraftTransactionRepository;
 import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -268,4 +270,41 @@ class DraftTransactionServiceIntegrationTest {
             assertThat(saved.getSuggestedTemplate().getId()).isEqualTo(template.get().getId());
         }
     }
+
+    // ==================== Receipt Processing ====================
+
+    @Test
+    @DisplayName("Should create a draft from a receipt through the local OCR backend")
+    void shouldProcessReceiptThroughLocalOcr() {
+        // The test profile uses LocalOcrService, which reads a plain-text image as its own text
+        byte[] receipt = """
+                Bank Jago
+                Transfer Berhasil
+                Rp 1.500.000
+                """.getBytes(StandardCharsets.UTF_8);
+        IngestTimings timings = new IngestTimings();
+
+        DraftTransaction draft = draftTransactionService.processReceiptImage(
+                receipt, null, 1001L, 2002L, "testuser", timings);
+
+        assertThat(draft.getId()).isNotNull();
+        assertThat(draft.getSource()).isEqualTo(DraftTransaction.Source.TELEGRAM);
+        assertThat(draft.getReceiptType()).isEqualTo("jago");
+        assertThat(draft.getAmount()).isEqualByComparingTo("1500000");
+        assertThat(draft.getTelegramMessageId()).isEqualTo(2002L);
+        assertThat(timings.asMap()).containsKeys(
+                IngestTimings.Stage.OCR, IngestTimings.Stage.PARSE, IngestTimings.Stage.DRAFT);
+    }
+
+    @Test
+    @DisplayName("Should save a failed draft when OCR finds no text")
+    void shouldSaveFailedDraftWhenOcrFails() {
+        byte[] binaryImage = {(byte) 0x89, 'P', 'N', 'G', 0, 0, (byte) 0xFF};
+
+        DraftTransaction draft = draftTransactionService.processReceiptImage(
+                binaryImage, null, 1001L, 2003L, "testuser");
+
+        assertThat(draft.getRawOcrText()).startsWith("Error: ");
+        assertThat(draft.getOverallConfidence()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
 }
@@ -3,6 +3,7 @@ package com.artivisi.accountingfinance.service;
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.FiscalPeriod;
 import com.artivisi.accountingfinance.enums.FiscalPeriodStatus;
+import com.artivisi.accountingfinance.repository.InventorySnapshotRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -37,6 +38,9 @@ class FiscalPeriodServiceTest {
     @Autowired
     private FiscalPeriodService fiscalPeriodService;
 
+    @Autowired
+    private InventorySnapshotRepository inventorySnapshotRepository;
+
     @Nested
     @DisplayName("Find Operations")
     class FindOperationsTests {
@@ -210,6 +214,17 @@ class FiscalPeriodServiceTest {
             assertThat(closed.getMonthClosedBy()).isEqualTo("admin");
         }
 
+        @Test
+        @WithMockUser(username = "admin")
+        @DisplayName("Should write the month-end inventory snapshot when closing a month")
+        void shouldSnapshotInventoryOnClose() {
+            FiscalPeriod period = fiscalPeriodService.create(2092, 3);
+
+            fiscalPeriodService.closeMonth(period.getId(), "Closing");
+
+            assertThat(inventorySnapshotRepository.countBySnapshotDate(LocalDate.of(2092, 3, 31))).isPositive();
+        }
+
         @Test
         @WithMockUser(username = "admin")
         @DisplayName("Should reopen closed month")
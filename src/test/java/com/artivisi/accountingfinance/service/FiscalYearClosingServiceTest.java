@@ -4,6 +4,7 @@ import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
 import com.artivisi.accountingfinance.repository.JournalEntryRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -40,6 +42,9 @@ class FiscalYearClosingServiceTest {
     @Autowired
     private ChartOfAccountRepository chartOfAccountRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     // Use a far-future year for testing to avoid conflicts
     private static final int TEST_YEAR = 2099;
 
@@ -204,6 +209,30 @@ class FiscalYearClosingServiceTest {
         entries.forEach(entry -> assertThat(entry.getVoidedAt()).isNotNull());
     }
 
+    @Test
+    @WithMockUser(username = "admin")
+    @DisplayName("Should record closing and reversal in the change log")
+    void shouldRecordClosingAndReversalInChangeLog() {
+        // 2024 has posted revenue and expense in the test data
+        int year = 2024;
+        if (fiscalYearClosingService.previewClosing(year).entries().isEmpty()
+                || fiscalYearClosingService.hasClosingEntries(year)) {
+            return;
+        }
+
+        List<UUID> transactionIds = fiscalYearClosingService.executeClosing(year).stream()
+                .map(entry -> entry.getTransaction().getId())
+                .distinct()
+                .toList();
+        assertThat(transactionIds).isNotEmpty()
+                .allSatisfy(id -> assertThat(history(id)).containsExactly("TRANSACTION POSTED POSTED"));
+
+        fiscalYearClosingService.reverseClosing(year, "Test reversal reason");
+
+        assertThat(transactionIds).allSatisfy(id -> assertThat(history(id))
+                .containsExactly("TRANSACTION POSTED POSTED", "TRANSACTION VOIDED VOID"));
+    }
+
     @Test
     @WithMockUser(username = "admin")
     @DisplayName("Should reject reverse for year without closing")
@@ -381,4 +410,13 @@ class FiscalYearClosingServiceTest {
         // Revenue should include at least the 10M from V901 Dec 2023
         assertThat(preview.totalRevenue()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
     }
+
+    @SuppressWarnings("unchecked")
+    private List<String> history(UUID entityId) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT entity_type, change_type, status FROM change_log WHERE entity_id = :id ORDER BY seq")
+                .setParameter("id", entityId)
+                .getResultList();
+        return rows.stream().map(row -> row[0] + " " + row[1] + " " + row[2]).toList();
+    }
 }
@@ -8,6 +8,7 @@ import com.artivisi.accountingfinance.entity.DepreciationEntryStatus;
 import com.artivisi.accountingfinance.entity.DepreciationMethod;
 import com.artivisi.accountingfinance.entity.DisposalType;
 import com.artivisi.accountingfinance.entity.FixedAsset;
+import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.repository.AssetCategoryRepository;
 import com.artivisi.accountingfinance.repository.DepreciationEntryRepository;
 import com.artivisi.accountingfinance.repository.FixedAssetRepository;
@@ -733,5 +734,79 @@ class FixedAssetServiceTest {
             int count = fixedAssetService.postAllPendingDepreciation(YearMonth.now(), "admin");
             assertThat(count).isGreaterThanOrEqualTo(0);
         }
+
+        @Test
+        @DisplayName("Should post one consolidated journal per category and account pair")
+        void shouldPostConsolidatedJournalPerCategory() {
+            FixedAsset first = createTestAsset("CONS-A");
+            FixedAsset second = createTestAsset("CONS-B");
+            YearMonth period = YearMonth.now();
+            fixedAssetService.generateDepreciationEntries(period);
+
+            fixedAssetService.postAllPendingDepreciation(period, "admin", false);
+
+            DepreciationEntry firstEntry = findEntry(first);
+            DepreciationEntry secondEntry = findEntry(second);
+            assertThat(firstEntry.getStatus()).isEqualTo(DepreciationEntryStatus.POSTED);
+            assertThat(secondEntry.getTransaction().getId()).isEqualTo(firstEntry.getTransaction().getId());
+
+            Transaction journal = firstEntry.getTransaction();
+            BigDecimal groupTotal = entriesOf(journal).stream()
+                    .map(DepreciationEntry::getDepreciationAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(journal.getJournalEntries()).hasSize(2);
+            assertThat(journal.getAmount()).isEqualByComparingTo(groupTotal);
+
+            FixedAsset updated = fixedAssetRepository.findById(first.getId()).orElseThrow();
+            assertThat(updated.getDepreciationPeriodsCompleted()).isEqualTo(1);
+            assertThat(updated.getAccumulatedDepreciation()).isEqualByComparingTo(firstEntry.getDepreciationAmount());
+        }
+
+        @Test
+        @DisplayName("Should write one line pair per asset when detail lines are requested")
+        void shouldWriteDetailLinesPerAsset() {
+            FixedAsset asset = createTestAsset("CONS-DETAIL");
+            YearMonth period = YearMonth.now();
+            fixedAssetService.generateDepreciationEntries(period);
+
+            fixedAssetService.postAllPendingDepreciation(period, "admin", true);
+
+            Transaction journal = findEntry(asset).getTransaction();
+            assertThat(journal.getJournalEntries()).hasSize(entriesOf(journal).size() * 2);
+            assertThat(journal.getJournalEntries())
+                    .anyMatch(line -> line.getCreditAmount().compareTo(findEntry(asset).getDepreciationAmount()) == 0);
+            assertThat(journal.getJournalEntries())
+                    .filteredOn(line -> (asset.getAssetCode() + " - " + asset.getName()).equals(line.getMemo()))
+                    .hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should generate and post a period in one run")
+        void shouldRunMonthlyDepreciation() {
+            FixedAsset asset = createTestAsset("RUN-DEP");
+            YearMonth period = YearMonth.now();
+
+            FixedAssetService.DepreciationRunSummary summary =
+                    fixedAssetService.runMonthlyDepreciation(period, "admin");
+
+            assertThat(summary.generated()).isPositive();
+            assertThat(summary.posted()).isGreaterThanOrEqualTo(summary.generated());
+            assertThat(summary.journals()).isPositive().isLessThanOrEqualTo(summary.posted());
+            assertThat(findEntry(asset).getStatus()).isEqualTo(DepreciationEntryStatus.POSTED);
+
+            // A second run finds the period already generated
+            assertThat(fixedAssetService.runMonthlyDepreciation(period, "admin").generated()).isZero();
+        }
+
+        private DepreciationEntry findEntry(FixedAsset asset) {
+            return depreciationEntryRepository.findByFixedAssetIdOrderByPeriodNumberAsc(asset.getId())
+                    .stream().findFirst().orElseThrow();
+        }
+
+        private List<DepreciationEntry> entriesOf(Transaction journal) {
+            return depreciationEntryRepository.findAll().stream()
+                    .filter(e -> e.getTransaction() != null && e.getTransaction().getId().equals(journal.getId()))
+                    .toList();
+        }
     }
 }
@@ -0,0 +1,231 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for IdempotencyService. Keys are committed by the service
+ * in their own transactions, so each test deletes the keys it used.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "api-client")
+@DisplayName("IdempotencyService Integration Tests")
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "POST /api/test";
+    private static final Map<String, String> REQUEST = Map.of("merchant", "Toko Maju", "amount", "150000");
+
+    record Created(UUID id, String merchant) {
+    }
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String key = "test-idem-" + UUID.randomUUID();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Supplier<ResponseEntity<Created>> createAction = this::create;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        newTransaction().executeWithoutResult(status -> entityManager.createNativeQuery(
+                "DELETE FROM idempotency_keys WHERE idempotency_key = :key")
+                .setParameter("key", key)
+                .executeUpdate());
+    }
+
+    @Nested
+    @DisplayName("Replay")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("Should run the action every time without a key")
+        void shouldRunWithoutKey() {
+            idempotencyService.execute(null, OPERATION, REQUEST, Created.class, createAction);
+            idempotencyService.execute(" ", OPERATION, REQUEST, Created.class, createAction);
+
+            assertThat(runs.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should return the stored response for a retry with the same key")
+        void shouldReplayStoredResponse() {
+            ResponseEntity<Created> first = idempotencyService.execute(key, OPERATION, REQUEST, Created.class, createAction);
+            ResponseEntity<Created> retry = idempotencyService.execute(key, OPERATION, REQUEST, Created.class, createAction);
+
+            assertThat(runs.get()).isEqualTo(1);
+            assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(retry.getBody()).isEqualTo(first.getBody());
+            assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(first.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a key reused for a different request")
+        void shouldRejectDifferentRequest() {
+            idempotencyService.execute(key, OPERATION, REQUEST, Created.class, createAction);
+            Map<String, String> other = Map.of("merchant", "Toko Maju", "amount", "999999");
+
+            assertThatThrownBy(() -> idempotencyService.execute(key, OPERATION, other, Created.class, createAction))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("different request");
+            assertThat(runs.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should release the key when the action fails")
+        void shouldReleaseKeyOnFailure() {
+            assertThatThrownBy(() -> idempotencyService.execute(key, OPERATION, REQUEST, Created.class, () -> {
+                throw new IllegalStateException("Template not found");
+            })).isInstanceOf(IllegalStateException.class);
+
+            idempotencyService.execute(key, OPERATION, REQUEST, Created.class, createAction);
+
+            assertThat(runs.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should take over a claim whose request never finished")
+        void shouldTakeOverExpiredClaim() {
+            newTransaction().executeWithoutResult(status -> entityManager.createNativeQuery(
+                    "INSERT INTO idempotency_keys (principal, idempotency_key, request_hash, status, expires_at) " +
+                    "VALUES ('api-client', :key, 'stale', 'PROCESSING', NOW() - INTERVAL '1 minute')")
+                    .setParameter("key", key)
+                    .executeUpdate());
+
+            ResponseEntity<Created> response = idempotencyService.execute(key, OPERATION, REQUEST, Created.class, createAction);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(runs.get()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrent Duplicates")
+    class ConcurrentTests {
+
+        @Test
+        @DisplayName("Should make a concurrent duplicate wait for the first request")
+        void shouldWaitForFirstRequest() throws Exception {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            CompletableFuture<ResponseEntity<Created>> first = submit(idempotencyService, () -> {
+                started.countDown();
+                await(release);
+                return create();
+            });
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<ResponseEntity<Created>> duplicate = submit(idempotencyService, createAction);
+
+            Thread.sleep(200);
+            assertThat(duplicate).isNotDone();
+            release.countDown();
+
+            assertThat(duplicate.get(10, TimeUnit.SECONDS).getBody())
+                    .isEqualTo(first.get(10, TimeUnit.SECONDS).getBody());
+            assertThat(runs.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should give up with a conflict when the first request outlasts the wait")
+        void shouldConflictAfterWaitTimeout() throws Exception {
+            IdempotencyService otherNode = new IdempotencyService(entityManager, jsonMapper, transactionManager, 24, 1, 300);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            CompletableFuture<ResponseEntity<Created>> first = submit(idempotencyService, () -> {
+                started.countDown();
+                await(release);
+                return create();
+            });
+            try {
+                assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+                assertThatThrownBy(() -> otherNode.execute(key, OPERATION, REQUEST, Created.class, createAction))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("still being processed");
+            } finally {
+                release.countDown();
+            }
+            first.get(10, TimeUnit.SECONDS);
+            assertThat(runs.get()).isEqualTo(1);
+        }
+    }
+
+    private ResponseEntity<Created> create() {
+        runs.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(new Created(UUID.randomUUID(), "Toko Maju"));
+    }
+
+    private CompletableFuture<ResponseEntity<Created>> submit(IdempotencyService service,
+                                                              Supplier<ResponseEntity<Created>> action) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        return CompletableFuture.supplyAsync(() -> {
+            SecurityContextHolder.setContext(context);
+            try {
+                return service.execute(key, OPERATION, REQUEST, Created.class, action);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }, executor);
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
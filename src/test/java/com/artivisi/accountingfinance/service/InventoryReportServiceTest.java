@@ -1,18 +1,23 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.InventoryTransactionType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,6 +31,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("InventoryReportService Integration Tests")
 class InventoryReportServiceTest {
 
+    // Seeded by V911__inventory_report_test_data.sql
+    private static final UUID TEPUNG_TERIGU_ID = UUID.fromString("d0911002-0000-0000-0000-000000000001");
+    private static final UUID BAHAN_BAKU_ID = UUID.fromString("d0911001-0000-0000-0000-000000000001");
+    private static final LocalDate JANUARY_2024_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JANUARY_2024_END = LocalDate.of(2024, 1, 31);
+
     @Autowired
     private InventoryReportService reportService;
 
@@ -132,6 +143,77 @@ class InventoryReportServiceTest {
 
             assertThat(report.items()).isNotNull();
         }
+
+        @Test
+        @DisplayName("Should compute totals for a product in one summary")
+        void shouldSummarizeStockMovementsForProduct() {
+            InventoryReportService.StockMovementSummary summary = reportService.summarizeStockMovements(
+                    JANUARY_2024_START, JANUARY_2024_END, null, TEPUNG_TERIGU_ID);
+
+            assertThat(summary.itemCount()).isEqualTo(3);
+            assertThat(summary.totalInboundQty()).isEqualByComparingTo("70");
+            assertThat(summary.totalOutboundQty()).isEqualByComparingTo("20");
+            assertThat(summary.totalInboundValue()).isEqualByComparingTo("700000");
+            assertThat(summary.totalOutboundValue()).isEqualByComparingTo("200000");
+        }
+
+        @Test
+        @DisplayName("Should let the product filter take precedence over the category filter")
+        void shouldPreferProductFilterOverCategory() {
+            InventoryReportService.StockMovementSummary summary = reportService.summarizeStockMovements(
+                    JANUARY_2024_START, JANUARY_2024_END, UUID.randomUUID(), TEPUNG_TERIGU_ID);
+
+            assertThat(summary.itemCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should filter by category")
+        void shouldSummarizeStockMovementsForCategory() {
+            InventoryReportService.StockMovementSummary summary = reportService.summarizeStockMovements(
+                    JANUARY_2024_START, JANUARY_2024_END, BAHAN_BAKU_ID, null);
+
+            assertThat(summary.itemCount()).isEqualTo(6);
+            assertThat(summary.totalInboundQty()).isEqualByComparingTo("105");
+            assertThat(summary.totalOutboundQty()).isEqualByComparingTo("30");
+        }
+
+        @Test
+        @DisplayName("Should page rows in date order with totals over the whole range")
+        void shouldPageStockMovements() {
+            InventoryReportService.StockMovementPage page = reportService.generateStockMovementPage(
+                    JANUARY_2024_START, JANUARY_2024_END, null, TEPUNG_TERIGU_ID, PageRequest.of(1, 2));
+
+            assertThat(page.items().getTotalElements()).isEqualTo(3);
+            assertThat(page.items().getTotalPages()).isEqualTo(2);
+            assertThat(page.items().getContent())
+                    .singleElement()
+                    .satisfies(item -> {
+                        assertThat(item.transactionDate()).isEqualTo(LocalDate.of(2024, 1, 20));
+                        assertThat(item.transactionType()).isEqualTo(InventoryTransactionType.PRODUCTION_OUT);
+                        assertThat(item.transactionTypeLabel()).isEqualTo("Produksi Keluar");
+                        assertThat(item.categoryName()).isEqualTo("Bahan Baku");
+                        assertThat(item.balanceAfter()).isEqualByComparingTo("50");
+                    });
+            assertThat(page.summary().totalInboundValue()).isEqualByComparingTo("700000");
+        }
+
+        @Test
+        @DisplayName("Should stream the same rows as the full report")
+        void shouldStreamSameRowsAsReport() {
+            InventoryReportService.StockMovementReport report = reportService.generateStockMovementReport(
+                    JANUARY_2024_START, JANUARY_2024_END, BAHAN_BAKU_ID, null);
+            List<InventoryReportService.StockMovementItem> streamed = new ArrayList<>();
+            AtomicReference<InventoryReportService.StockMovementSummary> streamedSummary = new AtomicReference<>();
+
+            reportService.streamStockMovements(JANUARY_2024_START, JANUARY_2024_END, BAHAN_BAKU_ID, null,
+                    (summary, items) -> {
+                        streamedSummary.set(summary);
+                        items.forEach(streamed::add);
+                    });
+
+            assertThat(streamed).hasSize(6).containsExactlyElementsOf(report.items());
+            assertThat(streamedSummary.get()).isEqualTo(report.summary());
+        }
     }
 
     @Nested
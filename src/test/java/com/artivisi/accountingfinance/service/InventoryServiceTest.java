@@ -1,11 +1,23 @@
 package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.ChartOfAccount;
+import com.artivisi.accountingfinance.entity.CostingMethod;
 import com.artivisi.accountingfinance.entity.InventoryBalance;
+import com.artivisi.accountingfinance.entity.InventoryFifoLayer;
 import com.artivisi.accountingfinance.entity.InventoryTransaction;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Product;
+import com.artivisi.accountingfinance.entity.Transaction;
+import com.artivisi.accountingfinance.enums.CashFlowCategory;
+import com.artivisi.accountingfinance.enums.TemplateCategory;
+import com.artivisi.accountingfinance.enums.TemplateType;
+import com.artivisi.accountingfinance.enums.TransactionStatus;
+import com.artivisi.accountingfinance.repository.ChartOfAccountRepository;
+import com.artivisi.accountingfinance.repository.JournalTemplateRepository;
 import com.artivisi.accountingfinance.repository.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,12 +33,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Integration tests for InventoryService.
@@ -44,8 +60,16 @@ class InventoryServiceTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Autowired
+    private JournalTemplateRepository journalTemplateRepository;
+
     // Test product IDs from V911__inventory_report_test_data.sql
     private static final UUID TEST_PRODUCT_ID = UUID.fromString("d0911002-0000-0000-0000-000000000001");
+    private static final UUID SUGAR_PRODUCT_ID = UUID.fromString("d0911002-0000-0000-0000-000000000002");
+    private static final UUID CAKE_PRODUCT_ID = UUID.fromString("d0911002-0000-0000-0000-000000000003");
 
     private Product testProduct;
 
@@ -262,6 +286,71 @@ class InventoryServiceTest {
             var layers = inventoryService.getFifoLayers(testProduct.getId());
             assertThat(layers).isNotNull();
         }
+
+        @Test
+        @WithMockUser(username = "admin")
+        @DisplayName("Should cost a sale from the oldest layers and leave the rest")
+        void shouldConsumeOldestLayersFirst() {
+            Product product = createFifoProductWithLayers();
+
+            InventoryTransaction sale = inventoryService.recordSale(product.getId(), LocalDate.of(2024, 3, 10),
+                    new BigDecimal("15"), new BigDecimal("500"), "SO-FIFO-1", null);
+
+            assertThat(sale.getTotalCost()).isEqualByComparingTo("2000");
+            assertThat(inventoryService.getFifoLayers(product.getId()))
+                    .extracting(InventoryFifoLayer::getRemainingQuantity, InventoryFifoLayer::isFullyConsumed)
+                    .usingRecursiveFieldByFieldElementComparator(RecursiveComparisonConfiguration.builder()
+                            .withComparatorForType(BigDecimal::compareTo, BigDecimal.class).build())
+                    .containsExactly(
+                            tuple(BigDecimal.ZERO, true),
+                            tuple(new BigDecimal("5"), false),
+                            tuple(new BigDecimal("10"), false));
+
+            InventoryTransaction second = inventoryService.recordSale(product.getId(), LocalDate.of(2024, 3, 11),
+                    new BigDecimal("12"), new BigDecimal("500"), "SO-FIFO-2", null);
+
+            assertThat(second.getTotalCost()).isEqualByComparingTo("3100");
+            assertThat(inventoryService.getFifoLayers(product.getId()))
+                    .extracting(InventoryFifoLayer::getRemainingQuantity)
+                    .usingElementComparator(BigDecimal::compareTo)
+                    .containsExactly(BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("3"));
+        }
+
+        @Test
+        @WithMockUser(username = "admin")
+        @DisplayName("Should preview FIFO COGS without consuming layers")
+        void shouldPreviewFifoCogs() {
+            Product product = createFifoProductWithLayers();
+
+            assertThat(inventoryService.calculateCogs(product.getId(), new BigDecimal("10")))
+                    .isEqualByComparingTo("1000");
+            assertThat(inventoryService.calculateCogs(product.getId(), new BigDecimal("25")))
+                    .isEqualByComparingTo("4500");
+            // More than the layers hold: cost of everything available
+            assertThat(inventoryService.calculateCogs(product.getId(), new BigDecimal("40")))
+                    .isEqualByComparingTo("6000");
+            assertThat(inventoryService.getFifoLayers(product.getId()))
+                    .extracting(InventoryFifoLayer::getRemainingQuantity)
+                    .usingElementComparator(BigDecimal::compareTo)
+                    .containsOnly(new BigDecimal("10"));
+        }
+
+        private Product createFifoProductWithLayers() {
+            Product product = new Product();
+            product.setCode("FIFO-" + UUID.randomUUID().toString().substring(0, 8));
+            product.setName("Produk FIFO");
+            product.setUnit("pcs");
+            product.setCostingMethod(CostingMethod.FIFO);
+            product = productRepository.save(product);
+
+            inventoryService.recordPurchase(product.getId(), LocalDate.of(2024, 3, 1),
+                    new BigDecimal("10"), new BigDecimal("100"), "PO-FIFO-1", null);
+            inventoryService.recordPurchase(product.getId(), LocalDate.of(2024, 3, 2),
+                    new BigDecimal("10"), new BigDecimal("200"), "PO-FIFO-2", null);
+            inventoryService.recordPurchase(product.getId(), LocalDate.of(2024, 3, 3),
+                    new BigDecimal("10"), new BigDecimal("300"), "PO-FIFO-3", null);
+            return product;
+        }
     }
 
     @Nested
@@ -406,6 +495,68 @@ class InventoryServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Production Journal")
+    @WithMockUser(username = "admin")
+    class ProductionJournalTests {
+
+        @Test
+        @DisplayName("Should post one journal moving component cost to finished goods")
+        void shouldPostOneJournalForProductionRun() {
+            ChartOfAccount rawMaterials = chartOfAccountRepository.findByAccountCode("1.4.02").orElseThrow();
+            ChartOfAccount finishedGoods = chartOfAccountRepository.findByAccountCode("1.4.04").orElseThrow();
+            Product flour = productRepository.findById(TEST_PRODUCT_ID).orElseThrow();
+            Product sugar = productRepository.findById(SUGAR_PRODUCT_ID).orElseThrow();
+            Product cake = productRepository.findById(CAKE_PRODUCT_ID).orElseThrow();
+            flour.setInventoryAccount(rawMaterials);
+            sugar.setInventoryAccount(rawMaterials);
+            cake.setInventoryAccount(finishedGoods);
+            productRepository.saveAll(List.of(flour, sugar, cake));
+            journalTemplateRepository.save(productionTemplate());
+
+            BigDecimal flourCost = inventoryService.getCurrentAverageCost(flour.getId()).multiply(new BigDecimal("2"));
+            BigDecimal sugarCost = inventoryService.getCurrentAverageCost(sugar.getId());
+            BigDecimal totalCost = flourCost.add(sugarCost);
+            Map<UUID, BigDecimal> components = new LinkedHashMap<>();
+            components.put(flour.getId(), new BigDecimal("2"));
+            components.put(sugar.getId(), BigDecimal.ONE);
+
+            InventoryService.ProductionResult result = inventoryService.recordProduction(
+                    cake.getId(), BigDecimal.ONE, components, LocalDate.now(),
+                    "PROD-JOURNAL-TEST", "Component out", "Finished goods in");
+
+            Transaction journal = result.journal();
+            assertThat(result.totalCost()).isEqualByComparingTo(totalCost);
+            assertThat(journal).isNotNull();
+            assertThat(journal.getStatus()).isEqualTo(TransactionStatus.POSTED);
+            assertThat(journal.getReferenceNumber()).isEqualTo("PROD-JOURNAL-TEST");
+            assertThat(journal.getAmount()).isEqualByComparingTo(totalCost);
+            // Both components share one inventory account, so their credits are netted into one line
+            assertThat(journal.getJournalEntries())
+                    .extracting(entry -> entry.getAccount().getAccountCode(),
+                            entry -> entry.getDebitAmount().stripTrailingZeros(),
+                            entry -> entry.getCreditAmount().stripTrailingZeros())
+                    .containsExactlyInAnyOrder(
+                            tuple("1.4.04", totalCost.stripTrailingZeros(), BigDecimal.ZERO),
+                            tuple("1.4.02", BigDecimal.ZERO, totalCost.stripTrailingZeros()));
+
+            List<InventoryTransaction> movements = new ArrayList<>(result.consumptions());
+            movements.add(result.output());
+            assertThat(movements).hasSize(3)
+                    .allSatisfy(movement -> assertThat(movement.getTransaction()).isSameAs(journal));
+        }
+
+        private JournalTemplate productionTemplate() {
+            JournalTemplate template = new JournalTemplate();
+            template.setTemplateName("Produksi Barang Jadi");
+            template.setCategory(TemplateCategory.TRANSFER);
+            template.setCashFlowCategory(CashFlowCategory.OPERATING);
+            template.setTemplateType(TemplateType.SIMPLE);
+            template.setDescription("Mencatat hasil produksi dari bahan baku ke barang jadi");
+            return template;
+        }
+    }
+
     @Nested
     @DisplayName("Production Operations - Additional")
     @WithMockUser(username = "admin")
@@ -0,0 +1,213 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.InventorySnapshot;
+import com.artivisi.accountingfinance.repository.InventorySnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for InventorySnapshotService and the as-of reports built on it.
+ * Uses the January 2024 movements seeded by V911__inventory_report_test_data.sql.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("InventorySnapshotService Integration Tests")
+class InventorySnapshotServiceTest {
+
+    private static final UUID TEPUNG_TERIGU_ID = UUID.fromString("d0911002-0000-0000-0000-000000000001");
+    private static final UUID GULA_PASIR_ID = UUID.fromString("d0911002-0000-0000-0000-000000000002");
+    private static final UUID BAHAN_BAKU_ID = UUID.fromString("d0911001-0000-0000-0000-000000000001");
+    private static final LocalDate JANUARY_10 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate JANUARY_31 = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private InventorySnapshotService snapshotService;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private InventoryReportService reportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Nested
+    @DisplayName("Take Snapshot")
+    class TakeSnapshotTests {
+
+        @Test
+        @DisplayName("Should write quantity and cost per product from the full history")
+        void shouldSnapshotFromFullHistory() {
+            snapshotService.takeSnapshot(JANUARY_31);
+
+            assertSnapshot(JANUARY_31, TEPUNG_TERIGU_ID, "50", "500000");
+            assertSnapshot(JANUARY_31, GULA_PASIR_ID, "25", "375000");
+        }
+
+        @Test
+        @DisplayName("Should build on the previous snapshot")
+        void shouldSnapshotFromPreviousSnapshot() {
+            snapshotService.takeSnapshot(JANUARY_10);
+            snapshotService.takeSnapshot(JANUARY_31);
+
+            assertSnapshot(JANUARY_10, TEPUNG_TERIGU_ID, "30", "300000");
+            assertSnapshot(JANUARY_31, TEPUNG_TERIGU_ID, "50", "500000");
+        }
+
+        @Test
+        @DisplayName("Should replace an existing snapshot for the same date")
+        void shouldReplaceExistingSnapshot() {
+            int first = snapshotService.takeSnapshot(JANUARY_31);
+            int second = snapshotService.takeSnapshot(JANUARY_31);
+
+            assertThat(second).isEqualTo(first);
+            assertThat(snapshotRepository.countBySnapshotDate(JANUARY_31)).isEqualTo(first);
+        }
+
+        @Test
+        @WithMockUser(username = "admin")
+        @DisplayName("Should drop snapshots changed by a backdated movement")
+        void shouldInvalidateOnBackdatedMovement() {
+            snapshotService.takeSnapshot(JANUARY_10);
+            snapshotService.takeSnapshot(JANUARY_31);
+
+            inventoryService.recordPurchase(TEPUNG_TERIGU_ID, LocalDate.of(2024, 1, 20),
+                    new BigDecimal("5"), new BigDecimal("10000"), "PO-LATE", null);
+
+            assertThat(snapshotRepository.countBySnapshotDate(JANUARY_10)).isPositive();
+            assertThat(snapshotRepository.countBySnapshotDate(JANUARY_31)).isZero();
+        }
+
+        @Test
+        @WithMockUser(username = "admin")
+        @DisplayName("Should drop snapshots changed by a backdated production")
+        void shouldInvalidateOnBackdatedProduction() {
+            snapshotService.takeSnapshot(JANUARY_10);
+            snapshotService.takeSnapshot(JANUARY_31);
+
+            inventoryService.recordProduction(GULA_PASIR_ID, new BigDecimal("1"),
+                    Map.of(TEPUNG_TERIGU_ID, new BigDecimal("2")), LocalDate.of(2024, 1, 20),
+                    "PROD-LATE", null, null);
+
+            assertThat(snapshotRepository.countBySnapshotDate(JANUARY_10)).isPositive();
+            assertThat(snapshotRepository.countBySnapshotDate(JANUARY_31)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("As-of Valuation")
+    class AsOfValuationTests {
+
+        @Test
+        @DisplayName("Should value stock as of a past date without snapshots")
+        void shouldValueFromHistory() {
+            InventoryReportService.ValuationReport report =
+                    reportService.generateValuationReport(BAHAN_BAKU_ID, JANUARY_10);
+
+            assertThat(report.items())
+                    .extracting(InventoryReportService.ValuationItem::productCode)
+                    .containsExactly("PRD-TEST-001", "PRD-TEST-002");
+            assertThat(report.items().getFirst().quantity()).isEqualByComparingTo("30");
+            assertThat(report.items().getFirst().averageCost()).isEqualByComparingTo("10000");
+            assertThat(report.totalValue()).isEqualByComparingTo("600000");
+        }
+
+        @Test
+        @DisplayName("Should add movements after the nearest snapshot")
+        void shouldValueFromSnapshotAndMovements() {
+            InventoryReportService.ValuationReport fromHistory =
+                    reportService.generateValuationReport(BAHAN_BAKU_ID, JANUARY_31);
+            snapshotService.takeSnapshot(JANUARY_10);
+
+            InventoryReportService.ValuationReport fromSnapshot =
+                    reportService.generateValuationReport(BAHAN_BAKU_ID, JANUARY_31);
+
+            assertThat(fromSnapshot.totalValue()).isEqualByComparingTo("875000");
+            assertThat(fromSnapshot.items()).hasSameSizeAs(fromHistory.items());
+            assertThat(fromSnapshot.totalValue()).isEqualByComparingTo(fromHistory.totalValue());
+        }
+
+        @Test
+        @DisplayName("Should leave out products with no stock on the date")
+        void shouldSkipProductsWithoutStock() {
+            InventoryReportService.ValuationReport report =
+                    reportService.generateValuationReport(null, LocalDate.of(2024, 1, 1));
+
+            assertThat(report.items())
+                    .extracting(InventoryReportService.ValuationItem::productCode)
+                    .doesNotContain("PRD-TEST-001", "PRD-TEST-002", "PRD-TEST-003");
+        }
+    }
+
+    @Nested
+    @DisplayName("As-of Stock Balance")
+    class AsOfStockBalanceTests {
+
+        @Test
+        @DisplayName("Should report stock as of a past date")
+        void shouldReportBalanceAsOfDate() {
+            InventoryReportService.StockBalanceReport report =
+                    reportService.generateStockBalanceReport(BAHAN_BAKU_ID, null, JANUARY_10);
+
+            assertThat(report.items())
+                    .extracting(InventoryReportService.StockBalanceItem::productCode)
+                    .containsExactly("PRD-TEST-001", "PRD-TEST-002");
+            assertThat(report.items().getFirst().quantity()).isEqualByComparingTo("30");
+            assertThat(report.items().getFirst().averageCost()).isEqualByComparingTo("10000");
+            assertThat(report.totalValue()).isEqualByComparingTo("600000");
+        }
+
+        @Test
+        @DisplayName("Should match the same date built from a snapshot")
+        void shouldMatchFromSnapshot() {
+            InventoryReportService.StockBalanceReport fromHistory =
+                    reportService.generateStockBalanceReport(BAHAN_BAKU_ID, null, JANUARY_31);
+            snapshotService.takeSnapshot(JANUARY_10);
+
+            InventoryReportService.StockBalanceReport fromSnapshot =
+                    reportService.generateStockBalanceReport(BAHAN_BAKU_ID, null, JANUARY_31);
+
+            assertThat(fromSnapshot.items()).isEqualTo(fromHistory.items());
+            assertThat(fromSnapshot.totalValue()).isEqualByComparingTo("875000");
+        }
+
+        @Test
+        @DisplayName("Should filter by search text")
+        void shouldFilterBySearch() {
+            InventoryReportService.StockBalanceReport report =
+                    reportService.generateStockBalanceReport(null, "prd-test-001", JANUARY_31);
+
+            assertThat(report.items())
+                    .extracting(InventoryReportService.StockBalanceItem::productCode)
+                    .containsExactly("PRD-TEST-001");
+            assertThat(report.totalQuantity()).isEqualByComparingTo("50");
+        }
+    }
+
+    private void assertSnapshot(LocalDate date, UUID productId, String quantity, String totalCost) {
+        InventorySnapshot snapshot = snapshotRepository.findAll().stream()
+                .filter(s -> s.getSnapshotDate().equals(date) && s.getProduct().getId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+        assertThat(snapshot.getQuantity()).isEqualByComparingTo(quantity);
+        assertThat(snapshot.getTotalCost()).isEqualByComparingTo(totalCost);
+    }
+}
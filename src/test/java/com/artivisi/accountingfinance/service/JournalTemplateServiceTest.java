@@ -45,6 +45,9 @@ class JournalTemplateServiceTest {
     @Autowired
     private JournalTemplateRepository journalTemplateRepository;
 
+    @Autowired
+    private TemplateUsageTracker templateUsageTracker;
+
     @Autowired
     private ChartOfAccountRepository chartOfAccountRepository;
 
@@ -248,35 +251,82 @@ class JournalTemplateServiceTest {
     class UsageRecordingTests {
 
         @Test
-        @DisplayName("recordUsage should increment usage count")
+        @DisplayName("recordUsage should increment usage count after flush")
         void recordUsageShouldIncrementCount() {
             JournalTemplate template = createTestTemplate();
             int initialCount = template.getUsageCount();
 
             journalTemplateService.recordUsage(template.getId());
+            templateUsageTracker.flush();
 
             JournalTemplate updated = journalTemplateRepository.findById(template.getId()).orElseThrow();
             assertThat(updated.getUsageCount()).isEqualTo(initialCount + 1);
             assertThat(updated.getLastUsedAt()).isNotNull();
         }
 
+        @Test
+        @DisplayName("recordUsage should coalesce repeated uses into one pending delta")
+        void recordUsageShouldCoalescePendingUses() {
+            JournalTemplate template = createTestTemplate();
+            int initialCount = template.getUsageCount();
+
+            journalTemplateService.recordUsage(template.getId());
+            journalTemplateService.recordUsage(template.getId());
+            journalTemplateService.recordUsage(template.getId());
+
+            assertThat(templateUsageTracker.getUsageCount(template)).isEqualTo(initialCount + 3);
+            assertThat(templateUsageTracker.getLastUsedAt(template)).isNotNull();
+
+            templateUsageTracker.flush();
+
+            JournalTemplate updated = journalTemplateRepository.findById(template.getId()).orElseThrow();
+            assertThat(updated.getUsageCount()).isEqualTo(initialCount + 3);
+            assertThat(templateUsageTracker.getUsageCount(updated)).isEqualTo(initialCount + 3);
+        }
+
         @Test
         @DisplayName("findMostUsed should return templates ordered by usage")
         void findMostUsedShouldReturnOrderedByUsage() {
             JournalTemplate template = createTestTemplate();
             journalTemplateService.recordUsage(template.getId());
             journalTemplateService.recordUsage(template.getId());
+            templateUsageTracker.flush();
 
             List<JournalTemplate> mostUsed = journalTemplateService.findMostUsed();
 
             assertThat(mostUsed).isNotEmpty();
         }
 
+        @Test
+        @DisplayName("findMostUsed should rank by uses not yet flushed")
+        void findMostUsedShouldIncludePendingUsage() {
+            JournalTemplate template = createTestTemplate();
+            int mostUsed = journalTemplateService.findMostUsed().stream()
+                    .mapToInt(templateUsageTracker::getUsageCount)
+                    .max().orElse(0);
+            for (int i = 0; i <= mostUsed; i++) {
+                journalTemplateService.recordUsage(template.getId());
+            }
+
+            assertThat(journalTemplateService.findMostUsed().getFirst().getId()).isEqualTo(template.getId());
+        }
+
+        @Test
+        @DisplayName("findRecentlyUsed should rank by uses not yet flushed")
+        void findRecentlyUsedShouldIncludePendingUsage() {
+            JournalTemplate template = createTestTemplate();
+
+            journalTemplateService.recordUsage(template.getId());
+
+            assertThat(journalTemplateService.findRecentlyUsed().getFirst().getId()).isEqualTo(template.getId());
+        }
+
         @Test
         @DisplayName("findRecentlyUsed should return templates ordered by last used")
         void findRecentlyUsedShouldReturnOrderedByLastUsed() {
             JournalTemplate template = createTestTemplate();
             journalTemplateService.recordUsage(template.getId());
+            templateUsageTracker.flush();
 
             List<JournalTemplate> recentlyUsed = journalTemplateService.findRecentlyUsed();
 
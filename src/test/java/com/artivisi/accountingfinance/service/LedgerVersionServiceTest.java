@@ -0,0 +1,83 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for LedgerVersionService.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("LedgerVersionService Integration Tests")
+class LedgerVersionServiceTest {
+
+    @Autowired
+    private LedgerVersionService ledgerVersionService;
+
+    @Nested
+    @DisplayName("Version")
+    class VersionTests {
+
+        @Test
+        @DisplayName("Should advance the version on every ledger change")
+        void shouldAdvanceOnLedgerChange() {
+            long before = ledgerVersionService.currentVersion();
+
+            ledgerVersionService.onLedgerChanged(new LedgerChangedEvent(LocalDate.now(), Set.of()));
+            long after = ledgerVersionService.currentVersion();
+            ledgerVersionService.onLedgerChanged(new LedgerChangedEvent(null, Set.of()));
+
+            assertThat(after).isGreaterThan(before);
+            assertThat(ledgerVersionService.currentVersion()).isGreaterThan(after);
+        }
+    }
+
+    @Nested
+    @DisplayName("Result Cache")
+    class ResultCacheTests {
+
+        @Test
+        @DisplayName("Should compute once per version and key")
+        void shouldCacheWithinVersion() {
+            AtomicInteger computed = new AtomicInteger();
+            long version = ledgerVersionService.currentVersion();
+
+            Object first = ledgerVersionService.getOrCompute(version, "test?a", () -> computed.incrementAndGet());
+            Object second = ledgerVersionService.getOrCompute(version, "test?a", () -> computed.incrementAndGet());
+            ledgerVersionService.getOrCompute(version, "test?b", () -> computed.incrementAndGet());
+
+            assertThat(second).isSameAs(first);
+            assertThat(computed).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("Should recompute after the version advances and not cache older versions")
+        void shouldRecomputeForNewVersion() {
+            long version = ledgerVersionService.currentVersion();
+            ledgerVersionService.getOrCompute(version, "test?c", () -> "old");
+
+            ledgerVersionService.onLedgerChanged(new LedgerChangedEvent(LocalDate.now(), Set.of()));
+            long next = ledgerVersionService.currentVersion();
+
+            assertThat(ledgerVersionService.getOrCompute(next, "test?c", () -> "new")).isEqualTo("new");
+            assertThat(ledgerVersionService.getOrCompute(version, "test?c", () -> "stale")).isEqualTo("stale");
+            assertThat(ledgerVersionService.getOrCompute(next, "test?c", () -> "again")).isEqualTo("new");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.JournalTemplate;
+import com.artivisi.accountingfinance.entity.MerchantMapping;
+import com.artivisi.accountingfinance.repository.MerchantMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for MerchantClassifier.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("MerchantClassifier Integration Tests")
+class MerchantClassifierTest {
+
+    // Template IDs from V003
+    private static final UUID INCOME_CONSULTING_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000001");
+    private static final UUID EXPENSE_OPERATIONAL_TEMPLATE_ID = UUID.fromString("e0000000-0000-0000-0000-000000000002");
+
+    @Autowired
+    private MerchantClassifier merchantClassifier;
+
+    @Autowired
+    private MerchantMappingRepository merchantMappingRepository;
+
+    @Autowired
+    private JournalTemplateService journalTemplateService;
+
+    private JournalTemplate incomeTemplate;
+    private JournalTemplate expenseTemplate;
+
+    @BeforeEach
+    void setUp() {
+        incomeTemplate = journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID);
+        expenseTemplate = journalTemplateService.findById(EXPENSE_OPERATIONAL_TEMPLATE_ID);
+    }
+
+    @Nested
+    @DisplayName("Merchant Classification")
+    class ClassificationTests {
+
+        @Test
+        @DisplayName("Should prefer EXACT over CONTAINS over REGEX")
+        void shouldApplyMatchTypePrecedence() {
+            MerchantMapping exact = saveMapping("Qxm Kopi Senja", MerchantMapping.MatchType.EXACT, incomeTemplate);
+            MerchantMapping contains = saveMapping("qxm kopi", MerchantMapping.MatchType.CONTAINS, expenseTemplate);
+            MerchantMapping regex = saveMapping("^QXM\\s+\\w+$", MerchantMapping.MatchType.REGEX, expenseTemplate);
+
+            assertThat(merchantClassifier.classify("QXM KOPI SENJA"))
+                    .contains(new MerchantClassifier.Match(exact.getId(), incomeTemplate.getId()));
+            assertThat(merchantClassifier.classify("Cabang Qxm Kopi Kemang"))
+                    .contains(new MerchantClassifier.Match(contains.getId(), expenseTemplate.getId()));
+            assertThat(merchantClassifier.classify("qxm teh"))
+                    .contains(new MerchantClassifier.Match(regex.getId(), expenseTemplate.getId()));
+            assertThat(merchantClassifier.classify("Warung Lain")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should pick up mappings added after the index was built")
+        void shouldRebuildAfterInvalidation() {
+            assertThat(merchantClassifier.classify("Toko Zqvbn Abadi")).isEmpty();
+
+            MerchantMapping mapping = saveMapping("zqvbn", MerchantMapping.MatchType.CONTAINS, expenseTemplate);
+            merchantClassifier.invalidate();
+
+            assertThat(merchantClassifier.classify("Toko Zqvbn Abadi"))
+                    .map(MerchantClassifier.Match::mappingId)
+                    .contains(mapping.getId());
+        }
+
+        @Test
+        @DisplayName("Should skip mappings with an invalid regex")
+        void shouldSkipInvalidRegex() {
+            saveMapping("([unclosed", MerchantMapping.MatchType.REGEX, expenseTemplate);
+
+            assertThat(merchantClassifier.classify("([unclosed")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return empty for blank merchant names")
+        void shouldReturnEmptyForBlankName() {
+            assertThat(merchantClassifier.classify(null)).isEmpty();
+            assertThat(merchantClassifier.classify("  ")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Template Suggestion")
+    class TemplateSuggestionTests {
+
+        @Test
+        @DisplayName("Should match the first active template by name")
+        void shouldMatchFirstTemplateByName() {
+            List<String> keywords = List.of("konsultasi");
+            UUID expected = journalTemplateService.findAll().stream()
+                    .filter(t -> t.getTemplateName().toLowerCase().contains("konsultasi"))
+                    .map(JournalTemplate::getId)
+                    .findFirst()
+                    .orElse(null);
+
+            assertThat(merchantClassifier.suggestTemplate(keywords).orElse(null)).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Should return empty when no template name matches")
+        void shouldReturnEmptyWhenNoTemplateMatches() {
+            assertThat(merchantClassifier.suggestTemplate(List.of("xyznonexistent999"))).isEmpty();
+        }
+    }
+
+    private MerchantMapping saveMapping(String pattern, MerchantMapping.MatchType matchType, JournalTemplate template) {
+        MerchantMapping mapping = new MerchantMapping();
+        mapping.setMerchantPattern(pattern);
+        mapping.setMatchType(matchType);
+        mapping.setTemplate(template);
+        MerchantMapping saved = merchantMappingRepository.saveAndFlush(mapping);
+        merchantClassifier.invalidate();
+        return saved;
+    }
+}
@@ -0,0 +1,192 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.OutboxEvent;
+import com.artivisi.accountingfinance.event.LedgerChangedEvent;
+import com.artivisi.accountingfinance.event.TransactionPostedEvent;
+import com.artivisi.accountingfinance.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for OutboxService. Events published here are never
+ * committed, so the worker does not see them; the tests claim and process
+ * them directly.
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OutboxService Integration Tests")
+class OutboxServiceTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AlertAggregateService alertAggregateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Nested
+    @DisplayName("Publish")
+    class PublishTests {
+
+        @Test
+        @DisplayName("Should store the event as a pending outbox event")
+        void shouldStorePendingEvent() {
+            UUID projectId = UUID.randomUUID();
+            outboxService.publish(new LedgerChangedEvent(LocalDate.of(2025, 3, 14), Set.of(projectId)));
+            entityManager.flush();
+            entityManager.clear();
+
+            OutboxEvent event = findByPayload("projectIds", List.of(projectId.toString()));
+            assertThat(event.getEventType()).isEqualTo("LedgerChangedEvent");
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+            assertThat(event.getAttempts()).isZero();
+            assertThat(event.getPayload()).containsEntry("transactionDate", "2025-03-14");
+        }
+    }
+
+    @Nested
+    @DisplayName("Claim")
+    class ClaimTests {
+
+        @Test
+        @DisplayName("Should claim a due event once")
+        void shouldClaimDueEventOnce() {
+            UUID id = publishPosted();
+
+            List<UUID> first = outboxService.claim(100);
+            List<UUID> second = outboxService.claim(100);
+
+            assertThat(first).contains(id);
+            assertThat(second).doesNotContain(id);
+
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.PROCESSING);
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getStartedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should not claim an event waiting for its retry delay")
+        void shouldNotClaimEventBeforeAvailable() {
+            UUID id = publishPosted();
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            event.setAvailableAt(LocalDateTime.now().plusMinutes(5));
+            outboxEventRepository.saveAndFlush(event);
+
+            assertThat(outboxService.claim(100)).doesNotContain(id);
+        }
+
+        @Test
+        @DisplayName("Should claim again an event left processing by a dead worker")
+        void shouldReclaimStaleEvent() {
+            UUID id = publishPosted();
+            assertThat(outboxService.claim(100)).contains(id);
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            event.setStartedAt(LocalDateTime.now().minusHours(1));
+            outboxEventRepository.saveAndFlush(event);
+
+            assertThat(outboxService.claim(100)).contains(id);
+            assertThat(outboxEventRepository.findById(id).orElseThrow().getAttempts()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Process")
+    class ProcessTests {
+
+        @Test
+        @DisplayName("Should deliver the event to its listeners and mark it done")
+        void shouldDeliverEvent() {
+            LocalDate today = LocalDate.now();
+            alertAggregateService.consumeChanges(today);
+            alertAggregateService.consumeChanges(today);
+            UUID projectId = UUID.randomUUID();
+            outboxService.publish(new LedgerChangedEvent(today, Set.of(projectId)));
+            entityManager.flush();
+            UUID id = findByPayload("projectIds", List.of(projectId.toString())).getId();
+            outboxService.claim(100);
+
+            outboxService.process(id);
+
+            assertThat(alertAggregateService.consumeChanges(today)).isTrue();
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.DONE);
+            assertThat(event.getCompletedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should schedule a retry when delivery fails")
+        void shouldRetryFailedEvent() {
+            UUID id = storeUnknownEvent(0);
+            outboxService.claim(100);
+
+            outboxService.process(id);
+
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+            assertThat(event.getAvailableAt()).isAfter(LocalDateTime.now());
+            assertThat(event.getLastError()).contains("Unknown domain event type");
+        }
+
+        @Test
+        @DisplayName("Should mark the event failed after the last attempt")
+        void shouldFailAfterMaxAttempts() {
+            UUID id = storeUnknownEvent(4);
+            outboxService.claim(100);
+
+            outboxService.process(id);
+
+            OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+            assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.FAILED);
+            assertThat(event.getAttempts()).isEqualTo(5);
+            assertThat(event.getCompletedAt()).isNotNull();
+        }
+    }
+
+    private UUID publishPosted() {
+        UUID transactionId = UUID.randomUUID();
+        outboxService.publish(new TransactionPostedEvent(transactionId));
+        entityManager.flush();
+        return findByPayload("transactionId", transactionId.toString()).getId();
+    }
+
+    private UUID storeUnknownEvent(int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType("RemovedEvent");
+        event.setPayload(Map.of("id", UUID.randomUUID().toString()));
+        event.setAttempts(attempts);
+        event.setAvailableAt(LocalDateTime.now());
+        return outboxEventRepository.saveAndFlush(event).getId();
+    }
+
+    private OutboxEvent findByPayload(String field, Object value) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> value.equals(event.getPayload().get(field)))
+                .findFirst()
+                .orElseThrow();
+    }
+}
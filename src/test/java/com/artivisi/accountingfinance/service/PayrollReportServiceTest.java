@@ -19,6 +19,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -207,6 +209,34 @@ class PayrollReportServiceTest {
         assertThat(new String(pdf, 0, 4)).isEqualTo("%PDF");
     }
 
+    @Test
+    @DisplayName("Should write all 1721-A1 documents into one ZIP in order")
+    void shouldWriteBuktiPotong1721A1Zip() throws Exception {
+        List<PayrollService.YearlyPayrollSummary> summaries = employeeRepository.findAll().stream()
+                .limit(5)
+                .map(employee -> new PayrollService.YearlyPayrollSummary(
+                        employee,
+                        2025,
+                        12,
+                        new java.math.BigDecimal("120000000"),
+                        new java.math.BigDecimal("3888000"),
+                        new java.math.BigDecimal("2820000")))
+                .toList();
+
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        payrollReportService.writeBuktiPotong1721A1Zip(summaries, out);
+
+        List<String> names = new java.util.ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                names.add(entry.getName());
+                assertThat(new String(zip.readAllBytes(), 0, 4)).isEqualTo("%PDF");
+            }
+        }
+        assertThat(names).containsExactlyElementsOf(
+                summaries.stream().map(payrollReportService::buktiPotong1721A1Filename).toList());
+    }
+
     // ==================== Edge Cases ====================
 
     @Test
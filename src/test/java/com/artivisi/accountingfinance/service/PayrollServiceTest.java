@@ -66,6 +66,40 @@ class PayrollServiceTest {
     private static final UUID ACCOUNT_ID_HUTANG_BPJS = UUID.fromString("20000000-0000-0000-0000-000000000108");
     private static final UUID ACCOUNT_ID_HUTANG_PPH21 = UUID.fromString("20000000-0000-0000-0000-000000000120");
 
+    @Nested
+    @DisplayName("Yearly Payroll Summaries")
+    class YearlyPayrollSummaryTests {
+
+        @Test
+        @DisplayName("Should match per-employee yearly summaries")
+        void shouldMatchPerEmployeeSummaries() {
+            for (int month = 1; month <= 2; month++) {
+                PayrollRun payrollRun = payrollService.createPayrollRun(YearMonth.of(2031, month));
+                payrollRun = payrollService.calculatePayroll(payrollRun.getId(), new BigDecimal("10000000"), 1);
+                payrollRun = payrollService.approvePayroll(payrollRun.getId());
+                payrollService.postPayroll(payrollRun.getId());
+            }
+
+            List<PayrollService.YearlyPayrollSummary> summaries = payrollService.getYearlyPayrollSummaries(2031);
+
+            assertThat(summaries).hasSameSizeAs(payrollService.getEmployeesWithPayrollInYear(2031)).isNotEmpty();
+            for (PayrollService.YearlyPayrollSummary summary : summaries) {
+                PayrollService.YearlyPayrollSummary expected =
+                        payrollService.getYearlyPayrollSummary(summary.employee().getId(), 2031);
+                assertThat(summary.monthCount()).isEqualTo(2).isEqualTo(expected.monthCount());
+                assertThat(summary.totalGross()).isEqualByComparingTo(expected.totalGross());
+                assertThat(summary.totalBpjsEmployee()).isEqualByComparingTo(expected.totalBpjsEmployee());
+                assertThat(summary.totalPph21()).isEqualByComparingTo(expected.totalPph21());
+            }
+        }
+
+        @Test
+        @DisplayName("Should return empty list for a year without posted payroll")
+        void shouldReturnEmptyForYearWithoutPayroll() {
+            assertThat(payrollService.getYearlyPayrollSummaries(1999)).isEmpty();
+        }
+    }
+
     @Nested
     @DisplayName("Post Payroll Tests")
     class PostPayrollTests {
@@ -3,6 +3,8 @@ package com.artivisi.accountingfinance.service;
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.entity.BillOfMaterial;
 import com.artivisi.accountingfinance.entity.BillOfMaterialLine;
+import com.artivisi.accountingfinance.entity.InventoryTransaction;
+import com.artivisi.accountingfinance.entity.InventoryTransactionType;
 import com.artivisi.accountingfinance.entity.Product;
 import com.artivisi.accountingfinance.entity.ProductionOrder;
 import com.artivisi.accountingfinance.entity.ProductionOrderStatus;
@@ -51,6 +53,9 @@ class ProductionOrderServiceTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     // Test data IDs from V911
     private static final UUID PRODUCT_FINISHED_ID = UUID.fromString("d0911002-0000-0000-0000-000000000003");
     private static final UUID PRODUCT_COMPONENT_1_ID = UUID.fromString("d0911002-0000-0000-0000-000000000001");
@@ -240,6 +245,89 @@ class ProductionOrderServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Completion")
+    class CompletionTests {
+
+        @Test
+        @WithMockUser(username = "testuser")
+        @DisplayName("Should consume components and receive finished goods at component cost")
+        void shouldConsumeComponentsAndReceiveFinishedGoods() {
+            BigDecimal componentStock = inventoryService.getCurrentStock(PRODUCT_COMPONENT_1_ID);
+            BigDecimal componentAverage = inventoryService.getCurrentAverageCost(PRODUCT_COMPONENT_1_ID);
+            BigDecimal finishedStock = inventoryService.getCurrentStock(PRODUCT_FINISHED_ID);
+            ProductionOrder order = orderService.start(orderService.create(createTestOrder()).getId());
+
+            ProductionOrder completed = orderService.complete(order.getId());
+
+            BigDecimal expectedCost = componentAverage.multiply(new BigDecimal("20"));
+            assertThat(completed.getStatus()).isEqualTo(ProductionOrderStatus.COMPLETED);
+            assertThat(completed.getTotalComponentCost()).isEqualByComparingTo(expectedCost);
+            assertThat(completed.getUnitCost()).isEqualByComparingTo(expectedCost.divide(BigDecimal.TEN));
+            assertThat(inventoryService.getCurrentStock(PRODUCT_COMPONENT_1_ID))
+                    .isEqualByComparingTo(componentStock.subtract(new BigDecimal("20")));
+            assertThat(inventoryService.getCurrentStock(PRODUCT_FINISHED_ID))
+                    .isEqualByComparingTo(finishedStock.add(BigDecimal.TEN));
+
+            List<InventoryTransaction> movements = inventoryService.findByProductId(PRODUCT_COMPONENT_1_ID).stream()
+                    .filter(tx -> completed.getOrderNumber().equals(tx.getReferenceNumber()))
+                    .toList();
+            assertThat(movements).singleElement()
+                    .extracting(InventoryTransaction::getTransactionType)
+                    .isEqualTo(InventoryTransactionType.PRODUCTION_OUT);
+        }
+
+        @Test
+        @WithMockUser(username = "testuser")
+        @DisplayName("Should reject completion without changing stock when a component is short")
+        void shouldRejectCompletionWhenComponentIsShort() {
+            BigDecimal componentStock = inventoryService.getCurrentStock(PRODUCT_COMPONENT_1_ID);
+            ProductionOrder started = orderService.start(orderService.create(createTestOrder()).getId());
+            // Stock was enough at start; the order grows past it before completion
+            started.setQuantity(componentStock.add(BigDecimal.ONE));
+
+            assertThatThrownBy(() -> orderService.complete(started.getId()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Stok tidak mencukupi");
+            assertThat(inventoryService.getCurrentStock(PRODUCT_COMPONENT_1_ID))
+                    .isEqualByComparingTo(componentStock);
+        }
+    }
+
+    @Nested
+    @DisplayName("Material Planning")
+    class MaterialPlanningTests {
+
+        @Test
+        @WithMockUser(username = "testuser")
+        @DisplayName("Should add draft and in-progress order demand to material requirements")
+        void shouldPlanDraftAndInProgressOrders() {
+            BigDecimal before = requiredComponent1();
+
+            orderService.create(createTestOrder());
+            orderService.start(orderService.create(createTestOrder()).getId());
+
+            // Two orders of 10, each unit needing 2 of component 1
+            assertThat(requiredComponent1().subtract(before)).isEqualByComparingTo("40");
+        }
+
+        @Test
+        @WithMockUser(username = "testuser")
+        @DisplayName("Should leave cancelled orders out of material requirements")
+        void shouldNotPlanCancelledOrders() {
+            BigDecimal before = requiredComponent1();
+
+            orderService.cancel(orderService.create(createTestOrder()).getId());
+
+            assertThat(requiredComponent1()).isEqualByComparingTo(before);
+        }
+
+        private BigDecimal requiredComponent1() {
+            return orderService.planOpenOrders().materials()
+                    .getOrDefault(PRODUCT_COMPONENT_1_ID, BigDecimal.ZERO);
+        }
+    }
+
     private ProductionOrder createTestOrder() {
         ProductionOrder order = new ProductionOrder();
         order.setQuantity(BigDecimal.TEN);
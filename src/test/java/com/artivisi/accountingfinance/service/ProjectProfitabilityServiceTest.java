@@ -128,6 +128,42 @@ class ProjectProfitabilityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Batch Project Profitability")
+    class BatchProjectProfitabilityTests {
+
+        @Test
+        @DisplayName("Should return empty list for no projects")
+        void shouldReturnEmptyListForNoProjects() {
+            assertThat(profitabilityService.calculateProjectProfitability(
+                    List.of(), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should match single project calculation")
+        void shouldMatchSingleProjectCalculation() {
+            List<Project> projects = projectRepository.findAll();
+            LocalDate startDate = LocalDate.of(2025, 1, 1);
+            LocalDate endDate = LocalDate.of(2025, 12, 31);
+
+            List<ProjectProfitabilityService.ProjectProfitabilityReport> reports =
+                    profitabilityService.calculateProjectProfitability(projects, startDate, endDate);
+
+            assertThat(reports).hasSameSizeAs(projects);
+            for (int i = 0; i < projects.size(); i++) {
+                ProjectProfitabilityService.ProjectProfitabilityReport single =
+                        profitabilityService.calculateProjectProfitability(projects.get(i).getId(), startDate, endDate);
+                ProjectProfitabilityService.ProjectProfitabilityReport batch = reports.get(i);
+
+                assertThat(batch.project().getId()).isEqualTo(projects.get(i).getId());
+                assertThat(batch.totalRevenue()).isEqualByComparingTo(single.totalRevenue());
+                assertThat(batch.totalExpense()).isEqualByComparingTo(single.totalExpense());
+                assertThat(batch.revenueItems()).hasSameSizeAs(single.revenueItems());
+                assertThat(batch.expenseItems()).hasSameSizeAs(single.expenseItems());
+            }
+        }
+    }
+
     @Nested
     @DisplayName("Client Profitability Reports")
     class ClientProfitabilityTests {
@@ -195,6 +231,32 @@ class ProjectProfitabilityServiceTest {
             assertThat(rankings).hasSizeLessThanOrEqualTo(5);
         }
 
+        @Test
+        @DisplayName("Should rank by revenue with percentages adding up to the total")
+        void shouldRankByRevenueWithPercentages() {
+            LocalDate startDate = LocalDate.of(2025, 1, 1);
+            LocalDate endDate = LocalDate.of(2025, 12, 31);
+
+            List<ProjectProfitabilityService.ClientRankingItem> rankings =
+                    profitabilityService.getClientRanking(startDate, endDate, 0);
+
+            for (int i = 1; i < rankings.size(); i++) {
+                assertThat(rankings.get(i - 1).totalRevenue())
+                        .isGreaterThanOrEqualTo(rankings.get(i).totalRevenue());
+            }
+            for (ProjectProfitabilityService.ClientRankingItem item : rankings) {
+                ProjectProfitabilityService.ClientProfitabilityReport report =
+                        profitabilityService.calculateClientProfitability(item.client().getId(), startDate, endDate);
+                assertThat(item.totalRevenue()).isEqualByComparingTo(report.totalRevenue());
+            }
+            if (!rankings.isEmpty()) {
+                BigDecimal totalPercentage = rankings.stream()
+                        .map(ProjectProfitabilityService.ClientRankingItem::revenuePercentage)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                assertThat(totalPercentage).isBetween(new BigDecimal("99.9"), new BigDecimal("100.1"));
+            }
+        }
+
         @Test
         @DisplayName("Should get client ranking with no limit")
         void shouldGetClientRankingWithNoLimit() {
@@ -0,0 +1,118 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.entity.Project;
+import com.artivisi.accountingfinance.entity.Tag;
+import com.artivisi.accountingfinance.entity.TagType;
+import com.artivisi.accountingfinance.enums.ProjectStatus;
+import com.artivisi.accountingfinance.querycount.QueryCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("ReferenceDataService Integration Tests")
+class ReferenceDataServiceTest {
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TagTypeService tagTypeService;
+
+    @Autowired
+    private TagService tagService;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataService.invalidate();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from memory")
+    void shouldServeRepeatedReadsFromMemory() throws Exception {
+        referenceDataService.activeProjects();
+
+        QueryCount queries = QueryCount.measure(() -> {
+            referenceDataService.activeProjects();
+            referenceDataService.activeTagsByType();
+            referenceDataService.findProjectIdByCode("NONEXISTENT");
+        });
+
+        assertThat(queries.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should list a new project and drop it once archived")
+    void shouldFollowProjectChanges() {
+        Project project = createProject("RDS-001");
+
+        assertThat(referenceDataService.activeProjects())
+                .extracting(ReferenceDataService.ProjectOption::code)
+                .contains("RDS-001");
+
+        projectService.archive(project.getId());
+
+        assertThat(referenceDataService.activeProjects())
+                .extracting(ReferenceDataService.ProjectOption::code)
+                .doesNotContain("RDS-001");
+        assertThat(referenceDataService.findProjectIdByCode("RDS-001")).contains(project.getId());
+    }
+
+    @Test
+    @DisplayName("Should group active tags by type and follow tag changes")
+    void shouldFollowTagChanges() {
+        TagType type = new TagType();
+        type.setCode("RDS");
+        type.setName("Referensi");
+        type = tagTypeService.create(type);
+        Tag kept = createTag(type, "RDS-A", "Alpha");
+        Tag removed = createTag(type, "RDS-B", "Beta");
+
+        assertThat(tagsOf("Referensi")).containsExactly("Alpha", "Beta");
+
+        tagService.delete(removed.getId());
+
+        assertThat(tagsOf("Referensi")).containsExactly(kept.getName());
+    }
+
+    private List<String> tagsOf(String typeName) {
+        return referenceDataService.activeTagsByType().entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(typeName))
+                .flatMap(entry -> entry.getValue().stream())
+                .map(ReferenceDataService.TagOption::name)
+                .toList();
+    }
+
+    private Project createProject(String code) {
+        Project project = new Project();
+        project.setCode(code);
+        project.setName("Proyek " + code);
+        Project created = projectService.create(project, null);
+        assertThat(created.getStatus()).isEqualTo(ProjectStatus.ACTIVE);
+        return created;
+    }
+
+    private Tag createTag(TagType type, String code, String name) {
+        Tag tag = new Tag();
+        tag.setTagType(type);
+        tag.setCode(code);
+        tag.setName(name);
+        return tagService.create(tag);
+    }
+}
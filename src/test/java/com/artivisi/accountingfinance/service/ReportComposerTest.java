@@ -0,0 +1,179 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportComposer Tests")
+class ReportComposerTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReportComposer composer;
+
+    @AfterEach
+    void tearDown() {
+        if (composer != null) {
+            composer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run parts concurrently, each in its own transaction")
+    void shouldRunPartsConcurrently() {
+        composer = new ReportComposer(transactionManager, 4, 10);
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+
+        Supplier<String> first;
+        Supplier<String> second;
+        try (ReportComposer.Scope scope = composer.open()) {
+            first = scope.fork(() -> awaitOther(bothStarted, "first"));
+            second = scope.fork(() -> awaitOther(bothStarted, "second"));
+            scope.join();
+        }
+
+        assertThat(first.get()).isEqualTo("first");
+        assertThat(second.get()).isEqualTo("second");
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should run no more parts at a time than the concurrency limit")
+    void shouldBoundConcurrency() {
+        composer = new ReportComposer(transactionManager, 2, 10);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (ReportComposer.Scope scope = composer.open()) {
+            for (int i = 0; i < 8; i++) {
+                scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            scope.join();
+        }
+
+        assertThat(maxRunning.get()).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should fail with the first failure and cancel the other parts")
+    void shouldCancelSiblingsOnFailure() throws InterruptedException {
+        composer = new ReportComposer(transactionManager, 4, 10);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (ReportComposer.Scope scope = composer.open()) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IllegalArgumentException("part failed");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("part failed");
+        }
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fail a part that exceeds its timeout")
+    void shouldTimeOutSlowPart() {
+        composer = new ReportComposer(transactionManager, 4, 1);
+
+        try (ReportComposer.Scope scope = composer.open()) {
+            scope.fork(() -> {
+                sleep(5_000);
+                return null;
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("did not finish within 1 s");
+        }
+    }
+
+    @Test
+    @DisplayName("Should not count time spent waiting for a permit against the timeout")
+    void shouldStartTimeoutWhenPermitAcquired() {
+        composer = new ReportComposer(transactionManager, 1, 1);
+        AtomicInteger finished = new AtomicInteger();
+
+        try (ReportComposer.Scope scope = composer.open()) {
+            for (int i = 0; i < 3; i++) {
+                scope.fork(() -> {
+                    sleep(600);
+                    return finished.incrementAndGet();
+                });
+            }
+            scope.join();
+        }
+
+        assertThat(finished.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should run parts inline inside the caller's transaction")
+    void shouldRunInlineInsideTransaction() {
+        composer = new ReportComposer(transactionManager, 4, 10);
+        Thread caller = Thread.currentThread();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try (ReportComposer.Scope scope = composer.open()) {
+            Supplier<Thread> thread = scope.fork(Thread::currentThread);
+            scope.join();
+
+            assertThat(thread.get()).isSameAs(caller);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static String awaitOther(CyclicBarrier barrier, String result) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Parts did not run concurrently", e);
+        }
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
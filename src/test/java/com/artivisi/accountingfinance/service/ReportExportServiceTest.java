@@ -20,9 +20,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -823,6 +825,50 @@ class ReportExportServiceTest {
             }
         }
 
+        @Test
+        @DisplayName("Should stream stock movement rows from the database to PDF")
+        void shouldStreamStockMovementToPdf() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            reportExportService.writeStockMovementPdf(
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, null, out);
+
+            byte[] pdf = out.toByteArray();
+            assertThat(pdf).hasSizeGreaterThan(100);
+            assertThat(new String(pdf, 0, 4)).isEqualTo("%PDF");
+        }
+
+        @Test
+        @DisplayName("Should stream stock movement rows from the database to Excel")
+        void shouldStreamStockMovementToExcel() throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            reportExportService.writeStockMovementExcel(
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                    null, UUID.fromString("d0911002-0000-0000-0000-000000000001"), out);
+
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                Sheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getSheetName()).isEqualTo("Mutasi Stok");
+                // Title rows, column header, then one row per movement in date order
+                int headerRow = findRowStartingWith(sheet, "No");
+                assertThat(sheet.getRow(headerRow + 1).getCell(2).getStringCellValue()).isEqualTo("PRD-TEST-001");
+                assertThat(sheet.getRow(headerRow + 3).getCell(4).getStringCellValue()).isEqualTo("Produksi Keluar");
+                assertThat(sheet.getRow(headerRow + 4)).isNull();
+            }
+        }
+
+        private int findRowStartingWith(Sheet sheet, String value) {
+            for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+                var row = sheet.getRow(i);
+                if (row != null && row.getCell(0) != null
+                        && value.equals(row.getCell(0).getStringCellValue())) {
+                    return i;
+                }
+            }
+            throw new AssertionError("No row starting with " + value);
+        }
+
         // ==================== Valuation with items ====================
 
         @Test
@@ -8,7 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,6 +31,9 @@ class ReportServiceTest {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Nested
     @DisplayName("Trial Balance Report")
     class TrialBalanceTests {
@@ -190,6 +196,23 @@ class ReportServiceTest {
 
             assertThat(report.equityItems()).isNotNull();
         }
+
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should compose the same balance sheet concurrently outside a transaction")
+        void shouldComposeSameBalanceSheetConcurrently() {
+            LocalDate date = LocalDate.of(2025, 6, 30);
+            ReportService.BalanceSheetReport concurrent = reportService.generateBalanceSheet(date);
+            ReportService.BalanceSheetReport inline = new TransactionTemplate(transactionManager)
+                    .execute(status -> reportService.generateBalanceSheet(date));
+
+            assertThat(concurrent.assetItems()).hasSameSizeAs(inline.assetItems());
+            assertThat(concurrent.equityItems()).hasSameSizeAs(inline.equityItems());
+            assertThat(concurrent.totalAssets()).isEqualByComparingTo(inline.totalAssets());
+            assertThat(concurrent.totalLiabilities()).isEqualByComparingTo(inline.totalLiabilities());
+            assertThat(concurrent.totalEquity()).isEqualByComparingTo(inline.totalEquity());
+            assertThat(concurrent.currentYearEarnings()).isEqualByComparingTo(inline.currentYearEarnings());
+        }
     }
 
     @Nested
@@ -159,6 +159,26 @@ class StatementServiceTest {
             assertThat(statement.entries().get(2).type()).isEqualTo("INVOICE");
         }
 
+        @Test
+        @DisplayName("Should leave out invoices marked paid without payment records")
+        void shouldExcludeInvoicesMarkedPaidWithoutPayments() {
+            Client client = createTestClient();
+            createTestInvoice(client, LocalDate.of(2024, 1, 15),
+                    new BigDecimal("4000000"), InvoiceStatus.PAID);
+            createTestInvoice(client, LocalDate.of(2024, 7, 1),
+                    new BigDecimal("6000000"), InvoiceStatus.PAID);
+            createTestInvoice(client, LocalDate.of(2024, 7, 5),
+                    new BigDecimal("1000000"), InvoiceStatus.SENT);
+
+            AccountStatement statement = statementService.generateClientStatement(
+                    client.getId(), client.getCode(), client.getName(),
+                    LocalDate.of(2024, 6, 1), LocalDate.of(2024, 12, 31));
+
+            assertThat(statement.openingBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(statement.entries()).hasSize(1);
+            assertThat(statement.closingBalance()).isEqualByComparingTo(new BigDecimal("1000000"));
+        }
+
         @Test
         @DisplayName("Should handle only invoices without payments")
         void shouldHandleOnlyInvoicesWithoutPayments() {
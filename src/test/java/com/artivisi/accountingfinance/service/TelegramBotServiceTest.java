@@ -13,6 +13,8 @@ import com.artivisi.accountingfinance.entity.TelegramUserLink;
 import com.artivisi.accountingfinance.entity.User;
 import com.artivisi.accountingfinance.repository.TelegramUserLinkRepository;
 import com.artivisi.accountingfinance.repository.UserRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestProgress;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
 import com.artivisi.accountingfinance.service.telegram.TelegramApiClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,14 +24,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -434,7 +440,7 @@ class TelegramBotServiceTest {
 
             // Mock draft creation
             DraftTransaction draft = createDraft();
-            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString()))
+            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString(), any()))
                     .thenReturn(draft);
 
             mockSendMessageSuccess();
@@ -537,7 +543,7 @@ class TelegramBotServiceTest {
                     .thenReturn(document);
 
             DraftTransaction draft = createDraft();
-            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString()))
+            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString(), any()))
                     .thenReturn(draft);
 
             mockSendMessageSuccess();
@@ -573,7 +579,7 @@ class TelegramBotServiceTest {
 
             // Draft with null amount and null merchant
             DraftTransaction emptyDraft = new DraftTransaction();
-            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString()))
+            when(draftService.processReceiptImage(any(), any(), any(), any(), anyString(), any()))
                     .thenReturn(emptyDraft);
 
             mockSendMessageSuccess();
@@ -722,6 +728,104 @@ class TelegramBotServiceTest {
             verify(telegramApiClient, atLeast(2)).sendMessage(any());
         }
 
+        @Test
+        @DisplayName("Should rethrow transient failure for the queue to retry")
+        void shouldRethrowTransientFailureBeforeLastAttempt() {
+            TelegramUserLink link = createLinkedUserLink();
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(link));
+            when(telegramApiClient.getFile(any()))
+                    .thenThrow(new ResourceAccessException("Connection reset"));
+            mockSendMessageSuccess();
+
+            TelegramUpdate update = createPhotoUpdate();
+
+            assertThatThrownBy(() -> service.handleUpdate(update, new IngestTimings(), false))
+                    .isInstanceOf(ResourceAccessException.class);
+            // Only the processing notice; the error reply waits for the last attempt
+            verify(telegramApiClient, times(1)).sendMessage(any());
+        }
+
+        @Test
+        @DisplayName("Should record the sent notice when a transient failure is rethrown")
+        void shouldRecordNoticeBeforeRetry() {
+            TelegramUserLink link = createLinkedUserLink();
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(link));
+            when(telegramApiClient.getFile(any()))
+                    .thenThrow(new ResourceAccessException("Connection reset"));
+            mockSendMessageSuccess();
+            IngestProgress progress = new IngestProgress();
+
+            assertThatThrownBy(() -> service.handleUpdate(createPhotoUpdate(), new IngestTimings(), progress, false))
+                    .isInstanceOf(ResourceAccessException.class);
+
+            assertThat(progress.isNoticeSent()).isTrue();
+            assertThat(progress.getDocumentId()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reuse the stored photo and skip the notice on retry")
+        void shouldSkipFinishedStepsOnRetry() throws Exception {
+            TelegramUserLink link = createLinkedUserLink();
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(link));
+            UUID documentId = UUID.randomUUID();
+            Document document = new Document();
+            document.setId(documentId);
+            when(documentService.findById(documentId)).thenReturn(document);
+            when(documentService.loadAsResource(documentId)).thenReturn(new ByteArrayResource(new byte[] {1, 2, 3}));
+            DraftTransaction draft = createDraft();
+            when(draftService.processReceiptImage(any(), eq(document), any(), any(), anyString(), any()))
+                    .thenReturn(draft);
+            mockSendMessageSuccess();
+
+            service.handleUpdate(createPhotoUpdate(), new IngestTimings(), new IngestProgress(true, documentId), false);
+
+            verify(telegramApiClient, never()).getFile(any());
+            verify(documentService, never()).saveFromBytes(any(), anyString(), anyString(), anyString());
+            ArgumentCaptor<TelegramApiClient.SendMessageRequest> captor =
+                    ArgumentCaptor.forClass(TelegramApiClient.SendMessageRequest.class);
+            verify(telegramApiClient, times(1)).sendMessage(captor.capture());
+            assertThat(captor.getValue().text()).contains("Struk Diterima");
+        }
+
+        @Test
+        @DisplayName("Should report transient failure on the last attempt")
+        void shouldReportTransientFailureOnLastAttempt() {
+            TelegramUserLink link = createLinkedUserLink();
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(link));
+            when(telegramApiClient.getFile(any()))
+                    .thenThrow(new ResourceAccessException("Connection reset"));
+            mockSendMessageSuccess();
+
+            service.handleUpdate(createPhotoUpdate(), new IngestTimings(), true);
+
+            ArgumentCaptor<TelegramApiClient.SendMessageRequest> captor =
+                    ArgumentCaptor.forClass(TelegramApiClient.SendMessageRequest.class);
+            verify(telegramApiClient, times(2)).sendMessage(captor.capture());
+            assertThat(captor.getValue().text()).contains("Gagal memproses struk");
+        }
+
+        @Test
+        @DisplayName("Should report permanent failure without retrying")
+        void shouldReportPermanentFailureBeforeLastAttempt() {
+            TelegramUserLink link = createLinkedUserLink();
+            when(telegramLinkRepository.findByTelegramUserIdAndIsActiveTrue(any()))
+                    .thenReturn(Optional.of(link));
+            when(telegramApiClient.getFile(any())).thenReturn(
+                    new TelegramApiClient.GetFileResponse(false, null, "File not found"));
+            mockSendMessageSuccess();
+
+            service.handleUpdate(createPhotoUpdate(), new IngestTimings(), false);
+
+            ArgumentCaptor<TelegramApiClient.SendMessageRequest> captor =
+                    ArgumentCaptor.forClass(TelegramApiClient.SendMessageRequest.class);
+            verify(telegramApiClient, times(2)).sendMessage(captor.capture());
+            assertThat(captor.getValue().text()).contains("File not found");
+        }
+
         @Test
         @DisplayName("Should select largest photo from multiple sizes")
         void shouldSelectLargestPhoto() {
@@ -0,0 +1,315 @@
+package com.artivisi.accountingfinance.service;
+
+import com.artivisi.accountingfinance.TestcontainersConfiguration;
+import com.artivisi.accountingfinance.dto.telegram.TelegramChat;
+import com.artivisi.accountingfinance.dto.telegram.TelegramMessage;
+import com.artivisi.accountingfinance.dto.telegram.TelegramPhotoSize;
+import com.artivisi.accountingfinance.dto.telegram.TelegramUpdate;
+import com.artivisi.accountingfinance.dto.telegram.TelegramUser;
+import com.artivisi.accountingfinance.entity.Document;
+import com.artivisi.accountingfinance.entity.TelegramUpdateJob;
+import com.artivisi.accountingfinance.repository.DocumentRepository;
+import com.artivisi.accountingfinance.repository.TelegramUpdateJobRepository;
+import com.artivisi.accountingfinance.service.telegram.IngestProgress;
+import com.artivisi.accountingfinance.service.telegram.IngestTimings;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("TelegramUpdateQueueService Integration Tests")
+class TelegramUpdateQueueServiceTest {
+
+    @Autowired
+    private TelegramUpdateQueueService queueService;
+
+    @Autowired
+    private TelegramUpdateJobRepository jobRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Nested
+    @DisplayName("Enqueue")
+    class EnqueueTests {
+
+        @Test
+        @DisplayName("Should store the update as a pending job")
+        void shouldStorePendingJob() {
+            assertThat(queueService.enqueue(photoUpdate(9001L))).isTrue();
+            entityManager.clear();
+
+            TelegramUpdateJob job = jobRepository.findByUpdateId(9001L).orElseThrow();
+            assertThat(job.getStatus()).isEqualTo(TelegramUpdateJob.Status.PENDING);
+            assertThat(job.getAttempts()).isZero();
+            assertThat(job.getPayload().getMessage().getChat().getId()).isEqualTo(555L);
+            assertThat(job.getPayload().getMessage().getPhoto())
+                    .extracting(TelegramPhotoSize::getFileId)
+                    .containsExactly("receipt-photo");
+        }
+
+        @Test
+        @DisplayName("Should drop a retried update with the same update_id")
+        void shouldDropDuplicateUpdate() {
+            assertThat(queueService.enqueue(photoUpdate(9002L))).isTrue();
+            assertThat(queueService.enqueue(photoUpdate(9002L))).isFalse();
+
+            assertThat(jobRepository.findAll())
+                    .filteredOn(job -> job.getUpdateId() == 9002L)
+                    .hasSize(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Claim")
+    class ClaimTests {
+
+        @Test
+        @DisplayName("Should claim due jobs once, up to the limit")
+        void shouldClaimDueJobsOnce() {
+            queueService.enqueue(photoUpdate(9101L));
+            queueService.enqueue(photoUpdate(9102L));
+            queueService.enqueue(photoUpdate(9103L));
+
+            List<UUID> first = queueService.claim(2);
+            List<UUID> second = queueService.claim(10);
+
+            assertThat(first).hasSize(2);
+            assertThat(second).hasSize(1).doesNotContainAnyElementsOf(first);
+            assertThat(queueService.claim(10)).isEmpty();
+
+            TelegramUpdateJob job = jobRepository.findById(first.getFirst()).orElseThrow();
+            assertThat(job.getStatus()).isEqualTo(TelegramUpdateJob.Status.PROCESSING);
+            assertThat(job.getAttempts()).isEqualTo(1);
+            assertThat(job.getStartedAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should not claim a job waiting for its retry delay")
+        void shouldNotClaimJobBeforeAvailable() {
+            queueService.enqueue(photoUpdate(9201L));
+            TelegramUpdateJob job = jobRepository.findByUpdateId(9201L).orElseThrow();
+            job.setAvailableAt(LocalDateTime.now().plusMinutes(5));
+            jobRepository.saveAndFlush(job);
+
+            assertThat(queueService.claim(10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should claim again a job left processing by a dead worker")
+        void shouldReclaimStaleJob() {
+            queueService.enqueue(photoUpdate(9301L));
+            TelegramUpdateJob job = jobRepository.findByUpdateId(9301L).orElseThrow();
+            job.setStatus(TelegramUpdateJob.Status.PROCESSING);
+            job.setAttempts(1);
+            job.setStartedAt(LocalDateTime.now().minusHours(1));
+            jobRepository.saveAndFlush(job);
+
+            assertThat(queueService.claim(10)).containsExactly(job.getId());
+            assertThat(jobRepository.findById(job.getId()).orElseThrow().getAttempts()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Processing")
+    class ProcessingTests {
+
+        private TelegramBotService botService;
+        private TelegramUpdateQueueService queue;
+
+        @BeforeEach
+        void setUp() {
+            botService = mock(TelegramBotService.class);
+            queue = new TelegramUpdateQueueService(jobRepository, botService, eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should complete the job and keep its stage timings")
+        void shouldCompleteJobWithStageTimings() {
+            doAnswer(invocation -> {
+                IngestTimings timings = invocation.getArgument(1);
+                timings.recordMillis(IngestTimings.Stage.DOWNLOAD, 40);
+                timings.recordMillis(IngestTimings.Stage.OCR, 250);
+                return null;
+            }).when(botService).handleUpdate(any(), any(), any(), anyBoolean());
+            UUID jobId = enqueueAndClaim(queue, 9401L);
+
+            queue.process(jobId);
+
+            TelegramUpdateJob job = jobRepository.findById(jobId).orElseThrow();
+            assertThat(job.getStatus()).isEqualTo(TelegramUpdateJob.Status.DONE);
+            assertThat(job.getCompletedAt()).isNotNull();
+            assertThat(job.getStageTimings())
+                    .containsKeys("queue_wait", "download", "ocr", "total")
+                    .containsEntry("ocr", 250L);
+            assertThat(queue.stageStatistics())
+                    .filteredOn(stats -> stats.stage() == IngestTimings.Stage.OCR)
+                    .singleElement()
+                    .satisfies(stats -> {
+                        assertThat(stats.count()).isEqualTo(1);
+                        assertThat(stats.maxMillis()).isEqualTo(250);
+                        assertThat(stats.averageMillis()).isEqualTo(250.0);
+                    });
+        }
+
+        @Test
+        @DisplayName("Should put a failed job back with a delay")
+        void shouldRetryFailedJobLater() {
+            doThrow(new IllegalStateException("Telegram API unavailable"))
+                    .when(botService).handleUpdate(any(), any(), any(), anyBoolean());
+            UUID jobId = enqueueAndClaim(queue, 9501L);
+
+            queue.process(jobId);
+
+            TelegramUpdateJob job = jobRepository.findById(jobId).orElseThrow();
+            assertThat(job.getStatus()).isEqualTo(TelegramUpdateJob.Status.PENDING);
+            assertThat(job.getLastError()).isEqualTo("Telegram API unavailable");
+            assertThat(job.getAvailableAt()).isAfter(LocalDateTime.now());
+            assertThat(queue.claim(10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep the finished steps of a failed attempt for the retry")
+        void shouldKeepProgressForRetry() {
+            Document document = documentRepository.save(receiptDocument());
+            doAnswer(invocation -> {
+                IngestProgress progress = invocation.getArgument(2);
+                progress.markNoticeSent();
+                progress.setDocumentId(document.getId());
+                throw new IllegalStateException("OCR unavailable");
+            }).when(botService).handleUpdate(any(), any(), any(), anyBoolean());
+            UUID jobId = enqueueAndClaim(queue, 9551L);
+
+            queue.process(jobId);
+
+            TelegramUpdateJob job = jobRepository.findById(jobId).orElseThrow();
+            assertThat(job.getNoticeSent()).isTrue();
+            assertThat(job.getDocumentId()).isEqualTo(document.getId());
+
+            job.setStatus(TelegramUpdateJob.Status.PROCESSING);
+            jobRepository.saveAndFlush(job);
+            ArgumentCaptor<IngestProgress> captor = ArgumentCaptor.forClass(IngestProgress.class);
+            doAnswer(invocation -> null).when(botService).handleUpdate(any(), any(), any(), anyBoolean());
+
+            queue.process(jobId);
+
+            verify(botService, times(2)).handleUpdate(any(), any(), captor.capture(), anyBoolean());
+            assertThat(captor.getValue().isNoticeSent()).isTrue();
+            assertThat(captor.getValue().getDocumentId()).isEqualTo(document.getId());
+        }
+
+        @Test
+        @DisplayName("Should mark the job failed after the last attempt")
+        void shouldFailAfterMaxAttempts() {
+            doThrow(new IllegalStateException("Broken update"))
+                    .when(botService).handleUpdate(any(), any(), any(), anyBoolean());
+            queue.enqueue(photoUpdate(9601L));
+            TelegramUpdateJob pending = jobRepository.findByUpdateId(9601L).orElseThrow();
+            pending.setAttempts(2);
+            jobRepository.saveAndFlush(pending);
+            UUID jobId = queue.claim(1).getFirst();
+
+            queue.process(jobId);
+
+            TelegramUpdateJob job = jobRepository.findById(jobId).orElseThrow();
+            assertThat(job.getAttempts()).isEqualTo(3);
+            assertThat(job.getStatus()).isEqualTo(TelegramUpdateJob.Status.FAILED);
+            assertThat(job.getCompletedAt()).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should purge processed jobs older than the retention")
+    void shouldPurgeOldDoneJobs() {
+        queueService.enqueue(photoUpdate(9701L));
+        queueService.enqueue(photoUpdate(9702L));
+        markDone(9701L, LocalDateTime.now().minusDays(10));
+        markDone(9702L, LocalDateTime.now());
+
+        int purged = queueService.purgeDone(LocalDateTime.now().minusDays(7));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(jobRepository.findByUpdateId(9701L)).isEmpty();
+        assertThat(jobRepository.findByUpdateId(9702L)).isPresent();
+    }
+
+    private UUID enqueueAndClaim(TelegramUpdateQueueService queue, Long updateId) {
+        queue.enqueue(photoUpdate(updateId));
+        return queue.claim(1).getFirst();
+    }
+
+    private void markDone(Long updateId, LocalDateTime completedAt) {
+        TelegramUpdateJob job = jobRepository.findByUpdateId(updateId).orElseThrow();
+        job.setStatus(TelegramUpdateJob.Status.DONE);
+        job.setCompletedAt(completedAt);
+        jobRepository.saveAndFlush(job);
+    }
+
+    private Document receiptDocument() {
+        Document document = new Document();
+        document.setFilename("receipt.jpg");
+        document.setOriginalFilename("receipt.jpg");
+        document.setContentType("image/jpeg");
+        document.setFileSize(3L);
+        document.setStoragePath("telegram/receipt.jpg");
+        document.setChecksumSha256("0".repeat(64));
+        return document;
+    }
+
+    private TelegramUpdate photoUpdate(Long updateId) {
+        TelegramUser from = new TelegramUser();
+        from.setId(555L);
+        from.setFirstName("Budi");
+
+        TelegramChat chat = new TelegramChat();
+        chat.setId(555L);
+        chat.setType("private");
+
+        TelegramPhotoSize photo = new TelegramPhotoSize();
+        photo.setFileId("receipt-photo");
+        photo.setWidth(800);
+        photo.setHeight(1200);
+
+        TelegramMessage message = new TelegramMessage();
+        message.setMessageId(updateId);
+        message.setFrom(from);
+        message.setChat(chat);
+        message.setPhoto(List.of(photo));
+
+        TelegramUpdate update = new TelegramUpdate();
+        update.setUpdateId(updateId);
+        update.setMessage(message);
+        return update;
+    }
+}
@@ -0,0 +1,120 @@
+package com.artivisi.accountingfinance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramUpdateWorker Tests")
+class TelegramUpdateWorkerTest {
+
+    private static final int WORKERS = 2;
+
+    @Mock
+    private TelegramUpdateQueueService queueService;
+
+    @Mock
+    private TelegramBotService telegramBotService;
+
+    private TelegramUpdateWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new TelegramUpdateWorker(queueService, telegramBotService, WORKERS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should process every queued job with at most the configured workers at once")
+    void shouldBoundConcurrency() throws Exception {
+        Deque<UUID> queued = new ArrayDeque<>();
+        for (int i = 0; i < 7; i++) {
+            queued.add(UUID.randomUUID());
+        }
+        List<Integer> claimSizes = new ArrayList<>();
+        when(queueService.claim(anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(0);
+            claimSizes.add(limit);
+            List<UUID> ids = new ArrayList<>();
+            while (ids.size() < limit && !queued.isEmpty()) {
+                ids.add(queued.poll());
+            }
+            return ids;
+        });
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(7);
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            done.countDown();
+            return null;
+        }).when(queueService).process(any());
+
+        int started = worker.drain();
+
+        assertThat(started).isEqualTo(7);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(WORKERS);
+        assertThat(claimSizes).allSatisfy(size -> assertThat(size).isBetween(1, WORKERS));
+    }
+
+    @Test
+    @DisplayName("Should keep draining after a job fails unexpectedly")
+    void shouldSurviveJobFailure() throws Exception {
+        UUID failing = UUID.randomUUID();
+        UUID next = UUID.randomUUID();
+        when(queueService.claim(anyInt()))
+                .thenReturn(List.of(failing))
+                .thenReturn(List.of(next))
+                .thenReturn(List.of());
+        CountDownLatch processedNext = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (failing.equals(invocation.getArgument(0))) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            processedNext.countDown();
+            return null;
+        }).when(queueService).process(any());
+
+        assertThat(worker.drain()).isEqualTo(2);
+        assertThat(processedNext.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not poll the queue while the bot is disabled")
+    void shouldNotPollWhenDisabled() {
+        when(telegramBotService.isEnabled()).thenReturn(false);
+
+        worker.poll();
+
+        verify(queueService, never()).claim(anyInt());
+    }
+}
@@ -2,11 +2,14 @@ package com.artivisi.accountingfinance.service;
 
 import com.artivisi.accountingfinance.TestcontainersConfiguration;
 import com.artivisi.accountingfinance.dto.FormulaContext;
+import com.artivisi.accountingfinance.dto.TransactionListItem;
 import com.artivisi.accountingfinance.entity.ChartOfAccount;
 import com.artivisi.accountingfinance.entity.DraftTransaction;
 import com.artivisi.accountingfinance.entity.JournalEntry;
 import com.artivisi.accountingfinance.entity.JournalTemplate;
 import com.artivisi.accountingfinance.entity.Project;
+import com.artivisi.accountingfinance.entity.Tag;
+import com.artivisi.accountingfinance.entity.TagType;
 import com.artivisi.accountingfinance.entity.Transaction;
 import com.artivisi.accountingfinance.enums.TransactionStatus;
 import com.artivisi.accountingfinance.enums.VoidReason;
@@ -28,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +60,12 @@ class TransactionServiceTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TagTypeService tagTypeService;
+
+    @Autowired
+    private TagService tagService;
+
     @Autowired
     private ChartOfAccountRepository chartOfAccountRepository;
 
@@ -899,4 +909,161 @@ class TransactionServiceTest {
             assertThat(saved.getNotes()).isEqualTo("Updated via saveDirectly");
         }
     }
+
+    @Nested
+    @DisplayName("List Items")
+    class ListItemTests {
+
+        private static final UUID TAX_DETAIL_TRANSACTION_ID = UUID.fromString("c0000000-0000-0000-0000-000000000001");
+
+        @Test
+        @DisplayName("findListItems should read template, category and flags in the row")
+        void findListItemsShouldCarryTemplateAndFlags() {
+            Transaction tagged = transactionService.findById(DRAFT_TRANSACTION_ID);
+            Tag tag = createTag("LST-01");
+            transactionService.assignTags(tagged, List.of(tag.getId()));
+            transactionRepository.flush();
+
+            Page<TransactionListItem> page = transactionService.findListItems(
+                    null, null, null, null, null, null, PageRequest.of(0, 500));
+
+            Transaction draft = transactionService.findById(DRAFT_TRANSACTION_ID);
+            assertThat(page.getContent())
+                    .filteredOn(item -> item.id().equals(DRAFT_TRANSACTION_ID))
+                    .singleElement()
+                    .satisfies(item -> {
+                        assertThat(item.templateName()).isEqualTo(draft.getJournalTemplate().getTemplateName());
+                        assertThat(item.category()).isEqualTo(draft.getJournalTemplate().getCategory());
+                        assertThat(item.amount()).isEqualByComparingTo(draft.getAmount());
+                        assertThat(item.status()).isEqualTo(TransactionStatus.DRAFT);
+                        assertThat(item.tagged()).isTrue();
+                        assertThat(item.hasTaxDetail()).isFalse();
+                    });
+            assertThat(page.getContent())
+                    .filteredOn(item -> item.id().equals(TAX_DETAIL_TRANSACTION_ID))
+                    .singleElement()
+                    .satisfies(item -> assertThat(item.hasTaxDetail()).isTrue());
+        }
+
+        @Test
+        @DisplayName("findListItems should filter by tag without repeating rows")
+        void findListItemsShouldFilterByTag() {
+            Tag first = createTag("LST-02");
+            Tag second = createTag("LST-03");
+            transactionService.assignTags(transactionService.findById(DRAFT_TRANSACTION_ID),
+                    List.of(first.getId(), second.getId()));
+            transactionRepository.flush();
+
+            Page<TransactionListItem> page = transactionService.findListItems(
+                    null, null, null, first.getId(), null, null, PageRequest.of(0, 20));
+
+            assertThat(page.getTotalElements()).isEqualTo(1);
+            assertThat(page.getContent()).extracting(TransactionListItem::id).containsExactly(DRAFT_TRANSACTION_ID);
+        }
+
+        @Test
+        @DisplayName("searchRankedListItems should keep the ranked order")
+        void searchRankedListItemsShouldKeepRank() {
+            Transaction partial = saveDraft("Biaya Vyrmelta tambahan", LocalDate.now());
+            Transaction exact = saveDraft("Sewa gudang Vyrmelt", LocalDate.now().minusDays(30));
+
+            TransactionService.ListItemSearchPage result = transactionService.searchRankedListItems("Vyrmelt", null, 10);
+
+            assertThat(result.items()).extracting(TransactionListItem::id)
+                    .containsExactly(exact.getId(), partial.getId());
+            assertThat(result.hasMore()).isFalse();
+        }
+
+        private Tag createTag(String code) {
+            TagType type = tagTypeService.findAllActive().stream().findFirst().orElseGet(() -> {
+                TagType created = new TagType();
+                created.setCode("LST");
+                created.setName("Daftar");
+                return tagTypeService.create(created);
+            });
+            Tag tag = new Tag();
+            tag.setTagType(type);
+            tag.setCode(code);
+            tag.setName("Label " + code);
+            return tagService.create(tag);
+        }
+
+        private Transaction saveDraft(String description, LocalDate date) {
+            Transaction tx = new Transaction();
+            tx.setJournalTemplate(journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID));
+            tx.setTransactionDate(date);
+            tx.setAmount(new BigDecimal("100000"));
+            tx.setDescription(description);
+            tx.setStatus(TransactionStatus.DRAFT);
+            return transactionRepository.saveAndFlush(tx);
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranked Search")
+    class RankedSearchTests {
+
+        @Test
+        @DisplayName("searchRanked should put whole-word matches before partial matches")
+        void searchRankedShouldOrderByRelevance() {
+            Transaction partial = saveSearchable("Biaya Qzvtrexa tambahan", LocalDate.now());
+            Transaction exact = saveSearchable("Sewa gudang Qzvtre", LocalDate.now().minusDays(30));
+
+            TransactionService.SearchPage result = transactionService.searchRanked("Qzvtre", null, 10);
+
+            assertThat(result.items()).extracting(Transaction::getId)
+                    .containsExactly(exact.getId(), partial.getId());
+            assertThat(result.hasMore()).isFalse();
+        }
+
+        @Test
+        @DisplayName("searchRanked should match reference number")
+        void searchRankedShouldMatchReference() {
+            Transaction tx = saveSearchable("Pembayaran vendor", LocalDate.now());
+            tx.setReferenceNumber("INV-QZV-7731");
+            transactionRepository.saveAndFlush(tx);
+
+            TransactionService.SearchPage result = transactionService.searchRanked("qzv-7731", null, 10);
+
+            assertThat(result.items()).extracting(Transaction::getId).containsExactly(tx.getId());
+        }
+
+        @Test
+        @DisplayName("searchRanked should walk all matches by cursor without repeats")
+        void searchRankedShouldPageByCursor() {
+            for (int i = 0; i < 5; i++) {
+                saveSearchable("Langganan Wqxplor bulan " + i, LocalDate.now().minusDays(i));
+            }
+
+            List<UUID> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                TransactionService.SearchPage result = transactionService.searchRanked("Wqxplor", cursor, 2);
+                result.items().forEach(t -> seen.add(t.getId()));
+                cursor = result.nextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertThat(pages).isEqualTo(3);
+            assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        }
+
+        @Test
+        @DisplayName("searchRanked should reject a malformed cursor")
+        void searchRankedShouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> transactionService.searchRanked("test", "not-a-cursor", 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private Transaction saveSearchable(String description, LocalDate date) {
+            Transaction tx = new Transaction();
+            tx.setJournalTemplate(journalTemplateService.findById(INCOME_CONSULTING_TEMPLATE_ID));
+            tx.setTransactionDate(date);
+            tx.setAmount(new BigDecimal("100000"));
+            tx.setDescription(description);
+            tx.setStatus(TransactionStatus.DRAFT);
+            return transactionRepository.saveAndFlush(tx);
+        }
+    }
 }
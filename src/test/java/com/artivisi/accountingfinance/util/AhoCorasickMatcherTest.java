@@ -0,0 +1,62 @@
+package com.artivisi.accountingfinance.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AhoCorasickMatcher.
+ */
+@DisplayName("AhoCorasickMatcher - Multi-pattern Substring Matching")
+class AhoCorasickMatcherTest {
+
+    @Test
+    @DisplayName("Should match patterns anywhere in the text, ignoring case")
+    void shouldMatchCaseInsensitiveSubstring() {
+        AhoCorasickMatcher<String> matcher = AhoCorasickMatcher.<String>builder()
+                .add("GRAB", "grab")
+                .add("gojek", "gojek")
+                .build();
+
+        assertThat(matcher.firstMatch("GrabFood Jakarta")).contains("grab");
+        assertThat(matcher.firstMatch("PT GOJEK INDONESIA")).contains("gojek");
+        assertThat(matcher.firstMatch("Tokopedia")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should prefer the pattern added first when several occur")
+    void shouldPreferFirstAddedPattern() {
+        AhoCorasickMatcher<String> matcher = AhoCorasickMatcher.<String>builder()
+                .add("food", "food")
+                .add("grab", "grab")
+                .build();
+
+        assertThat(matcher.firstMatch("grabfood")).contains("food");
+    }
+
+    @Test
+    @DisplayName("Should find patterns that are suffixes of a longer partial match")
+    void shouldFollowFailureLinks() {
+        AhoCorasickMatcher<String> matcher = AhoCorasickMatcher.<String>builder()
+                .add("indomaret point", "point")
+                .add("maret", "maret")
+                .build();
+
+        assertThat(matcher.firstMatch("alfa indomaret")).contains("maret");
+        assertThat(matcher.firstMatch("indomaret point kemang")).contains("point");
+    }
+
+    @Test
+    @DisplayName("Should ignore blank patterns and null text")
+    void shouldIgnoreBlankPatternsAndNullText() {
+        AhoCorasickMatcher<String> matcher = AhoCorasickMatcher.<String>builder()
+                .add("", "blank")
+                .add(null, "null")
+                .build();
+
+        assertThat(matcher.size()).isZero();
+        assertThat(matcher.firstMatch("anything")).isEmpty();
+        assertThat(matcher.firstMatch(null)).isEmpty();
+    }
+}